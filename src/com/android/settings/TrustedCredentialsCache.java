@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.util.ArrayMap;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Map;
+
+/**
+ * Persistent cache of the subject strings shown for system CA certificates, keyed by alias.
+ *
+ * <p>System certificates only change with the system image or a conscrypt update, so the cache is
+ * stamped with the build fingerprint and the version of the conscrypt APEX and is dropped as soon
+ * as that stamp changes.
+ */
+class TrustedCredentialsCache {
+
+    @VisibleForTesting
+    static final String PREF_NAME = "trusted_credentials_cache";
+    @VisibleForTesting
+    static final String KEY_STAMP = "stamp";
+    @VisibleForTesting
+    static final String KEY_PREFIX_PRIMARY = "primary:";
+    @VisibleForTesting
+    static final String KEY_PREFIX_SECONDARY = "secondary:";
+
+    // Bumped when the stored format changes, so that older caches are dropped.
+    private static final String FORMAT_VERSION = "2";
+    private static final String CONSCRYPT_APEX = "com.android.conscrypt";
+
+    private final SharedPreferences mPrefs;
+    private final String mStamp;
+    private final Map<String, String[]> mSubjects = new ArrayMap<>();
+    private final Map<String, String[]> mPendingSubjects = new ArrayMap<>();
+
+    TrustedCredentialsCache(Context context) {
+        this(context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE),
+                computeStamp(context));
+    }
+
+    @VisibleForTesting
+    TrustedCredentialsCache(SharedPreferences prefs, String stamp) {
+        mPrefs = prefs;
+        mStamp = stamp;
+        if (!mStamp.equals(mPrefs.getString(KEY_STAMP, null))) {
+            mPrefs.edit().clear().putString(KEY_STAMP, mStamp).apply();
+            return;
+        }
+        final Map<String, ?> entries = mPrefs.getAll();
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            if (!entry.getKey().startsWith(KEY_PREFIX_PRIMARY)
+                    || !(entry.getValue() instanceof String)) {
+                continue;
+            }
+            final String alias = entry.getKey().substring(KEY_PREFIX_PRIMARY.length());
+            final Object secondary = entries.get(KEY_PREFIX_SECONDARY + alias);
+            if (secondary instanceof String) {
+                mSubjects.put(alias, new String[] {(String) entry.getValue(), (String) secondary});
+            }
+        }
+    }
+
+    /**
+     * Returns the cached {primary, secondary} subject of {@code alias}, or null if unknown.
+     */
+    synchronized String[] getSubject(String alias) {
+        return mSubjects.get(alias);
+    }
+
+    /** Records the subject of {@code alias}; call {@link #save()} to persist it. */
+    synchronized void putSubject(String alias, String primary, String secondary) {
+        final String[] subject = {primary, secondary};
+        mSubjects.put(alias, subject);
+        mPendingSubjects.put(alias, subject);
+    }
+
+    /** Persists every subject recorded since the last call. */
+    synchronized void save() {
+        if (mPendingSubjects.isEmpty()) {
+            return;
+        }
+        final SharedPreferences.Editor editor = mPrefs.edit();
+        for (Map.Entry<String, String[]> entry : mPendingSubjects.entrySet()) {
+            editor.putString(KEY_PREFIX_PRIMARY + entry.getKey(), entry.getValue()[0]);
+            editor.putString(KEY_PREFIX_SECONDARY + entry.getKey(), entry.getValue()[1]);
+        }
+        editor.apply();
+        mPendingSubjects.clear();
+    }
+
+    private static String computeStamp(Context context) {
+        long conscryptVersion = 0;
+        try {
+            conscryptVersion = context.getPackageManager()
+                    .getPackageInfo(CONSCRYPT_APEX, PackageManager.MATCH_APEX)
+                    .getLongVersionCode();
+        } catch (PackageManager.NameNotFoundException e) {
+            // Without the APEX, the system CA certificates only change with the system image.
+        }
+        return FORMAT_VERSION + "/" + Build.FINGERPRINT + "/" + conscryptVersion;
+    }
+}
@@ -62,12 +62,14 @@ import android.widget.Switch;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 
 import com.android.internal.annotations.GuardedBy;
 import com.android.internal.app.UnlaunchableAppActivity;
 import com.android.internal.widget.LockPatternUtils;
 import com.android.settings.TrustedCredentialsSettings.Tab;
 import com.android.settingslib.core.lifecycle.ObservableFragment;
+import com.android.settingslib.utils.ThreadUtils;
 
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
@@ -75,6 +77,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.IntConsumer;
 
 /**
@@ -96,6 +106,11 @@ public class TrustedCredentialsFragment extends ObservableFragment
     private static final String SAVED_CONFIRMED_CREDENTIAL_USERS = "ConfirmedCredentialUsers";
     private static final String SAVED_CONFIRMING_CREDENTIAL_USER = "ConfirmingCredentialUser";
     private static final int REQUEST_CONFIRM_CREDENTIALS = 1;
+    private static final int MAX_PARSE_THREADS = 4;
+    private static final long PARSE_THREAD_KEEP_ALIVE_SECONDS = 10L;
+
+    // Shared by every load of every profile; idle threads time out between loads.
+    private static final ExecutorService sParseExecutor = createParseExecutor();
 
     private GroupAdapter mGroupAdapter;
     private AliasOperation mAliasOperation;
@@ -652,6 +667,7 @@ public class TrustedCredentialsFragment extends ObservableFragment
             private ProgressBar mProgressBar;
             private View mContentView;
             private Context mContext;
+            private TrustedCredentialsCache mCache;
 
             AliasLoader() {
                 mContext = getActivity();
@@ -679,6 +695,11 @@ public class TrustedCredentialsFragment extends ObservableFragment
             protected SparseArray<List<CertHolder>> doInBackground(Void... params) {
                 SparseArray<List<CertHolder>> certHoldersByProfile =
                         new SparseArray<>();
+                // User certificates can be replaced under the same alias, so only the system
+                // ones are cached.
+                if (mTab == Tab.SYSTEM) {
+                    mCache = new TrustedCredentialsCache(mContext);
+                }
                 try {
                     synchronized (mKeyChainConnectionByProfileId) {
                         List<UserHandle> profiles = mUserManager.getUserProfiles();
@@ -720,17 +741,15 @@ public class TrustedCredentialsFragment extends ObservableFragment
                                 continue;
                             }
                             IKeyChainService service = keyChainConnection.getService();
-                            List<CertHolder> certHolders = new ArrayList<>(max);
-                            for (String alias : aliases) {
-                                byte[] encodedCertificate = service.getEncodedCaCertificate(alias,
-                                        true);
-                                X509Certificate cert = KeyChain.toCertificate(encodedCertificate);
-                                certHolders.add(new CertHolder(service, mAdapter,
-                                        mTab, alias, cert, profileId));
-                                publishProgress(++progress, max);
-                            }
+                            List<CertHolder> certHolders = loadCertHolders(service, aliases,
+                                    profileId, progress, max);
+                            progress += aliases.size();
                             Collections.sort(certHolders);
                             certHoldersByProfile.put(profileId, certHolders);
+                            showProfileEarly(profileId, certHolders);
+                        }
+                        if (mCache != null) {
+                            mCache.save();
                         }
                         return certHoldersByProfile;
                     }
@@ -743,6 +762,57 @@ public class TrustedCredentialsFragment extends ObservableFragment
                 }
             }
 
+            /**
+             * Builds the {@link CertHolder}s of one profile. Certificates are fetched and parsed
+             * on a small pool of threads, and system certificates whose subject is already in
+             * {@link TrustedCredentialsCache} are not fetched at all.
+             */
+            private List<CertHolder> loadCertHolders(IKeyChainService service,
+                    List<String> aliases, int profileId, int progress, int max)
+                    throws RemoteException, InterruptedException {
+                final AtomicInteger loaded = new AtomicInteger(progress);
+                return loadInParallel(sParseExecutor, aliases, alias -> {
+                    CertHolder certHolder = loadCertHolder(service, alias, profileId);
+                    publishProgress(loaded.incrementAndGet(), max);
+                    return certHolder;
+                }, this::isCancelled);
+            }
+
+            private CertHolder loadCertHolder(IKeyChainService service, String alias,
+                    int profileId) throws RemoteException {
+                final String[] subject = mCache != null ? mCache.getSubject(alias) : null;
+                if (subject != null) {
+                    return new CertHolder(service, mAdapter, mTab, alias, subject[0],
+                            subject[1], profileId);
+                }
+                byte[] encodedCertificate = service.getEncodedCaCertificate(alias, true);
+                X509Certificate cert = KeyChain.toCertificate(encodedCertificate);
+                CertHolder certHolder = new CertHolder(service, mAdapter, mTab, alias, cert,
+                        profileId);
+                if (mCache != null) {
+                    mCache.putSubject(alias, certHolder.mSubjectPrimary,
+                            certHolder.mSubjectSecondary);
+                }
+                return certHolder;
+            }
+
+            /**
+             * Shows a profile's certificates as soon as they are ready, instead of waiting for
+             * every profile to finish loading.
+             */
+            private void showProfileEarly(int profileId, List<CertHolder> certHolders) {
+                final List<CertHolder> copy = new ArrayList<>(certHolders);
+                ThreadUtils.postOnMainThread(() -> {
+                    if (isCancelled() || getStatus() == Status.FINISHED) {
+                        return;
+                    }
+                    mCertHoldersByUserId.put(profileId, copy);
+                    mAdapter.notifyDataSetChanged();
+                    mProgressBar.setVisibility(View.GONE);
+                    mContentView.setVisibility(View.VISIBLE);
+                });
+            }
+
             @Override
             protected void onProgressUpdate(Integer... progressAndMax) {
                 int progress = progressAndMax[0];
@@ -814,13 +884,29 @@ public class TrustedCredentialsFragment extends ObservableFragment
         private final GroupAdapter mAdapter;
         private final Tab mTab;
         private final String mAlias;
-        private final X509Certificate mX509Cert;
+        private X509Certificate mX509Cert;
 
-        private final SslCertificate mSslCert;
         private final String mSubjectPrimary;
         private final String mSubjectSecondary;
         private boolean mDeleted;
 
+        private CertHolder(IKeyChainService service,
+                GroupAdapter adapter,
+                Tab tab,
+                String alias,
+                String subjectPrimary,
+                String subjectSecondary,
+                int profileId) {
+            mProfileId = profileId;
+            mService = service;
+            mAdapter = adapter;
+            mTab = tab;
+            mAlias = alias;
+            mSubjectPrimary = subjectPrimary;
+            mSubjectSecondary = subjectSecondary;
+            mDeleted = isDeleted(tab, service, alias);
+        }
+
         private CertHolder(IKeyChainService service,
                 GroupAdapter adapter,
                 Tab tab,
@@ -834,11 +920,11 @@ public class TrustedCredentialsFragment extends ObservableFragment
             mAlias = alias;
             mX509Cert = x509Cert;
 
-            mSslCert = new SslCertificate(x509Cert);
+            SslCertificate sslCert = new SslCertificate(x509Cert);
 
-            String cn = mSslCert.getIssuedTo().getCName();
-            String o = mSslCert.getIssuedTo().getOName();
-            String ou = mSslCert.getIssuedTo().getUName();
+            String cn = sslCert.getIssuedTo().getCName();
+            String o = sslCert.getIssuedTo().getOName();
+            String ou = sslCert.getIssuedTo().getUName();
             // if we have a O, use O as primary subject, secondary prefer CN over OU
             // if we don't have an O, use CN as primary, empty secondary
             // if we don't have O or CN, use DName as primary, empty secondary
@@ -855,17 +941,33 @@ public class TrustedCredentialsFragment extends ObservableFragment
                     mSubjectPrimary = cn;
                     mSubjectSecondary = "";
                 } else {
-                    mSubjectPrimary = mSslCert.getIssuedTo().getDName();
+                    mSubjectPrimary = sslCert.getIssuedTo().getDName();
                     mSubjectSecondary = "";
                 }
             }
+            mDeleted = isDeleted(tab, service, alias);
+        }
+
+        private static boolean isDeleted(Tab tab, IKeyChainService service, String alias) {
             try {
-                mDeleted = mTab.deleted(mService, mAlias);
+                return tab.deleted(service, alias);
             } catch (RemoteException e) {
-                Log.e(TAG, "Remote exception while checking if alias " + mAlias + " is deleted.",
+                Log.e(TAG, "Remote exception while checking if alias " + alias + " is deleted.",
                         e);
-                mDeleted = false;
+                return false;
+            }
+        }
+
+        /**
+         * Returns the certificate, fetching it from KeyChain if this holder was built from
+         * cached subject data.
+         */
+        private synchronized X509Certificate getX509Cert() throws RemoteException {
+            if (mX509Cert == null) {
+                mX509Cert = KeyChain.toCertificate(
+                        mService.getEncodedCaCertificate(mAlias, true));
             }
+            return mX509Cert;
         }
 
         @Override
@@ -991,7 +1093,7 @@ public class TrustedCredentialsFragment extends ObservableFragment
                             mCertHolder.mProfileId);
                     IKeyChainService service = keyChainConnection.getService();
                     if (mCertHolder.mDeleted) {
-                        byte[] bytes = mCertHolder.mX509Cert.getEncoded();
+                        byte[] bytes = mCertHolder.getX509Cert().getEncoded();
                         service.installCaCertificate(bytes);
                         return true;
                     } else {
@@ -1021,4 +1123,53 @@ public class TrustedCredentialsFragment extends ObservableFragment
             mAliasOperation = null;
         }
     }
+
+    /** Loads the value of a single alias, possibly with a binder call. */
+    @VisibleForTesting
+    interface AliasValueLoader<T> {
+        T load(String alias) throws RemoteException;
+    }
+
+    /**
+     * Loads the values of {@code aliases} on {@code executor} and returns them in the order of
+     * {@code aliases}. Pending loads are cancelled if a load fails or {@code isCancelled} becomes
+     * true, in which case an {@link InterruptedException} is thrown.
+     */
+    @VisibleForTesting
+    static <T> List<T> loadInParallel(ExecutorService executor, List<String> aliases,
+            AliasValueLoader<T> loader, BooleanSupplier isCancelled)
+            throws RemoteException, InterruptedException {
+        final List<Future<T>> futures = new ArrayList<>(aliases.size());
+        try {
+            for (String alias : aliases) {
+                futures.add(executor.submit(() -> loader.load(alias)));
+            }
+            final List<T> values = new ArrayList<>(aliases.size());
+            for (Future<T> future : futures) {
+                if (isCancelled.getAsBoolean()) {
+                    throw new InterruptedException("Alias loading cancelled");
+                }
+                values.add(future.get());
+            }
+            return values;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RemoteException) {
+                throw (RemoteException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(/* mayInterruptIfRunning= */ true);
+            }
+        }
+    }
+
+    private static ExecutorService createParseExecutor() {
+        final int threads = Math.max(1, Math.min(MAX_PARSE_THREADS,
+                Runtime.getRuntime().availableProcessors()));
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                PARSE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
@@ -18,10 +18,14 @@ package com.android.settings.accessibility;
 
 import android.content.Context;
 
+import androidx.annotation.Nullable;
+
 import com.android.settings.bluetooth.AvailableMediaBluetoothDeviceUpdater;
 import com.android.settings.connecteddevice.DevicePreferenceCallback;
 import com.android.settingslib.bluetooth.CachedBluetoothDevice;
 
+import java.util.Set;
+
 /**
  * Maintains and updates connected hearing devices, including ASHA and HAP profile.
  */
@@ -36,9 +40,15 @@ public class AvailableHearingDeviceUpdater extends AvailableMediaBluetoothDevice
 
     @Override
     public boolean isFilterMatched(CachedBluetoothDevice cachedDevice) {
+        return isFilterMatched(cachedDevice, /* cachedDevices= */ null);
+    }
+
+    @Override
+    protected boolean isFilterMatched(CachedBluetoothDevice cachedDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
         return cachedDevice.isHearingAidDevice()
                 && isDeviceConnected(cachedDevice)
-                && isDeviceInCachedDevicesList(cachedDevice);
+                && isDeviceInCachedDevicesList(cachedDevice, cachedDevices);
     }
 
     @Override
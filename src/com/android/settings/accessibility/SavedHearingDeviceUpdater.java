@@ -19,10 +19,14 @@ package com.android.settings.accessibility;
 import android.bluetooth.BluetoothDevice;
 import android.content.Context;
 
+import androidx.annotation.Nullable;
+
 import com.android.settings.bluetooth.SavedBluetoothDeviceUpdater;
 import com.android.settings.connecteddevice.DevicePreferenceCallback;
 import com.android.settingslib.bluetooth.CachedBluetoothDevice;
 
+import java.util.Set;
+
 /**
  * Maintains and updates saved (bonded but not connected) hearing devices, including ASHA and HAP
  * profile.
@@ -38,12 +42,18 @@ public class SavedHearingDeviceUpdater extends SavedBluetoothDeviceUpdater {
 
     @Override
     public boolean isFilterMatched(CachedBluetoothDevice cachedDevice) {
+        return isFilterMatched(cachedDevice, /* cachedDevices= */ null);
+    }
+
+    @Override
+    protected boolean isFilterMatched(CachedBluetoothDevice cachedDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
         final BluetoothDevice device = cachedDevice.getDevice();
         final boolean isSavedHearingAidDevice = cachedDevice.isHearingAidDevice()
                 && device.getBondState() == BluetoothDevice.BOND_BONDED
                 && !device.isConnected();
 
-        return isSavedHearingAidDevice && isDeviceInCachedDevicesList(cachedDevice);
+        return isSavedHearingAidDevice && isDeviceInCachedDevicesList(cachedDevice, cachedDevices);
     }
 
     @Override
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LongSparseArray;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.android.internal.app.procstats.ProcessStats;
+import com.android.settingslib.utils.ThreadUtils;
+
+/**
+ * Process wide cache of parsed {@link ProcessStats}, keyed by the duration window they were
+ * requested for. Reading and parsing the stats parcel is the expensive part of showing the
+ * memory pages, so switching between the duration options reuses a recent parse if there is one.
+ */
+public class ProcStatsCache {
+
+    private static final String TAG = "ProcStatsCache";
+
+    /** How long a parsed window stays valid before it is fetched again. */
+    @VisibleForTesting
+    static final long MAX_AGE_MS = 5 * 60 * 1000;
+
+    /** Fetches and parses the stats for one duration window. */
+    interface Loader {
+        ProcessStats load(long duration);
+    }
+
+    private static ProcStatsCache sInstance;
+
+    private final LongSparseArray<Entry> mEntries = new LongSparseArray<>();
+    private final LongSparseArray<Object> mLoadLocks = new LongSparseArray<>();
+
+    public static synchronized ProcStatsCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new ProcStatsCache();
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    ProcStatsCache() {
+    }
+
+    /**
+     * Returns the cached stats for {@code duration}, loading them with {@code loader} if they are
+     * missing or stale. Concurrent requests for the same window share a single load.
+     */
+    ProcessStats get(long duration, Loader loader) {
+        ProcessStats stats = peek(duration);
+        if (stats != null) {
+            return stats;
+        }
+        synchronized (getLoadLock(duration)) {
+            // Another thread may have finished loading while we waited for the lock.
+            stats = peek(duration);
+            if (stats != null) {
+                return stats;
+            }
+            return loadLocked(duration, loader);
+        }
+    }
+
+    /**
+     * Loads fresh stats for {@code duration} with {@code loader} even if a recent parse is cached,
+     * and caches them for the later requests.
+     */
+    ProcessStats reload(long duration, Loader loader) {
+        synchronized (getLoadLock(duration)) {
+            return loadLocked(duration, loader);
+        }
+    }
+
+    private ProcessStats loadLocked(long duration, Loader loader) {
+        final ProcessStats stats = loader.load(duration);
+        if (stats != null && stats.mReadError == null) {
+            put(duration, stats);
+        }
+        return stats;
+    }
+
+    /** Returns the cached stats for {@code duration}, or null if missing or stale. */
+    synchronized ProcessStats peek(long duration) {
+        final Entry entry = mEntries.get(duration);
+        if (entry == null) {
+            return null;
+        }
+        if (SystemClock.elapsedRealtime() - entry.mLoadTime > MAX_AGE_MS) {
+            mEntries.remove(duration);
+            return null;
+        }
+        return entry.mStats;
+    }
+
+    synchronized void put(long duration, ProcessStats stats) {
+        mEntries.put(duration, new Entry(stats, SystemClock.elapsedRealtime()));
+    }
+
+    /**
+     * Loads every window in {@code durations} that is not cached yet on a background thread, so
+     * that a later switch of the duration selector does not have to wait for it.
+     */
+    void prewarm(long[] durations, Loader loader) {
+        ThreadUtils.postOnBackgroundThread(() -> {
+            for (long duration : durations) {
+                if (peek(duration) == null) {
+                    if (ProcessStatsUi.DEBUG) Log.d(TAG, "Prewarming duration " + duration);
+                    get(duration, loader);
+                }
+            }
+        });
+    }
+
+    private synchronized Object getLoadLock(long duration) {
+        Object lock = mLoadLocks.get(duration);
+        if (lock == null) {
+            lock = new Object();
+            mLoadLocks.put(duration, lock);
+        }
+        return lock;
+    }
+
+    private static class Entry {
+        final ProcessStats mStats;
+        final long mLoadTime;
+
+        Entry(ProcessStats stats, long loadTime) {
+            mStats = stats;
+            mLoadTime = loadTime;
+        }
+    }
+}
@@ -44,6 +44,7 @@ import com.android.settings.Utils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
@@ -73,6 +74,9 @@ public class ProcStatsData {
 
     private ArrayList<ProcStatsPackageEntry> pkgEntries;
 
+    // Results of refreshStats() per duration window, reused while the stats and states match.
+    private final LongSparseArray<ComputedStats> mComputed = new LongSparseArray<>();
+
     public ProcStatsData(Context context, boolean useXfer) {
         mContext = context;
         mPm = context.getPackageManager();
@@ -125,7 +129,10 @@ public class ProcStatsData {
     public void setDuration(long duration) {
         if (duration != mDuration) {
             mDuration = duration;
-            refreshStats(true);
+            // Switching the window may reuse a recent parse, e.g. one loaded by
+            // prewarmDurations().
+            load(/* forceLoad= */ false);
+            refreshStats(false);
         }
     }
 
@@ -137,9 +144,26 @@ public class ProcStatsData {
         return pkgEntries;
     }
 
+    /**
+     * Loads the stats of every window in {@code durations} in the background, so that changing
+     * the duration later only has to pick up the already parsed stats.
+     */
+    public void prewarmDurations(long[] durations) {
+        ProcStatsCache.getInstance().prewarm(durations, this::readStats);
+    }
+
     public void refreshStats(boolean forceLoad) {
         if (mStats == null || forceLoad) {
-            load();
+            load(forceLoad);
+        }
+
+        final ComputedStats computed = mComputed.get(mDuration);
+        if (computed != null && computed.matches(mStats, mMemStates, mStates)) {
+            if (DEBUG) Log.d(TAG, "Reusing computed entries for duration " + mDuration);
+            memTotalTime = computed.mMemTotalTime;
+            mMemInfo = computed.mMemInfo;
+            pkgEntries = computed.mEntries;
+            return;
         }
 
         pkgEntries = new ArrayList<>();
@@ -168,6 +192,9 @@ public class ProcStatsData {
         ProcStatsPackageEntry osPkg = createOsEntry(bgTotals, runTotals, totalMem,
                 mMemInfo.baseCacheRam);
         pkgEntries.add(osPkg);
+
+        mComputed.put(mDuration, new ComputedStats(mStats, mMemStates, mStates, memTotalTime,
+                mMemInfo, pkgEntries));
     }
 
     private void createPkgMap(ArrayList<ProcStatsEntry> procEntries, ProcessDataCollection bgTotals,
@@ -341,22 +368,58 @@ public class ProcStatsData {
         return procEntries;
     }
 
-    private void load() {
+    private void load(boolean forceLoad) {
+        final ProcStatsCache cache = ProcStatsCache.getInstance();
+        final ProcessStats stats = forceLoad
+                ? cache.reload(mDuration, this::readStats)
+                : cache.get(mDuration, this::readStats);
+        if (stats != null) {
+            mStats = stats;
+        }
+    }
+
+    private ProcessStats readStats(long duration) {
         try {
-            ParcelFileDescriptor pfd = mProcessStats.getStatsOverTime(mDuration);
-            mStats = new ProcessStats(false);
+            ParcelFileDescriptor pfd = mProcessStats.getStatsOverTime(duration);
+            ProcessStats stats = new ProcessStats(false);
             InputStream is = new ParcelFileDescriptor.AutoCloseInputStream(pfd);
-            mStats.read(is);
+            stats.read(is);
             try {
                 is.close();
             } catch (IOException e) {
             }
-            if (mStats.mReadError != null) {
-                Log.w(TAG, "Failure reading process stats: " + mStats.mReadError);
+            if (stats.mReadError != null) {
+                Log.w(TAG, "Failure reading process stats: " + stats.mReadError);
             }
+            return stats;
         } catch (RemoteException e) {
             Log.e(TAG, "RemoteException:", e);
         }
+        return null;
+    }
+
+    private static class ComputedStats {
+        final ProcessStats mStats;
+        final int[] mMemStates;
+        final int[] mStates;
+        final long mMemTotalTime;
+        final MemInfo mMemInfo;
+        final ArrayList<ProcStatsPackageEntry> mEntries;
+
+        ComputedStats(ProcessStats stats, int[] memStates, int[] states, long memTotalTime,
+                MemInfo memInfo, ArrayList<ProcStatsPackageEntry> entries) {
+            mStats = stats;
+            mMemStates = memStates;
+            mStates = states;
+            mMemTotalTime = memTotalTime;
+            mMemInfo = memInfo;
+            mEntries = entries;
+        }
+
+        boolean matches(ProcessStats stats, int[] memStates, int[] states) {
+            return mStats == stats && Arrays.equals(mMemStates, memStates)
+                    && Arrays.equals(mStates, states);
+        }
     }
 
     public static class MemInfo {
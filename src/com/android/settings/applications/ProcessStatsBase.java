@@ -76,6 +76,8 @@ public abstract class ProcessStatsBase extends SettingsPreferenceFragment
                 : args != null ? args.getInt(ARG_DURATION_INDEX) : 0;
         mStatsManager.setDuration(icicle != null
                 ? icicle.getLong(DURATION, sDurations[0]) : sDurations[0]);
+        // Parse the other windows up front so the duration spinner switches instantly.
+        mStatsManager.prewarmDurations(sDurations);
     }
 
     @Override
@@ -19,9 +19,14 @@ import android.bluetooth.BluetoothAdapter;
 import android.bluetooth.BluetoothDevice;
 import android.content.Context;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
 import androidx.preference.Preference;
 
 import com.android.settings.R;
@@ -38,8 +43,11 @@ import com.android.settingslib.core.instrumentation.MetricsFeatureProvider;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -65,6 +73,8 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
     private static final boolean DBG = Log.isLoggable(TAG, Log.DEBUG);
 
     private GroupUtils mGroupUtils;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mForceUpdateRunnable = this::forceUpdate;
 
     @VisibleForTesting
     public final GearPreference.OnGearClickListener mDeviceProfilesListener = pref -> {
@@ -114,6 +124,7 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
         mLocalManager.setForegroundActivity(null);
         mLocalManager.getEventManager().unregisterCallback(this);
         mLocalManager.getProfileManager().removeServiceListener(this);
+        mHandler.removeCallbacks(mForceUpdateRunnable);
     }
 
     /**
@@ -125,16 +136,110 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
             return;
         }
         if (BluetoothAdapter.getDefaultAdapter().isEnabled()) {
-            final Collection<CachedBluetoothDevice> cachedDevices =
-                    mLocalManager.getCachedDeviceManager().getCachedDevicesCopy();
-            for (CachedBluetoothDevice cachedBluetoothDevice : cachedDevices) {
-                update(cachedBluetoothDevice);
-            }
+            updateAll(mLocalManager.getCachedDeviceManager().getCachedDevicesCopy());
         } else {
             removeAllDevicesFromPreference();
         }
     }
 
+    /**
+     * Returns the devices that pass the filter without touching the preferences, so that the
+     * filters can be evaluated off the main thread when the list is first shown. The devices
+     * are shown with {@link #addMatchedDevices(List)}.
+     *
+     * <p>The filters only read the {@link CachedBluetoothDevice} getters and the copy of the
+     * cached device list, and never write any state, so a concurrent update on the main thread
+     * can at worst make a result stale. Such a change is delivered to {@link #update} on the
+     * main thread by the callbacks, which fixes the preference.
+     */
+    @WorkerThread
+    public List<CachedBluetoothDevice> loadMatchedDevices() {
+        final List<CachedBluetoothDevice> matchedDevices = new ArrayList<>();
+        if (mLocalManager == null || !BluetoothAdapter.getDefaultAdapter().isEnabled()) {
+            return matchedDevices;
+        }
+        final Set<CachedBluetoothDevice> cachedDevices = getCachedDevicesSnapshot();
+        for (CachedBluetoothDevice cachedDevice : getDevicesToLoad()) {
+            if (isFilterMatched(cachedDevice, cachedDevices)) {
+                matchedDevices.add(cachedDevice);
+            }
+        }
+        return matchedDevices;
+    }
+
+    /**
+     * Adds the preferences of the devices returned by {@link #loadMatchedDevices()}. The filter
+     * is not run again; only devices that were removed or unbonded meanwhile are skipped, other
+     * changes reach {@link #update} through the callbacks.
+     */
+    @MainThread
+    public void addMatchedDevices(List<CachedBluetoothDevice> matchedDevices) {
+        if (mLocalManager == null || !BluetoothAdapter.getDefaultAdapter().isEnabled()) {
+            return;
+        }
+        final Set<CachedBluetoothDevice> cachedDevices = getCachedDevicesSnapshot();
+        for (CachedBluetoothDevice cachedDevice : matchedDevices) {
+            if (cachedDevices.contains(cachedDevice)
+                    && cachedDevice.getBondState() == BluetoothDevice.BOND_BONDED) {
+                addMatchedPreference(cachedDevice);
+            }
+        }
+    }
+
+    /**
+     * Return the devices {@link #loadMatchedDevices()} runs the filter on, in display order.
+     */
+    protected Collection<CachedBluetoothDevice> getDevicesToLoad() {
+        return mLocalManager.getCachedDeviceManager().getCachedDevicesCopy();
+    }
+
+    /**
+     * Add the {@link Preference} of a device returned by {@link #loadMatchedDevices()}.
+     */
+    protected void addMatchedPreference(CachedBluetoothDevice cachedDevice) {
+        addPreference(cachedDevice);
+    }
+
+    /**
+     * Update the connected devices and the devices currently shown, which are the only ones whose
+     * filter result can change with connection-wide state such as the audio mode.
+     */
+    public void updateConnectedDevices() {
+        if (mLocalManager == null) {
+            Log.e(getLogTag(),
+                    "updateConnectedDevices() Bluetooth is not supported on this device");
+            return;
+        }
+        if (!BluetoothAdapter.getDefaultAdapter().isEnabled()) {
+            return;
+        }
+        final Set<CachedBluetoothDevice> cachedDevices = getCachedDevicesSnapshot();
+        for (CachedBluetoothDevice cachedBluetoothDevice : cachedDevices) {
+            if (mPreferenceMap.containsKey(cachedBluetoothDevice.getDevice())
+                    || isDeviceConnected(cachedBluetoothDevice)) {
+                update(cachedBluetoothDevice, cachedDevices);
+            }
+        }
+    }
+
+    /**
+     * Run {@link #update(CachedBluetoothDevice, Set)} for each of {@code cachedDevices}.
+     */
+    protected void updateAll(Collection<CachedBluetoothDevice> cachedDevices) {
+        final Set<CachedBluetoothDevice> cachedDevicesSnapshot = new LinkedHashSet<>(cachedDevices);
+        for (CachedBluetoothDevice cachedBluetoothDevice : cachedDevicesSnapshot) {
+            update(cachedBluetoothDevice, cachedDevicesSnapshot);
+        }
+    }
+
+    /**
+     * Returns a copy of the cached devices, so that the filters of a full update do not copy the
+     * cached device list again for every device.
+     */
+    private Set<CachedBluetoothDevice> getCachedDevicesSnapshot() {
+        return new LinkedHashSet<>(mLocalManager.getCachedDeviceManager().getCachedDevicesCopy());
+    }
+
     public void removeAllDevicesFromPreference() {
         if (mLocalManager == null) {
             Log.e(getLogTag(),
@@ -206,8 +311,11 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
 
     @Override
     public void onServiceConnected() {
-        // When bluetooth service connected update the UI
-        forceUpdate();
+        // When bluetooth service connected update the UI. Profile services usually connect one
+        // after the other, so update once for all of them.
+        if (!mHandler.hasCallbacks(mForceUpdateRunnable)) {
+            mHandler.post(mForceUpdateRunnable);
+        }
     }
 
     @Override
@@ -228,6 +336,16 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
      */
     public abstract boolean isFilterMatched(CachedBluetoothDevice cachedBluetoothDevice);
 
+    /**
+     * Same as {@link #isFilterMatched(CachedBluetoothDevice)}, with the cached devices already
+     * copied by a full update, or {@code null} if not copied. Filters checking
+     * {@link #isDeviceInCachedDevicesList} override this one to look up {@code cachedDevices}.
+     */
+    protected boolean isFilterMatched(CachedBluetoothDevice cachedBluetoothDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
+        return isFilterMatched(cachedBluetoothDevice);
+    }
+
     /**
      * Return a preference key for logging
      */
@@ -237,7 +355,16 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
      * Update whether to show {@link CachedBluetoothDevice} in the list.
      */
     protected void update(CachedBluetoothDevice cachedBluetoothDevice) {
-        if (isFilterMatched(cachedBluetoothDevice)) {
+        update(cachedBluetoothDevice, /* cachedDevices= */ null);
+    }
+
+    /**
+     * Same as {@link #update(CachedBluetoothDevice)}, with the cached devices already copied by a
+     * full update, or {@code null} if not copied.
+     */
+    protected void update(CachedBluetoothDevice cachedBluetoothDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
+        if (isFilterMatched(cachedBluetoothDevice, cachedDevices)) {
             // Add the preference if it is new one
             addPreference(cachedBluetoothDevice);
         } else {
@@ -344,8 +471,9 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
      */
     public void refreshPreference() {
         List<BluetoothDevice> removeList = new ArrayList<>();
+        final Set<BluetoothDevice> cachedBluetoothDevices = getCachedBluetoothDevices();
         mPreferenceMap.forEach((key, preference) -> {
-            if (isDeviceOfMapInCachedDevicesList(key)) {
+            if (cachedBluetoothDevices.contains(key)) {
                 ((BluetoothDevicePreference) preference).onPreferenceAttributesChanged();
             } else {
                 // If the BluetoothDevice of preference is not in the CachedDevices List, then
@@ -377,15 +505,30 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
         return mLocalManager.getCachedDeviceManager().getCachedDevicesCopy().contains(cachedDevice);
     }
 
-    private boolean isDeviceOfMapInCachedDevicesList(BluetoothDevice inputBluetoothDevice) {
-        Collection<CachedBluetoothDevice> cachedDevices =
+    /**
+     * Same as {@link #isDeviceInCachedDevicesList(CachedBluetoothDevice)}, looking up
+     * {@code cachedDevices} instead when a full update already copied them.
+     */
+    protected boolean isDeviceInCachedDevicesList(CachedBluetoothDevice cachedDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
+        return cachedDevices != null
+                ? cachedDevices.contains(cachedDevice)
+                : isDeviceInCachedDevicesList(cachedDevice);
+    }
+
+    private Set<BluetoothDevice> getCachedBluetoothDevices() {
+        final Set<BluetoothDevice> bluetoothDevices = new HashSet<>();
+        final Collection<CachedBluetoothDevice> cachedDevices =
                 mLocalManager.getCachedDeviceManager().getCachedDevicesCopy();
-        if (cachedDevices == null || cachedDevices.isEmpty()) {
-            return false;
+        if (cachedDevices == null) {
+            return bluetoothDevices;
+        }
+        for (CachedBluetoothDevice cachedBluetoothDevice : cachedDevices) {
+            if (cachedBluetoothDevice.getDevice() != null) {
+                bluetoothDevices.add(cachedBluetoothDevice.getDevice());
+            }
         }
-        return cachedDevices.stream()
-                .anyMatch(cachedBluetoothDevice -> cachedBluetoothDevice.getDevice() != null
-                        && cachedBluetoothDevice.getDevice().equals(inputBluetoothDevice));
+        return bluetoothDevices;
     }
 
     protected String getLogTag() {
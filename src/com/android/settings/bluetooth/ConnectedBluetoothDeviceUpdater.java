@@ -21,11 +21,14 @@ import android.content.Context;
 import android.media.AudioManager;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
 import androidx.preference.Preference;
 
 import com.android.settings.connecteddevice.DevicePreferenceCallback;
 import com.android.settingslib.bluetooth.CachedBluetoothDevice;
 
+import java.util.Set;
+
 /**
  * Controller to maintain connected bluetooth devices
  */
@@ -46,11 +49,17 @@ public class ConnectedBluetoothDeviceUpdater extends BluetoothDeviceUpdater {
 
     @Override
     public void onAudioModeChanged() {
-        forceUpdate();
+        updateConnectedDevices();
     }
 
     @Override
     public boolean isFilterMatched(CachedBluetoothDevice cachedDevice) {
+        return isFilterMatched(cachedDevice, /* cachedDevices= */ null);
+    }
+
+    @Override
+    protected boolean isFilterMatched(CachedBluetoothDevice cachedDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
         final int audioMode = mAudioManager.getMode();
         final int currentAudioProfile;
 
@@ -65,7 +74,8 @@ public class ConnectedBluetoothDeviceUpdater extends BluetoothDeviceUpdater {
         }
 
         boolean isFilterMatched = false;
-        if (isDeviceConnected(cachedDevice) && isDeviceInCachedDevicesList(cachedDevice)) {
+        if (isDeviceConnected(cachedDevice)
+                && isDeviceInCachedDevicesList(cachedDevice, cachedDevices)) {
             if (DBG) {
                 Log.d(TAG, "isFilterMatched() current audio profile : " + currentAudioProfile);
             }
@@ -138,8 +148,9 @@ public class ConnectedBluetoothDeviceUpdater extends BluetoothDeviceUpdater {
     }
 
     @Override
-    protected void update(CachedBluetoothDevice cachedBluetoothDevice) {
-        super.update(cachedBluetoothDevice);
+    protected void update(CachedBluetoothDevice cachedBluetoothDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
+        super.update(cachedBluetoothDevice, cachedDevices);
         Log.d(TAG, "Map : " + mPreferenceMap);
     }
 }
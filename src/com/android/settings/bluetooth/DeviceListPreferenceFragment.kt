@@ -26,6 +26,7 @@ import android.os.Bundle
 import android.os.SystemProperties
 import android.text.BidiFormatter
 import android.util.Log
+import android.view.Choreographer
 import android.view.View
 import androidx.annotation.VisibleForTesting
 import androidx.lifecycle.lifecycleScope
@@ -89,6 +90,17 @@ abstract class DeviceListPreferenceFragment(restrictedKey: String?) :
     @VisibleForTesting
     var lifecycleScope: CoroutineScope? = null
 
+    /** Preferences of found devices waiting for the next frame to be added, main thread only. */
+    private val pendingPreferences =
+        LinkedHashMap<CachedBluetoothDevice, BluetoothDevicePreference>()
+
+    private var flushScheduled = false
+
+    private val flushFrameCallback = Choreographer.FrameCallback {
+        flushScheduled = false
+        flushPendingPreferences()
+    }
+
     private var showDevicesWithoutNames = false
 
     protected fun setFilter(filterType: Int) {
@@ -148,6 +160,7 @@ abstract class DeviceListPreferenceFragment(restrictedKey: String?) :
     }
 
     fun removeAllDevices() {
+        cancelPendingPreferences()
         devicePreferenceMap.clear()
         mDeviceListGroup!!.removeAll()
     }
@@ -224,11 +237,64 @@ abstract class DeviceListPreferenceFragment(restrictedKey: String?) :
             }
         }
         withContext(Dispatchers.Main) {
-            mDeviceListGroup!!.addPreference(preference)
+            enqueuePreference(cachedDevice, preference)
+        }
+    }
+
+    /**
+     * Queues [preference] to be added on the next frame, so that a burst of found devices
+     * changes the preference hierarchy once per frame instead of once per device.
+     */
+    @VisibleForTesting
+    fun enqueuePreference(
+        cachedDevice: CachedBluetoothDevice,
+        preference: BluetoothDevicePreference,
+    ) {
+        // Found again, e.g. after a name or RSSI update: the preference refreshes itself.
+        if (preference.parent != null || pendingPreferences.containsKey(cachedDevice)) return
+        pendingPreferences[cachedDevice] = preference
+        if (!flushScheduled) {
+            flushScheduled = true
+            Choreographer.getInstance().postFrameCallback(flushFrameCallback)
+        }
+    }
+
+    @VisibleForTesting
+    fun flushPendingPreferences() {
+        val group = mDeviceListGroup ?: return
+        if (pendingPreferences.isEmpty()) return
+        val pending =
+            pendingPreferences.entries.sortedWith(compareByDescending(DEVICE_RANK) { it.key })
+        pendingPreferences.clear()
+        for ((cachedDevice, preference) in pending) {
+            if (group.preferenceCount >= MAX_DEVICE_COUNT) {
+                val lowest = findLowestRankedPreference(group)
+                if (lowest == null || DEVICE_RANK.compare(cachedDevice, lowest.cachedDevice) <= 0) {
+                    // Forget it so that it can be added again once there is room.
+                    devicePreferenceMap.remove(cachedDevice, preference)
+                    continue
+                }
+                devicePreferenceMap.remove(lowest.cachedDevice, lowest)
+                group.removePreference(lowest)
+            }
+            group.addPreference(preference)
             initDevicePreference(preference)
         }
     }
 
+    private fun findLowestRankedPreference(group: PreferenceGroup): BluetoothDevicePreference? =
+        (0 until group.preferenceCount)
+            .mapNotNull { group.getPreference(it) as? BluetoothDevicePreference }
+            .minWithOrNull(compareBy(DEVICE_RANK) { it.cachedDevice })
+
+    private fun cancelPendingPreferences() {
+        if (flushScheduled) {
+            Choreographer.getInstance().removeFrameCallback(flushFrameCallback)
+            flushScheduled = false
+        }
+        pendingPreferences.clear()
+    }
+
     protected open fun initDevicePreference(preference: BluetoothDevicePreference?) {
         // Does nothing by default
     }
@@ -243,6 +309,7 @@ abstract class DeviceListPreferenceFragment(restrictedKey: String?) :
     }
 
     override fun onDeviceDeleted(cachedDevice: CachedBluetoothDevice) {
+        pendingPreferences.remove(cachedDevice)
         devicePreferenceMap.remove(cachedDevice)?.let {
             mDeviceListGroup!!.removePreference(it)
         }
@@ -350,6 +417,14 @@ abstract class DeviceListPreferenceFragment(restrictedKey: String?) :
         private const val TAG = "DeviceListPreferenceFragment"
         private const val KEY_BT_SCAN = "bt_scan"
 
+        /** Upper bound of devices listed, so that a crowded place does not flood the list. */
+        @VisibleForTesting
+        const val MAX_DEVICE_COUNT = 100
+
+        /** Ranks the devices kept beyond the cap: named devices first, then the closest ones. */
+        private val DEVICE_RANK: Comparator<CachedBluetoothDevice> =
+            compareBy<CachedBluetoothDevice> { it.hasHumanReadableName() }.thenBy { it.rssi }
+
         // Copied from BluetoothDeviceNoNamePreferenceController.java
         private const val BLUETOOTH_SHOW_DEVICES_WITHOUT_NAMES_PROPERTY =
             "persist.bluetooth.showdeviceswithoutnames"
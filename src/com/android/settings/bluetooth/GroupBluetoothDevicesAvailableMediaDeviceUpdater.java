@@ -59,7 +59,7 @@ public class GroupBluetoothDevicesAvailableMediaDeviceUpdater extends
 
     @Override
     public void onAudioModeChanged() {
-        forceUpdate();
+        updateConnectedDevices();
     }
 
     @Override
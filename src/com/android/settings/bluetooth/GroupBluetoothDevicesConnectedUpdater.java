@@ -68,7 +68,7 @@ public class GroupBluetoothDevicesConnectedUpdater extends GroupBluetoothDeviceU
         if (DBG) {
             Log.d(TAG, "onAudioModeChanged ");
         }
-        forceUpdate();
+        updateConnectedDevices();
     }
 
     @Override
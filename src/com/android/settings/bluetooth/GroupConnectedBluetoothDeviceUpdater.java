@@ -86,9 +86,7 @@ public class GroupConnectedBluetoothDeviceUpdater extends GroupBluetoothDeviceUp
         final CachedBluetoothDeviceManager cachedManager =
                 mLocalManager.getCachedDeviceManager();
         if (BluetoothAdapter.getDefaultAdapter().isEnabled()) {
-            for (CachedBluetoothDevice cachedBluetoothDevice : cachedDevices) {
-                update(cachedBluetoothDevice);
-            }
+            updateAll(cachedDevices);
         } else {
             removeAllDevicesFromPreference();
             removePreferenceIfNecessary(cachedDevices, cachedManager);
@@ -34,6 +34,7 @@ import android.content.Context;
 import android.os.Bundle;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
 import androidx.preference.Preference;
 
 import com.android.settings.R;
@@ -46,6 +47,7 @@ import com.android.settingslib.bluetooth.CachedBluetoothDeviceManager;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
+import java.util.Set;
 
 /**
  * Maintain and update saved Group devices(bonded but not connected)
@@ -110,7 +112,13 @@ public class GroupSavedBluetoothDeviceUpdater extends GroupBluetoothDeviceUpdate
 
     @Override
     public void update(CachedBluetoothDevice cachedDevice) {
-        if (isFilterMatched(cachedDevice)) {
+        update(cachedDevice, /* cachedDevices= */ null);
+    }
+
+    @Override
+    protected void update(CachedBluetoothDevice cachedDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
+        if (isFilterMatched(cachedDevice, cachedDevices)) {
             addPreference(cachedDevice, BluetoothDevicePreference.SortType.TYPE_NO_SORT);
         } else {
             removePreference(cachedDevice);
@@ -54,6 +54,7 @@ import android.bluetooth.BluetoothDevice;
 import android.content.Context;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.preference.Preference;
 
@@ -62,7 +63,9 @@ import com.android.settingslib.bluetooth.CachedBluetoothDevice;
 import com.android.settingslib.bluetooth.CachedBluetoothDeviceManager;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Maintain and update saved bluetooth devices(bonded but not connected)
@@ -107,6 +110,24 @@ public class SavedBluetoothDeviceUpdater extends BluetoothDeviceUpdater
         }
     }
 
+    @Override
+    protected Collection<CachedBluetoothDevice> getDevicesToLoad() {
+        final CachedBluetoothDeviceManager cachedManager = mLocalManager.getCachedDeviceManager();
+        final List<CachedBluetoothDevice> cachedDevices = new ArrayList<>();
+        for (BluetoothDevice device : mBluetoothAdapter.getMostRecentlyConnectedDevices()) {
+            final CachedBluetoothDevice cachedDevice = cachedManager.findDevice(device);
+            if (cachedDevice != null && !cachedManager.isSubDevice(device)) {
+                cachedDevices.add(cachedDevice);
+            }
+        }
+        return cachedDevices;
+    }
+
+    @Override
+    protected void addMatchedPreference(CachedBluetoothDevice cachedDevice) {
+        addPreference(cachedDevice, BluetoothDevicePreference.SortType.TYPE_NO_SORT);
+    }
+
     private void removePreferenceIfNecessary(List<BluetoothDevice> bluetoothDevices,
             CachedBluetoothDeviceManager cachedManager) {
         for (BluetoothDevice device : new ArrayList<>(mPreferenceMap.keySet())) {
@@ -121,7 +142,13 @@ public class SavedBluetoothDeviceUpdater extends BluetoothDeviceUpdater
 
     @Override
     public void update(CachedBluetoothDevice cachedDevice) {
-        if (isFilterMatched(cachedDevice)) {
+        update(cachedDevice, /* cachedDevices= */ null);
+    }
+
+    @Override
+    protected void update(CachedBluetoothDevice cachedDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
+        if (isFilterMatched(cachedDevice, cachedDevices)) {
             // Add the preference if it is new one
             addPreference(cachedDevice, BluetoothDevicePreference.SortType.TYPE_NO_SORT);
         } else {
@@ -132,6 +159,12 @@ public class SavedBluetoothDeviceUpdater extends BluetoothDeviceUpdater
 
     @Override
     public boolean isFilterMatched(CachedBluetoothDevice cachedDevice) {
+        return isFilterMatched(cachedDevice, /* cachedDevices= */ null);
+    }
+
+    @Override
+    protected boolean isFilterMatched(CachedBluetoothDevice cachedDevice,
+            @Nullable Set<CachedBluetoothDevice> cachedDevices) {
         final BluetoothDevice device = cachedDevice.getDevice();
         if (DBG) {
             Log.d(TAG, "isFilterMatched() device name : " + cachedDevice.getName() +
@@ -141,7 +174,7 @@ public class SavedBluetoothDeviceUpdater extends BluetoothDeviceUpdater
         }
         return device.getBondState() == BluetoothDevice.BOND_BONDED
                 && (mShowConnectedDevice || (!device.isConnected() && isDeviceInCachedDevicesList(
-                cachedDevice)))
+                cachedDevice, cachedDevices)))
                 && !device.isTwsPlusDevice() && !isGroupDevice(cachedDevice)
                 && !isPrivateAddr(cachedDevice);
     }
@@ -59,6 +59,7 @@ public class AvailableMediaDeviceGroupController extends BasePreferenceControlle
     LocalBluetoothManager mLocalBluetoothManager;
     private BluetoothDeviceUpdater mBluetoothDeviceUpdater;
     private FragmentManager mFragmentManager;
+    private DeviceSourceLoader mSourceLoader;
 
     public AvailableMediaDeviceGroupController(Context context) {
         super(context, KEY);
@@ -96,10 +97,24 @@ public class AvailableMediaDeviceGroupController extends BasePreferenceControlle
         if (isAvailable()) {
             updateTitle();
             mBluetoothDeviceUpdater.setPrefContext(screen.getContext());
-            mBluetoothDeviceUpdater.forceUpdate();
+            if (mSourceLoader != null) {
+                final BluetoothDeviceUpdater updater = mBluetoothDeviceUpdater;
+                mSourceLoader.submit("available_media_bluetooth", updater::loadMatchedDevices,
+                        updater::addMatchedDevices);
+            } else {
+                mBluetoothDeviceUpdater.forceUpdate();
+            }
         }
     }
 
+    /**
+     * Loads the Bluetooth devices through {@code sourceLoader} instead of on the main thread
+     * when the preference is displayed.
+     */
+    public void setDeviceSourceLoader(DeviceSourceLoader sourceLoader) {
+        mSourceLoader = sourceLoader;
+    }
+
     @Override
     public int getAvailabilityStatus() {
         return mContext.getPackageManager().hasSystemFeature(PackageManager.FEATURE_BLUETOOTH)
@@ -58,6 +58,7 @@ import android.text.TextUtils;
 import android.util.Log;
 
 import androidx.annotation.VisibleForTesting;
+import androidx.preference.PreferenceScreen;
 
 import com.android.settings.R;
 import com.android.settings.SettingsActivity;
@@ -85,6 +86,8 @@ public class ConnectedDeviceDashboardFragment extends DashboardFragment {
     @VisibleForTesting
     static final String KEY_AVAILABLE_DEVICES = "available_device_list";
 
+    private final DeviceSourceLoader mSourceLoader = new DeviceSourceLoader();
+
     @Override
     public int getMetricsCategory() {
         return SettingsEnums.SETTINGS_CONNECTED_DEVICE_CATEGORY;
@@ -118,9 +121,13 @@ public class ConnectedDeviceDashboardFragment extends DashboardFragment {
                     + ", action : " + action);
         }
         use(AvailableMediaDeviceGroupController.class).init(this);
+        use(AvailableMediaDeviceGroupController.class).setDeviceSourceLoader(mSourceLoader);
         use(ConnectedDeviceGroupController.class).init(this);
+        use(ConnectedDeviceGroupController.class).setDeviceSourceLoader(mSourceLoader);
         use(SavedTwsDeviceGroupController.class).init(this);
         use(PreviouslyConnectedDevicePreferenceController.class).init(this);
+        use(PreviouslyConnectedDevicePreferenceController.class)
+                .setDeviceSourceLoader(mSourceLoader);
         use(GroupConnectedBluetoothDevicesController.class).init(this);
         use(GroupPreviouslyConnectedDevicePreferenceController.class).init(this);
         use(SlicePreferenceController.class).setSliceUri(nearbyEnabled
@@ -130,6 +137,19 @@ public class ConnectedDeviceDashboardFragment extends DashboardFragment {
                 .setAlwaysDiscoverable(isAlwaysDiscoverable(callingAppPackageName, action));
     }
 
+    @Override
+    protected void displayResourceTilesToScreen(PreferenceScreen screen) {
+        super.displayResourceTilesToScreen(screen);
+        // The controllers submitted their device sources while being displayed.
+        mSourceLoader.awaitFirstRender();
+    }
+
+    @Override
+    public void onDestroy() {
+        mSourceLoader.cancel();
+        super.onDestroy();
+    }
+
     @VisibleForTesting
     boolean isAlwaysDiscoverable(String callingAppPackageName, String action) {
         return TextUtils.equals(SLICE_ACTION, action) ? false
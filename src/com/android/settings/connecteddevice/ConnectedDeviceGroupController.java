@@ -56,6 +56,7 @@ public class ConnectedDeviceGroupController extends BasePreferenceController
     private ConnectedUsbDeviceUpdater mConnectedUsbDeviceUpdater;
     private DockUpdater mConnectedDockUpdater;
     private StylusDeviceUpdater mStylusDeviceUpdater;
+    private DeviceSourceLoader mSourceLoader;
     private final PackageManager mPackageManager;
     private final InputManager mInputManager;
 
@@ -115,13 +116,32 @@ public class ConnectedDeviceGroupController extends BasePreferenceController
             final Context context = screen.getContext();
             if (mBluetoothDeviceUpdater != null) {
                 mBluetoothDeviceUpdater.setPrefContext(context);
-                mBluetoothDeviceUpdater.forceUpdate();
+                if (mSourceLoader != null) {
+                    final BluetoothDeviceUpdater updater = mBluetoothDeviceUpdater;
+                    mSourceLoader.submit("connected_bluetooth", updater::loadMatchedDevices,
+                            updater::addMatchedDevices);
+                } else {
+                    mBluetoothDeviceUpdater.forceUpdate();
+                }
             }
 
             if (mConnectedUsbDeviceUpdater != null) {
-                mConnectedUsbDeviceUpdater.initUsbPreference(context);
+                if (mSourceLoader != null) {
+                    // The preference must exist before onStart() registers the USB receiver,
+                    // whose sticky intent updates it synchronously, so only the admin
+                    // restriction is loaded in the background. The preference is added once
+                    // the restriction is applied.
+                    final ConnectedUsbDeviceUpdater updater = mConnectedUsbDeviceUpdater;
+                    updater.initUsbPreferenceAwaitingAdmin(context);
+                    mSourceLoader.submit("usb", () -> updater.loadUsbDataSignalingAdmin(context),
+                            updater::setUsbDataSignalingAdmin);
+                } else {
+                    mConnectedUsbDeviceUpdater.initUsbPreference(context);
+                }
             }
 
+            // The dock updater comes from an overlay that makes no threading promise, so it is
+            // still updated on the main thread.
             if (mConnectedDockUpdater != null) {
                 mConnectedDockUpdater.setPreferenceContext(context);
                 mConnectedDockUpdater.forceUpdate();
@@ -129,11 +149,25 @@ public class ConnectedDeviceGroupController extends BasePreferenceController
 
             if (mStylusDeviceUpdater != null) {
                 mStylusDeviceUpdater.setPreferenceContext(context);
-                mStylusDeviceUpdater.forceUpdate();
+                if (mSourceLoader != null) {
+                    final StylusDeviceUpdater updater = mStylusDeviceUpdater;
+                    mSourceLoader.submit("stylus", updater::loadShouldShowUsiPreference,
+                            updater::applyUsiPreference);
+                } else {
+                    mStylusDeviceUpdater.forceUpdate();
+                }
             }
         }
     }
 
+    /**
+     * Loads the device sources through {@code sourceLoader} instead of on the main thread when
+     * the preference is displayed.
+     */
+    public void setDeviceSourceLoader(DeviceSourceLoader sourceLoader) {
+        mSourceLoader = sourceLoader;
+    }
+
     @Override
     public int getAvailabilityStatus() {
         return (hasBluetoothFeature()
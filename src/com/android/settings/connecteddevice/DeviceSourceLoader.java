@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.connecteddevice;
+
+import android.os.SystemClock;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.MainThread;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Loads the device sources of a page (Bluetooth, USB, stylus, ...) concurrently off the main
+ * thread.
+ *
+ * <p>Controllers {@link #submit} a source while displaying their preference. The page then calls
+ * {@link #awaitFirstRender()}, which waits for all sources together for at most
+ * {@link #FIRST_RENDER_DEADLINE_MS} and shows the ones that are ready. A source finishing after
+ * the deadline is shown on its own as soon as it is loaded. The load time of every source is
+ * logged and kept in {@link #getLoadTimesMillis()}.
+ */
+public class DeviceSourceLoader {
+    private static final String TAG = "DeviceSourceLoader";
+
+    @VisibleForTesting
+    static final long FIRST_RENDER_DEADLINE_MS = 100;
+
+    private final Object mLock = new Object();
+    @GuardedBy("mLock")
+    private final List<Source<?>> mPendingSources = new ArrayList<>();
+    @GuardedBy("mLock")
+    private final Map<String, Long> mLoadTimesMillis = new ArrayMap<>();
+    @GuardedBy("mLock")
+    private boolean mFirstRenderDone;
+    @GuardedBy("mLock")
+    private boolean mCancelled;
+
+    /**
+     * Loads a device source in the background.
+     *
+     * @param name the name of the source, used for the timing
+     * @param loader reads the state of the source; runs off the main thread
+     * @param applier shows the loaded state; runs on the main thread
+     */
+    public <T> void submit(String name, @WorkerThread Callable<T> loader,
+            @MainThread Consumer<T> applier) {
+        final Source<T> source = new Source<>(name, loader, applier);
+        synchronized (mLock) {
+            mFirstRenderDone = false;
+            mPendingSources.add(source);
+        }
+        ThreadUtils.postOnBackgroundThread(source.mTask);
+    }
+
+    /**
+     * Shows the sources submitted so far that load within {@link #FIRST_RENDER_DEADLINE_MS}. The
+     * remaining ones are shown once they are loaded.
+     */
+    @MainThread
+    public void awaitFirstRender() {
+        final long startTime = SystemClock.elapsedRealtime();
+        final long deadline = startTime + FIRST_RENDER_DEADLINE_MS;
+        final List<Source<?>> sources;
+        synchronized (mLock) {
+            sources = new ArrayList<>(mPendingSources);
+        }
+
+        int shown = 0;
+        for (Source<?> source : sources) {
+            final long remaining = deadline - SystemClock.elapsedRealtime();
+            if (remaining <= 0 && !source.mTask.isDone()) {
+                break;
+            }
+            try {
+                source.mTask.get(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                break;
+            } catch (ExecutionException | InterruptedException e) {
+                // Logged by the source, nothing to show.
+            }
+            apply(source);
+            shown++;
+        }
+
+        synchronized (mLock) {
+            mFirstRenderDone = true;
+        }
+        // Sources finishing from now on show themselves; show the ones that finished meanwhile.
+        for (Source<?> source : sources) {
+            if (source.mTask.isDone()) {
+                apply(source);
+            }
+        }
+        Log.d(TAG, "First render with " + shown + "/" + sources.size() + " sources in "
+                + (SystemClock.elapsedRealtime() - startTime) + "ms");
+    }
+
+    /** Drops the sources not shown yet, e.g. when the page is destroyed. */
+    public void cancel() {
+        synchronized (mLock) {
+            mCancelled = true;
+            for (Source<?> source : mPendingSources) {
+                source.mTask.cancel(false);
+            }
+            mPendingSources.clear();
+        }
+    }
+
+    /** Returns the load time of each source, keyed by name, for the sources loaded so far. */
+    public Map<String, Long> getLoadTimesMillis() {
+        synchronized (mLock) {
+            return Collections.unmodifiableMap(new ArrayMap<>(mLoadTimesMillis));
+        }
+    }
+
+    @MainThread
+    private void apply(Source<?> source) {
+        synchronized (mLock) {
+            if (mCancelled || !mPendingSources.remove(source)) {
+                return;
+            }
+        }
+        source.apply();
+    }
+
+    private void onSourceLoaded(Source<?> source) {
+        Log.d(TAG, source.mName + " loaded in " + source.mLoadTimeMillis + "ms");
+        synchronized (mLock) {
+            mLoadTimesMillis.put(source.mName, source.mLoadTimeMillis);
+            if (!mFirstRenderDone || mCancelled) {
+                return;
+            }
+        }
+        ThreadUtils.postOnMainThread(() -> apply(source));
+    }
+
+    private class Source<T> {
+        final String mName;
+        final Consumer<T> mApplier;
+        final FutureTask<T> mTask;
+        volatile long mLoadTimeMillis;
+
+        Source(String name, Callable<T> loader, Consumer<T> applier) {
+            mName = name;
+            mApplier = applier;
+            mTask = new FutureTask<T>(() -> {
+                final long startTime = SystemClock.elapsedRealtime();
+                try {
+                    return loader.call();
+                } catch (Exception e) {
+                    Log.w(TAG, "Failed to load " + mName, e);
+                    throw e;
+                } finally {
+                    mLoadTimeMillis = SystemClock.elapsedRealtime() - startTime;
+                }
+            }) {
+                @Override
+                protected void done() {
+                    if (!isCancelled()) {
+                        onSourceLoaded(Source.this);
+                    }
+                }
+            };
+        }
+
+        @MainThread
+        void apply() {
+            final T result;
+            try {
+                result = mTask.get();
+            } catch (ExecutionException | InterruptedException e) {
+                return;
+            }
+            mApplier.accept(result);
+        }
+    }
+}
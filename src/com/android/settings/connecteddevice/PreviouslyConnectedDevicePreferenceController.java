@@ -69,6 +69,7 @@ public class PreviouslyConnectedDevicePreferenceController extends BasePreferenc
     private BluetoothDeviceUpdater mBluetoothDeviceUpdater;
     private DockUpdater mSavedDockUpdater;
     private BluetoothAdapter mBluetoothAdapter;
+    private DeviceSourceLoader mSourceLoader;
 
     @VisibleForTesting
     Preference mSeeAllPreference;
@@ -115,10 +116,24 @@ public class PreviouslyConnectedDevicePreferenceController extends BasePreferenc
             final Context context = screen.getContext();
             mBluetoothDeviceUpdater.setPrefContext(context);
             mSavedDockUpdater.setPreferenceContext(context);
-            mBluetoothDeviceUpdater.forceUpdate();
+            if (mSourceLoader != null) {
+                final BluetoothDeviceUpdater updater = mBluetoothDeviceUpdater;
+                mSourceLoader.submit("saved_bluetooth", updater::loadMatchedDevices,
+                        updater::addMatchedDevices);
+            } else {
+                mBluetoothDeviceUpdater.forceUpdate();
+            }
         }
     }
 
+    /**
+     * Loads the saved Bluetooth devices through {@code sourceLoader} instead of on the main
+     * thread when the preference is displayed.
+     */
+    public void setDeviceSourceLoader(DeviceSourceLoader sourceLoader) {
+        mSourceLoader = sourceLoader;
+    }
+
     @Override
     public void onStart() {
         mBluetoothDeviceUpdater.registerCallback();
@@ -25,8 +25,10 @@ import android.os.Looper;
 import android.util.Log;
 import android.view.InputDevice;
 
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
 import androidx.preference.Preference;
 
 import com.android.settings.R;
@@ -151,7 +153,24 @@ public class StylusDeviceUpdater implements InputManager.InputDeviceListener,
      * Force update to add or remove stylus preference
      */
     public void forceUpdate() {
-        if (shouldShowUsiPreference()) {
+        applyUsiPreference(shouldShowUsiPreference());
+    }
+
+    /**
+     * Returns whether the stylus preference should be shown. It only queries the input devices,
+     * so it can run off the main thread before {@link #applyUsiPreference(boolean)}.
+     */
+    @WorkerThread
+    public boolean loadShouldShowUsiPreference() {
+        return shouldShowUsiPreference();
+    }
+
+    /**
+     * Add or remove the stylus preference as returned by {@link #loadShouldShowUsiPreference()}.
+     */
+    @MainThread
+    public void applyUsiPreference(boolean show) {
+        if (show) {
             addOrUpdateUsiPreference();
         } else {
             removeUsiPreference();
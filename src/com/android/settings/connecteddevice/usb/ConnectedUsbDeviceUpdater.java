@@ -25,7 +25,9 @@ import android.content.Context;
 import android.hardware.usb.UsbManager;
 import android.os.UserHandle;
 
+import androidx.annotation.MainThread;
 import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
 import androidx.preference.Preference;
 
 import com.android.settings.R;
@@ -33,6 +35,7 @@ import com.android.settings.connecteddevice.DevicePreferenceCallback;
 import com.android.settings.core.SubSettingLauncher;
 import com.android.settings.dashboard.DashboardFragment;
 import com.android.settings.overlay.FeatureFactory;
+import com.android.settingslib.RestrictedLockUtils.EnforcedAdmin;
 import com.android.settingslib.RestrictedPreference;
 import com.android.settingslib.core.instrumentation.MetricsFeatureProvider;
 
@@ -52,14 +55,20 @@ public class ConnectedUsbDeviceUpdater {
     RestrictedPreference mUsbPreference;
     @VisibleForTesting
     UsbConnectionBroadcastReceiver mUsbReceiver;
+    // Whether the preference waits for setUsbDataSignalingAdmin() before it is added.
+    private boolean mAwaitingAdmin;
+    private boolean mUsbConnected;
 
     @VisibleForTesting
     UsbConnectionBroadcastReceiver.UsbConnectionListener mUsbConnectionListener =
             (connected, functions, powerRole, dataRole, isUsbConfigured) -> {
+                mUsbConnected = connected;
                 if (connected) {
                     mUsbPreference.setSummary(getSummary(dataRole == DATA_ROLE_DEVICE
                                     ? functions : UsbManager.FUNCTION_NONE, powerRole));
-                    mDevicePreferenceCallback.onDeviceAdded(mUsbPreference);
+                    if (!mAwaitingAdmin) {
+                        mDevicePreferenceCallback.onDeviceAdded(mUsbPreference);
+                    }
                 } else {
                     mDevicePreferenceCallback.onDeviceRemoved(mUsbPreference);
                 }
@@ -92,12 +101,36 @@ public class ConnectedUsbDeviceUpdater {
     }
 
     public void initUsbPreference(Context context) {
+        initUsbPreference(context, loadUsbDataSignalingAdmin(context), /* awaitingAdmin= */ false);
+    }
+
+    /**
+     * Creates the USB preference and tracks the connection state, but only adds the preference
+     * once {@link #setUsbDataSignalingAdmin} applied the admin from
+     * {@link #loadUsbDataSignalingAdmin}, so it is never shown without its restriction.
+     */
+    @MainThread
+    public void initUsbPreferenceAwaitingAdmin(Context context) {
+        initUsbPreference(context, /* usbDataSignalingAdmin= */ null, /* awaitingAdmin= */ true);
+    }
+
+    /**
+     * Returns the admin disabling USB data signaling, if any. It only queries the device policy,
+     * so it can run off the main thread and be applied by {@link #setUsbDataSignalingAdmin}.
+     */
+    @WorkerThread
+    public EnforcedAdmin loadUsbDataSignalingAdmin(Context context) {
+        return checkIfUsbDataSignalingIsDisabled(context, UserHandle.myUserId());
+    }
+
+    private void initUsbPreference(Context context, EnforcedAdmin usbDataSignalingAdmin,
+            boolean awaitingAdmin) {
+        mAwaitingAdmin = awaitingAdmin;
         mUsbPreference = new RestrictedPreference(context, null /* AttributeSet */);
         mUsbPreference.setTitle(R.string.usb_pref);
         mUsbPreference.setIcon(R.drawable.ic_usb);
         mUsbPreference.setKey(PREF_KEY);
-        mUsbPreference.setDisabledByAdmin(
-                checkIfUsbDataSignalingIsDisabled(context, UserHandle.myUserId()));
+        mUsbPreference.setDisabledByAdmin(usbDataSignalingAdmin);
         mUsbPreference.setOnPreferenceClickListener((Preference p) -> {
             mMetricsFeatureProvider.logClickedPreference(p, mFragment.getMetricsCategory());
             // New version - uses a separate screen.
@@ -112,6 +145,24 @@ public class ConnectedUsbDeviceUpdater {
         forceUpdate();
     }
 
+    /**
+     * Applies the admin disabling USB data signaling to the preference created by
+     * {@link #initUsbPreferenceAwaitingAdmin}, then adds the preference if USB is connected.
+     */
+    @MainThread
+    public void setUsbDataSignalingAdmin(EnforcedAdmin usbDataSignalingAdmin) {
+        if (mUsbPreference == null) {
+            return;
+        }
+        mUsbPreference.setDisabledByAdmin(usbDataSignalingAdmin);
+        if (mAwaitingAdmin) {
+            mAwaitingAdmin = false;
+            if (mUsbConnected) {
+                mDevicePreferenceCallback.onDeviceAdded(mUsbPreference);
+            }
+        }
+    }
+
     private void forceUpdate() {
         // Register so we can get the connection state from sticky intent.
         //TODO(b/70336520): Use an API to get data instead of sticky intent
@@ -39,13 +39,14 @@ import com.android.settingslib.Utils;
 import com.android.settingslib.core.lifecycle.Lifecycle;
 import com.android.settingslib.core.lifecycle.LifecycleObserver;
 import com.android.settingslib.core.lifecycle.events.OnStart;
+import com.android.settingslib.core.lifecycle.events.OnStop;
 import com.android.settingslib.widget.UsageProgressBarPreference;
 
 /**
  * Controller that update the battery header view
  */
 public class BatteryHeaderPreferenceController extends BasePreferenceController
-        implements PreferenceControllerMixin, LifecycleObserver, OnStart,
+        implements PreferenceControllerMixin, LifecycleObserver, OnStart, OnStop,
         BatteryPreferenceController {
     private static final String TAG = "BatteryHeaderPreferenceController";
 
@@ -57,18 +58,28 @@ public class BatteryHeaderPreferenceController extends BasePreferenceController
     BatteryStatusFeatureProvider mBatteryStatusFeatureProvider;
     @VisibleForTesting
     UsageProgressBarPreference mBatteryUsageProgressBarPref;
+    @VisibleForTesting
+    BatteryLiveStatsSampler mLiveStatsSampler;
 
     private Activity mActivity;
     private PreferenceFragmentCompat mHost;
     private Lifecycle mLifecycle;
     private BatteryTip mBatteryTip;
     private final PowerManager mPowerManager;
+    // Whether the total summary shows the live current and voltage instead of the charge counter.
+    private boolean mShowingLiveStats;
 
     public BatteryHeaderPreferenceController(Context context, String key) {
         super(context, key);
         mPowerManager = context.getSystemService(PowerManager.class);
         mBatteryStatusFeatureProvider = FeatureFactory.getFactory(context)
                 .getBatteryStatusFeatureProvider(context);
+        final long liveSampleIntervalMs = FeatureFactory.getFactory(context)
+                .getPowerUsageFeatureProvider(context).getLiveBatteryStatsSampleIntervalMs();
+        if (liveSampleIntervalMs > 0) {
+            mLiveStatsSampler = new BatteryLiveStatsSampler(
+                    context, liveSampleIntervalMs, this::updateHeaderByLiveStats);
+        }
     }
 
     public void setActivity(Activity activity) {
@@ -107,6 +118,25 @@ public class BatteryHeaderPreferenceController extends BasePreferenceController
     public void onStart() {
         EntityHeaderController.newInstance(mActivity, mHost, null /* header view */)
                 .setRecyclerView(mHost.getListView(), mLifecycle);
+        if (mLiveStatsSampler != null) {
+            mLiveStatsSampler.start();
+        }
+    }
+
+    @Override
+    public void onStop() {
+        if (mLiveStatsSampler != null) {
+            mLiveStatsSampler.stop();
+        }
+        if (mShowingLiveStats) {
+            mShowingLiveStats = false;
+            // Replaces the last live current and voltage, which are no longer updated.
+            final int chargeCounterUah = com.android.settingslib.fuelgauge.BatteryUtils
+                    .getBatteryIntent(mContext)
+                    .getIntExtra(BatteryManager.EXTRA_CHARGE_COUNTER, -1);
+            mBatteryUsageProgressBarPref.setTotalSummary(chargeCounterUah > 0
+                    ? formatBatteryChargeCounterText(chargeCounterUah / 1_000) : null);
+        }
     }
 
     private CharSequence generateLabel(BatteryInfo info) {
@@ -171,7 +201,8 @@ public class BatteryHeaderPreferenceController extends BasePreferenceController
         mBatteryUsageProgressBarPref.setUsageSummary(formatBatteryPercentageText(batteryLevel));
         mBatteryUsageProgressBarPref.setPercent(batteryLevel, BATTERY_MAX_LEVEL);
 
-        if (chargeCounterUah > 0) {
+        // The live stats own the total summary while they are shown.
+        if (chargeCounterUah > 0 && !mShowingLiveStats) {
             int chargeCounter = chargeCounterUah / 1_000;
             mBatteryUsageProgressBarPref.setTotalSummary(
                     formatBatteryChargeCounterText(chargeCounter));
@@ -189,6 +220,27 @@ public class BatteryHeaderPreferenceController extends BasePreferenceController
         }
     }
 
+    /**
+     * Update battery level, current and voltage from the latest live sample.
+     */
+    @VisibleForTesting
+    void updateHeaderByLiveStats(BatteryLiveStatsSampler.SampleBuffer buffer) {
+        final int size = buffer.size();
+        if (mBatteryUsageProgressBarPref == null || size == 0) {
+            return;
+        }
+        final int batteryLevel = buffer.getLevel(size - 1);
+        final int currentUa = buffer.getCurrentUa(size - 1);
+        mBatteryUsageProgressBarPref.setUsageSummary(formatBatteryPercentageText(batteryLevel));
+        mBatteryUsageProgressBarPref.setPercent(batteryLevel, BATTERY_MAX_LEVEL);
+        if (currentUa != Integer.MIN_VALUE) {
+            mShowingLiveStats = true;
+            mBatteryUsageProgressBarPref.setTotalSummary(mContext.getString(
+                    R.string.battery_live_stats_summary,
+                    currentUa / 1_000, buffer.getVoltageMv(size - 1)));
+        }
+    }
+
     private CharSequence formatBatteryPercentageText(int batteryLevel) {
         return TextUtils.expandTemplate(mContext.getText(R.string.battery_header_title_alternate),
                 NumberFormat.getIntegerInstance().format(batteryLevel));
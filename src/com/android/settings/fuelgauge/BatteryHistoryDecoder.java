@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.android.settings.fuelgauge;
+
+import android.os.BatteryStats.HistoryItem;
+import android.os.BatteryUsageStats;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.internal.os.BatteryStatsHistoryIterator;
+import com.android.settings.fuelgauge.BatteryInfo.BatteryDataParser;
+
+import java.util.Arrays;
+
+/**
+ * Battery history decoded in a single pass over {@link BatteryStatsHistoryIterator}.
+ *
+ * <p>The fields read by the {@link BatteryDataParser}s are kept in primitive arrays while the
+ * time bounds are computed, then replayed to any number of parsers in one sweep by
+ * {@link #dispatch}. The last decoded history is cached by the time range of its
+ * {@link BatteryUsageStats}, so the battery header graph and the tips do not decode the same
+ * history again. The replayed {@link HistoryItem} carries {@code cmd}, {@code time},
+ * {@code currentTime}, {@code batteryLevel}, {@code states} and {@code states2}.
+ */
+public final class BatteryHistoryDecoder {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final Object sLock = new Object();
+    @GuardedBy("sLock")
+    private static long sCachedStartTimestamp;
+    @GuardedBy("sLock")
+    private static long sCachedEndTimestamp;
+    @GuardedBy("sLock")
+    private static BatteryHistoryDecoder sCachedDecoder;
+
+    private long mStartWalltime;
+    private long mEndWalltime;
+    private long mHistoryStart;
+    private long mLastRealtime;
+    /** Number of records to replay, up to and including the last delta record. */
+    private int mInterestingCount;
+
+    private int mSize;
+    private byte[] mCmds = new byte[INITIAL_CAPACITY];
+    private long[] mTimes = new long[INITIAL_CAPACITY];
+    private long[] mCurrentTimes = new long[INITIAL_CAPACITY];
+    private byte[] mBatteryLevels = new byte[INITIAL_CAPACITY];
+    private int[] mStates = new int[INITIAL_CAPACITY];
+    private int[] mStates2 = new int[INITIAL_CAPACITY];
+
+    private BatteryHistoryDecoder() {
+    }
+
+    /**
+     * Returns the decoded history of {@code batteryUsageStats}, decoding it unless the history
+     * of the same time range was decoded last.
+     */
+    public static BatteryHistoryDecoder decode(BatteryUsageStats batteryUsageStats) {
+        final long startTimestamp = batteryUsageStats.getStatsStartTimestamp();
+        final long endTimestamp = batteryUsageStats.getStatsEndTimestamp();
+        // An unknown end time cannot tell two histories apart.
+        final boolean cacheable = endTimestamp > 0;
+        if (cacheable) {
+            synchronized (sLock) {
+                if (sCachedDecoder != null && sCachedStartTimestamp == startTimestamp
+                        && sCachedEndTimestamp == endTimestamp) {
+                    return sCachedDecoder;
+                }
+            }
+        }
+
+        final BatteryHistoryDecoder decoder = new BatteryHistoryDecoder();
+        decoder.read(batteryUsageStats.iterateBatteryStatsHistory());
+        if (cacheable) {
+            synchronized (sLock) {
+                sCachedStartTimestamp = startTimestamp;
+                sCachedEndTimestamp = endTimestamp;
+                sCachedDecoder = decoder;
+            }
+        }
+        return decoder;
+    }
+
+    @VisibleForTesting
+    static void clearCache() {
+        synchronized (sLock) {
+            sCachedDecoder = null;
+        }
+    }
+
+    public long getStartWalltime() {
+        return mStartWalltime;
+    }
+
+    public long getEndWalltime() {
+        return mEndWalltime;
+    }
+
+    private void read(BatteryStatsHistoryIterator iterator) {
+        long lastWallTime = 0;
+        boolean first = true;
+        HistoryItem rec;
+        while ((rec = iterator.next()) != null) {
+            if (first) {
+                first = false;
+                mHistoryStart = rec.time;
+            }
+            if (rec.cmd == HistoryItem.CMD_CURRENT_TIME
+                    || rec.cmd == HistoryItem.CMD_RESET) {
+                // If there is a ridiculously large jump in time, then we won't be
+                // able to create a good chart with that data, so just ignore the
+                // times we got before and pretend like our data extends back from
+                // the time we have now.
+                // Also, if we are getting a time change and we are less than 5 minutes
+                // since the start of the history real time, then also use this new
+                // time to compute the base time, since whatever time we had before is
+                // pretty much just noise.
+                if (rec.currentTime > (lastWallTime + (180 * 24 * 60 * 60 * 1000L))
+                        || rec.time < (mHistoryStart + (5 * 60 * 1000L))) {
+                    mStartWalltime = 0;
+                }
+                lastWallTime = rec.currentTime;
+                mLastRealtime = rec.time;
+                if (mStartWalltime == 0) {
+                    mStartWalltime = lastWallTime - (mLastRealtime - mHistoryStart);
+                }
+            }
+            append(rec);
+            if (rec.isDeltaData()) {
+                mInterestingCount = mSize;
+            }
+        }
+        final long historyEnd = mInterestingCount > 0 ? mTimes[mInterestingCount - 1] : 0;
+        mEndWalltime = lastWallTime + historyEnd - mLastRealtime;
+    }
+
+    private void append(HistoryItem rec) {
+        if (mSize == mCmds.length) {
+            final int capacity = mSize * 2;
+            mCmds = Arrays.copyOf(mCmds, capacity);
+            mTimes = Arrays.copyOf(mTimes, capacity);
+            mCurrentTimes = Arrays.copyOf(mCurrentTimes, capacity);
+            mBatteryLevels = Arrays.copyOf(mBatteryLevels, capacity);
+            mStates = Arrays.copyOf(mStates, capacity);
+            mStates2 = Arrays.copyOf(mStates2, capacity);
+        }
+        mCmds[mSize] = rec.cmd;
+        mTimes[mSize] = rec.time;
+        mCurrentTimes[mSize] = rec.currentTime;
+        mBatteryLevels[mSize] = rec.batteryLevel;
+        mStates[mSize] = rec.states;
+        mStates2[mSize] = rec.states2;
+        mSize++;
+    }
+
+    /**
+     * Replays the decoded history to all {@code parsers} in one sweep.
+     */
+    public void dispatch(BatteryDataParser... parsers) {
+        for (BatteryDataParser parser : parsers) {
+            parser.onParsingStarted(mStartWalltime, mEndWalltime);
+        }
+
+        if (mEndWalltime > mStartWalltime) {
+            final HistoryItem rec = new HistoryItem();
+            long curWalltime = 0;
+            long lastRealtime = mLastRealtime;
+            for (int i = 0; i < mInterestingCount; i++) {
+                final byte cmd = mCmds[i];
+                final long time = mTimes[i];
+                if (cmd == HistoryItem.CMD_UPDATE) {
+                    curWalltime += time - lastRealtime;
+                    lastRealtime = time;
+                    long x = (curWalltime - mStartWalltime);
+                    if (x < 0) {
+                        x = 0;
+                    }
+                    rec.cmd = cmd;
+                    rec.time = time;
+                    rec.currentTime = mCurrentTimes[i];
+                    rec.batteryLevel = mBatteryLevels[i];
+                    rec.states = mStates[i];
+                    rec.states2 = mStates2[i];
+                    for (BatteryDataParser parser : parsers) {
+                        parser.onDataPoint(x, rec);
+                    }
+                } else {
+                    long lastWalltime = curWalltime;
+                    if (cmd == HistoryItem.CMD_CURRENT_TIME
+                            || cmd == HistoryItem.CMD_RESET) {
+                        if (mCurrentTimes[i] >= mStartWalltime) {
+                            curWalltime = mCurrentTimes[i];
+                        } else {
+                            curWalltime = mStartWalltime + (time - mHistoryStart);
+                        }
+                        lastRealtime = time;
+                    }
+
+                    if (cmd != HistoryItem.CMD_OVERFLOW
+                            && (cmd != HistoryItem.CMD_CURRENT_TIME
+                            || Math.abs(lastWalltime - curWalltime) > (60 * 60 * 1000))) {
+                        for (BatteryDataParser parser : parsers) {
+                            parser.onDataGap();
+                        }
+                    }
+                }
+            }
+        }
+
+        for (BatteryDataParser parser : parsers) {
+            parser.onParsingDone();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settingslib.Utils;
+
+/**
+ * Samples the battery current, voltage and level at a fixed interval on a background thread into
+ * a {@link SampleBuffer}, without loading the {@link android.os.BatteryUsageStats}.
+ *
+ * <p>The current is read from {@link BatteryManager} on each sample, while the voltage and level
+ * are kept from the battery broadcasts, so a sample does not allocate. The callback runs on the
+ * main thread and is coalesced if the main thread falls behind.
+ */
+public class BatteryLiveStatsSampler {
+    private static final String TAG = "BatteryLiveStatsSampler";
+
+    @VisibleForTesting
+    static final long MIN_SAMPLE_INTERVAL_MS = 100L;
+    @VisibleForTesting
+    static final int DEFAULT_CAPACITY = 600;
+
+    /** Callback of the new samples, which is invoked on the main thread. */
+    public interface Callback {
+        /** Invoked after new samples are added into {@code buffer}. */
+        void onSampled(SampleBuffer buffer);
+    }
+
+    private final Context mContext;
+    private final BatteryManager mBatteryManager;
+    private final long mIntervalMs;
+    private final SampleBuffer mBuffer;
+    private final Callback mCallback;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mNotifyRunnable = this::notifySampled;
+    private final Runnable mSampleRunnable = new Runnable() {
+        @Override
+        public void run() {
+            sample(SystemClock.elapsedRealtime());
+            final Handler handler = mHandler;
+            if (handler != null) {
+                handler.postDelayed(this, mIntervalMs);
+            }
+        }
+    };
+    private final BroadcastReceiver mBatteryReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            updateBatteryIntent(intent);
+        }
+    };
+
+    private volatile int mVoltageMv;
+    private volatile int mLevel;
+    @Nullable
+    private HandlerThread mHandlerThread;
+    @Nullable
+    private volatile Handler mHandler;
+
+    public BatteryLiveStatsSampler(Context context, long intervalMs, Callback callback) {
+        this(context, intervalMs, DEFAULT_CAPACITY, callback);
+    }
+
+    @VisibleForTesting
+    BatteryLiveStatsSampler(Context context, long intervalMs, int capacity, Callback callback) {
+        mContext = context.getApplicationContext();
+        mBatteryManager = mContext.getSystemService(BatteryManager.class);
+        mIntervalMs = Math.max(intervalMs, MIN_SAMPLE_INTERVAL_MS);
+        mBuffer = new SampleBuffer(capacity);
+        mCallback = callback;
+    }
+
+    /** Starts sampling on a background thread, does nothing if it is already started. */
+    @MainThread
+    public void start() {
+        if (mHandlerThread != null) {
+            return;
+        }
+        mHandlerThread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+        mHandlerThread.start();
+        mHandler = new Handler(mHandlerThread.getLooper());
+        final Intent batteryIntent = mContext.registerReceiver(mBatteryReceiver,
+                new IntentFilter(Intent.ACTION_BATTERY_CHANGED), /*broadcastPermission=*/ null,
+                mHandler);
+        updateBatteryIntent(batteryIntent);
+        mHandler.post(mSampleRunnable);
+        Log.d(TAG, "start sampling every " + mIntervalMs + "ms");
+    }
+
+    /** Stops sampling and releases the background thread. The samples are kept. */
+    @MainThread
+    public void stop() {
+        if (mHandlerThread == null) {
+            return;
+        }
+        mContext.unregisterReceiver(mBatteryReceiver);
+        mHandler.removeCallbacks(mSampleRunnable);
+        mHandlerThread.quitSafely();
+        mHandlerThread = null;
+        mHandler = null;
+        mMainHandler.removeCallbacks(mNotifyRunnable);
+        Log.d(TAG, "stop sampling");
+    }
+
+    /** Returns the buffer of the samples. */
+    public SampleBuffer getBuffer() {
+        return mBuffer;
+    }
+
+    @VisibleForTesting
+    void sample(long elapsedRealtime) {
+        final int currentUa = mBatteryManager == null ? Integer.MIN_VALUE
+                : mBatteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CURRENT_NOW);
+        mBuffer.add(elapsedRealtime, currentUa, mVoltageMv, mLevel);
+        mMainHandler.removeCallbacks(mNotifyRunnable);
+        mMainHandler.post(mNotifyRunnable);
+    }
+
+    @VisibleForTesting
+    void updateBatteryIntent(@Nullable Intent batteryIntent) {
+        if (batteryIntent == null) {
+            return;
+        }
+        mVoltageMv = batteryIntent.getIntExtra(BatteryManager.EXTRA_VOLTAGE, 0);
+        mLevel = Utils.getBatteryLevel(batteryIntent);
+    }
+
+    private void notifySampled() {
+        if (mHandlerThread != null) {
+            mCallback.onSampled(mBuffer);
+        }
+    }
+
+    /**
+     * A fixed-size ring buffer of the battery samples, which are stored in primitive arrays and
+     * indexed from the oldest one. The oldest sample is overwritten once the buffer is full.
+     */
+    public static final class SampleBuffer {
+        private final Object mLock = new Object();
+
+        @GuardedBy("mLock")
+        private final long[] mTimestamps;
+        @GuardedBy("mLock")
+        private final int[] mCurrentUa;
+        @GuardedBy("mLock")
+        private final int[] mVoltageMv;
+        @GuardedBy("mLock")
+        private final int[] mLevels;
+        @GuardedBy("mLock")
+        private int mStart;
+        @GuardedBy("mLock")
+        private int mSize;
+
+        @VisibleForTesting
+        SampleBuffer(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("invalid capacity: " + capacity);
+            }
+            mTimestamps = new long[capacity];
+            mCurrentUa = new int[capacity];
+            mVoltageMv = new int[capacity];
+            mLevels = new int[capacity];
+        }
+
+        @VisibleForTesting
+        void add(long timestamp, int currentUa, int voltageMv, int level) {
+            synchronized (mLock) {
+                final int capacity = mTimestamps.length;
+                final int index = (mStart + mSize) % capacity;
+                mTimestamps[index] = timestamp;
+                mCurrentUa[index] = currentUa;
+                mVoltageMv[index] = voltageMv;
+                mLevels[index] = level;
+                if (mSize < capacity) {
+                    mSize++;
+                } else {
+                    mStart = (mStart + 1) % capacity;
+                }
+            }
+        }
+
+        /** Returns the maximum number of samples. */
+        public int capacity() {
+            return mTimestamps.length;
+        }
+
+        /** Returns the number of samples. */
+        public int size() {
+            synchronized (mLock) {
+                return mSize;
+            }
+        }
+
+        /** Returns the elapsed realtime of the sample at {@code index}. */
+        public long getTimestamp(int index) {
+            synchronized (mLock) {
+                return mTimestamps[toArrayIndex(index)];
+            }
+        }
+
+        /**
+         * Returns the current in microamperes of the sample at {@code index}, which is
+         * {@link Integer#MIN_VALUE} if not supported.
+         */
+        public int getCurrentUa(int index) {
+            synchronized (mLock) {
+                return mCurrentUa[toArrayIndex(index)];
+            }
+        }
+
+        /** Returns the voltage in millivolts of the sample at {@code index}. */
+        public int getVoltageMv(int index) {
+            synchronized (mLock) {
+                return mVoltageMv[toArrayIndex(index)];
+            }
+        }
+
+        /** Returns the battery level of the sample at {@code index}. */
+        public int getLevel(int index) {
+            synchronized (mLock) {
+                return mLevels[toArrayIndex(index)];
+            }
+        }
+
+        @GuardedBy("mLock")
+        private int toArrayIndex(int index) {
+            if (index < 0 || index >= mSize) {
+                throw new IndexOutOfBoundsException("index: " + index + ", size: " + mSize);
+            }
+            return (mStart + index) % mTimestamps.length;
+        }
+    }
+}
@@ -39,6 +39,7 @@ import android.text.format.DateUtils;
 import android.util.Base64;
 import android.util.Log;
 
+import androidx.annotation.GuardedBy;
 import androidx.annotation.IntDef;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
@@ -115,8 +116,19 @@ public class BatteryUtils {
 
     private static final String TAG = "BatteryUtils";
 
+    /** Max age of a {@link BatteryInfo} shared by {@link #getBatteryInfo(String)}. */
+    @VisibleForTesting
+    static final long BATTERY_INFO_MAX_AGE_MS = 1000;
+
     private static BatteryUtils sInstance;
     private PackageManager mPackageManager;
+    private final Object mBatteryInfoLock = new Object();
+    @GuardedBy("mBatteryInfoLock")
+    private BatteryInfo mLastBatteryInfo;
+    @GuardedBy("mBatteryInfoLock")
+    private String mLastBatteryInfoState;
+    @GuardedBy("mBatteryInfoLock")
+    private long mLastBatteryInfoTimeMs;
 
     private AppOpsManager mAppOpsManager;
     private Context mContext;
@@ -367,6 +379,27 @@ public class BatteryUtils {
         }
     }
 
+    /**
+     * Parses proto object from bytes.
+     *
+     * @param serializedProto the serialized proto bytes
+     * @param protoClass class of the proto
+     * @return instance of the proto class parsed from the bytes
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends MessageLite> T parseProtoFromBytes(
+            byte[] serializedProto, T protoClass) {
+        if (serializedProto == null || serializedProto.length == 0) {
+            return (T) protoClass.getDefaultInstanceForType();
+        }
+        try {
+            return (T) protoClass.getParserForType().parseFrom(serializedProto);
+        } catch (InvalidProtocolBufferException e) {
+            Log.e(TAG, "Failed to deserialize proto class", e);
+            return (T) protoClass.getDefaultInstanceForType();
+        }
+    }
+
     public void setForceAppStandby(int uid, String packageName,
             int mode) {
         final boolean isPreOApp = isPreOApp(packageName);
@@ -405,8 +438,35 @@ public class BatteryUtils {
         }
     }
 
+    /**
+     * Returns the current {@link BatteryInfo}. The battery header and the battery tips ask for it
+     * at the same time, so a result computed less than {@link #BATTERY_INFO_MAX_AGE_MS} ago for
+     * the same battery state is shared instead of querying the battery stats again.
+     */
     @WorkerThread
     public BatteryInfo getBatteryInfo(final String tag) {
+        // Stuff we always need to get BatteryInfo
+        final Intent batteryBroadcast = getBatteryIntent(mContext);
+        final String batteryState = getBatteryInfoState(batteryBroadcast);
+
+        // Held while computing, so that a concurrent caller waits for the result and reuses it.
+        synchronized (mBatteryInfoLock) {
+            if (mLastBatteryInfo != null && batteryState != null
+                    && batteryState.equals(mLastBatteryInfoState)
+                    && SystemClock.elapsedRealtime() - mLastBatteryInfoTimeMs
+                    <= BATTERY_INFO_MAX_AGE_MS) {
+                Log.d(tag, "getBatteryInfo() reuses the last result");
+                return mLastBatteryInfo;
+            }
+            final BatteryInfo batteryInfo = loadBatteryInfo(tag, batteryBroadcast);
+            mLastBatteryInfo = batteryInfo;
+            mLastBatteryInfoState = batteryState;
+            mLastBatteryInfoTimeMs = SystemClock.elapsedRealtime();
+            return batteryInfo;
+        }
+    }
+
+    private BatteryInfo loadBatteryInfo(String tag, Intent batteryBroadcast) {
         final BatteryStatsManager systemService = mContext.getSystemService(
                 BatteryStatsManager.class);
         BatteryUsageStats batteryUsageStats;
@@ -421,9 +481,6 @@ public class BatteryUtils {
 
         final long startTime = System.currentTimeMillis();
 
-        // Stuff we always need to get BatteryInfo
-        final Intent batteryBroadcast = getBatteryIntent(mContext);
-
         final long elapsedRealtimeUs = PowerUtil.convertMsToUs(
                 SystemClock.elapsedRealtime());
 
@@ -451,6 +508,29 @@ public class BatteryUtils {
         return batteryInfo;
     }
 
+    /**
+     * Returns the part of the battery broadcast that {@link BatteryInfo} is built from, or
+     * {@code null} when there is no broadcast.
+     */
+    @Nullable
+    private static String getBatteryInfoState(@Nullable Intent batteryBroadcast) {
+        if (batteryBroadcast == null) {
+            return null;
+        }
+        return batteryBroadcast.getIntExtra(BatteryManager.EXTRA_LEVEL, -1)
+                + "/" + batteryBroadcast.getIntExtra(BatteryManager.EXTRA_SCALE, -1)
+                + "/" + batteryBroadcast.getIntExtra(BatteryManager.EXTRA_STATUS, -1)
+                + "/" + batteryBroadcast.getIntExtra(BatteryManager.EXTRA_PLUGGED, -1)
+                + "/" + batteryBroadcast.getIntExtra(BatteryManager.EXTRA_CHARGING_STATUS, -1);
+    }
+
+    @VisibleForTesting
+    void clearLastBatteryInfo() {
+        synchronized (mBatteryInfoLock) {
+            mLastBatteryInfo = null;
+        }
+    }
+
     @VisibleForTesting
     Estimate getEnhancedEstimate() {
         // Align the same logic in the BatteryControllerImpl.updateEstimate()
@@ -102,6 +102,12 @@ public interface PowerUsageFeatureProvider {
      */
     boolean isEstimateDebugEnabled();
 
+    /**
+     * Returns the interval in milliseconds to sample the live battery current, voltage and level
+     * for the battery header, or 0 to disable the live sampling
+     */
+    long getLiveBatteryStatsSampleIntervalMs();
+
     /**
      * Converts the provided string containing the remaining time into a debug string for enhanced
      * estimates
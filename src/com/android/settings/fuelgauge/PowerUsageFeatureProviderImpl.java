@@ -132,6 +132,11 @@ public class PowerUsageFeatureProviderImpl implements PowerUsageFeatureProvider
         return false;
     }
 
+    @Override
+    public long getLiveBatteryStatsSampleIntervalMs() {
+        return 0L;
+    }
+
     @Override
     public String getOldEstimateDebugString(String timeRemaining) {
         return null;
@@ -31,7 +31,7 @@ import com.android.settingslib.utils.ThreadUtils;
 
 import java.util.concurrent.TimeUnit;
 
-/** A JobService to clean up obsolete data in anomaly database */
+/** A JobService to clean up obsolete data in anomaly database and compact it */
 public class AnomalyCleanupJobService extends JobService {
     private static final String TAG = "AnomalyCleanUpJobService";
 
@@ -67,6 +67,7 @@ public class AnomalyCleanupJobService extends JobService {
             batteryDatabaseManager.deleteAllAnomaliesBeforeTimeStamp(
                     System.currentTimeMillis() - TimeUnit.DAYS.toMillis(
                             policy.dataHistoryRetainDay));
+            batteryDatabaseManager.compact();
             jobFinished(params, false /* wantsReschedule */);
         });
 
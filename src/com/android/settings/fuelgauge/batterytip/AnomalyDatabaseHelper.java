@@ -33,7 +33,9 @@ public class AnomalyDatabaseHelper extends SQLiteOpenHelper {
     private static final String TAG = "BatteryDatabaseHelper";
 
     private static final String DATABASE_NAME = "battery_settings.db";
-    private static final int DATABASE_VERSION = 5;
+    private static final int DATABASE_VERSION = 6;
+    // The last version whose tables can be kept, only missing the indexes.
+    private static final int DATABASE_VERSION_WITHOUT_INDEXES = 5;
 
     @Retention(RetentionPolicy.SOURCE)
     @IntDef({State.NEW,
@@ -98,6 +100,17 @@ public class AnomalyDatabaseHelper extends SQLiteOpenHelper {
                     + AnomalyColumns.ANOMALY_STATE + "," + AnomalyColumns.TIME_STAMP_MS + ")"
                     + ")";
 
+    // Serves queryAllAnomalies(), which filters on the state and a time range.
+    private static final String CREATE_ANOMALY_STATE_TIME_INDEX =
+            "CREATE INDEX IF NOT EXISTS anomaly_state_time_index ON " + Tables.TABLE_ANOMALY
+                    + "(" + AnomalyColumns.ANOMALY_STATE + "," + AnomalyColumns.TIME_STAMP_MS
+                    + ")";
+
+    // Serves updateAnomalies(), which selects the anomalies by package name.
+    private static final String CREATE_ANOMALY_PACKAGE_INDEX =
+            "CREATE INDEX IF NOT EXISTS anomaly_package_index ON " + Tables.TABLE_ANOMALY
+                    + "(" + AnomalyColumns.PACKAGE_NAME + ")";
+
 
     public interface ActionColumns {
         /**
@@ -145,6 +158,8 @@ public class AnomalyDatabaseHelper extends SQLiteOpenHelper {
 
     private AnomalyDatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        // Lets the anomaly detection job write while the battery pages read.
+        setWriteAheadLoggingEnabled(true);
     }
 
     @Override
@@ -154,7 +169,10 @@ public class AnomalyDatabaseHelper extends SQLiteOpenHelper {
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        if (oldVersion < DATABASE_VERSION) {
+        if (oldVersion == DATABASE_VERSION_WITHOUT_INDEXES) {
+            Log.i(TAG, "Adding indexes for schema version '" + newVersion + "'.");
+            createIndexes(db);
+        } else if (oldVersion < DATABASE_VERSION) {
             Log.w(TAG, "Detected schema version '" + oldVersion + "'. " +
                     "Index needs to be rebuilt for schema version '" + newVersion + "'.");
             // We need to drop the tables and recreate them
@@ -178,9 +196,15 @@ public class AnomalyDatabaseHelper extends SQLiteOpenHelper {
     private void bootstrapDB(SQLiteDatabase db) {
         db.execSQL(CREATE_ANOMALY_TABLE);
         db.execSQL(CREATE_ACTION_TABLE);
+        createIndexes(db);
         Log.i(TAG, "Bootstrapped database");
     }
 
+    private void createIndexes(SQLiteDatabase db) {
+        db.execSQL(CREATE_ANOMALY_STATE_TIME_INDEX);
+        db.execSQL(CREATE_ANOMALY_PACKAGE_INDEX);
+    }
+
     private void dropTables(SQLiteDatabase db) {
         db.execSQL("DROP TABLE IF EXISTS " + Tables.TABLE_ANOMALY);
         db.execSQL("DROP TABLE IF EXISTS " + Tables.TABLE_ACTION);
@@ -30,9 +30,11 @@ import static com.android.settings.fuelgauge.batterytip.AnomalyDatabaseHelper.Ta
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.text.TextUtils;
 import android.util.ArrayMap;
+import android.util.Log;
 import android.util.SparseLongArray;
 
 import androidx.annotation.VisibleForTesting;
@@ -47,10 +49,18 @@ import java.util.Map;
 /**
  * Database manager for battery data. Now it only contains anomaly data stored in {@link AppInfo}.
  *
- * This manager may be accessed by multi-threads. All the database related methods are synchronized
- * so each operation won't be interfered by other threads.
+ * This manager may be accessed by multi-threads. Each operation is a single statement or a single
+ * transaction, which {@link SQLiteDatabase} runs atomically. The database is in write-ahead
+ * logging mode, so queries are not blocked by a concurrent write.
  */
 public class BatteryDatabaseManager {
+    private static final String TAG = "BatteryDatabaseManager";
+    // Stays below the SQLite limit on the number of host parameters in one statement.
+    @VisibleForTesting
+    static final int MAX_ARGS_PER_STATEMENT = 500;
+    // Free pages left by the deleted anomalies, beyond which compact() rebuilds the database.
+    private static final long VACUUM_MIN_FREE_PAGES = 64;
+
     private static BatteryDatabaseManager sSingleton;
 
     private AnomalyDatabaseHelper mDatabaseHelper;
@@ -81,7 +91,7 @@ public class BatteryDatabaseManager {
      * @param timestampMs  the time when it is happened
      * @return {@code true} if insert operation succeed
      */
-    public synchronized boolean insertAnomaly(int uid, String packageName, int type,
+    public boolean insertAnomaly(int uid, String packageName, int type,
             int anomalyState,
             long timestampMs) {
         final SQLiteDatabase db = mDatabaseHelper.getWritableDatabase();
@@ -98,7 +108,7 @@ public class BatteryDatabaseManager {
     /**
      * Query all the anomalies that happened after {@code timestampMsAfter} and with {@code state}.
      */
-    public synchronized List<AppInfo> queryAllAnomalies(long timestampMsAfter, int state) {
+    public List<AppInfo> queryAllAnomalies(long timestampMsAfter, int state) {
         final List<AppInfo> appInfos = new ArrayList<>();
         final SQLiteDatabase db = mDatabaseHelper.getReadableDatabase();
         final String[] projection = {PACKAGE_NAME, ANOMALY_TYPE, UID};
@@ -131,7 +141,7 @@ public class BatteryDatabaseManager {
         return appInfos;
     }
 
-    public synchronized void deleteAllAnomaliesBeforeTimeStamp(long timestampMs) {
+    public void deleteAllAnomaliesBeforeTimeStamp(long timestampMs) {
         final SQLiteDatabase db = mDatabaseHelper.getWritableDatabase();
         db.delete(TABLE_ANOMALY, TIME_STAMP_MS + " < ?",
                 new String[]{String.valueOf(timestampMs)});
@@ -143,19 +153,29 @@ public class BatteryDatabaseManager {
      * @param appInfos represents the anomalies
      * @param state    which state to update to
      */
-    public synchronized void updateAnomalies(List<AppInfo> appInfos, int state) {
-        if (!appInfos.isEmpty()) {
+    public void updateAnomalies(List<AppInfo> appInfos, int state) {
+        if (appInfos.isEmpty()) {
+            return;
+        }
+        final SQLiteDatabase db = mDatabaseHelper.getWritableDatabase();
+        final ContentValues values = new ContentValues();
+        values.put(ANOMALY_STATE, state);
+        // Updates in batches of MAX_ARGS_PER_STATEMENT packages, all in one transaction.
+        db.beginTransaction();
+        try {
             final int size = appInfos.size();
-            final String[] whereArgs = new String[size];
-            for (int i = 0; i < size; i++) {
-                whereArgs[i] = appInfos.get(i).packageName;
+            for (int start = 0; start < size; start += MAX_ARGS_PER_STATEMENT) {
+                final int count = Math.min(MAX_ARGS_PER_STATEMENT, size - start);
+                final String[] whereArgs = new String[count];
+                for (int i = 0; i < count; i++) {
+                    whereArgs[i] = appInfos.get(start + i).packageName;
+                }
+                db.update(TABLE_ANOMALY, values, PACKAGE_NAME + " IN (" + TextUtils.join(",",
+                        Collections.nCopies(count, "?")) + ")", whereArgs);
             }
-
-            final SQLiteDatabase db = mDatabaseHelper.getWritableDatabase();
-            final ContentValues values = new ContentValues();
-            values.put(ANOMALY_STATE, state);
-            db.update(TABLE_ANOMALY, values, PACKAGE_NAME + " IN (" + TextUtils.join(",",
-                    Collections.nCopies(appInfos.size(), "?")) + ")", whereArgs);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
         }
     }
 
@@ -165,7 +185,7 @@ public class BatteryDatabaseManager {
      * @param type of action been performed
      * @return {@link SparseLongArray} where key is uid and value is timestamp
      */
-    public synchronized SparseLongArray queryActionTime(
+    public SparseLongArray queryActionTime(
             @AnomalyDatabaseHelper.ActionType int type) {
         final SparseLongArray timeStamps = new SparseLongArray();
         final SQLiteDatabase db = mDatabaseHelper.getReadableDatabase();
@@ -191,7 +211,7 @@ public class BatteryDatabaseManager {
     /**
      * Insert an action, or update it if already existed
      */
-    public synchronized boolean insertAction(@AnomalyDatabaseHelper.ActionType int type,
+    public boolean insertAction(@AnomalyDatabaseHelper.ActionType int type,
             int uid, String packageName, long timestampMs) {
         final SQLiteDatabase db = mDatabaseHelper.getWritableDatabase();
         final ContentValues values = new ContentValues();
@@ -206,7 +226,7 @@ public class BatteryDatabaseManager {
     /**
      * Remove an action
      */
-    public synchronized boolean deleteAction(@AnomalyDatabaseHelper.ActionType int type,
+    public boolean deleteAction(@AnomalyDatabaseHelper.ActionType int type,
             int uid, String packageName) {
         SQLiteDatabase db = mDatabaseHelper.getWritableDatabase();
         final String where =
@@ -217,4 +237,20 @@ public class BatteryDatabaseManager {
 
         return db.delete(TABLE_ACTION, where, whereArgs) != 0;
     }
+
+    /**
+     * Merges the write-ahead log back into the database, and rebuilds the database if many pages
+     * were freed by deleted anomalies. Meant for an idle maintenance job.
+     */
+    public void compact() {
+        final SQLiteDatabase db = mDatabaseHelper.getWritableDatabase();
+        final long freePages = DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null);
+        if (freePages >= VACUUM_MIN_FREE_PAGES) {
+            Log.i(TAG, "Vacuum the anomaly database with " + freePages + " free pages");
+            db.execSQL("VACUUM");
+        }
+        try (Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(TRUNCATE)", null)) {
+            cursor.moveToFirst();
+        }
+    }
 }
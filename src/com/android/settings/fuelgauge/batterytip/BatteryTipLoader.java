@@ -25,6 +25,7 @@ import androidx.annotation.VisibleForTesting;
 import com.android.settings.fuelgauge.BatteryInfo;
 import com.android.settings.fuelgauge.BatteryUtils;
 import com.android.settings.fuelgauge.batterytip.detectors.BatteryDefenderDetector;
+import com.android.settings.fuelgauge.batterytip.detectors.BatteryTipDetector;
 import com.android.settings.fuelgauge.batterytip.detectors.DockDefenderDetector;
 import com.android.settings.fuelgauge.batterytip.detectors.HighUsageDetector;
 import com.android.settings.fuelgauge.batterytip.detectors.IncompatibleChargerDetector;
@@ -34,10 +35,13 @@ import com.android.settings.fuelgauge.batterytip.tips.BatteryTip;
 import com.android.settings.fuelgauge.batterytip.tips.LowBatteryTip;
 import com.android.settingslib.fuelgauge.EstimateKt;
 import com.android.settingslib.utils.AsyncLoaderCompat;
+import com.android.settingslib.utils.ThreadUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * Loader to compute and return a battery tip list. It will always return a full length list even
@@ -58,19 +62,66 @@ public class BatteryTipLoader extends AsyncLoaderCompat<List<BatteryTip>> {
 
     @Override
     public List<BatteryTip> loadInBackground() {
-        final List<BatteryTip> tips = new ArrayList<>();
+        final long startTime = System.currentTimeMillis();
         final BatteryTipPolicy policy = new BatteryTipPolicy(getContext());
         final BatteryInfo batteryInfo = mBatteryUtils.getBatteryInfo(TAG);
         final Context context = getContext().getApplicationContext();
         final boolean isPowerSaveMode =
                 context.getSystemService(PowerManager.class).isPowerSaveMode();
 
-        tips.add(new LowBatteryDetector(context, policy, batteryInfo, isPowerSaveMode).detect());
-        tips.add(new HighUsageDetector(context, policy, mBatteryUsageStats, batteryInfo).detect());
-        tips.add(new BatteryDefenderDetector(batteryInfo, context).detect());
-        tips.add(new DockDefenderDetector(batteryInfo, context).detect());
-        tips.add(new IncompatibleChargerDetector(context).detect());
+        final List<BatteryTipDetector> detectors = new ArrayList<>();
+        detectors.add(new LowBatteryDetector(context, policy, batteryInfo, isPowerSaveMode));
+        detectors.add(new HighUsageDetector(context, policy, mBatteryUsageStats, batteryInfo));
+        detectors.add(new BatteryDefenderDetector(batteryInfo, context));
+        detectors.add(new DockDefenderDetector(batteryInfo, context));
+        detectors.add(new IncompatibleChargerDetector(context));
+
+        final List<BatteryTip> tips = detect(detectors);
         Collections.sort(tips);
+        BatteryUtils.logRuntime(TAG, "loadInBackground", startTime);
+        return tips;
+    }
+
+    /**
+     * Runs the independent {@code detectors} concurrently and returns their tips in the same
+     * order. The last detector runs on the calling thread while the others are in flight.
+     */
+    @VisibleForTesting
+    static List<BatteryTip> detect(List<BatteryTipDetector> detectors) {
+        final int size = detectors.size();
+        final List<FutureTask<BatteryTip>> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final BatteryTipDetector detector = detectors.get(i);
+            final FutureTask<BatteryTip> task = new FutureTask<>(() -> {
+                final long startTime = System.currentTimeMillis();
+                final BatteryTip tip = detector.detect();
+                BatteryUtils.logRuntime(TAG, detector.getClass().getSimpleName(), startTime);
+                return tip;
+            });
+            tasks.add(task);
+            if (i < size - 1) {
+                ThreadUtils.postOnBackgroundThread(task);
+            }
+        }
+        if (size > 0) {
+            tasks.get(size - 1).run();
+        }
+
+        final List<BatteryTip> tips = new ArrayList<>(size);
+        for (FutureTask<BatteryTip> task : tasks) {
+            try {
+                tips.add(task.get());
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
         return tips;
     }
 
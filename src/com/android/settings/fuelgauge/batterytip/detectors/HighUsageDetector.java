@@ -23,6 +23,7 @@ import android.os.BatteryUsageStats;
 import android.os.UidBatteryConsumer;
 import android.util.Log;
 
+import androidx.annotation.GuardedBy;
 import androidx.annotation.VisibleForTesting;
 
 import com.android.settings.fuelgauge.BatteryInfo;
@@ -33,7 +34,9 @@ import com.android.settings.fuelgauge.batterytip.HighUsageDataParser;
 import com.android.settings.fuelgauge.batterytip.tips.BatteryTip;
 import com.android.settings.fuelgauge.batterytip.tips.HighUsageTip;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -44,6 +47,14 @@ import java.util.concurrent.TimeUnit;
 public class HighUsageDetector implements BatteryTipDetector {
     private static final String TAG = "HighUsageDetector";
 
+    private static final Object sLock = new Object();
+    @GuardedBy("sLock")
+    private static WeakReference<BatteryUsageStats> sCachedStats;
+    @GuardedBy("sLock")
+    private static int sCachedAppCount;
+    @GuardedBy("sLock")
+    private static List<AppInfo> sCachedAppList;
+
     private BatteryTipPolicy mPolicy;
     private BatteryUsageStats mBatteryUsageStats;
     private final BatteryInfo mBatteryInfo;
@@ -74,32 +85,7 @@ public class HighUsageDetector implements BatteryTipDetector {
         if (mPolicy.highUsageEnabled && mDischarging) {
             parseBatteryData();
             if (mDataParser.isDeviceHeavilyUsed() || mPolicy.testHighUsageTip) {
-                final double totalPower = mBatteryUsageStats.getConsumedPower();
-                final int dischargeAmount = mBatteryUsageStats.getDischargePercentage();
-                final List<UidBatteryConsumer> uidBatteryConsumers =
-                        mBatteryUsageStats.getUidBatteryConsumers();
-                // Sort by descending power
-                uidBatteryConsumers.sort(
-                        (consumer1, consumer2) -> Double.compare(consumer2.getConsumedPower(),
-                                consumer1.getConsumedPower()));
-                for (UidBatteryConsumer consumer : uidBatteryConsumers) {
-                    final double percent = mBatteryUtils.calculateBatteryPercent(
-                            consumer.getConsumedPower(), totalPower, dischargeAmount);
-                    if ((percent + 0.5f < 1f)
-                            || mBatteryUtils.shouldHideUidBatteryConsumer(consumer)) {
-                        // Don't show it if we should hide or usage percentage is lower than 1%
-                        continue;
-                    }
-
-                    mHighUsageAppList.add(new AppInfo.Builder()
-                            .setUid(consumer.getUid())
-                            .setPackageName(
-                                    mBatteryUtils.getPackageName(consumer.getUid()))
-                            .build());
-                    if (mHighUsageAppList.size() >= mPolicy.highUsageAppCount) {
-                        break;
-                    }
-                }
+                mHighUsageAppList.addAll(getHighUsageApps());
 
                 // When in test mode, add an app if necessary
                 if (mPolicy.testHighUsageTip && mHighUsageAppList.isEmpty()) {
@@ -114,6 +100,56 @@ public class HighUsageDetector implements BatteryTipDetector {
         return new HighUsageTip(lastFullChargeTimeMs, mHighUsageAppList);
     }
 
+    /**
+     * Returns the apps using the most battery in {@link #mBatteryUsageStats}. The result is kept
+     * for the last stats, since the tips are loaded again for the same stats on every battery
+     * change.
+     */
+    private List<AppInfo> getHighUsageApps() {
+        synchronized (sLock) {
+            if (sCachedStats != null && sCachedStats.get() == mBatteryUsageStats
+                    && sCachedAppCount == mPolicy.highUsageAppCount) {
+                return sCachedAppList;
+            }
+        }
+
+        final List<AppInfo> appList = new ArrayList<>();
+        final double totalPower = mBatteryUsageStats.getConsumedPower();
+        final int dischargeAmount = mBatteryUsageStats.getDischargePercentage();
+        final List<UidBatteryConsumer> uidBatteryConsumers =
+                mBatteryUsageStats.getUidBatteryConsumers();
+        // Sort by descending power
+        uidBatteryConsumers.sort(
+                (consumer1, consumer2) -> Double.compare(consumer2.getConsumedPower(),
+                        consumer1.getConsumedPower()));
+        for (UidBatteryConsumer consumer : uidBatteryConsumers) {
+            final double percent = mBatteryUtils.calculateBatteryPercent(
+                    consumer.getConsumedPower(), totalPower, dischargeAmount);
+            if ((percent + 0.5f < 1f)
+                    || mBatteryUtils.shouldHideUidBatteryConsumer(consumer)) {
+                // Don't show it if we should hide or usage percentage is lower than 1%
+                continue;
+            }
+
+            appList.add(new AppInfo.Builder()
+                    .setUid(consumer.getUid())
+                    .setPackageName(
+                            mBatteryUtils.getPackageName(consumer.getUid()))
+                    .build());
+            if (appList.size() >= mPolicy.highUsageAppCount) {
+                break;
+            }
+        }
+
+        final List<AppInfo> result = Collections.unmodifiableList(appList);
+        synchronized (sLock) {
+            sCachedStats = new WeakReference<>(mBatteryUsageStats);
+            sCachedAppCount = mPolicy.highUsageAppCount;
+            sCachedAppList = result;
+        }
+        return result;
+    }
+
     @VisibleForTesting
     void parseBatteryData() {
         try {
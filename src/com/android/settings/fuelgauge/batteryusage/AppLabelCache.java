@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batteryusage;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
+import android.os.UserHandle;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Locale;
+
+/**
+ * A persistent cache of application labels, keyed by package name, version code and user.
+ *
+ * <p>Loading a label from {@link android.content.pm.PackageManager} loads the resources of the
+ * application, so the labels are kept across processes. An updated package has a new version
+ * code and thus misses the cache, a removed package is dropped by {@link #removePackage} and a
+ * locale change drops all the labels.
+ */
+final class AppLabelCache {
+    private static final String TAG = "AppLabelCache";
+    private static final String SHARED_PREFS_FILE = "battery_app_label_cache";
+    private static final String KEY_LOCALE = "locale";
+    private static final String KEY_SEPARATOR = "|";
+
+    @VisibleForTesting
+    static final int MAX_LABEL_COUNT = 512;
+
+    private AppLabelCache() {
+    }
+
+    /** Returns the label of {@code appInfo}, loading it from the package only when missing. */
+    static String getLabel(Context context, ApplicationInfo appInfo) {
+        if (TextUtils.isEmpty(appInfo.packageName)) {
+            return context.getPackageManager().getApplicationLabel(appInfo).toString();
+        }
+        final SharedPreferences sharedPreferences = getSharedPreferences(context);
+        final String locale = Locale.getDefault().toLanguageTag();
+        if (!locale.equals(sharedPreferences.getString(KEY_LOCALE, null))) {
+            Log.d(TAG, "clear labels for locale " + locale);
+            sharedPreferences.edit().clear().putString(KEY_LOCALE, locale).apply();
+        }
+
+        final String key = getKey(appInfo);
+        final String cachedLabel = sharedPreferences.getString(key, null);
+        if (cachedLabel != null) {
+            return cachedLabel;
+        }
+        final String label = context.getPackageManager().getApplicationLabel(appInfo).toString();
+        final SharedPreferences.Editor editor = sharedPreferences.edit();
+        // Stale versions are not tracked, so start over once the cache is full.
+        if (sharedPreferences.getAll().size() > MAX_LABEL_COUNT) {
+            editor.clear().putString(KEY_LOCALE, locale);
+        }
+        editor.putString(key, label).apply();
+        return label;
+    }
+
+    /** Drops the labels of {@code packageName} for all its versions and users. */
+    static void removePackage(Context context, String packageName) {
+        if (TextUtils.isEmpty(packageName)) {
+            return;
+        }
+        final SharedPreferences sharedPreferences = getSharedPreferences(context);
+        final String prefix = packageName + KEY_SEPARATOR;
+        final SharedPreferences.Editor editor = sharedPreferences.edit();
+        for (String key : sharedPreferences.getAll().keySet()) {
+            if (key.startsWith(prefix)) {
+                editor.remove(key);
+            }
+        }
+        editor.apply();
+    }
+
+    /** Drops all the labels. */
+    static void clear(Context context) {
+        getSharedPreferences(context).edit().clear().apply();
+    }
+
+    @VisibleForTesting
+    static String getKey(ApplicationInfo appInfo) {
+        return appInfo.packageName + KEY_SEPARATOR + appInfo.longVersionCode + KEY_SEPARATOR
+                + UserHandle.getUserId(appInfo.uid);
+    }
+
+    private static SharedPreferences getSharedPreferences(Context context) {
+        return context.getApplicationContext().getSharedPreferences(
+                SHARED_PREFS_FILE, Context.MODE_PRIVATE);
+    }
+}
@@ -77,6 +77,7 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
     private final Rect[] mPercentageBounds = new Rect[]{new Rect(), new Rect(), new Rect()};
     private final List<Rect> mAxisLabelsBounds = new ArrayList<>();
     private final Set<Integer> mLabelDrawnIndexes = new ArraySet<>();
+    private final Rect mDirtyRect = new Rect();
     private final int mLayoutDirection =
             getContext().getResources().getConfiguration().getLayoutDirection();
 
@@ -106,8 +107,23 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
     private AccessibilityNodeProvider mAccessibilityNodeProvider;
     private BatteryChartView.OnSelectListener mOnSelectListener;
 
+    // Geometry derived from the view model and the view size. It is computed on the first draw
+    // after either changes, so hover and selection redraws only change colors.
+    private float mUnitWidth;
+    private float mTrapezoidBottom;
+    private float mAxisLabelBaselineY;
+    private int mAxisLabelDisplayAreaCount;
+    private Rect[] mAxisLabelDisplayAreas;
+    // The selection drawn last, to redraw only the trapezoids a selection change touches.
+    private int mDrawnSelectedIndex = BatteryChartViewModel.SELECTED_INDEX_INVALID;
+    private int mDrawnHighlightSlotIndex = BatteryChartViewModel.SELECTED_INDEX_INVALID;
+
     @VisibleForTesting
     TrapezoidSlot[] mTrapezoidSlots;
+    @VisibleForTesting
+    Path[] mTrapezoidPaths;
+    @VisibleForTesting
+    boolean mGeometryValid;
     // Records the location to calculate selected index.
     @VisibleForTesting
     float mTouchUpEventX = Float.MIN_VALUE;
@@ -129,6 +145,7 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
     public void setViewModel(BatteryChartViewModel viewModel) {
         if (viewModel == null) {
             mViewModel = null;
+            mGeometryValid = false;
             invalidate();
             return;
         }
@@ -136,7 +153,14 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
         Log.d(TAG, String.format(
                 "setViewModel(): size: %d, selectedIndex: %d, getHighlightSlotIndex: %d",
                 viewModel.size(), viewModel.selectedIndex(), viewModel.getHighlightSlotIndex()));
+        if (viewModel == mViewModel && mGeometryValid) {
+            // Only the selection of the drawn view model can change, its geometry is still valid.
+            setClickable(hasAnyValidTrapezoid(viewModel));
+            invalidateSelection();
+            return;
+        }
         mViewModel = viewModel;
+        mGeometryValid = false;
         initializeAxisLabelsBounds();
         initializeTrapezoidSlots(viewModel.size() - 1);
         setClickable(hasAnyValidTrapezoid(viewModel));
@@ -194,6 +218,13 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
         } else {
             mIndent.set(0, 0, 0, 0);
         }
+        mGeometryValid = false;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mGeometryValid = false;
     }
 
     @Override
@@ -205,9 +236,12 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
         if (mViewModel == null) {
             return;
         }
+        updateGeometryIfNeeded();
         drawVerticalDividers(canvas);
         drawTrapezoids(canvas);
         drawTransomLine(canvas);
+        mDrawnSelectedIndex = mViewModel.selectedIndex();
+        mDrawnHighlightSlotIndex = mViewModel.getHighlightSlotIndex();
     }
 
     @Override
@@ -233,8 +267,8 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
             case MotionEvent.ACTION_HOVER_MOVE:
                 final int trapezoidIndex = getTrapezoidIndex(event.getX());
                 if (mHoveredIndex != trapezoidIndex) {
+                    invalidateTrapezoids(mHoveredIndex, trapezoidIndex);
                     mHoveredIndex = trapezoidIndex;
-                    invalidate();
                     sendAccessibilityEventForHover(AccessibilityEvent.TYPE_VIEW_HOVER_ENTER);
                 }
                 // Ignore the super.onHoverEvent() because the hovered trapezoid has already been
@@ -243,8 +277,9 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
             case MotionEvent.ACTION_HOVER_EXIT:
                 if (mHoveredIndex != BatteryChartViewModel.SELECTED_INDEX_INVALID) {
                     sendAccessibilityEventForHover(AccessibilityEvent.TYPE_VIEW_HOVER_EXIT);
+                    invalidateTrapezoids(
+                            mHoveredIndex, BatteryChartViewModel.SELECTED_INDEX_INVALID);
                     mHoveredIndex = BatteryChartViewModel.SELECTED_INDEX_INVALID; // reset
-                    invalidate();
                 }
                 // Ignore the super.onHoverEvent() because the hovered trapezoid has already been
                 // sent here.
@@ -258,8 +293,8 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
     public void onHoverChanged(boolean hovered) {
         super.onHoverChanged(hovered);
         if (!hovered) {
+            invalidateTrapezoids(mHoveredIndex, BatteryChartViewModel.SELECTED_INDEX_INVALID);
             mHoveredIndex = BatteryChartViewModel.SELECTED_INDEX_INVALID; // reset
-            invalidate();
         }
     }
 
@@ -317,10 +352,53 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
     }
 
     private void initializeTrapezoidSlots(int count) {
-        mTrapezoidSlots = new TrapezoidSlot[count];
-        for (int index = 0; index < mTrapezoidSlots.length; index++) {
-            mTrapezoidSlots[index] = new TrapezoidSlot();
+        if (mTrapezoidSlots == null || mTrapezoidSlots.length != count) {
+            mTrapezoidSlots = new TrapezoidSlot[count];
+            mTrapezoidPaths = new Path[count];
+            for (int index = 0; index < mTrapezoidSlots.length; index++) {
+                mTrapezoidSlots[index] = new TrapezoidSlot();
+                mTrapezoidPaths[index] = new Path();
+            }
+        }
+    }
+
+    /** Redraws the selected and unselected trapezoids after a selection change. */
+    private void invalidateSelection() {
+        final int selectedIndex = mViewModel.selectedIndex();
+        if (mViewModel.getHighlightSlotIndex() != mDrawnHighlightSlotIndex
+                || selectedIndex == BatteryChartViewModel.SELECTED_INDEX_ALL
+                || mDrawnSelectedIndex == BatteryChartViewModel.SELECTED_INDEX_ALL) {
+            invalidate();
+            return;
+        }
+        invalidateTrapezoids(mDrawnSelectedIndex, selectedIndex);
+    }
+
+    /** Redraws only the area of two trapezoids, e.g. when the hovered trapezoid changes. */
+    private void invalidateTrapezoids(int index1, int index2) {
+        if (!mGeometryValid) {
+            invalidate();
+            return;
         }
+        mDirtyRect.setEmpty();
+        unionTrapezoidArea(index1);
+        unionTrapezoidArea(index2);
+        if (!mDirtyRect.isEmpty()) {
+            invalidate(mDirtyRect);
+        }
+    }
+
+    private void unionTrapezoidArea(int index) {
+        if (index < 0 || index >= mTrapezoidSlots.length) {
+            return;
+        }
+        // Covers the slot column from the transom line down to the bottom of the trapezoid.
+        final TrapezoidSlot slot = mTrapezoidSlots[index];
+        mDirtyRect.union(
+                (int) Math.floor(slot.mLeft - mTrapezoidHOffset),
+                /* top= */ 0,
+                (int) Math.ceil(slot.mRight + mTrapezoidHOffset),
+                (int) Math.ceil(mTrapezoidBottom) + 1);
     }
 
     private void initializeColors(Context context) {
@@ -424,39 +502,58 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
         }
     }
 
-    private void drawVerticalDividers(Canvas canvas) {
+    /** Computes the slot positions, axis label areas and trapezoid paths if they are stale. */
+    private void updateGeometryIfNeeded() {
+        if (mGeometryValid) {
+            return;
+        }
         final int width = getWidth() - abs(mIndent.width());
+        final float dividerSpace = (mTrapezoidSlots.length + 1) * mDividerWidth;
+        mUnitWidth = (width - dividerSpace) / (float) mTrapezoidSlots.length;
+        mTrapezoidBottom = getHeight() - mIndent.bottom - mDividerHeight - mDividerWidth
+                - mTrapezoidVOffset;
+        // Updates the trapezoid slots for drawing.
+        final float trapezoidSlotOffset = mTrapezoidHOffset + mDividerWidth * .5f;
+        float startX = mDividerWidth * .5f + mIndent.left;
+        for (int index = 0; index < mTrapezoidSlots.length; index++) {
+            final float nextX = startX + mDividerWidth + mUnitWidth;
+            final int trapezoidIndex = isRTL() ? mTrapezoidSlots.length - index - 1 : index;
+            mTrapezoidSlots[trapezoidIndex].mLeft = round(startX + trapezoidSlotOffset);
+            mTrapezoidSlots[trapezoidIndex].mRight = round(nextX - trapezoidSlotOffset);
+            startX = nextX;
+        }
+        // Updates the axis label slot information.
+        mAxisLabelBaselineY = getHeight() - mTextPadding;
+        switch (mViewModel.axisLabelPosition()) {
+            case CENTER_OF_TRAPEZOIDS:
+                updateAxisLabelDisplayAreas(
+                        /* size= */ mViewModel.size() - 1,
+                        /* baselineX= */ mIndent.left + mDividerWidth + mUnitWidth * .5f,
+                        /* offsetX= */ mDividerWidth + mUnitWidth,
+                        mAxisLabelBaselineY,
+                        /* shiftFirstAndLast= */ false);
+                break;
+            case BETWEEN_TRAPEZOIDS:
+            default:
+                updateAxisLabelDisplayAreas(
+                        /* size= */ mViewModel.size(),
+                        /* baselineX= */ mIndent.left + mDividerWidth * .5f,
+                        /* offsetX= */ mDividerWidth + mUnitWidth,
+                        mAxisLabelBaselineY,
+                        /* shiftFirstAndLast= */ true);
+                break;
+        }
+        updateTrapezoidPaths();
+        mGeometryValid = true;
+    }
+
+    private void drawVerticalDividers(Canvas canvas) {
         final int dividerCount = mTrapezoidSlots.length + 1;
-        final float dividerSpace = dividerCount * mDividerWidth;
-        final float unitWidth = (width - dividerSpace) / (float) mTrapezoidSlots.length;
         final float bottomY = getHeight() - mIndent.bottom;
         final float startY = bottomY - mDividerHeight;
-        final float trapezoidSlotOffset = mTrapezoidHOffset + mDividerWidth * .5f;
         // Draws the axis label slot information.
-        if (mViewModel != null) {
-            final float baselineY = getHeight() - mTextPadding;
-            Rect[] axisLabelDisplayAreas;
-            switch (mViewModel.axisLabelPosition()) {
-                case CENTER_OF_TRAPEZOIDS:
-                    axisLabelDisplayAreas = getAxisLabelDisplayAreas(
-                            /* size= */ mViewModel.size() - 1,
-                            /* baselineX= */ mIndent.left + mDividerWidth + unitWidth * .5f,
-                            /* offsetX= */ mDividerWidth + unitWidth,
-                            baselineY,
-                            /* shiftFirstAndLast= */ false);
-                    break;
-                case BETWEEN_TRAPEZOIDS:
-                default:
-                    axisLabelDisplayAreas = getAxisLabelDisplayAreas(
-                            /* size= */ mViewModel.size(),
-                            /* baselineX= */ mIndent.left + mDividerWidth * .5f,
-                            /* offsetX= */ mDividerWidth + unitWidth,
-                            baselineY,
-                            /* shiftFirstAndLast= */ true);
-                    break;
-            }
-            drawAxisLabels(canvas, axisLabelDisplayAreas, baselineY);
-        }
+        drawAxisLabels(canvas, mAxisLabelDisplayAreas, mAxisLabelDisplayAreaCount,
+                mAxisLabelBaselineY);
         // Draws each vertical dividers.
         float startX = mDividerWidth * .5f + mIndent.left;
         for (int index = 0; index < dividerCount; index++) {
@@ -469,22 +566,15 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
                 mDividerPaint.setColor(DIVIDER_COLOR);
             }
             canvas.drawLine(startX, startY, startX, dividerY, mDividerPaint);
-            final float nextX = startX + mDividerWidth + unitWidth;
-            // Updates the trapezoid slots for drawing.
-            if (index < mTrapezoidSlots.length) {
-                final int trapezoidIndex = isRTL() ? mTrapezoidSlots.length - index - 1 : index;
-                mTrapezoidSlots[trapezoidIndex].mLeft = round(startX + trapezoidSlotOffset);
-                mTrapezoidSlots[trapezoidIndex].mRight = round(nextX - trapezoidSlotOffset);
-            }
-            startX = nextX;
+            startX += mDividerWidth + mUnitWidth;
         }
     }
 
-    /** Gets all the axis label texts displaying area positions if they are shown. */
-    private Rect[] getAxisLabelDisplayAreas(final int size, final float baselineX,
+    /** Updates all the axis label texts displaying area positions if they are shown. */
+    private void updateAxisLabelDisplayAreas(final int size, final float baselineX,
             final float offsetX, final float baselineY, final boolean shiftFirstAndLast) {
-        final Rect[] result = new Rect[size];
-        for (int index = 0; index < result.length; index++) {
+        mAxisLabelDisplayAreaCount = size;
+        for (int index = 0; index < size; index++) {
             final float width = mAxisLabelsBounds.get(index).width();
             float middle = baselineX + index * offsetX;
             if (shiftFirstAndLast) {
@@ -499,13 +589,14 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
             final float right = left + width;
             final float top = baselineY + mAxisLabelsBounds.get(index).top;
             final float bottom = top + mAxisLabelsBounds.get(index).height();
-            result[index] = new Rect(round(left), round(top), round(right), round(bottom));
+            mAxisLabelDisplayAreas[index].set(
+                    round(left), round(top), round(right), round(bottom));
         }
-        return result;
     }
 
-    private void drawAxisLabels(Canvas canvas, final Rect[] displayAreas, final float baselineY) {
-        final int lastIndex = displayAreas.length - 1;
+    private void drawAxisLabels(Canvas canvas, final Rect[] displayAreas, final int count,
+            final float baselineY) {
+        final int lastIndex = count - 1;
         mLabelDrawnIndexes.clear();
         // Suppose first and last labels are always able to draw.
         drawAxisLabelText(canvas, 0, displayAreas[0], baselineY);
@@ -588,33 +679,18 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
         mLabelDrawnIndexes.add(index);
     }
 
-    private void drawTrapezoids(Canvas canvas) {
-        // Ignores invalid trapezoid data.
-        if (mViewModel == null) {
-            return;
-        }
-        final float trapezoidBottom =
-                getHeight() - mIndent.bottom - mDividerHeight - mDividerWidth
-                        - mTrapezoidVOffset;
+    private void updateTrapezoidPaths() {
+        final float trapezoidBottom = mTrapezoidBottom;
         final float availableSpace =
                 trapezoidBottom - mDividerWidth * .5f - mIndent.top - mTrapezoidVOffset;
         final float unitHeight = availableSpace / 100f;
-        // Draws all trapezoid shapes into the canvas.
-        final Path trapezoidPath = new Path();
-        Path trapezoidCurvePath = null;
         for (int index = 0; index < mTrapezoidSlots.length; index++) {
+            final Path trapezoidPath = mTrapezoidPaths[index];
+            trapezoidPath.reset();
             // Not draws the trapezoid for corner or not initialization cases.
             if (!isValidToDraw(mViewModel, index)) {
                 continue;
             }
-            // Configures the trapezoid paint color.
-            final int trapezoidColor = (mViewModel.selectedIndex() == index
-                    || mViewModel.selectedIndex() == BatteryChartViewModel.SELECTED_INDEX_ALL)
-                    ? mTrapezoidSolidColor : mTrapezoidColor;
-            final boolean isHoverState = mHoveredIndex == index && isValidToDraw(mViewModel,
-                    mHoveredIndex);
-            mTrapezoidPaint.setColor(isHoverState ? mTrapezoidHoverColor : trapezoidColor);
-
             float leftTop = round(
                     trapezoidBottom - requireNonNull(mViewModel.getLevel(index)) * unitHeight);
             float rightTop = round(trapezoidBottom
@@ -633,8 +709,24 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
             // A tricky way to make the trapezoid shape drawing the rounded corner.
             trapezoidPath.lineTo(mTrapezoidSlots[index].mLeft, trapezoidBottom);
             trapezoidPath.lineTo(mTrapezoidSlots[index].mLeft, leftTop);
-            // Draws the trapezoid shape into canvas.
-            canvas.drawPath(trapezoidPath, mTrapezoidPaint);
+        }
+    }
+
+    private void drawTrapezoids(Canvas canvas) {
+        // Draws all trapezoid shapes into the canvas.
+        for (int index = 0; index < mTrapezoidSlots.length; index++) {
+            // Not draws the trapezoid for corner or not initialization cases.
+            if (!isValidToDraw(mViewModel, index)) {
+                continue;
+            }
+            // Configures the trapezoid paint color.
+            final int trapezoidColor = (mViewModel.selectedIndex() == index
+                    || mViewModel.selectedIndex() == BatteryChartViewModel.SELECTED_INDEX_ALL)
+                    ? mTrapezoidSolidColor : mTrapezoidColor;
+            final boolean isHoverState = mHoveredIndex == index && isValidToDraw(mViewModel,
+                    mHoveredIndex);
+            mTrapezoidPaint.setColor(isHoverState ? mTrapezoidHoverColor : trapezoidColor);
+            canvas.drawPath(mTrapezoidPaths[index], mTrapezoidPaint);
         }
     }
 
@@ -652,8 +744,6 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
         mTransomLinePaint.setColor(mTransomLineDefaultColor);
         final int width = getWidth() - abs(mIndent.width());
         final float transomOffset = mTrapezoidHOffset + mDividerWidth * .5f + mTransomPadding;
-        final float trapezoidBottom = getHeight() - mIndent.bottom - mDividerHeight - mDividerWidth
-                - mTrapezoidVOffset;
         canvas.drawLine(mIndent.left + transomOffset, mTransomTop,
                 mIndent.left + width - transomOffset, mTransomTop,
                 mTransomLinePaint);
@@ -666,7 +756,7 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
         canvas.drawLine(startX + mTransomPadding, mTransomTop,
                 endX - mTransomPadding, mTransomTop,
                 mTransomLinePaint);
-        canvas.drawRect(startX, mTransomTop, endX, trapezoidBottom,
+        canvas.drawRect(startX, mTransomTop, endX, mTrapezoidBottom,
                 mTransomSelectedSlotPaint);
     }
 
@@ -702,6 +792,13 @@ public class BatteryChartView extends AppCompatImageView implements View.OnClick
         for (int i = 0; i < mViewModel.size(); i++) {
             mAxisLabelsBounds.add(new Rect());
         }
+        if (mAxisLabelDisplayAreas == null
+                || mAxisLabelDisplayAreas.length != mViewModel.size()) {
+            mAxisLabelDisplayAreas = new Rect[mViewModel.size()];
+            for (int i = 0; i < mAxisLabelDisplayAreas.length; i++) {
+                mAxisLabelDisplayAreas[i] = new Rect();
+            }
+        }
     }
 
     private static boolean isTrapezoidValid(
@@ -25,14 +25,17 @@ import android.os.UserManager;
 import android.util.Log;
 import android.util.Pair;
 
+import androidx.annotation.GuardedBy;
 import androidx.annotation.VisibleForTesting;
 
 import com.android.settings.R;
 import com.android.settings.fuelgauge.BatteryUtils;
 import com.android.settingslib.utils.StringUtil;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 
@@ -40,12 +43,27 @@ import java.util.Map;
 public class BatteryDiffEntry {
     private static final String TAG = "BatteryDiffEntry";
 
+    @VisibleForTesting
+    static final int MAX_RESOURCE_CACHE_SIZE = 128;
+
+    private static final Object sLoadLock = new Object();
+
     static Locale sCurrentLocale = null;
-    // Caches app label and icon to improve loading performance.
-    static final Map<String, BatteryEntry.NameAndIcon> sResourceCache = new HashMap<>();
+    // Caches app label and icon to improve loading performance, evicting the least recently
+    // used ones to bound the memory held by the icons.
+    static final Map<String, BatteryEntry.NameAndIcon> sResourceCache =
+            Collections.synchronizedMap(new LinkedHashMap<String, BatteryEntry.NameAndIcon>(
+                    /*initialCapacity=*/ 16, /*loadFactor=*/ 0.75f, /*accessOrder=*/ true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, BatteryEntry.NameAndIcon> eldest) {
+                    return size() > MAX_RESOURCE_CACHE_SIZE;
+                }
+            });
     // Whether a specific item is valid to launch restriction page?
     @VisibleForTesting(otherwise = VisibleForTesting.PACKAGE_PRIVATE)
-    static final Map<String, Boolean> sValidForRestriction = new HashMap<>();
+    static final Map<String, Boolean> sValidForRestriction =
+            Collections.synchronizedMap(new HashMap<>());
     /** A comparator for {@link BatteryDiffEntry} based on the sorting key. */
     static final Comparator<BatteryDiffEntry> COMPARATOR =
             (a, b) -> Double.compare(b.getSortingKey(), a.getSortingKey());
@@ -256,6 +274,14 @@ public class BatteryDiffEntry {
     }
 
     void loadLabelAndIcon() {
+        // Entries are also prefetched in the background, see DataProcessor#prefetchLabelAndIcon.
+        synchronized (sLoadLock) {
+            loadLabelAndIconLocked();
+        }
+    }
+
+    @GuardedBy("sLoadLock")
+    private void loadLabelAndIconLocked() {
         if (mIsLoaded) {
             return;
         }
@@ -388,7 +414,7 @@ public class BatteryDiffEntry {
                 final ApplicationInfo appInfo =
                         packageManager.getApplicationInfo(packageName, /*no flags*/ 0);
                 if (appInfo != null) {
-                    mAppLabel = packageManager.getApplicationLabel(appInfo).toString();
+                    mAppLabel = AppLabelCache.getLabel(mContext, appInfo);
                     mAppIcon = packageManager.getApplicationIcon(appInfo);
                 }
             } catch (NameNotFoundException e) {
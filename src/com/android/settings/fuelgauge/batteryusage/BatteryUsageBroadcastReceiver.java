@@ -94,6 +94,15 @@ public final class BatteryUsageBroadcastReceiver extends BroadcastReceiver {
                 if (sIsDebugMode) {
                     BatteryDiffEntry.clearCache();
                     BatteryEntry.clearUidCache();
+                    AppLabelCache.clear(context);
+                }
+                break;
+            case Intent.ACTION_PACKAGE_FULLY_REMOVED:
+                // Updated packages miss the label cache by their version code already.
+                if (intent.getData() != null) {
+                    BatteryDiffEntry.clearCache();
+                    final String packageName = intent.getData().getSchemeSpecificPart();
+                    mExecutor.execute(() -> AppLabelCache.removePackage(context, packageName));
                 }
                 break;
         }
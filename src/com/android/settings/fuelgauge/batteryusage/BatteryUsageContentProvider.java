@@ -27,6 +27,8 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQueryBuilder;
 
 import com.android.settings.fuelgauge.batteryusage.db.AppUsageEventDao;
 import com.android.settings.fuelgauge.batteryusage.db.AppUsageEventEntity;
@@ -42,6 +44,7 @@ import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /** {@link ContentProvider} class to fetch battery usage data. */
@@ -59,6 +62,20 @@ public class BatteryUsageContentProvider extends ContentProvider {
     private static final int LAST_FULL_CHARGE_TIMESTAMP_CODE = 5;
     private static final int BATTERY_STATE_LATEST_TIMESTAMP_CODE = 6;
     private static final int BATTERY_USAGE_SLOT_CODE = 7;
+    private static final int BATTERY_STATE_PAGE_CODE = 8;
+    private static final int BATTERY_USAGE_SLOT_PAGE_CODE = 9;
+
+    @VisibleForTesting
+    static final int MAX_PAGE_SIZE = 2000;
+
+    // Columns a paged query can project, the row id is always included for paging.
+    private static final List<String> BATTERY_STATE_COLUMNS = List.of(
+            DatabaseUtils.COLUMN_ID, "uid", "userId", "packageName", "timestamp",
+            "consumerType", "isFullChargeCycleStart", "batteryInformation",
+            "batteryInformationDebug");
+    private static final List<String> BATTERY_USAGE_SLOT_COLUMNS = List.of(
+            DatabaseUtils.COLUMN_ID, BatteryUsageSlotEntity.KEY_TIMESTAMP,
+            BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT);
 
     private static final List<Integer> ALL_BATTERY_EVENT_TYPES =
             Arrays.stream(BatteryEventType.values()).map(type -> type.getNumber()).toList();
@@ -93,6 +110,14 @@ public class BatteryUsageContentProvider extends ContentProvider {
                 DatabaseUtils.AUTHORITY,
                 /*path=*/ DatabaseUtils.BATTERY_USAGE_SLOT_TABLE,
                 /*code=*/ BATTERY_USAGE_SLOT_CODE);
+        sUriMatcher.addURI(
+                DatabaseUtils.AUTHORITY,
+                /*path=*/ DatabaseUtils.BATTERY_STATE_PAGE_PATH,
+                /*code=*/ BATTERY_STATE_PAGE_CODE);
+        sUriMatcher.addURI(
+                DatabaseUtils.AUTHORITY,
+                /*path=*/ DatabaseUtils.BATTERY_USAGE_SLOT_PAGE_PATH,
+                /*code=*/ BATTERY_USAGE_SLOT_PAGE_CODE);
     }
 
     private Clock mClock;
@@ -145,6 +170,10 @@ public class BatteryUsageContentProvider extends ContentProvider {
                 return getBatteryStateLatestTimestamp(uri);
             case BATTERY_USAGE_SLOT_CODE:
                 return getBatteryUsageSlots(uri);
+            case BATTERY_STATE_PAGE_CODE:
+                return getBatteryStatesPage(uri, strings);
+            case BATTERY_USAGE_SLOT_PAGE_CODE:
+                return getBatteryUsageSlotsPage(uri, strings);
             default:
                 throw new IllegalArgumentException("unknown URI: " + uri);
         }
@@ -232,7 +261,10 @@ public class BatteryUsageContentProvider extends ContentProvider {
         final long timestamp = mClock.millis();
         Cursor cursor = null;
         try {
-            cursor = mBatteryStateDao.getBatteryStatesAfter(queryTimestamp);
+            // The legacy uri returns the BatteryInformation as a Base64 string.
+            cursor = LegacyProtoStringCursor.wrap(
+                    mBatteryStateDao.getBatteryStatesAfter(queryTimestamp),
+                    BatteryHistEntry.KEY_BATTERY_INFORMATION);
         } catch (RuntimeException e) {
             Log.e(TAG, "query() from:" + uri + " error:", e);
         }
@@ -297,7 +329,10 @@ public class BatteryUsageContentProvider extends ContentProvider {
         final long timestamp = mClock.millis();
         Cursor cursor = null;
         try {
-            cursor = mBatteryUsageSlotDao.getAllAfter(queryTimestamp);
+            // The legacy uri returns the BatteryUsageSlot as a Base64 string.
+            cursor = LegacyProtoStringCursor.wrap(
+                    mBatteryUsageSlotDao.getAllAfter(queryTimestamp),
+                    BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT);
         } catch (RuntimeException e) {
             Log.e(TAG, "query() from:" + uri + " error:", e);
         }
@@ -305,6 +340,80 @@ public class BatteryUsageContentProvider extends ContentProvider {
         return cursor;
     }
 
+    private Cursor getBatteryStatesPage(Uri uri, @Nullable String[] projection) {
+        final List<Long> queryUids = getQueryLongList(uri, DatabaseUtils.QUERY_KEY_UID);
+        if (queryUids == null
+                && !TextUtils.isEmpty(uri.getQueryParameter(DatabaseUtils.QUERY_KEY_UID))) {
+            return null;
+        }
+        final SupportSQLiteQuery query = buildPageQuery(uri,
+                DatabaseUtils.BATTERY_STATE_TABLE, BATTERY_STATE_COLUMNS, projection, queryUids);
+        final long timestamp = mClock.millis();
+        Cursor cursor = null;
+        try {
+            cursor = mBatteryStateDao.getBatteryStates(query);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "query() from:" + uri + " error:", e);
+        }
+        Log.d(TAG, "getBatteryStatesPage() in " + (mClock.millis() - timestamp) + "/ms");
+        return cursor;
+    }
+
+    private Cursor getBatteryUsageSlotsPage(Uri uri, @Nullable String[] projection) {
+        final SupportSQLiteQuery query = buildPageQuery(uri,
+                BatteryUsageSlotEntity.class.getSimpleName(), BATTERY_USAGE_SLOT_COLUMNS,
+                projection, /*uids=*/ null);
+        final long timestamp = mClock.millis();
+        Cursor cursor = null;
+        try {
+            cursor = mBatteryUsageSlotDao.getBatteryUsageSlots(query);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "query() from:" + uri + " error:", e);
+        }
+        Log.d(TAG, "getBatteryUsageSlotsPage() in " + (mClock.millis() - timestamp) + "/ms");
+        return cursor;
+    }
+
+    // Selects the rows in [QUERY_KEY_TIMESTAMP, QUERY_KEY_END_TIMESTAMP) after the row id
+    // QUERY_KEY_AFTER_ID in row id order, at most QUERY_KEY_LIMIT of them. Paging by row id
+    // instead of an offset keeps each page a primary key range scan.
+    private SupportSQLiteQuery buildPageQuery(Uri uri, String table, List<String> columns,
+            @Nullable String[] projection, @Nullable List<Long> uids) {
+        final List<String> queryColumns = new ArrayList<>();
+        queryColumns.add(DatabaseUtils.COLUMN_ID);
+        for (String column : projection != null ? Arrays.asList(projection) : columns) {
+            if (!columns.contains(column)) {
+                throw new IllegalArgumentException("unknown column: " + column);
+            }
+            if (!queryColumns.contains(column)) {
+                queryColumns.add(column);
+            }
+        }
+
+        final List<Object> args = new ArrayList<>();
+        final StringBuilder selection = new StringBuilder(
+                "timestamp >= ? AND timestamp < ? AND " + DatabaseUtils.COLUMN_ID + " > ?");
+        args.add(getQueryTimestamp(uri));
+        args.add(getQueryValueFromUri(
+                uri, DatabaseUtils.QUERY_KEY_END_TIMESTAMP, /*defaultValue=*/ Long.MAX_VALUE));
+        args.add(getQueryValueFromUri(
+                uri, DatabaseUtils.QUERY_KEY_AFTER_ID, /*defaultValue=*/ 0L));
+        if (uids != null && !uids.isEmpty()) {
+            selection.append(" AND uid IN (")
+                    .append(TextUtils.join(",", Collections.nCopies(uids.size(), "?")))
+                    .append(")");
+            args.addAll(uids);
+        }
+        final long limit = getQueryValueFromUri(
+                uri, DatabaseUtils.QUERY_KEY_LIMIT, DatabaseUtils.DEFAULT_PAGE_SIZE);
+        return SupportSQLiteQueryBuilder.builder(table)
+                .columns(queryColumns.toArray(new String[0]))
+                .selection(selection.toString(), args.toArray())
+                .orderBy(DatabaseUtils.COLUMN_ID + " ASC")
+                .limit(Long.toString(Math.max(1, Math.min(limit, MAX_PAGE_SIZE))))
+                .create();
+    }
+
     private List<Integer> getQueryBatteryEventTypes(Uri uri) {
         Log.d(TAG, "getQueryBatteryEventTypes from uri: " + uri);
         final String batteryEventTypesParameter =
@@ -328,18 +437,23 @@ public class BatteryUsageContentProvider extends ContentProvider {
     // Otherwise, return null.
     private List<Long> getQueryUserIds(Uri uri) {
         Log.d(TAG, "getQueryUserIds from uri: " + uri);
-        final String userIdsParameter = uri.getQueryParameter(DatabaseUtils.QUERY_KEY_USERID);
-        if (TextUtils.isEmpty(userIdsParameter)) {
+        return getQueryLongList(uri, DatabaseUtils.QUERY_KEY_USERID);
+    }
+
+    // Parses the comma separated values of the query parameter key, or returns null.
+    private List<Long> getQueryLongList(Uri uri, String key) {
+        final String parameter = uri.getQueryParameter(key);
+        if (TextUtils.isEmpty(parameter)) {
             return null;
         }
         try {
-            List<Long> userIds = new ArrayList<>();
-            for (String idString : userIdsParameter.split(",")) {
-                userIds.add(Long.parseLong(idString.trim()));
+            List<Long> values = new ArrayList<>();
+            for (String valueString : parameter.split(",")) {
+                values.add(Long.parseLong(valueString.trim()));
             }
-            return userIds;
+            return values;
         } catch (NumberFormatException e) {
-            Log.e(TAG, "invalid query value: " + userIdsParameter, e);
+            Log.e(TAG, "invalid query value: " + parameter, e);
             return null;
         }
     }
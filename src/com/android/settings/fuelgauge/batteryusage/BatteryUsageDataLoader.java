@@ -148,8 +148,13 @@ public final class BatteryUsageDataLoader {
                 loadAppUsageData(context);
                 preprocessBatteryUsageSlots(context);
             }
-            Log.d(TAG, String.format(
-                    "loadUsageDataSafely() in %d/ms", System.currentTimeMillis() - start));
+            final long elapsedTime = System.currentTimeMillis() - start;
+            if (!isFullChargeStart) {
+                // Only the periodic job runs are logged as EXECUTE_JOB.
+                BatteryUsageLogUtils.writeLog(context, Action.EXECUTE_JOB,
+                        String.format("cost=%dms", elapsedTime));
+            }
+            Log.d(TAG, String.format("loadUsageDataSafely() in %d/ms", elapsedTime));
         } catch (RuntimeException e) {
             Log.e(TAG, "loadUsageData:", e);
         }
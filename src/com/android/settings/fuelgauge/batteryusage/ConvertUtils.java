@@ -41,6 +41,8 @@ import com.android.settings.fuelgauge.batteryusage.db.AppUsageEventEntity;
 import com.android.settings.fuelgauge.batteryusage.db.BatteryEventEntity;
 import com.android.settings.fuelgauge.batteryusage.db.BatteryUsageSlotEntity;
 
+import com.google.protobuf.MessageLite;
+
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
@@ -129,8 +131,7 @@ public final class ConvertUtils {
                         batteryStatus,
                         batteryHealth,
                         bootTimestamp);
-        values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION,
-                convertBatteryInformationToString(batteryInformation));
+        values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION, batteryInformation.toByteArray());
         // Save the BatteryInformation unencoded string into database for debugging.
         if (Build.TYPE.equals("userdebug")) {
             values.put(
@@ -166,36 +167,68 @@ public final class ConvertUtils {
             final BatteryUsageSlot batteryUsageSlot) {
         final ContentValues values = new ContentValues(2);
         values.put(BatteryUsageSlotEntity.KEY_TIMESTAMP, batteryUsageSlot.getStartTimestamp());
-        values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT,
-                Base64.encodeToString(batteryUsageSlot.toByteArray(), Base64.DEFAULT));
+        values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT, batteryUsageSlot.toByteArray());
         return values;
     }
 
-    /** Gets the encoded string from {@link BatteryInformation} instance. */
-    public static String convertBatteryInformationToString(
-            final BatteryInformation batteryInformation) {
-        return Base64.encodeToString(batteryInformation.toByteArray(), Base64.DEFAULT);
-    }
-
     /** Gets the {@link BatteryInformation} instance from {@link ContentValues}. */
     public static BatteryInformation getBatteryInformation(
             final ContentValues values, final String key) {
-        final BatteryInformation defaultInstance = BatteryInformation.getDefaultInstance();
-        if (values != null && values.containsKey(key)) {
-            return BatteryUtils.parseProtoFromString(values.getAsString(key), defaultInstance);
-        }
-        return defaultInstance;
+        return BatteryUtils.parseProtoFromBytes(
+                getProtoBytes(values, key), BatteryInformation.getDefaultInstance());
     }
 
     /** Gets the {@link BatteryInformation} instance from {@link Cursor}. */
     public static BatteryInformation getBatteryInformation(final Cursor cursor, final String key) {
-        final BatteryInformation defaultInstance = BatteryInformation.getDefaultInstance();
-        final int columnIndex = cursor.getColumnIndex(key);
-        if (columnIndex >= 0) {
-            return BatteryUtils.parseProtoFromString(
-                    cursor.getString(columnIndex), defaultInstance);
+        return parseProtoFromCursor(
+                cursor, cursor.getColumnIndex(key), BatteryInformation.getDefaultInstance());
+    }
+
+    /**
+     * Gets the serialized proto bytes of {@code key} from {@link ContentValues}, which holds the
+     * raw bytes or the legacy Base64 string.
+     */
+    @Nullable
+    public static byte[] getProtoBytes(final ContentValues values, final String key) {
+        final Object value = values != null ? values.get(key) : null;
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        if (value instanceof String) {
+            return decodeLegacyProtoString((String) value);
+        }
+        return null;
+    }
+
+    /** Encodes serialized proto bytes as the Base64 string stored before raw bytes. */
+    @Nullable
+    public static String encodeLegacyProtoString(@Nullable final byte[] protoBytes) {
+        return protoBytes == null ? null : Base64.encodeToString(protoBytes, Base64.DEFAULT);
+    }
+
+    /** Decodes a proto stored as a Base64 string before it was stored as raw bytes. */
+    @Nullable
+    public static byte[] decodeLegacyProtoString(@Nullable final String serializedProto) {
+        if (serializedProto == null || serializedProto.isEmpty()) {
+            return null;
+        }
+        try {
+            return Base64.decode(serializedProto, Base64.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "invalid Base64 proto string", e);
+            return null;
+        }
+    }
+
+    private static <T extends MessageLite> T parseProtoFromCursor(
+            final Cursor cursor, final int columnIndex, final T defaultInstance) {
+        if (columnIndex < 0) {
+            return defaultInstance;
         }
-        return defaultInstance;
+        // Rows written before the compact encoding hold the Base64 string.
+        return cursor.getType(columnIndex) == Cursor.FIELD_TYPE_STRING
+                ? BatteryUtils.parseProtoFromString(cursor.getString(columnIndex), defaultInstance)
+                : BatteryUtils.parseProtoFromBytes(cursor.getBlob(columnIndex), defaultInstance);
     }
 
     /** Converts to {@link BatteryHistEntry} */
@@ -326,11 +359,9 @@ public final class ConvertUtils {
 
     /** Converts from {@link Cursor} to {@link BatteryUsageSlot} */
     public static BatteryUsageSlot convertToBatteryUsageSlot(final Cursor cursor) {
-        final BatteryUsageSlot defaultInstance = BatteryUsageSlot.getDefaultInstance();
-        final int columnIndex =
-                cursor.getColumnIndex(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT);
-        return columnIndex < 0 ? defaultInstance : BatteryUtils.parseProtoFromString(
-                cursor.getString(columnIndex), defaultInstance);
+        return parseProtoFromCursor(
+                cursor, cursor.getColumnIndex(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT),
+                BatteryUsageSlot.getDefaultInstance());
     }
 
     /** Converts from {@link Map<Long, BatteryDiffData>} to {@link List<BatteryUsageSlot>} */
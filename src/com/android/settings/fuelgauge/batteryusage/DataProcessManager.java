@@ -428,6 +428,10 @@ public class DataProcessManager {
                 Log.d(TAG, String.format(
                         "execute loadAndApplyBatteryMapFromServiceOnly size=%d in %d/ms",
                         batteryDiffDataMap.size(), (System.currentTimeMillis() - startTime)));
+                if (mCallbackFunction != null) {
+                    // Loads the labels and icons here instead of on the main thread.
+                    DataProcessor.prefetchLabelAndIcon(batteryDiffDataMap);
+                }
                 return batteryDiffDataMap;
             }
 
@@ -494,6 +498,10 @@ public class DataProcessManager {
                 Log.d(TAG, String.format(
                         "execute generateFinalDataAndApplyCallback size=%d in %d/ms",
                         batteryDiffDataMap.size(), System.currentTimeMillis() - startTime));
+                if (mCallbackFunction != null) {
+                    // Loads the labels and icons here instead of on the main thread.
+                    DataProcessor.prefetchLabelAndIcon(batteryDiffDataMap);
+                }
                 return batteryDiffDataMap;
             }
 
@@ -49,6 +49,7 @@ import android.util.SparseArray;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 
 import com.android.internal.annotations.VisibleForTesting;
 import com.android.internal.os.PowerProfile;
@@ -96,6 +97,9 @@ public final class DataProcessor {
     @VisibleForTesting
     static final int SELECTED_INDEX_ALL = BatteryChartViewModel.SELECTED_INDEX_ALL;
 
+    @VisibleForTesting
+    static final int PREFETCH_LABEL_AND_ICON_COUNT = 20;
+
     @VisibleForTesting
     static final Comparator<AppUsageEvent> APP_USAGE_EVENT_TIMESTAMP_COMPARATOR =
             Comparator.comparing(AppUsageEvent::getTimestamp);
@@ -901,6 +905,40 @@ public final class DataProcessor {
         }
     }
 
+    /**
+     * Loads the label and icon of the top {@link #PREFETCH_LABEL_AND_ICON_COUNT} consumers of all
+     * the slots in the background, so {@link #loadLabelAndIcon} finds them in the cache.
+     */
+    @WorkerThread
+    static void prefetchLabelAndIcon(
+            @Nullable final Map<Long, BatteryDiffData> batteryDiffDataMap) {
+        if (batteryDiffDataMap == null || batteryDiffDataMap.isEmpty()) {
+            return;
+        }
+        final long startTime = System.currentTimeMillis();
+        // Keeps the largest consumption of each entry across the slots.
+        final Map<String, BatteryDiffEntry> entryMap = new ArrayMap<>();
+        for (BatteryDiffData batteryDiffData : batteryDiffDataMap.values()) {
+            if (batteryDiffData == null) {
+                continue;
+            }
+            for (BatteryDiffEntry entry : batteryDiffData.getAppDiffEntryList()) {
+                final BatteryDiffEntry oldEntry = entryMap.get(entry.getKey());
+                if (oldEntry == null || oldEntry.mConsumePower < entry.mConsumePower) {
+                    entryMap.put(entry.getKey(), entry);
+                }
+            }
+        }
+        final List<BatteryDiffEntry> entries = new ArrayList<>(entryMap.values());
+        entries.sort((a, b) -> Double.compare(b.mConsumePower, a.mConsumePower));
+        final int count = Math.min(entries.size(), PREFETCH_LABEL_AND_ICON_COUNT);
+        for (int index = 0; index < count; index++) {
+            entries.get(index).loadLabelAndIcon();
+        }
+        Log.d(TAG, String.format("prefetchLabelAndIcon() size=%d in %d/ms",
+                count, System.currentTimeMillis() - startTime));
+    }
+
     static Set<String> getSystemAppsPackageNames(Context context) {
         return sTestSystemAppsPackageNames != null ? sTestSystemAppsPackageNames
                 : AppListRepositoryUtil.getSystemPackageNames(context, context.getUserId());
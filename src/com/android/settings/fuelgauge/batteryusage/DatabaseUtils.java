@@ -35,10 +35,12 @@ import android.os.Looper;
 import android.os.RemoteException;
 import android.os.SystemClock;
 import android.os.UserManager;
+import android.text.TextUtils;
 import android.util.ArrayMap;
 import android.util.ArraySet;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import com.android.settings.fuelgauge.BatteryUsageHistoricalLogEntry.Action;
@@ -52,9 +54,11 @@ import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -91,12 +95,34 @@ public final class DatabaseUtils {
     public static final String BATTERY_STATE_LATEST_TIMESTAMP_PATH = "batteryStateLatestTimestamp";
     /** A path name for app usage latest timestamp query. */
     public static final String APP_USAGE_LATEST_TIMESTAMP_PATH = "appUsageLatestTimestamp";
+    /**
+     * A path name for the windowed and paged battery states query. Unlike the legacy
+     * BATTERY_CONTENT_URI, it returns the BatteryInformation column as raw proto bytes.
+     */
+    public static final String BATTERY_STATE_PAGE_PATH = "batteryStatePage";
+    /**
+     * A path name for the windowed and paged battery usage slots query. Unlike the legacy
+     * BATTERY_USAGE_SLOT_URI, it returns the BatteryUsageSlot column as raw proto bytes.
+     */
+    public static final String BATTERY_USAGE_SLOT_PAGE_PATH = "batteryUsageSlotPage";
     /** Key for query parameter timestamp used in BATTERY_CONTENT_URI **/
     public static final String QUERY_KEY_TIMESTAMP = "timestamp";
     /** Key for query parameter userid used in APP_USAGE_EVENT_URI **/
     public static final String QUERY_KEY_USERID = "userid";
     /** Key for query parameter battery event type used in BATTERY_EVENT_URI **/
     public static final String QUERY_BATTERY_EVENT_TYPE = "batteryEventType";
+    /** Key for query parameter exclusive end timestamp used in the paged queries **/
+    public static final String QUERY_KEY_END_TIMESTAMP = "endTimestamp";
+    /** Key for query parameter comma separated uids used in BATTERY_STATE_PAGE_PATH **/
+    public static final String QUERY_KEY_UID = "uid";
+    /** Key for query parameter id of the last row of the previous page **/
+    public static final String QUERY_KEY_AFTER_ID = "afterId";
+    /** Key for query parameter maximum row count of a page **/
+    public static final String QUERY_KEY_LIMIT = "limit";
+    /** A column name of the row id in the paged queries. */
+    public static final String COLUMN_ID = "mId";
+    /** The default row count of a page, which fits a battery states page in a CursorWindow. */
+    public static final int DEFAULT_PAGE_SIZE = 500;
 
     public static final long INVALID_USER_ID = Integer.MIN_VALUE;
     /**
@@ -314,30 +340,19 @@ public final class DatabaseUtils {
     static Map<Long, Map<String, BatteryHistEntry>> getHistoryMapSinceQueryTimestamp(
             Context context, final long queryTimestamp) {
         final long startTime = System.currentTimeMillis();
-        // Builds the content uri everytime to avoid cache.
-        final Uri batteryStateUri =
-                new Uri.Builder()
-                        .scheme(ContentResolver.SCHEME_CONTENT)
-                        .authority(AUTHORITY)
-                        .appendPath(BATTERY_STATE_TABLE)
-                        .appendQueryParameter(
-                                QUERY_KEY_TIMESTAMP, Long.toString(queryTimestamp))
-                        .build();
-
-        final List<BatteryHistEntry> batteryHistEntryList = loadListFromContentProvider(
-                context, batteryStateUri, cursor -> new BatteryHistEntry(cursor));
         final Map<Long, Map<String, BatteryHistEntry>> resultMap = new ArrayMap();
-        for (final BatteryHistEntry entry : batteryHistEntryList) {
-            final long timestamp = entry.mTimestamp;
-            final String key = entry.getKey();
-            Map batteryHistEntryMap = resultMap.get(timestamp);
-            // Creates new one if there is no corresponding map.
-            if (batteryHistEntryMap == null) {
-                batteryHistEntryMap = new ArrayMap();
-                resultMap.put(timestamp, batteryHistEntryMap);
-            }
-            batteryHistEntryMap.put(key, entry);
-        }
+        forEachBatteryState(context, queryTimestamp, /*endTimestamp=*/ Long.MAX_VALUE,
+                /*uids=*/ null, entry -> {
+                    final long timestamp = entry.mTimestamp;
+                    final String key = entry.getKey();
+                    Map batteryHistEntryMap = resultMap.get(timestamp);
+                    // Creates new one if there is no corresponding map.
+                    if (batteryHistEntryMap == null) {
+                        batteryHistEntryMap = new ArrayMap();
+                        resultMap.put(timestamp, batteryHistEntryMap);
+                    }
+                    batteryHistEntryMap.put(key, entry);
+                });
 
         if (resultMap == null || resultMap.isEmpty()) {
             Log.d(TAG, "getBatteryHistoryMap() returns empty or null");
@@ -348,6 +363,33 @@ public final class DatabaseUtils {
         return resultMap;
     }
 
+    /**
+     * Streams the battery states in [{@code startTimestamp}, {@code endTimestamp}) of
+     * {@code uids}, or of all the uids if null, to {@code consumer} one page at a time. Neither
+     * the whole table nor a cursor larger than a {@link android.database.CursorWindow} is loaded.
+     */
+    static void forEachBatteryState(Context context, final long startTimestamp,
+            final long endTimestamp, @Nullable Collection<Long> uids,
+            Consumer<BatteryHistEntry> consumer) {
+        if (uids != null && uids.isEmpty()) {
+            return;
+        }
+        final Uri.Builder uriBuilder =
+                new Uri.Builder()
+                        .scheme(ContentResolver.SCHEME_CONTENT)
+                        .authority(AUTHORITY)
+                        .appendPath(BATTERY_STATE_PAGE_PATH)
+                        .appendQueryParameter(
+                                QUERY_KEY_TIMESTAMP, Long.toString(startTimestamp))
+                        .appendQueryParameter(
+                                QUERY_KEY_END_TIMESTAMP, Long.toString(endTimestamp));
+        if (uids != null) {
+            uriBuilder.appendQueryParameter(QUERY_KEY_UID, TextUtils.join(",", uids));
+        }
+        loadPagesFromContentProvider(
+                context, uriBuilder, cursor -> new BatteryHistEntry(cursor), consumer);
+    }
+
     /**
      * Returns the battery history map since the latest record no later than the given timestamp.
      * If there is no record before the given timestamp or the given timestamp is before last full
@@ -761,6 +803,36 @@ public final class DatabaseUtils {
                 });
     }
 
+    // Loads the pages of a paged query until a page is not full, resuming each page after the
+    // row id of the previous one.
+    private static <E> void loadPagesFromContentProvider(
+            Context context, Uri.Builder uriBuilder, Function<Cursor, E> converter,
+            Consumer<E> consumer) {
+        long afterId = 0;
+        int pageCount = 0;
+        while (afterId >= 0) {
+            // Builds the content uri everytime to avoid cache.
+            final Uri uri = uriBuilder.build().buildUpon()
+                    .appendQueryParameter(QUERY_KEY_AFTER_ID, Long.toString(afterId))
+                    .appendQueryParameter(QUERY_KEY_LIMIT, Integer.toString(DEFAULT_PAGE_SIZE))
+                    .build();
+            afterId = loadFromContentProvider(context, uri, /*defaultValue=*/ -1L,
+                    cursor -> {
+                        final int idIndex = cursor.getColumnIndex(COLUMN_ID);
+                        long lastId = -1L;
+                        while (cursor.moveToNext()) {
+                            consumer.accept(converter.apply(cursor));
+                            if (idIndex >= 0) {
+                                lastId = cursor.getLong(idIndex);
+                            }
+                        }
+                        return cursor.getCount() < DEFAULT_PAGE_SIZE ? -1L : lastId;
+                    });
+            pageCount++;
+        }
+        Log.d(TAG, "loadPagesFromContentProvider() pages=" + pageCount);
+    }
+
     private static void writeString(
             Context context, PrintWriter writer, String prefix, String key) {
         final SharedPreferences sharedPreferences = getSharedPreferences(context);
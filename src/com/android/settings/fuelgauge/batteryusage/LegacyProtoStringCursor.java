@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batteryusage;
+
+import android.database.Cursor;
+import android.database.CursorWrapper;
+
+/**
+ * A {@link Cursor} returning a proto column stored as raw bytes as the Base64 string it was
+ * stored as before, so that the legacy provider uris keep their cursor contract.
+ */
+final class LegacyProtoStringCursor extends CursorWrapper {
+    private final int mProtoColumnIndex;
+
+    LegacyProtoStringCursor(Cursor cursor, String protoColumnName) {
+        super(cursor);
+        mProtoColumnIndex = cursor.getColumnIndex(protoColumnName);
+    }
+
+    /** Returns {@code cursor} wrapped by {@link LegacyProtoStringCursor}, or null if null. */
+    static Cursor wrap(Cursor cursor, String protoColumnName) {
+        return cursor == null ? null : new LegacyProtoStringCursor(cursor, protoColumnName);
+    }
+
+    @Override
+    public int getType(int columnIndex) {
+        final int type = super.getType(columnIndex);
+        return isProtoBlob(columnIndex, type) ? FIELD_TYPE_STRING : type;
+    }
+
+    @Override
+    public String getString(int columnIndex) {
+        return isProtoBlob(columnIndex, super.getType(columnIndex))
+                ? ConvertUtils.encodeLegacyProtoString(super.getBlob(columnIndex))
+                : super.getString(columnIndex);
+    }
+
+    private boolean isProtoBlob(int columnIndex, int type) {
+        return columnIndex == mProtoColumnIndex && type == FIELD_TYPE_BLOB;
+    }
+}
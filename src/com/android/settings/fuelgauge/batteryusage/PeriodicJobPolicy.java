@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batteryusage;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.BatteryManager;
+import android.os.PowerManager;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settingslib.fuelgauge.BatteryStatus;
+
+import java.time.Duration;
+
+/**
+ * Decides which work of a periodic job run is needed.
+ *
+ * <p>The battery usage snapshot is skipped while the device is in deep idle, or while it is fully
+ * charged with the screen off, and the battery level and plugged state did not change since the
+ * last snapshot. The usage stats are cumulative, so the next snapshot still accounts for the
+ * usage of the skipped slots, and at most {@link #MAX_CONSECUTIVE_SKIPPED_SNAPSHOTS} snapshots are
+ * skipped in a row to keep the hourly chart close. The expired data is cleared at most once per
+ * {@link #CLEAR_EXPIRED_DATA_INTERVAL}.
+ */
+final class PeriodicJobPolicy {
+    @VisibleForTesting
+    static final int MAX_CONSECUTIVE_SKIPPED_SNAPSHOTS = 2;
+    @VisibleForTesting
+    static final Duration CLEAR_EXPIRED_DATA_INTERVAL = Duration.ofDays(1);
+
+    @VisibleForTesting
+    static final String KEY_LAST_SNAPSHOT_BATTERY_LEVEL = "last_snapshot_battery_level";
+    @VisibleForTesting
+    static final String KEY_LAST_SNAPSHOT_PLUGGED = "last_snapshot_plugged";
+    @VisibleForTesting
+    static final String KEY_SKIPPED_SNAPSHOT_COUNT = "skipped_snapshot_count";
+    @VisibleForTesting
+    static final String KEY_LAST_CLEAR_EXPIRED_DATA_TIME = "last_clear_expired_data_time";
+
+    private static final int INVALID_BATTERY_LEVEL = -1;
+
+    private PeriodicJobPolicy() {
+    }
+
+    /**
+     * Returns the reason to skip the battery usage snapshot of this run, or null to take it. The
+     * decision is recorded for the next run.
+     */
+    @Nullable
+    static String getSkipSnapshotReason(Context context, @Nullable Intent batteryIntent) {
+        final SharedPreferences sharedPreferences = DatabaseUtils.getSharedPreferences(context);
+        if (batteryIntent == null || sharedPreferences == null) {
+            return null;
+        }
+        final int batteryLevel = BatteryStatus.getBatteryLevel(batteryIntent);
+        final boolean plugged = batteryIntent.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+        final int skippedCount = sharedPreferences.getInt(KEY_SKIPPED_SNAPSHOT_COUNT, 0);
+        final String reason = getSkipReason(context, batteryLevel, plugged);
+        final boolean unchanged = batteryLevel == sharedPreferences.getInt(
+                KEY_LAST_SNAPSHOT_BATTERY_LEVEL, INVALID_BATTERY_LEVEL)
+                && plugged == sharedPreferences.getBoolean(KEY_LAST_SNAPSHOT_PLUGGED, false);
+
+        if (reason != null && unchanged && skippedCount < MAX_CONSECUTIVE_SKIPPED_SNAPSHOTS) {
+            sharedPreferences.edit().putInt(KEY_SKIPPED_SNAPSHOT_COUNT, skippedCount + 1).apply();
+            return reason;
+        }
+        sharedPreferences.edit()
+                .putInt(KEY_LAST_SNAPSHOT_BATTERY_LEVEL, batteryLevel)
+                .putBoolean(KEY_LAST_SNAPSHOT_PLUGGED, plugged)
+                .putInt(KEY_SKIPPED_SNAPSHOT_COUNT, 0)
+                .apply();
+        return null;
+    }
+
+    /** Returns whether the expired data should be cleared in this run, and records it if so. */
+    static boolean shouldClearExpiredData(Context context, final long currentTime) {
+        final SharedPreferences sharedPreferences = DatabaseUtils.getSharedPreferences(context);
+        if (sharedPreferences == null) {
+            return true;
+        }
+        final long lastClearTime =
+                sharedPreferences.getLong(KEY_LAST_CLEAR_EXPIRED_DATA_TIME, 0L);
+        // Also clears if the clock was set backwards.
+        if (currentTime >= lastClearTime
+                && currentTime - lastClearTime < CLEAR_EXPIRED_DATA_INTERVAL.toMillis()) {
+            return false;
+        }
+        sharedPreferences.edit().putLong(KEY_LAST_CLEAR_EXPIRED_DATA_TIME, currentTime).apply();
+        return true;
+    }
+
+    @Nullable
+    private static String getSkipReason(Context context, int batteryLevel, boolean plugged) {
+        final PowerManager powerManager = context.getSystemService(PowerManager.class);
+        if (powerManager == null) {
+            return null;
+        }
+        if (powerManager.isDeviceIdleMode()) {
+            return "device idle";
+        }
+        if (plugged && batteryLevel == 100 && !powerManager.isInteractive()) {
+            return "fully charged";
+        }
+        return null;
+    }
+}
@@ -23,6 +23,7 @@ import android.content.Intent;
 import android.util.Log;
 
 import com.android.settings.fuelgauge.BatteryUsageHistoricalLogEntry.Action;
+import com.android.settings.fuelgauge.BatteryUtils;
 import com.android.settings.fuelgauge.batteryusage.bugreport.BatteryUsageLogUtils;
 
 /** Receives the periodic alarm {@link PendingIntent} callback. */
@@ -53,10 +54,19 @@ public final class PeriodicJobReceiver extends BroadcastReceiver {
             Log.w(TAG, "do not refresh job for work profile action=" + action);
             return;
         }
-        BatteryUsageLogUtils.writeLog(context, Action.EXECUTE_JOB, "");
-        BatteryUsageDataLoader.enqueueWork(context, /*isFullChargeStart=*/ false);
+        final String skipReason = PeriodicJobPolicy.getSkipSnapshotReason(
+                context, BatteryUtils.getBatteryIntent(context));
+        if (skipReason == null) {
+            BatteryUsageDataLoader.enqueueWork(context, /*isFullChargeStart=*/ false);
+        } else {
+            BatteryUsageLogUtils.writeLog(context, Action.EXECUTE_JOB,
+                    "skip snapshot: " + skipReason);
+            Log.d(TAG, "skip snapshot: " + skipReason);
+        }
         Log.d(TAG, "refresh periodic job from action=" + action);
         PeriodicJobManager.getInstance(context).refreshJob(/*fromBoot=*/ false);
-        DatabaseUtils.clearExpiredDataIfNeeded(context);
+        if (PeriodicJobPolicy.shouldClearExpiredData(context, System.currentTimeMillis())) {
+            DatabaseUtils.clearExpiredDataIfNeeded(context);
+        }
     }
 }
@@ -42,7 +42,7 @@ public class BatteryState {
     public final long timestamp;
     public final int consumerType;
     public final boolean isFullChargeCycleStart;
-    public final String batteryInformation;
+    public final byte[] batteryInformation;
     /**
      * This field is filled only when build type is "userdebug".
      * For now, Java Proto Lite is recommended by the Android team as the more lightweight solution
@@ -62,7 +62,7 @@ public class BatteryState {
             long timestamp,
             int consumerType,
             boolean isFullChargeCycleStart,
-            String batteryInformation,
+            byte[] batteryInformation,
             String batteryInformationDebug) {
         // Records the app relative information.
         this.uid = uid;
@@ -89,7 +89,7 @@ public class BatteryState {
     public String toString() {
         final String recordAtDateTime = ConvertUtils.utcToLocalTimeForLogging(timestamp);
         final BatteryInformation batteryInformationInstance =
-                BatteryUtils.parseProtoFromString(
+                BatteryUtils.parseProtoFromBytes(
                         batteryInformation, BatteryInformation.getDefaultInstance());
         final StringBuilder builder = new StringBuilder()
                 .append("\nBatteryState{")
@@ -126,7 +126,8 @@ public class BatteryState {
                     contentValues.getAsBoolean("isFullChargeCycleStart"));
         }
         if (contentValues.containsKey("batteryInformation")) {
-            builder.setBatteryInformation(contentValues.getAsString("batteryInformation"));
+            builder.setBatteryInformation(
+                    ConvertUtils.getProtoBytes(contentValues, "batteryInformation"));
         }
         if (contentValues.containsKey("batteryInformationDebug")) {
             builder.setBatteryInformationDebug(
@@ -148,7 +149,7 @@ public class BatteryState {
         private long mTimestamp;
         private int mConsumerType;
         private boolean mIsFullChargeCycleStart;
-        private String mBatteryInformation;
+        private byte[] mBatteryInformation;
         private String mBatteryInformationDebug;
 
         /** Sets the uid. */
@@ -193,9 +194,9 @@ public class BatteryState {
             return this;
         }
 
-        /** Sets the battery information. */
+        /** Sets the serialized battery information. */
         @CanIgnoreReturnValue
-        public Builder setBatteryInformation(String batteryInformation) {
+        public Builder setBatteryInformation(byte[] batteryInformation) {
             this.mBatteryInformation = batteryInformation;
             return this;
         }
@@ -22,6 +22,8 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
 import java.util.List;
 
@@ -45,6 +47,10 @@ public interface BatteryStateDao {
     @Query("SELECT * FROM BatteryState WHERE timestamp >= :timestamp ORDER BY timestamp ASC")
     Cursor getBatteryStatesAfter(long timestamp);
 
+    /** Gets the {@link Cursor} of the battery states selected by a windowed and paged query. */
+    @RawQuery
+    Cursor getBatteryStates(SupportSQLiteQuery query);
+
     /** Lists all recorded data after a specific timestamp. */
     @Query("SELECT * FROM BatteryState WHERE timestamp > :timestamp ORDER BY timestamp DESC")
     List<BatteryState> getAllAfter(long timestamp);
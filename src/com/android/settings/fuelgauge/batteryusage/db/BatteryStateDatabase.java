@@ -17,22 +17,49 @@
 package com.android.settings.fuelgauge.batteryusage.db;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.util.Log;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import com.android.settings.fuelgauge.batteryusage.ConvertUtils;
 
 /** A {@link RoomDatabase} for battery usage states history. */
 @Database(
         entities = {AppUsageEventEntity.class, BatteryEventEntity.class, BatteryState.class,
                 BatteryUsageSlotEntity.class},
-        version = 1)
+        version = 2)
 public abstract class BatteryStateDatabase extends RoomDatabase {
     private static final String TAG = "BatteryStateDatabase";
 
     private static BatteryStateDatabase sBatteryStateDatabase;
 
+    /** Stores the serialized protos as raw bytes instead of Base64 strings. */
+    @VisibleForTesting
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            migrateProtoColumnToBlob(database, "BatteryState", "batteryInformation",
+                    "`uid` INTEGER NOT NULL, `userId` INTEGER NOT NULL, `packageName` TEXT, "
+                            + "`timestamp` INTEGER NOT NULL, `consumerType` INTEGER NOT NULL, "
+                            + "`isFullChargeCycleStart` INTEGER NOT NULL, "
+                            + "`batteryInformation` BLOB, `batteryInformationDebug` TEXT",
+                    "`uid`, `userId`, `packageName`, `timestamp`, `consumerType`, "
+                            + "`isFullChargeCycleStart`, `batteryInformation`, "
+                            + "`batteryInformationDebug`");
+            migrateProtoColumnToBlob(database, "BatteryUsageSlotEntity", "batteryUsageSlot",
+                    "`timestamp` INTEGER NOT NULL, `batteryUsageSlot` BLOB",
+                    "`timestamp`, `batteryUsageSlot`");
+        }
+    };
+
     /** Provides DAO for app usage event table. */
     public abstract AppUsageEventDao appUsageEventDao();
     /** Provides DAO for battery event table. */
@@ -50,6 +77,7 @@ public abstract class BatteryStateDatabase extends RoomDatabase {
                                     context, BatteryStateDatabase.class, "battery-usage-db-v9")
                             // Allows accessing data in the main thread for dumping bugreport.
                             .allowMainThreadQueries()
+                            .addMigrations(MIGRATION_1_2)
                             .fallbackToDestructiveMigration()
                             .build();
             Log.d(TAG, "initialize battery states database");
@@ -61,4 +89,37 @@ public abstract class BatteryStateDatabase extends RoomDatabase {
     public static void setBatteryStateDatabase(BatteryStateDatabase database) {
         BatteryStateDatabase.sBatteryStateDatabase = database;
     }
+
+    /**
+     * Recreates {@code table} with a BLOB typed {@code protoColumn} and decodes the Base64
+     * strings into it, since SQLite can not change the declared type of a column in place.
+     */
+    private static void migrateProtoColumnToBlob(SupportSQLiteDatabase database, String table,
+            String protoColumn, String columnDefinitions, String columns) {
+        final String newTable = table + "_new";
+        database.execSQL("CREATE TABLE IF NOT EXISTS `" + newTable + "` ("
+                + "`mId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " + columnDefinitions + ")");
+        database.execSQL("INSERT INTO `" + newTable + "` (`mId`, " + columns + ") SELECT `mId`, "
+                + columns + " FROM `" + table + "`");
+        final SupportSQLiteStatement updateStatement = database.compileStatement(
+                "UPDATE `" + newTable + "` SET `" + protoColumn + "` = ? WHERE `mId` = ?");
+        try (Cursor cursor = database.query(
+                "SELECT `mId`, `" + protoColumn + "` FROM `" + table + "`")) {
+            while (cursor.moveToNext()) {
+                final byte[] protoBytes = cursor.isNull(1)
+                        ? null : ConvertUtils.decodeLegacyProtoString(cursor.getString(1));
+                if (protoBytes == null) {
+                    updateStatement.bindNull(1);
+                } else {
+                    updateStatement.bindBlob(1, protoBytes);
+                }
+                updateStatement.bindLong(2, cursor.getLong(0));
+                updateStatement.executeUpdateDelete();
+                updateStatement.clearBindings();
+            }
+        }
+        database.execSQL("DROP TABLE `" + table + "`");
+        database.execSQL("ALTER TABLE `" + newTable + "` RENAME TO `" + table + "`");
+        Log.d(TAG, "migrate " + table + "." + protoColumn + " to BLOB");
+    }
 }
@@ -22,6 +22,8 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
 import java.util.List;
 
@@ -41,6 +43,10 @@ public interface BatteryUsageSlotDao {
             + " ORDER BY timestamp ASC")
     Cursor getAllAfter(long timestamp);
 
+    /** Gets the {@link Cursor} of the usage slots selected by a windowed and paged query. */
+    @RawQuery
+    Cursor getBatteryUsageSlots(SupportSQLiteQuery query);
+
     /** Deletes all recorded data before a specific timestamp. */
     @Query("DELETE FROM BatteryUsageSlotEntity WHERE timestamp <= :timestamp")
     void clearAllBefore(long timestamp);
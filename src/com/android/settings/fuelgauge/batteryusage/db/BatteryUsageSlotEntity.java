@@ -21,6 +21,8 @@ import android.content.ContentValues;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 
+import com.android.settings.fuelgauge.BatteryUtils;
+import com.android.settings.fuelgauge.batteryusage.BatteryUsageSlot;
 import com.android.settings.fuelgauge.batteryusage.ConvertUtils;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
@@ -38,9 +40,9 @@ public class BatteryUsageSlotEntity {
     private long mId;
 
     public final long timestamp;
-    public final String batteryUsageSlot;
+    public final byte[] batteryUsageSlot;
 
-    public BatteryUsageSlotEntity(final long timestamp, final String batteryUsageSlot) {
+    public BatteryUsageSlotEntity(final long timestamp, final byte[] batteryUsageSlot) {
         this.timestamp = timestamp;
         this.batteryUsageSlot = batteryUsageSlot;
     }
@@ -61,7 +63,8 @@ public class BatteryUsageSlotEntity {
         final StringBuilder builder = new StringBuilder()
                 .append("\nBatteryUsageSlot{")
                 .append(String.format(Locale.US, "\n\ttimestamp=%s|batteryUsageSlot=%s",
-                        recordAtDateTime, batteryUsageSlot))
+                        recordAtDateTime, BatteryUtils.parseProtoFromBytes(
+                                batteryUsageSlot, BatteryUsageSlot.getDefaultInstance())))
                 .append("\n}");
         return builder.toString();
     }
@@ -73,7 +76,8 @@ public class BatteryUsageSlotEntity {
             builder.setTimestamp(contentValues.getAsLong(KEY_TIMESTAMP));
         }
         if (contentValues.containsKey(KEY_BATTERY_USAGE_SLOT)) {
-            builder.setBatteryUsageSlot(contentValues.getAsString(KEY_BATTERY_USAGE_SLOT));
+            builder.setBatteryUsageSlot(
+                    ConvertUtils.getProtoBytes(contentValues, KEY_BATTERY_USAGE_SLOT));
         }
         return builder.build();
     }
@@ -86,7 +90,7 @@ public class BatteryUsageSlotEntity {
     /** A convenience builder class to improve readability. */
     public static class Builder {
         private long mTimestamp;
-        private String mBatteryUsageSlot;
+        private byte[] mBatteryUsageSlot;
 
         /** Sets the timestamp. */
         @CanIgnoreReturnValue
@@ -95,9 +99,9 @@ public class BatteryUsageSlotEntity {
             return this;
         }
 
-        /** Sets the battery usage slot. */
+        /** Sets the serialized battery usage slot. */
         @CanIgnoreReturnValue
-        public Builder setBatteryUsageSlot(final String batteryUsageSlot) {
+        public Builder setBatteryUsageSlot(final byte[] batteryUsageSlot) {
             mBatteryUsageSlot = batteryUsageSlot;
             return this;
         }
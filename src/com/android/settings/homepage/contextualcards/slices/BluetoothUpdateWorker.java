@@ -31,6 +31,11 @@ import com.android.settingslib.bluetooth.BluetoothCallback;
 import com.android.settingslib.bluetooth.CachedBluetoothDevice;
 import com.android.settingslib.bluetooth.LocalBluetoothManager;
 
+/**
+ * Notifies the Bluetooth devices slice of device and profile changes. The slice has no results to
+ * diff, and a burst of callbacks, e.g. while a device connects its profiles, is coalesced by
+ * {@link #notifySliceChange()} into one slice update per throttle interval.
+ */
 public class BluetoothUpdateWorker extends SliceBackgroundWorker implements BluetoothCallback {
 
     private static final String TAG = "BluetoothUpdateWorker";
@@ -27,15 +27,24 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.os.PersistableBundle;
+import android.os.SystemClock;
 import android.telephony.CarrierConfigManager;
 import android.telephony.SubscriptionManager;
+import android.util.ArrayMap;
+import android.util.ArraySet;
 import android.util.Log;
 
 import androidx.annotation.GuardedBy;
 import androidx.annotation.VisibleForTesting;
 
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This is a singleton class for Carrier-Configuration cache.
@@ -62,9 +71,30 @@ public class CarrierConfigCache {
     @VisibleForTesting
     protected static final Map<Integer, PersistableBundle> sCarrierConfigs =
             new ConcurrentHashMap<>();
+    /**
+     * Manages mapping data from the subscription ID to the subset of Carrier-Configuration keys
+     * fetched through {@link #getConfigForSubId(int, String...)}, for subscriptions whose full
+     * {@link PersistableBundle} has not been loaded.
+     */
+    @VisibleForTesting
+    protected static final Map<Integer, PersistableBundle> sPartialCarrierConfigs =
+            new ConcurrentHashMap<>();
+    /**
+     * Manages mapping data from the subscription ID to the requested keys that the
+     * Carrier-Configuration does not contain, so that they are not fetched again.
+     */
+    @GuardedBy("sCarrierConfigs")
+    private static final Map<Integer, Set<String>> sAbsentCarrierConfigKeys = new ArrayMap<>();
+    /** Increased on every invalidation, so that a fetch racing with it is not cached. */
+    @GuardedBy("sCarrierConfigs")
+    private static int sGeneration;
     @VisibleForTesting
     protected static CarrierConfigManager sCarrierConfigManager;
 
+    private static final AtomicLong sHitCount = new AtomicLong();
+    private static final AtomicLong sMissCount = new AtomicLong();
+    private static final AtomicLong sLoadTimeMs = new AtomicLong();
+
     /**
      * Static method to create a singleton class for Carrier-Configuration cache.
      *
@@ -140,18 +170,99 @@ public class CarrierConfigCache {
     public PersistableBundle getConfigForSubId(int subId) {
         if (sCarrierConfigManager == null) return null;
 
+        final int generation;
         synchronized (sCarrierConfigs) {
             if (sCarrierConfigs.containsKey(subId)) {
+                sHitCount.incrementAndGet();
                 return sCarrierConfigs.get(subId);
             }
-            final PersistableBundle config = sCarrierConfigManager.getConfigForSubId(subId);
-            if (config == null) {
-                Log.e(TAG, "Could not get carrier config, subId:" + subId);
-                return null;
+            generation = sGeneration;
+        }
+
+        // Fetch without holding the lock, so that lookups of other subscriptions do not wait on
+        // the binder call.
+        sMissCount.incrementAndGet();
+        final long startTime = SystemClock.elapsedRealtime();
+        final PersistableBundle config = sCarrierConfigManager.getConfigForSubId(subId);
+        sLoadTimeMs.addAndGet(SystemClock.elapsedRealtime() - startTime);
+        if (config == null) {
+            Log.e(TAG, "Could not get carrier config, subId:" + subId);
+            return null;
+        }
+        synchronized (sCarrierConfigs) {
+            if (generation == sGeneration) {
+                sCarrierConfigs.put(subId, config);
+                sPartialCarrierConfigs.remove(subId);
+                sAbsentCarrierConfigKeys.remove(subId);
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Gets only the given Carrier-Configuration keys for a particular subscription. If the full
+     * config is not cached, only the requested keys are fetched from {@link CarrierConfigManager}
+     * instead of the whole bundle. Requested keys that the config does not contain are remembered
+     * and not fetched again.
+     *
+     * @param subId the subscription ID, normally obtained from {@link SubscriptionManager}.
+     * @param keys the config keys the caller needs.
+     * @return A {@link PersistableBundle} containing at least the requested keys, or null if the
+     * config could not be retrieved.
+     */
+    public PersistableBundle getConfigForSubId(int subId, @NonNull String... keys) {
+        if (sCarrierConfigManager == null) return null;
+
+        final PersistableBundle result;
+        final List<String> missingKeys = new ArrayList<>();
+        final int generation;
+        synchronized (sCarrierConfigs) {
+            final PersistableBundle config = sCarrierConfigs.get(subId);
+            if (config != null) {
+                sHitCount.incrementAndGet();
+                return config;
+            }
+
+            final PersistableBundle partialConfig = sPartialCarrierConfigs.get(subId);
+            final Set<String> absentKeys = sAbsentCarrierConfigKeys.get(subId);
+            for (String key : keys) {
+                if ((partialConfig == null || !partialConfig.containsKey(key))
+                        && (absentKeys == null || !absentKeys.contains(key))) {
+                    missingKeys.add(key);
+                }
+            }
+            result = partialConfig == null
+                    ? new PersistableBundle() : new PersistableBundle(partialConfig);
+            if (missingKeys.isEmpty()) {
+                sHitCount.incrementAndGet();
+                return result;
+            }
+            generation = sGeneration;
+        }
+
+        sMissCount.incrementAndGet();
+        final long startTime = SystemClock.elapsedRealtime();
+        final PersistableBundle fetched = sCarrierConfigManager.getConfigForSubId(subId,
+                missingKeys.toArray(new String[0]));
+        sLoadTimeMs.addAndGet(SystemClock.elapsedRealtime() - startTime);
+        if (fetched == null) {
+            Log.e(TAG, "Could not get carrier config keys, subId:" + subId);
+            return null;
+        }
+        result.putAll(fetched);
+        synchronized (sCarrierConfigs) {
+            if (generation == sGeneration && !sCarrierConfigs.containsKey(subId)) {
+                sPartialCarrierConfigs.computeIfAbsent(subId, id -> new PersistableBundle())
+                        .putAll(fetched);
+                for (String key : missingKeys) {
+                    if (!fetched.containsKey(key)) {
+                        sAbsentCarrierConfigKeys.computeIfAbsent(subId, id -> new ArraySet<>())
+                                .add(key);
+                    }
+                }
             }
-            sCarrierConfigs.put(subId, config);
-            return config;
         }
+        return result;
     }
 
     /**
@@ -165,19 +276,71 @@ public class CarrierConfigCache {
         return getConfigForSubId(SubscriptionManager.getDefaultSubscriptionId());
     }
 
+    /**
+     * Loads the full Carrier-Configuration of every active subscription on a background thread,
+     * so that the controllers of a screen about to be shown find them cached.
+     *
+     * @param context The Context this is associated with.
+     */
+    public void prefetchActiveSubscriptions(@NonNull Context context) {
+        if (sCarrierConfigManager == null) return;
+
+        final SubscriptionManager subscriptionManager =
+                context.getSystemService(SubscriptionManager.class);
+        if (subscriptionManager == null) return;
+
+        ThreadUtils.postOnBackgroundThread(() -> {
+            for (int subId : subscriptionManager.getActiveSubscriptionIdList()) {
+                if (!sCarrierConfigs.containsKey(subId)) {
+                    getConfigForSubId(subId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops the cached Carrier-Configuration of a subscription, or of all subscriptions if the
+     * given subId is invalid.
+     */
+    public static void invalidate(int subId) {
+        synchronized (sCarrierConfigs) {
+            sGeneration++;
+            if (SubscriptionManager.isValidSubscriptionId(subId)) {
+                sCarrierConfigs.remove(subId);
+                sPartialCarrierConfigs.remove(subId);
+                sAbsentCarrierConfigKeys.remove(subId);
+            } else {
+                sCarrierConfigs.clear();
+                sPartialCarrierConfigs.clear();
+                sAbsentCarrierConfigKeys.clear();
+            }
+        }
+    }
+
+    /** Returns the number of lookups answered from the cache. */
+    public static long getHitCount() {
+        return sHitCount.get();
+    }
+
+    /** Returns the number of lookups that had to query {@link CarrierConfigManager}. */
+    public static long getMissCount() {
+        return sMissCount.get();
+    }
+
+    /** Returns the total time spent querying {@link CarrierConfigManager}, in milliseconds. */
+    public static long getLoadTimeMs() {
+        return sLoadTimeMs.get();
+    }
+
     private static class CarrierConfigChangeReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
             if (!ACTION_CARRIER_CONFIG_CHANGED.equals(intent.getAction())) return;
 
             final int subId = intent.getIntExtra(EXTRA_SUBSCRIPTION_INDEX, INVALID_SUBSCRIPTION_ID);
-            synchronized (sCarrierConfigs) {
-                if (SubscriptionManager.isValidSubscriptionId(subId)) {
-                    sCarrierConfigs.remove(subId);
-                } else {
-                    sCarrierConfigs.clear();
-                }
-            }
+            invalidate(subId);
+            Log.d(TAG, "Carrier config changed, subId:" + subId + ", hits:" + sHitCount.get()
+                    + ", misses:" + sMissCount.get() + ", loadTimeMs:" + sLoadTimeMs.get());
         }
     }
 }
@@ -34,10 +34,13 @@ import android.telephony.UiccCardInfo;
 import android.telephony.UiccPortInfo;
 import android.telephony.UiccSlotInfo;
 import android.util.ArrayMap;
+import android.util.ArraySet;
 import android.util.IndentingPrintWriter;
 import android.util.Log;
 
 import androidx.annotation.GuardedBy;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
 import androidx.lifecycle.LifecycleOwner;
 
 import com.android.settings.network.telephony.MobileNetworkUtils;
@@ -57,6 +60,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
@@ -68,6 +72,13 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
     private static final String TAG = "MobileNetworkRepository";
     private static final boolean DEBUG = Log.isLoggable(TAG, Log.DEBUG);
 
+    /**
+     * Subscription and per-subscription setting changes arriving within this window are written
+     * to the database as one transaction.
+     */
+    @VisibleForTesting
+    static final long COALESCE_WINDOW_MS = 200;
+
     private static ExecutorService sExecutor = Executors.newSingleThreadExecutor();
     private static Map<Integer, SubscriptionInfoEntity> sCacheSubscriptionInfoEntityMap =
             new ArrayMap<>();
@@ -106,6 +117,10 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
             new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, PhoneCallStateTelephonyCallback> mTelephonyCallbackMap =
             new ConcurrentHashMap<>();
+    private final PendingChanges mPendingChanges = new PendingChanges(
+            new Handler(Looper.getMainLooper()),
+            (subscriptionsChanged, subIds) -> sExecutor.execute(
+                    () -> writePendingChanges(subscriptionsChanged, subIds)));
 
     @NonNull
     public static MobileNetworkRepository getInstance(Context context) {
@@ -192,9 +207,7 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
             if (tm == null) {
                 return;
             }
-            sExecutor.execute(() -> {
-                insertMobileNetworkInfo(mContext, mRegSubId, tm);
-            });
+            scheduleMobileNetworkInfoUpdate(mRegSubId);
             boolean isDataRoamingEnabled = tm.isDataRoamingEnabled();
             for (MobileNetworkCallback callback : sCallbacks) {
                 callback.onDataRoamingChanged(mRegSubId, isDataRoamingEnabled);
@@ -238,10 +251,7 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
         MobileDataContentObserver dataContentObserver = new MobileDataContentObserver(
                 new Handler(Looper.getMainLooper()));
         dataContentObserver.setOnMobileDataChangedListener(() -> {
-            sExecutor.execute(() -> {
-                insertMobileNetworkInfo(mContext, subId,
-                        getTelephonyManagerBySubId(mContext, subId));
-            });
+            scheduleMobileNetworkInfoUpdate(subId);
         });
         dataContentObserver.register(mContext, subId);
         mDataContentObserverMap.put(subId, dataContentObserver);
@@ -325,9 +335,7 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
     public void updateEntity() {
         // Check the latest state after back to the UI.
         if (sCacheSubscriptionInfoEntityMap != null || !sCacheSubscriptionInfoEntityMap.isEmpty()) {
-            sExecutor.execute(() -> {
-                onSubscriptionsChanged();
-            });
+            onSubscriptionsChanged();
         }
 
         boolean isAirplaneModeOn = isAirplaneModeOn();
@@ -483,10 +491,25 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
              if (activeSubInfoEntityList != null) {
                  callback.onActiveSubInfoChanged(activeSubInfoEntityList);
              }
+             // The database observers skip unchanged lists, so a late registrant gets the
+             // current ones from here.
+             if (!mUiccInfoEntityList.isEmpty()) {
+                 callback.onAllUiccInfoChanged(new ArrayList<>(mUiccInfoEntityList));
+             }
+             if (!mMobileNetworkInfoEntityList.isEmpty()) {
+                 callback.onAllMobileNetworkInfoChanged(
+                         new ArrayList<>(mMobileNetworkInfoEntityList));
+             }
         }
     }
 
     private void onAllUiccInfoChanged(List<UiccInfoEntity> uiccInfoEntityList) {
+        if (mUiccInfoEntityList.equals(uiccInfoEntityList)) {
+            if (DEBUG) {
+                Log.d(TAG, "onAllUiccInfoChanged, duplicates = " + uiccInfoEntityList);
+            }
+            return;
+        }
         mUiccInfoEntityList = new ArrayList<>(uiccInfoEntityList);
         for (MobileNetworkCallback callback : sCallbacks) {
             callback.onAllUiccInfoChanged(uiccInfoEntityList);
@@ -497,6 +520,13 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
 
     private void onAllMobileNetworkInfoChanged(
             List<MobileNetworkInfoEntity> mobileNetworkInfoEntityList) {
+        if (mMobileNetworkInfoEntityList.equals(mobileNetworkInfoEntityList)) {
+            if (DEBUG) {
+                Log.d(TAG, "onAllMobileNetworkInfoChanged, duplicates = "
+                        + mobileNetworkInfoEntityList);
+            }
+            return;
+        }
         mMobileNetworkInfoEntityList = new ArrayList<>(mobileNetworkInfoEntityList);
         for (MobileNetworkCallback callback : sCallbacks) {
             callback.onAllMobileNetworkInfoChanged(mobileNetworkInfoEntityList);
@@ -505,7 +535,13 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
                 SettingsEnums.ACTION_MOBILE_NETWORK_DB_NOTIFY_MOBILE_NETWORK_INFO_IS_CHANGED, 0);
     }
 
-    private void insertSubInfo(Context context, SubscriptionInfo info) {
+    /**
+     * Converts {@code info} and, if it changed, its UICC and mobile network info, and adds the
+     * database writes of the changed entities to {@code writes}.
+     */
+    @WorkerThread
+    private void collectSubInfoWrites(Context context, SubscriptionInfo info,
+            List<Runnable> writes) {
         int subId = info.getSubscriptionId();
         createTelephonyManagerBySubId(subId);
         TelephonyManager telephonyManager = getTelephonyManagerBySubId(context, subId);
@@ -515,16 +551,22 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
             if (!sCacheSubscriptionInfoEntityMap.containsKey(subId)
                     || (sCacheSubscriptionInfoEntityMap.get(subId) != null
                     && !sCacheSubscriptionInfoEntityMap.get(subId).equals(subInfoEntity))) {
-                sCacheSubscriptionInfoEntityMap.put(subId, subInfoEntity);
                 if (DEBUG) {
                     Log.d(TAG, "Convert subId " + subId + " to SubscriptionInfoEntity: "
                             + subInfoEntity);
                 }
-                mMobileNetworkDatabase.insertSubsInfo(subInfoEntity);
-                mMetricsFeatureProvider.action(mContext,
-                        SettingsEnums.ACTION_MOBILE_NETWORK_DB_INSERT_SUB_INFO, subId);
-                insertUiccInfo(subId, telephonyManager);
-                insertMobileNetworkInfo(context, subId, telephonyManager);
+                final UiccInfoEntity uiccInfoEntity =
+                        convertToUiccInfoEntity(subId, telephonyManager);
+                final MobileNetworkInfoEntity mobileNetworkInfoEntity =
+                        convertToMobileNetworkInfoEntity(context, subId, telephonyManager);
+                writes.add(() -> {
+                    sCacheSubscriptionInfoEntityMap.put(subId, subInfoEntity);
+                    mMobileNetworkDatabase.insertSubsInfo(subInfoEntity);
+                    mMetricsFeatureProvider.action(mContext,
+                            SettingsEnums.ACTION_MOBILE_NETWORK_DB_INSERT_SUB_INFO, subId);
+                    insertUiccInfo(subId, uiccInfoEntity);
+                    insertMobileNetworkInfo(subId, mobileNetworkInfoEntity);
+                });
             }
         } else if (DEBUG) {
             Log.d(TAG, "Can not insert subInfo, the entity is null");
@@ -541,10 +583,9 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
         synchronized (this) {
             mActiveSubInfoEntityList.removeIf(info -> info.subId.equals(subId));
         }
-        mUiccInfoEntityList.removeIf(info -> info.subId.equals(subId));
-        mMobileNetworkInfoEntityList.removeIf(info -> info.subId.equals(subId));
+        // The UICC and mobile network info lists are replaced by the database observers on the
+        // main thread once the deletes are emitted.
         int id = Integer.parseInt(subId);
-        removerRegisterBySubId(id);
         mSubscriptionInfoMap.remove(id);
         mTelephonyManagerMap.remove(id);
         sCacheSubscriptionInfoEntityMap.remove(id);
@@ -599,8 +640,7 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
         }
     }
 
-    private void insertUiccInfo(int subId, TelephonyManager telephonyManager) {
-        UiccInfoEntity uiccInfoEntity = convertToUiccInfoEntity(subId, telephonyManager);
+    private void insertUiccInfo(int subId, UiccInfoEntity uiccInfoEntity) {
         if (DEBUG) {
             Log.d(TAG, "uiccInfoEntity = " + uiccInfoEntity);
         }
@@ -613,11 +653,8 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
         }
     }
 
-    private void insertMobileNetworkInfo(Context context, int subId,
-            TelephonyManager telephonyManager) {
-        MobileNetworkInfoEntity mobileNetworkInfoEntity = convertToMobileNetworkInfoEntity(context,
-                subId, telephonyManager);
-
+    private void insertMobileNetworkInfo(int subId,
+            MobileNetworkInfoEntity mobileNetworkInfoEntity) {
         if (DEBUG) {
             Log.d(TAG, "insertMobileNetworkInfo, mobileNetworkInfoEntity = "
                     + mobileNetworkInfoEntity);
@@ -691,76 +728,132 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
 
     @Override
     public void onSubscriptionsChanged() {
-        insertAvailableSubInfoToEntity(
-                SubscriptionUtil.getSelectableSubscriptionInfoList(mContext));
+        mPendingChanges.addSubscriptionsChanged();
     }
 
-    private void insertAvailableSubInfoToEntity(List<SubscriptionInfo> inputAvailableInfoList) {
-        sExecutor.execute(() -> {
-            SubscriptionInfoEntity[] availableInfoArray = null;
-            int availableEntitySize = 0;
-            synchronized (this) {
-                availableInfoArray = mAvailableSubInfoEntityList.toArray(
+    private void scheduleMobileNetworkInfoUpdate(int subId) {
+        mPendingChanges.addMobileNetworkInfo(subId);
+    }
+
+    /**
+     * Writes every change collected during the coalescing window in a single transaction, so that
+     * the database observers, and therefore the callbacks, fire once per table for the batch.
+     * Telephony is queried before the transaction, which only holds the database writes.
+     */
+    @WorkerThread
+    private void writePendingChanges(boolean subscriptionsChanged, Set<Integer> subIds) {
+        if (DEBUG) {
+            Log.d(TAG, "writePendingChanges, subscriptionsChanged = " + subscriptionsChanged
+                    + ", subIds = " + subIds);
+        }
+        final List<Runnable> writes = new ArrayList<>();
+        final Set<Integer> removedSubIds = new ArraySet<>();
+        Set<Integer> availableSubIds = null;
+        if (subscriptionsChanged) {
+            availableSubIds = collectAvailableSubInfoWrites(
+                    SubscriptionUtil.getSelectableSubscriptionInfoList(mContext), writes,
+                    removedSubIds);
+        }
+        for (int subId : subIds) {
+            if (availableSubIds != null && !availableSubIds.contains(subId)) {
+                // The subscription was just removed.
+                continue;
+            }
+            final MobileNetworkInfoEntity mobileNetworkInfoEntity =
+                    convertToMobileNetworkInfoEntity(mContext, subId,
+                            getTelephonyManagerBySubId(mContext, subId));
+            writes.add(() -> insertMobileNetworkInfo(subId, mobileNetworkInfoEntity));
+        }
+        for (int subId : removedSubIds) {
+            removerRegisterBySubId(subId);
+        }
+        if (!writes.isEmpty()) {
+            mMobileNetworkDatabase.runInTransaction(() -> writes.forEach(Runnable::run));
+        }
+    }
+
+    /**
+     * Compares the selectable subscriptions from the framework with the stored ones and adds the
+     * database writes to {@code writes}, deletions first. Returns the IDs of the selectable
+     * subscriptions, and adds the IDs of the removed ones to {@code removedSubIds}.
+     */
+    @WorkerThread
+    private Set<Integer> collectAvailableSubInfoWrites(
+            List<SubscriptionInfo> inputAvailableInfoList, List<Runnable> writes,
+            Set<Integer> removedSubIds) {
+        final Set<Integer> availableSubIds = new ArraySet<>();
+        SubscriptionInfoEntity[] availableInfoArray = null;
+        int availableEntitySize = 0;
+        synchronized (this) {
+            availableInfoArray = mAvailableSubInfoEntityList.toArray(
                     new SubscriptionInfoEntity[0]);
-                availableEntitySize = mAvailableSubInfoEntityList.size();
+            availableEntitySize = mAvailableSubInfoEntityList.size();
+        }
+        if ((inputAvailableInfoList == null || inputAvailableInfoList.size() == 0)
+                && availableEntitySize != 0) {
+            if (DEBUG) {
+                Log.d(TAG, "availableSudInfoList from framework is empty, remove all subs");
             }
-            if ((inputAvailableInfoList == null || inputAvailableInfoList.size() == 0)
-                    && availableEntitySize != 0) {
-                if (DEBUG) {
-                    Log.d(TAG, "availableSudInfoList from framework is empty, remove all subs");
-                }
 
-                for (SubscriptionInfoEntity info : availableInfoArray) {
-                    deleteAllInfoBySubId(info.subId);
-                }
+            for (SubscriptionInfoEntity info : availableInfoArray) {
+                collectDeleteWrites(info.subId, writes, removedSubIds);
+            }
 
-            } else if (inputAvailableInfoList != null) {
-                SubscriptionInfo[] inputAvailableInfoArray = inputAvailableInfoList.toArray(
-                        new SubscriptionInfo[0]);
-                // Remove the redundant subInfo
-                if (inputAvailableInfoList.size() <= availableEntitySize) {
-                    for (SubscriptionInfo subInfo : inputAvailableInfoArray) {
-                        int subId = subInfo.getSubscriptionId();
-                        if (mSubscriptionInfoMap.containsKey(subId)) {
-                            mSubscriptionInfoMap.remove(subId);
-                        }
+        } else if (inputAvailableInfoList != null) {
+            SubscriptionInfo[] inputAvailableInfoArray = inputAvailableInfoList.toArray(
+                    new SubscriptionInfo[0]);
+            // Remove the redundant subInfo
+            if (inputAvailableInfoList.size() <= availableEntitySize) {
+                for (SubscriptionInfo subInfo : inputAvailableInfoArray) {
+                    int subId = subInfo.getSubscriptionId();
+                    if (mSubscriptionInfoMap.containsKey(subId)) {
+                        mSubscriptionInfoMap.remove(subId);
                     }
+                }
 
-                    if (!mSubscriptionInfoMap.isEmpty()) {
-                        for (Integer key : mSubscriptionInfoMap.keySet()) {
-                            if (key != null) {
-                                deleteAllInfoBySubId(String.valueOf(key));
-                            }
+                if (!mSubscriptionInfoMap.isEmpty()) {
+                    for (Integer key : mSubscriptionInfoMap.keySet()) {
+                        if (key != null) {
+                            collectDeleteWrites(String.valueOf(key), writes, removedSubIds);
                         }
-                    } else if (inputAvailableInfoList.size() < availableEntitySize) {
-                        // Check the subInfo between the new list from framework and old list in
-                        // the database, if the subInfo is not existed in the new list, delete it
-                        // from the database.
-                        for (SubscriptionInfoEntity info : availableInfoArray) {
-                            if (sCacheSubscriptionInfoEntityMap.containsKey(info.getSubId())) {
-                                deleteAllInfoBySubId(info.subId);
-                            }
+                    }
+                } else if (inputAvailableInfoList.size() < availableEntitySize) {
+                    // Check the subInfo between the new list from framework and old list in
+                    // the database, if the subInfo is not existed in the new list, delete it
+                    // from the database.
+                    for (SubscriptionInfoEntity info : availableInfoArray) {
+                        if (sCacheSubscriptionInfoEntityMap.containsKey(info.getSubId())) {
+                            collectDeleteWrites(info.subId, writes, removedSubIds);
                         }
                     }
                 }
+            }
 
-                // Insert all new available subInfo to database.
-                for (SubscriptionInfo subInfo : inputAvailableInfoArray) {
+            // Insert all new available subInfo to database.
+            for (SubscriptionInfo subInfo : inputAvailableInfoArray) {
+                if (DEBUG) {
+                    Log.d(TAG, "insert subInfo to subInfoEntity, subInfo = " + subInfo);
+                }
+                if (subInfo.isEmbedded()
+                        && subInfo.getProfileClass() == PROFILE_CLASS_PROVISIONING) {
                     if (DEBUG) {
-                        Log.d(TAG, "insert subInfo to subInfoEntity, subInfo = " + subInfo);
+                        Log.d(TAG, "Do not insert the provision eSIM");
                     }
-                    if (subInfo.isEmbedded()
-                            && subInfo.getProfileClass() == PROFILE_CLASS_PROVISIONING) {
-                        if (DEBUG) {
-                            Log.d(TAG, "Do not insert the provision eSIM");
-                        }
-                        continue;
-                    }
-                    mSubscriptionInfoMap.put(subInfo.getSubscriptionId(), subInfo);
-                    insertSubInfo(mContext, subInfo);
+                    continue;
                 }
+                availableSubIds.add(subInfo.getSubscriptionId());
+                mSubscriptionInfoMap.put(subInfo.getSubscriptionId(), subInfo);
+                collectSubInfoWrites(mContext, subInfo, writes);
             }
-        });
+        }
+        return availableSubIds;
+    }
+
+    private void collectDeleteWrites(String subId, List<Runnable> writes,
+            Set<Integer> removedSubIds) {
+        if (removedSubIds.add(Integer.parseInt(subId))) {
+            writes.add(() -> deleteAllInfoBySubId(subId));
+        }
     }
 
     public boolean isAirplaneModeOn() {
@@ -792,6 +885,60 @@ public class MobileNetworkRepository extends SubscriptionManager.OnSubscriptions
         }
     }
 
+    /**
+     * Collects the subscription and per-subscription setting changes arriving within
+     * {@link #COALESCE_WINDOW_MS}, and hands them over together once the window ends.
+     */
+    @VisibleForTesting
+    static class PendingChanges {
+        /** Receives the changes collected during one coalescing window. */
+        interface Consumer {
+            void onPendingChanges(boolean subscriptionsChanged, Set<Integer> subIds);
+        }
+
+        private final Handler mHandler;
+        private final Consumer mConsumer;
+        private final Runnable mFlushRunnable = this::flush;
+        @GuardedBy("this")
+        private boolean mSubscriptionsChanged;
+        @GuardedBy("this")
+        private final Set<Integer> mSubIds = new ArraySet<>();
+
+        PendingChanges(Handler handler, Consumer consumer) {
+            mHandler = handler;
+            mConsumer = consumer;
+        }
+
+        synchronized void addSubscriptionsChanged() {
+            mSubscriptionsChanged = true;
+            scheduleLocked();
+        }
+
+        synchronized void addMobileNetworkInfo(int subId) {
+            mSubIds.add(subId);
+            scheduleLocked();
+        }
+
+        @GuardedBy("this")
+        private void scheduleLocked() {
+            if (!mHandler.hasCallbacks(mFlushRunnable)) {
+                mHandler.postDelayed(mFlushRunnable, COALESCE_WINDOW_MS);
+            }
+        }
+
+        private void flush() {
+            final boolean subscriptionsChanged;
+            final Set<Integer> subIds;
+            synchronized (this) {
+                subscriptionsChanged = mSubscriptionsChanged;
+                subIds = new ArraySet<>(mSubIds);
+                mSubscriptionsChanged = false;
+                mSubIds.clear();
+            }
+            mConsumer.onPendingChanges(subscriptionsChanged, subIds);
+        }
+    }
+
     /**
      * Callback for clients to get the latest info changes if the framework or content observers.
      * updates the relevant info.
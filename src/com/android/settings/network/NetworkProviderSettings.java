@@ -76,6 +76,7 @@ import com.android.settings.wifi.LongPressWifiEntryPreference;
 import com.android.settings.wifi.WifiConfigUiBase2;
 import com.android.settings.wifi.WifiConnectListener;
 import com.android.settings.wifi.WifiDialog2;
+import com.android.settings.wifi.WifiEntryPreferenceReconciler;
 import com.android.settings.wifi.WifiPickerTrackerHelper;
 import com.android.settings.wifi.WifiUtils;
 import com.android.settings.wifi.details.WifiNetworkDetailsFragment;
@@ -992,54 +993,53 @@ public class NetworkProviderSettings extends RestrictedSettingsFragment
             connectedWifiPreferenceCategory.removeAll();
         }
 
-        int index = 0;
-        cacheRemoveAllPrefs(mWifiEntryPreferenceCategory);
-        List<WifiEntry> wifiEntries = mWifiPickerTracker.getWifiEntries();
-        for (WifiEntry wifiEntry : wifiEntries) {
-            hasAvailableWifiEntries = true;
-
-            String key = wifiEntry.getKey();
-            LongPressWifiEntryPreference pref =
-                    (LongPressWifiEntryPreference) getCachedPreference(key);
-            if (pref != null) {
-                if (pref.getWifiEntry() == wifiEntry) {
-                    pref.setOrder(index++);
-                    continue;
-                } else {
-                    // Create a new preference if the underlying WifiEntry object has changed
-                    removePreference(key);
-                }
-            }
-
-            pref = createLongPressWifiEntryPreference(wifiEntry);
-            pref.setKey(wifiEntry.getKey());
-            pref.setOrder(index++);
-            pref.refresh();
-
-            if (wifiEntry.getHelpUriString() != null) {
-                pref.setOnButtonClickListener(preference -> {
-                    openSubscriptionHelpPage(wifiEntry);
-                });
-            }
-            mWifiEntryPreferenceCategory.addPreference(pref);
-        }
-        removeCachedPrefs(mWifiEntryPreferenceCategory);
-
+        // Only apply what changed since the last update: removing and re-adding every
+        // preference re-binds and re-animates the whole list on each scan result.
+        final List<WifiEntry> wifiEntries = mWifiPickerTracker.getWifiEntries();
+        final WifiEntryPreferenceReconciler.Result result = WifiEntryPreferenceReconciler
+                .reconcile(mWifiEntryPreferenceCategory, wifiEntries, 0 /* firstOrder */,
+                        wifiEntry -> {
+                            final LongPressWifiEntryPreference pref =
+                                    createLongPressWifiEntryPreference(wifiEntry);
+                            if (wifiEntry.getHelpUriString() != null) {
+                                pref.setOnButtonClickListener(preference -> {
+                                    openSubscriptionHelpPage(wifiEntry);
+                                });
+                            }
+                            return pref;
+                        });
+        int index = result.nextOrder;
+        hasAvailableWifiEntries = !wifiEntries.isEmpty();
+
+        Preference emptyPref = mWifiEntryPreferenceCategory.findPreference(
+                PREF_KEY_EMPTY_WIFI_LIST);
         if (!hasAvailableWifiEntries) {
             setProgressBarVisible(true);
-            Preference pref = new Preference(getPrefContext());
-            pref.setSelectable(false);
-            pref.setSummary(R.string.wifi_empty_list_wifi_on);
-            pref.setOrder(index++);
-            pref.setKey(PREF_KEY_EMPTY_WIFI_LIST);
-            mWifiEntryPreferenceCategory.addPreference(pref);
+            if (emptyPref == null) {
+                emptyPref = new Preference(getPrefContext());
+                emptyPref.setSelectable(false);
+                emptyPref.setSummary(R.string.wifi_empty_list_wifi_on);
+                emptyPref.setKey(PREF_KEY_EMPTY_WIFI_LIST);
+                emptyPref.setOrder(index);
+                mWifiEntryPreferenceCategory.addPreference(emptyPref);
+            } else if (emptyPref.getOrder() != index) {
+                emptyPref.setOrder(index);
+            }
+            index++;
         } else {
+            if (emptyPref != null) {
+                mWifiEntryPreferenceCategory.removePreference(emptyPref);
+            }
             // Continuing showing progress bar for an additional delay to overlap with animation
             getView().postDelayed(mHideProgressBarRunnable, 1700 /* delay millis */);
         }
 
-        mAddWifiNetworkPreference.setOrder(index++);
-        mWifiEntryPreferenceCategory.addPreference(mAddWifiNetworkPreference);
+        if (mAddWifiNetworkPreference.getParent() != mWifiEntryPreferenceCategory) {
+            mAddWifiNetworkPreference.setOrder(index);
+            mWifiEntryPreferenceCategory.addPreference(mAddWifiNetworkPreference);
+        } else if (mAddWifiNetworkPreference.getOrder() != index) {
+            mAddWifiNetworkPreference.setOrder(index);
+        }
         setAdditionalSettingsSummaries();
     }
 
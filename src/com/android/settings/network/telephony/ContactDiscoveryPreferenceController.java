@@ -94,7 +94,9 @@ public class ContactDiscoveryPreferenceController extends TelephonyTogglePrefere
 
     @Override
     public int getAvailabilityStatus(int subId) {
-        PersistableBundle bundle = mCarrierConfigCache.getConfigForSubId(subId);
+        PersistableBundle bundle = mCarrierConfigCache.getConfigForSubId(subId,
+                CarrierConfigManager.KEY_USE_RCS_PRESENCE_BOOL,
+                CarrierConfigManager.Ims.KEY_RCS_BULK_CAPABILITY_EXCHANGE_BOOL);
         boolean shouldShowPresence = bundle != null
                 && (bundle.getBoolean(
                 CarrierConfigManager.KEY_USE_RCS_PRESENCE_BOOL, false /*default*/)
@@ -147,8 +147,10 @@ public class Enabled5GPreferenceController extends TelephonyTogglePreferenceCont
         /*
          * Indicates whether this SUB has NR capability or not.
          */
-        final boolean isNrRadioSupported =
-                checkSupportedRadioBitmask(mTelephonyManager.getSupportedRadioAccessFamily(),
+        final TelephonySnapshot snapshot = TelephonySnapshot.peek(subId);
+        final boolean isNrRadioSupported = checkSupportedRadioBitmask(snapshot != null
+                ? snapshot.getSupportedRadioAccessFamily()
+                : mTelephonyManager.getSupportedRadioAccessFamily(),
                 TelephonyManager.NETWORK_TYPE_BITMASK_NR);
         final boolean isSingleNrSupportedOnly = !isDualNrSupported && (defaultDdsSubId == subId);
 
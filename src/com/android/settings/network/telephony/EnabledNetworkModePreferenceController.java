@@ -44,6 +44,7 @@ import android.telephony.SubscriptionManager;
 import android.telephony.TelephonyCallback;
 import android.telephony.TelephonyManager;
 import android.util.Log;
+import android.util.SparseArray;
 
 import androidx.annotation.VisibleForTesting;
 import androidx.lifecycle.LifecycleObserver;
@@ -99,7 +100,10 @@ public class EnabledNetworkModePreferenceController extends
     public int getAvailabilityStatus(int subId) {
         boolean visible;
 
-        final PersistableBundle carrierConfig = mCarrierConfigCache.getConfigForSubId(subId);
+        final TelephonySnapshot snapshot = TelephonySnapshot.peek(subId);
+        final PersistableBundle carrierConfig = snapshot != null
+                ? snapshot.getCarrierConfig()
+                : mCarrierConfigCache.getConfigForSubId(subId);
         if (subId == SubscriptionManager.INVALID_SUBSCRIPTION_ID) {
             visible = false;
         } else if (carrierConfig == null
@@ -209,6 +213,7 @@ public class EnabledNetworkModePreferenceController extends
         }
         if (mTelephonyManager.setPreferredNetworkTypeBitmask(
                 MobileNetworkUtils.getRafFromNetworkType(newPreferredNetworkMode))) {
+            TelephonySnapshot.invalidate(mSubId);
             mBuilder.setPreferenceValueAndSummary(newPreferredNetworkMode);
             listPreference.setValue(Integer.toString(mBuilder.getSelectedEntryValue()));
             listPreference.setSummary(mBuilder.getSummary());
@@ -246,13 +251,18 @@ public class EnabledNetworkModePreferenceController extends
             mAllowedNetworkTypesListener = new AllowedNetworkTypesListener(
                     mContext.getMainExecutor());
             mAllowedNetworkTypesListener.setAllowedNetworkTypesListener(
-                    () -> {
-                        mBuilder.updateConfig();
-                        updatePreference();
-                    });
+                    () -> onAllowedNetworkTypesChanged());
         }
     }
 
+    @VisibleForTesting
+    void onAllowedNetworkTypesChanged() {
+        // Drop the snapshot now, its own callback may not have run yet.
+        TelephonySnapshot.invalidate(mSubId);
+        mBuilder.updateConfig();
+        updatePreference();
+    }
+
     private void updatePreference() {
         if (mPreferenceScreen != null) {
             displayPreference(mPreferenceScreen);
@@ -282,6 +292,16 @@ public class EnabledNetworkModePreferenceController extends
         private List<String> mEntries = new ArrayList<>();
         private List<Integer> mEntriesValue = new ArrayList<>();
 
+        // Read once per update and shared by the entries and the summary.
+        private int mPhoneType;
+        private boolean mIsWorldMode;
+        private boolean mIsTdscdmaSupported;
+
+        // The entries only depend on the inputs folded into their key, so each combination is
+        // composed once and reused until the builder is recreated for a new subscription.
+        private final SparseArray<EntriesTable> mEntriesTables = new SparseArray<>();
+        private EntriesTable mEntriesTable;
+
         PreferenceEntriesBuilder(Context context, int subId) {
             this.mContext = context;
             this.mSubId = subId;
@@ -293,13 +313,17 @@ public class EnabledNetworkModePreferenceController extends
 
         public void updateConfig() {
             mTelephonyManager = mTelephonyManager.createForSubscriptionId(mSubId);
-            final PersistableBundle carrierConfig = mCarrierConfigCache.getConfigForSubId(mSubId);
+            final TelephonySnapshot snapshot = TelephonySnapshot.peek(mSubId);
+            final PersistableBundle carrierConfig = snapshot != null
+                    ? snapshot.getCarrierConfig()
+                    : mCarrierConfigCache.getConfigForSubId(mSubId);
             mAllowed5gNetworkType = checkSupportedRadioBitmask(
                     mTelephonyManager.getAllowedNetworkTypesForReason(
                             TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_CARRIER),
                     TelephonyManager.NETWORK_TYPE_BITMASK_NR);
-            mSupported5gRadioAccessFamily = checkSupportedRadioBitmask(
-                    mTelephonyManager.getSupportedRadioAccessFamily(),
+            mSupported5gRadioAccessFamily = checkSupportedRadioBitmask(snapshot != null
+                    ? snapshot.getSupportedRadioAccessFamily()
+                    : mTelephonyManager.getSupportedRadioAccessFamily(),
                     TelephonyManager.NETWORK_TYPE_BITMASK_NR);
             if (carrierConfig != null) {
                 mIsGlobalCdma = mTelephonyManager.isLteCdmaEvdoGsmWcdmaEnabled()
@@ -344,10 +368,32 @@ public class EnabledNetworkModePreferenceController extends
 
         void setPreferenceEntries() {
             mTelephonyManager = mTelephonyManager.createForSubscriptionId(mSubId);
+            mPhoneType = mTelephonyManager.getPhoneType();
+            mIsWorldMode = MobileNetworkUtils.isWorldMode(mContext, mSubId);
+            mIsTdscdmaSupported = MobileNetworkUtils.isTdscdmaSupported(mContext, mSubId);
+
+            final EnabledNetworks enabledNetworkType = getEnabledNetworkType();
+            final int key = getEntriesKey(enabledNetworkType);
+            mEntriesTable = mEntriesTables.get(key);
+            if (mEntriesTable == null) {
+                mEntriesTable = buildEntriesTable(enabledNetworkType);
+                mEntriesTables.put(key, mEntriesTable);
+            }
+            mIs5gEntryDisplayed = mEntriesTable.mIs5gEntryDisplayed;
+        }
 
+        private int getEntriesKey(EnabledNetworks enabledNetworkType) {
+            return (enabledNetworkType.getNumber() << 3)
+                    | (mDisplay2gOptions ? 1 : 0)
+                    | (mDisplay3gOptions ? 1 << 1 : 0)
+                    | (showNrList() ? 1 << 2 : 0);
+        }
+
+        private EntriesTable buildEntriesTable(EnabledNetworks enabledNetworkType) {
             clearAllEntries();
+            mIs5gEntryDisplayed = false;
             UiOptions.Builder uiOptions = UiOptions.newBuilder();
-            uiOptions.setType(getEnabledNetworkType());
+            uiOptions.setType(enabledNetworkType);
             switch (uiOptions.getType()) {
                 case ENABLED_NETWORKS_CDMA_CHOICES:
                     uiOptions = uiOptions
@@ -496,12 +542,15 @@ public class EnabledNetworkModePreferenceController extends
                         throw new IllegalArgumentException("Not supported ui options format.");
                 }
             });
+            return new EntriesTable(mEntries, mEntriesValue, mIs5gEntryDisplayed);
         }
 
         private int getPreferredNetworkMode() {
-            int networkMode = MobileNetworkUtils.getNetworkTypeFromRaf(
-                    (int) mTelephonyManager.getAllowedNetworkTypesForReason(
-                            TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER));
+            final TelephonySnapshot snapshot = TelephonySnapshot.peek(mSubId);
+            int networkMode = MobileNetworkUtils.getNetworkTypeFromRaf((int) (snapshot != null
+                    ? snapshot.getAllowedNetworkTypesForUser()
+                    : mTelephonyManager.getAllowedNetworkTypesForReason(
+                            TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER)));
             if (!showNrList()) {
                 Log.d(LOG_TAG, "Network mode :" + networkMode + " reduce NR");
                 networkMode = reduceNrToLteNetworkType(networkMode);
@@ -512,7 +561,7 @@ public class EnabledNetworkModePreferenceController extends
 
         private EnabledNetworks getEnabledNetworkType() {
             EnabledNetworks enabledNetworkType = EnabledNetworks.ENABLED_NETWORKS_UNKNOWN;
-            final int phoneType = mTelephonyManager.getPhoneType();
+            final int phoneType = mPhoneType;
 
             if (phoneType == TelephonyManager.PHONE_TYPE_CDMA) {
                 final int lteForced = android.provider.Settings.Global.getInt(
@@ -545,7 +594,7 @@ public class EnabledNetworkModePreferenceController extends
                     }
                 }
             } else if (phoneType == TelephonyManager.PHONE_TYPE_GSM) {
-                if (MobileNetworkUtils.isTdscdmaSupported(mContext, mSubId)) {
+                if (mIsTdscdmaSupported) {
                     enabledNetworkType = EnabledNetworks.ENABLED_NETWORKS_TDSCDMA_CHOICES;
                 } else if (!mDisplay2gOptions && !mDisplay3gOptions) {
                     enabledNetworkType = mShow4gForLTE
@@ -568,7 +617,7 @@ public class EnabledNetworkModePreferenceController extends
             }
             //TODO(b/117881708): figure out what world mode is, then we can optimize code. Otherwise
             // I prefer to keep this old code
-            if (MobileNetworkUtils.isWorldMode(mContext, mSubId)) {
+            if (mIsWorldMode) {
                 enabledNetworkType = EnabledNetworks.PREFERRED_NETWORK_MODE_CHOICES_WORLD_MODE;
             }
 
@@ -590,6 +639,34 @@ public class EnabledNetworkModePreferenceController extends
          *                    the choice list. The nearest choice is selected instead
          */
         void setPreferenceValueAndSummary(int networkMode) {
+            if (mEntriesTable == null) {
+                setPreferenceEntries();
+            }
+            final int key = getSelectionKey(networkMode);
+            Selection selection = mEntriesTable.mSelections.get(key);
+            if (selection == null) {
+                composeValueAndSummary(networkMode);
+                if (mEntriesTable.mValues.length == 0) {
+                    // The selection was left untouched, so it is not a function of the key.
+                    return;
+                }
+                selection = new Selection(mSelectedEntry, mSummary);
+                mEntriesTable.mSelections.put(key, selection);
+            }
+            mSelectedEntry = selection.mSelectedEntry;
+            mSummary = selection.mSummary;
+        }
+
+        private int getSelectionKey(int networkMode) {
+            return (networkMode << 5)
+                    | (mIsGlobalCdma ? 1 : 0)
+                    | (mIsWorldMode ? 1 << 1 : 0)
+                    | (mIsTdscdmaSupported ? 1 << 2 : 0)
+                    | (mPhoneType == TelephonyManager.PHONE_TYPE_CDMA ? 1 << 3 : 0)
+                    | (mShow4gForLTE ? 1 << 4 : 0);
+        }
+
+        private void composeValueAndSummary(int networkMode) {
             setSelectedEntry(networkMode);
             switch (networkMode) {
                 case TelephonyManagerConstants.NETWORK_MODE_TDSCDMA_WCDMA:
@@ -622,7 +699,7 @@ public class EnabledNetworkModePreferenceController extends
                     }
                     break;
                 case TelephonyManagerConstants.NETWORK_MODE_LTE_GSM_WCDMA:
-                    if (MobileNetworkUtils.isWorldMode(mContext, mSubId)) {
+                    if (mIsWorldMode) {
                         setSummary(
                                 R.string.preferred_network_mode_lte_gsm_umts_summary);
                         break;
@@ -646,7 +723,7 @@ public class EnabledNetworkModePreferenceController extends
                     }
                     break;
                 case TelephonyManagerConstants.NETWORK_MODE_LTE_CDMA_EVDO:
-                    if (MobileNetworkUtils.isWorldMode(mContext, mSubId)) {
+                    if (mIsWorldMode) {
                         setSummary(
                                 R.string.preferred_network_mode_lte_cdma_summary);
                     } else {
@@ -681,7 +758,7 @@ public class EnabledNetworkModePreferenceController extends
                 case TelephonyManagerConstants.NETWORK_MODE_LTE_TDSCDMA_WCDMA:
                 case TelephonyManagerConstants.NETWORK_MODE_LTE_TDSCDMA_CDMA_EVDO_GSM_WCDMA:
                 case TelephonyManagerConstants.NETWORK_MODE_LTE_CDMA_EVDO_GSM_WCDMA:
-                    if (MobileNetworkUtils.isTdscdmaSupported(mContext, mSubId)) {
+                    if (mIsTdscdmaSupported) {
                         setSelectedEntry(TelephonyManagerConstants
                                 .NETWORK_MODE_LTE_TDSCDMA_CDMA_EVDO_GSM_WCDMA);
                         setSummary(is5gEntryDisplayed()
@@ -689,9 +766,9 @@ public class EnabledNetworkModePreferenceController extends
                     } else {
                         setSelectedEntry(
                                 TelephonyManagerConstants.NETWORK_MODE_LTE_CDMA_EVDO_GSM_WCDMA);
-                        if (mTelephonyManager.getPhoneType() == TelephonyManager.PHONE_TYPE_CDMA
+                        if (mPhoneType == TelephonyManager.PHONE_TYPE_CDMA
                                 || mIsGlobalCdma
-                                || MobileNetworkUtils.isWorldMode(mContext, mSubId)) {
+                                || mIsWorldMode) {
                             setSummary(R.string.network_global);
                         } else {
                             if (is5gEntryDisplayed()) {
@@ -729,9 +806,9 @@ public class EnabledNetworkModePreferenceController extends
                 case TelephonyManagerConstants.NETWORK_MODE_NR_LTE_CDMA_EVDO_GSM_WCDMA:
                     setSelectedEntry(
                             TelephonyManagerConstants.NETWORK_MODE_NR_LTE_CDMA_EVDO_GSM_WCDMA);
-                    if (mTelephonyManager.getPhoneType() == TelephonyManager.PHONE_TYPE_CDMA
+                    if (mPhoneType == TelephonyManager.PHONE_TYPE_CDMA
                             || mIsGlobalCdma
-                            || MobileNetworkUtils.isWorldMode(mContext, mSubId)) {
+                            || mIsWorldMode) {
                         setSummary(R.string.network_global);
                     } else {
                         setSummary(getResourcesForSubId().getString(R.string.network_5G_recommended));
@@ -914,7 +991,7 @@ public class EnabledNetworkModePreferenceController extends
         }
 
         private String[] getEntries() {
-            return mEntries.toArray(new String[0]);
+            return mEntriesTable.mEntries;
         }
 
         private void clearAllEntries() {
@@ -923,10 +1000,7 @@ public class EnabledNetworkModePreferenceController extends
         }
 
         private String[] getEntryValues() {
-            final Integer[] intArr = mEntriesValue.toArray(new Integer[0]);
-            return Arrays.stream(intArr)
-                    .map(String::valueOf)
-                    .toArray(String[]::new);
+            return mEntriesTable.mEntryValues;
         }
 
         private int getSelectedEntryValue() {
@@ -934,14 +1008,15 @@ public class EnabledNetworkModePreferenceController extends
         }
 
         private void setSelectedEntry(int value) {
-            boolean isInEntriesValue = mEntriesValue.stream()
+            final int[] entriesValue = mEntriesTable.mValues;
+            boolean isInEntriesValue = Arrays.stream(entriesValue)
                     .anyMatch(v -> v == value);
 
             if (isInEntriesValue) {
                 mSelectedEntry = value;
-            } else if (mEntriesValue.size() > 0) {
+            } else if (entriesValue.length > 0) {
                 // if the value isn't in entriesValue, select on the first one.
-                mSelectedEntry = mEntriesValue.get(0);
+                mSelectedEntry = entriesValue[0];
             } else {
                 Log.e(LOG_TAG, "entriesValue is empty");
             }
@@ -965,6 +1040,34 @@ public class EnabledNetworkModePreferenceController extends
 
     }
 
+    /** Entries of the preference composed for one combination of their inputs. */
+    private static final class EntriesTable {
+        final String[] mEntries;
+        final String[] mEntryValues;
+        final int[] mValues;
+        final boolean mIs5gEntryDisplayed;
+        /** Selected entry and summary, keyed by the network mode and the summary inputs. */
+        final SparseArray<Selection> mSelections = new SparseArray<>();
+
+        EntriesTable(List<String> entries, List<Integer> values, boolean is5gEntryDisplayed) {
+            mEntries = entries.toArray(new String[0]);
+            mValues = values.stream().mapToInt(Integer::intValue).toArray();
+            mEntryValues = Arrays.stream(mValues).mapToObj(String::valueOf)
+                    .toArray(String[]::new);
+            mIs5gEntryDisplayed = is5gEntryDisplayed;
+        }
+    }
+
+    private static final class Selection {
+        final int mSelectedEntry;
+        final String mSummary;
+
+        Selection(int selectedEntry, String summary) {
+            mSelectedEntry = selectedEntry;
+            mSummary = summary;
+        }
+    }
+
     @VisibleForTesting
     class PhoneCallStateTelephonyCallback extends TelephonyCallback implements
             TelephonyCallback.CallStateListener {
@@ -63,6 +63,7 @@ import com.android.settings.Settings.MobileNetworkActivity;
 import com.android.settings.SettingsActivity;
 import com.android.settings.datausage.BillingCyclePreferenceController;
 import com.android.settings.datausage.DataUsageSummaryPreferenceController;
+import com.android.settings.network.CarrierConfigCache;
 import com.android.settings.network.CarrierWifiTogglePreferenceController;
 import com.android.settings.network.MobileNetworkRepository;
 import com.android.settings.network.SubscriptionUtil;
@@ -141,6 +142,7 @@ public class MobileNetworkSettings extends AbstractMobileNetworkSettings impleme
     private boolean mExtTelServiceConnected = false;
     private ExtTelephonyManager mExtTelephonyManager;
     private SubscriptionManager mSubscriptionManager;
+    private int mSnapshotSubId = SubscriptionManager.INVALID_SUBSCRIPTION_ID;
     private final ServiceCallback mExtTelServiceCallback = new ServiceCallback() {
         @Override
         public void onConnected() {
@@ -161,6 +163,7 @@ public class MobileNetworkSettings extends AbstractMobileNetworkSettings impleme
         public void onReceive(Context context, Intent intent) {
             if (CarrierConfigManager.ACTION_CARRIER_CONFIG_CHANGED
                     .equals(intent.getAction())) {
+                TelephonySnapshot.invalidate(mSnapshotSubId);
                 ThreadUtils.postOnMainThread(() -> {
                     redrawPreferenceControllers();
                 });
@@ -353,6 +356,8 @@ public class MobileNetworkSettings extends AbstractMobileNetworkSettings impleme
 
     @Override
     public void onAttach(Context context) {
+        // Most controllers of this screen read the carrier config; start loading it now.
+        CarrierConfigCache.getInstance(context).prefetchActiveSubscriptions(context);
         super.onAttach(context);
 
         if (mSubId == SubscriptionManager.INVALID_SUBSCRIPTION_ID) {
@@ -501,6 +506,10 @@ public class MobileNetworkSettings extends AbstractMobileNetworkSettings impleme
     public void onCreate(Bundle icicle) {
         Log.i(LOG_TAG, "onCreate:+");
 
+        // Build the telephony state shared by the controllers while their availability is
+        // computed below.
+        mSnapshotSubId = mSubId;
+        TelephonySnapshot.open(getContext(), mSnapshotSubId);
         final TelephonyStatusControlSession session =
                 setTelephonyAvailabilityStatus(getPreferenceControllersAsList());
 
@@ -569,6 +578,8 @@ public class MobileNetworkSettings extends AbstractMobileNetworkSettings impleme
             mExtTelephonyManager.disconnectService(mExtTelServiceCallback);
             mExtTelephonyManager = null;
         }
+        TelephonySnapshot.close(mSnapshotSubId);
+        mSnapshotSubId = SubscriptionManager.INVALID_SUBSCRIPTION_ID;
         super.onDestroy();
     }
 
@@ -31,6 +31,7 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.Message;
 import android.os.PersistableBundle;
+import android.os.SystemClock;
 import android.provider.Settings;
 import android.telephony.AccessNetworkConstants;
 import android.telephony.CarrierConfigManager;
@@ -46,6 +47,7 @@ import android.telephony.SignalStrength;
 import android.telephony.SubscriptionManager;
 import android.telephony.TelephonyManager;
 import android.util.Log;
+import android.util.SparseArray;
 import android.view.View;
 
 import androidx.annotation.Keep;
@@ -65,10 +67,11 @@ import com.android.settingslib.utils.ThreadUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -88,6 +91,12 @@ public class NetworkSelectSettings extends DashboardFragment implements
 
     private static final String PREF_KEY_NETWORK_OPERATORS = "network_operators_preference";
     private static final int MIN_NUMBER_OF_SCAN_REQUIRED = 2;
+    /** How long the result of the last complete scan is shown when the page is reopened. */
+    @VisibleForTesting
+    static final long LAST_SCAN_MAX_AGE_MS = 5 * 60 * 1000;
+
+    /** Last complete scan result per subscription, shown while a new scan is running. */
+    private static final SparseArray<LastScanResults> sLastScanResults = new SparseArray<>();
 
     private PreferenceCategory mPreferenceCategory;
     @VisibleForTesting
@@ -113,6 +122,10 @@ public class NetworkSelectSettings extends DashboardFragment implements
     private long mWaitingForNumberOfScanResults;
     @VisibleForTesting
     boolean mIsAggregationEnabled = false;
+    /** Results of the running scan merged across batches, in order of first appearance. */
+    private final Map<Object, CellInfo> mScanResults = new LinkedHashMap<>();
+    /** Keys of the results reported by the running scan. */
+    private final Set<Object> mSeenScanResultKeys = new HashSet<>();
 
     @Override
     public void onCreate(Bundle icicle) {
@@ -245,6 +258,7 @@ public class NetworkSelectSettings extends DashboardFragment implements
         if (mWaitingForNumberOfScanResults <= 0) {
             // Clear the selected preference whenever the scan starts
             mSelectedPreference = null;
+            showLastScanResults();
             startNetworkQuery();
         }
     }
@@ -403,6 +417,10 @@ public class NetworkSelectSettings extends DashboardFragment implements
                     if (mRequestIdManualNetworkScan < mRequestIdManualNetworkSelect) {
                         break;
                     }
+                    if (isPreferenceScreenEnabled() && !mSeenScanResultKeys.isEmpty()) {
+                        removeUnseenScanResults();
+                        putLastScanResults(mSubId, mCellInfoList);
+                    }
                     if (!isPreferenceScreenEnabled()) {
                         clearPreferenceSummary();
                         enablePreferenceScreen(true);
@@ -422,30 +440,106 @@ public class NetworkSelectSettings extends DashboardFragment implements
             Log.d(TAG, "no aggregation");
             return new ArrayList<>(cellInfoListInput);
         }
-        ArrayList<CellInfo> aggregatedList = new ArrayList<>();
+        final Map<Object, CellInfo> aggregatedMap = new LinkedHashMap<>();
         for (CellInfo cellInfo : cellInfoListInput) {
-            String plmn = CellInfoUtil.getNetworkTitle(cellInfo.getCellIdentity(),
-                    CellInfoUtil.getCellIdentityMccMnc(cellInfo.getCellIdentity()));
-            Class className = cellInfo.getClass();
-
-            Optional<CellInfo> itemInTheList = aggregatedList.stream().filter(
-                    item -> {
-                        String itemPlmn = CellInfoUtil.getNetworkTitle(item.getCellIdentity(),
-                                CellInfoUtil.getCellIdentityMccMnc(item.getCellIdentity()));
-                        return itemPlmn.equals(plmn) && item.getClass().equals(className);
-                    })
-                    .findFirst();
-            if (itemInTheList.isPresent()) {
-                if (cellInfo.isRegistered() && !itemInTheList.get().isRegistered()) {
-                    // Adding the registered cellinfo item into list. If there are two registered
-                    // cellinfo items, then select first one from source list.
-                    aggregatedList.set(aggregatedList.indexOf(itemInTheList.get()), cellInfo);
-                }
+            final Object key = getScanResultKey(cellInfo);
+            final CellInfo itemInTheList = aggregatedMap.get(key);
+            if (itemInTheList == null) {
+                aggregatedMap.put(key, cellInfo);
+            } else if (cellInfo.isRegistered() && !itemInTheList.isRegistered()) {
+                // Adding the registered cellinfo item into list. If there are two registered
+                // cellinfo items, then select first one from source list.
+                aggregatedMap.put(key, cellInfo);
+            }
+        }
+        return new ArrayList<>(aggregatedMap.values());
+    }
+
+    /**
+     * Returns the key identifying a scan result: the PLMN and RAT when aggregation is enabled,
+     * the cell otherwise.
+     */
+    private Object getScanResultKey(CellInfo cellInfo) {
+        final CellIdentity cellIdentity = cellInfo.getCellIdentity();
+        if (mIsAggregationEnabled) {
+            return CellInfoUtil.getNetworkTitle(cellIdentity,
+                    CellInfoUtil.getCellIdentityMccMnc(cellIdentity))
+                    + "/" + cellInfo.getClass().getName();
+        }
+        return cellIdentity != null ? cellIdentity : cellInfo;
+    }
+
+    /**
+     * Merges one batch of scan results into the results of the running scan. A known network
+     * keeps its position and takes the newer result, unless that would replace the registered
+     * cell reported by the running scan; a new one is appended.
+     */
+    @VisibleForTesting
+    List<CellInfo> mergeScanResults(List<CellInfo> results) {
+        for (CellInfo cellInfo : results) {
+            final Object key = getScanResultKey(cellInfo);
+            final boolean seenByThisScan = !mSeenScanResultKeys.add(key);
+            final CellInfo knownCellInfo = mScanResults.get(key);
+            if (seenByThisScan && knownCellInfo != null && knownCellInfo.isRegistered()
+                    && !cellInfo.isRegistered()) {
+                // Keep the registered cell, like doAggregation() does within a batch.
                 continue;
             }
-            aggregatedList.add(cellInfo);
+            mScanResults.put(key, cellInfo);
+        }
+        return new ArrayList<>(mScanResults.values());
+    }
+
+    /** Drops the networks shown from a previous scan that the completed scan did not report. */
+    private void removeUnseenScanResults() {
+        if (!mScanResults.keySet().retainAll(mSeenScanResultKeys)) {
+            return;
+        }
+        mCellInfoList = new ArrayList<>(mScanResults.values());
+        final NetworkOperatorPreference connectedPref = updateAllPreferenceCategory();
+        if (connectedPref != null) {
+            mConnectedPreference = connectedPref;
         }
-        return aggregatedList;
+    }
+
+    /** Shows the networks found by the last complete scan, if it is recent enough. */
+    private void showLastScanResults() {
+        if (mCellInfoList != null) {
+            return;
+        }
+        final List<CellInfo> lastResults = getLastScanResults(mSubId);
+        if (lastResults == null || lastResults.isEmpty()) {
+            return;
+        }
+        Log.d(TAG, "Show " + lastResults.size() + " networks from the last scan");
+        mScanResults.clear();
+        for (CellInfo cellInfo : lastResults) {
+            mScanResults.put(getScanResultKey(cellInfo), cellInfo);
+        }
+        mCellInfoList = new ArrayList<>(mScanResults.values());
+        mConnectedPreference = updateAllPreferenceCategory();
+    }
+
+    @VisibleForTesting
+    static List<CellInfo> getLastScanResults(int subId) {
+        final LastScanResults lastScanResults = sLastScanResults.get(subId);
+        if (lastScanResults == null) {
+            return null;
+        }
+        if (SystemClock.elapsedRealtime() - lastScanResults.mTimestamp > LAST_SCAN_MAX_AGE_MS) {
+            sLastScanResults.remove(subId);
+            return null;
+        }
+        return lastScanResults.mCellInfoList;
+    }
+
+    @VisibleForTesting
+    static void putLastScanResults(int subId, List<CellInfo> cellInfoList) {
+        if (cellInfoList == null || cellInfoList.isEmpty()) {
+            return;
+        }
+        sLastScanResults.put(subId, new LastScanResults(new ArrayList<>(cellInfoList),
+                SystemClock.elapsedRealtime()));
     }
 
     private final NetworkScanHelper.NetworkScanCallback mCallback =
@@ -485,7 +579,7 @@ public class NetworkSelectSettings extends DashboardFragment implements
             return;
         }
 
-        mCellInfoList = doAggregation(results);
+        mCellInfoList = mergeScanResults(doAggregation(results));
         Log.d(TAG, "CellInfoList: " + CellInfoUtil.cellInfoListToString(mCellInfoList));
         if (mCellInfoList != null && mCellInfoList.size() != 0) {
             final NetworkOperatorPreference connectedPref =
@@ -695,6 +789,7 @@ public class NetworkSelectSettings extends DashboardFragment implements
         if (mNetworkScanHelper != null) {
             mRequestIdManualNetworkScan = getNewRequestId();
             mWaitingForNumberOfScanResults = MIN_NUMBER_OF_SCAN_REQUIRED;
+            mSeenScanResultKeys.clear();
 
             mNetworkScanHelper.startNetworkScan(
                     mIsAdvancedScanSupported
@@ -718,4 +813,14 @@ public class NetworkSelectSettings extends DashboardFragment implements
         mNetworkScanExecutor.shutdown();
         super.onDestroy();
     }
+
+    private static class LastScanResults {
+        final List<CellInfo> mCellInfoList;
+        final long mTimestamp;
+
+        LastScanResults(List<CellInfo> cellInfoList, long timestamp) {
+            mCellInfoList = cellInfoList;
+            mTimestamp = timestamp;
+        }
+    }
 }
@@ -82,7 +82,10 @@ public class NrAdvancedCallingPreferenceController extends TelephonyTogglePrefer
         if (SubscriptionManager.isValidSubscriptionId(subId)) {
             mTelephonyManager = mTelephonyManager.createForSubscriptionId(subId);
         }
-        long supportedRadioBitmask = mTelephonyManager.getSupportedRadioAccessFamily();
+        final TelephonySnapshot snapshot = TelephonySnapshot.peek(subId);
+        long supportedRadioBitmask = snapshot != null
+                ? snapshot.getSupportedRadioAccessFamily()
+                : mTelephonyManager.getSupportedRadioAccessFamily();
         mHas5gCapability =
                 (supportedRadioBitmask & TelephonyManager.NETWORK_TYPE_BITMASK_NR) > 0;
 
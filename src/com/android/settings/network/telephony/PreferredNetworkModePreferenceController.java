@@ -166,6 +166,7 @@ public class PreferredNetworkModePreferenceController extends TelephonyBasePrefe
         mTelephonyManager.setAllowedNetworkTypesForReason(
                 TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER,
                 MobileNetworkUtils.getRafFromNetworkType(newPreferredNetworkMode));
+        TelephonySnapshot.invalidate(mSubId);
 
         final ListPreference listPreference = (ListPreference) preference;
         listPreference.setSummary(getPreferredNetworkModeSummaryResId(newPreferredNetworkMode));
@@ -203,8 +204,10 @@ public class PreferredNetworkModePreferenceController extends TelephonyBasePrefe
         if (mAllowedNetworkTypesListener == null) {
             mAllowedNetworkTypesListener = new AllowedNetworkTypesListener(
                     mContext.getMainExecutor());
-            mAllowedNetworkTypesListener.setAllowedNetworkTypesListener(
-                    () -> updatePreference());
+            mAllowedNetworkTypesListener.setAllowedNetworkTypesListener(() -> {
+                TelephonySnapshot.invalidate(mSubId);
+                updatePreference();
+            });
         }
 
         lifecycle.addObserver(this);
@@ -221,9 +224,11 @@ public class PreferredNetworkModePreferenceController extends TelephonyBasePrefe
             Log.w(TAG, "TelephonyManager is null");
             return TelephonyManagerConstants.NETWORK_MODE_UNKNOWN;
         }
-        return MobileNetworkUtils.getNetworkTypeFromRaf(
-                (int) mTelephonyManager.getAllowedNetworkTypesForReason(
-                        TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER));
+        final TelephonySnapshot snapshot = TelephonySnapshot.peek(mSubId);
+        return MobileNetworkUtils.getNetworkTypeFromRaf((int) (snapshot != null
+                ? snapshot.getAllowedNetworkTypesForUser()
+                : mTelephonyManager.getAllowedNetworkTypesForReason(
+                        TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER)));
     }
 
     private int getPreferredNetworkModeSummaryResId(int NetworkMode) {
@@ -72,7 +72,10 @@ public class Smart5gPreferenceController extends TelephonyTogglePreferenceContro
         if (SubscriptionManager.isValidSubscriptionId(subId)) {
             mTelephonyManager = mTelephonyManager.createForSubscriptionId(subId);
         }
-        long supportedRadioBitmask = mTelephonyManager.getSupportedRadioAccessFamily();
+        final TelephonySnapshot snapshot = TelephonySnapshot.peek(subId);
+        long supportedRadioBitmask = snapshot != null
+                ? snapshot.getSupportedRadioAccessFamily()
+                : mTelephonyManager.getSupportedRadioAccessFamily();
         mHas5gCapability =
                 (supportedRadioBitmask & TelephonyManager.NETWORK_TYPE_BITMASK_NR) > 0;
 
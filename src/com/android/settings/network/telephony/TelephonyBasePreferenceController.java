@@ -71,6 +71,10 @@ public abstract class TelephonyBasePreferenceController extends BasePreferenceCo
         if (!SubscriptionManager.isValidSubscriptionId(subId)) {
             return null;
         }
+        final TelephonySnapshot snapshot = TelephonySnapshot.peek(subId);
+        if (snapshot != null) {
+            return snapshot.getCarrierConfig();
+        }
         final CarrierConfigManager carrierConfigMgr =
                 mContext.getSystemService(CarrierConfigManager.class);
         return carrierConfigMgr.getConfigForSubId(subId);
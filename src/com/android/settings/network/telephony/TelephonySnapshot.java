@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.network.telephony;
+
+import android.content.Context;
+import android.os.Looper;
+import android.os.PersistableBundle;
+import android.os.SystemClock;
+import android.telephony.ServiceState;
+import android.telephony.SubscriptionManager;
+import android.telephony.TelephonyCallback;
+import android.telephony.TelephonyManager;
+import android.util.Log;
+import android.util.SparseArray;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settings.network.CarrierConfigCache;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Snapshot of the telephony state of one subscription, shared by the mobile network preference
+ * controllers.
+ *
+ * <p>While a page keeps the snapshot of a subscription open through {@link #open}, the snapshot
+ * is built on a background thread and {@link #peek} hands it to every controller, instead of each
+ * controller asking telephony the same questions. The snapshot stays valid until telephony reports
+ * a change of the state it holds: a new service state or user allowed network types, or a carrier
+ * config change reported through {@link #invalidate}. It is then rebuilt. {@link #peek} returns
+ * null when no snapshot is held or when it is not ready yet on the main thread; callers then query
+ * telephony directly as before.
+ *
+ * <p>The IMS state is not held, since its registration, capability and provisioning changes are
+ * not reported through these callbacks. Callers query it directly.
+ */
+public class TelephonySnapshot {
+    private static final String TAG = "TelephonySnapshot";
+
+    private static final long BUILD_TIMEOUT_MS = 1000;
+
+    // Builds the snapshots and runs the telephony callbacks one at a time, so a callback either
+    // runs before a pending build, which then reads the new state, or sees the built snapshot.
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor();
+
+    private static final Object sLock = new Object();
+    @GuardedBy("sLock")
+    private static final SparseArray<Future<TelephonySnapshot>> sSnapshots = new SparseArray<>();
+    @GuardedBy("sLock")
+    private static final SparseArray<Session> sSessions = new SparseArray<>();
+
+    private final int mSubId;
+    private final PersistableBundle mCarrierConfig;
+    private final long mSupportedRadioAccessFamily;
+    private final long mAllowedNetworkTypesForUser;
+    private final boolean mNetworkRoaming;
+
+    @VisibleForTesting
+    TelephonySnapshot(int subId, PersistableBundle carrierConfig, long supportedRadioAccessFamily,
+            long allowedNetworkTypesForUser, boolean networkRoaming) {
+        mSubId = subId;
+        mCarrierConfig = carrierConfig;
+        mSupportedRadioAccessFamily = supportedRadioAccessFamily;
+        mAllowedNetworkTypesForUser = allowedNetworkTypesForUser;
+        mNetworkRoaming = networkRoaming;
+    }
+
+    public int getSubId() {
+        return mSubId;
+    }
+
+    /** Returns the carrier config, or {@code null} when it is not available. */
+    @Nullable
+    public PersistableBundle getCarrierConfig() {
+        return mCarrierConfig;
+    }
+
+    /** See {@link TelephonyManager#getSupportedRadioAccessFamily()}. */
+    public long getSupportedRadioAccessFamily() {
+        return mSupportedRadioAccessFamily;
+    }
+
+    /**
+     * See {@link TelephonyManager#getAllowedNetworkTypesForReason(int)} with
+     * {@link TelephonyManager#ALLOWED_NETWORK_TYPES_REASON_USER}.
+     */
+    public long getAllowedNetworkTypesForUser() {
+        return mAllowedNetworkTypesForUser;
+    }
+
+    /** See {@link TelephonyManager#isNetworkRoaming()}. */
+    public boolean isNetworkRoaming() {
+        return mNetworkRoaming;
+    }
+
+    /**
+     * Starts sharing the snapshot of {@code subId}, builds it in the background and keeps it up to
+     * date with telephony callbacks. Every call must be balanced with {@link #close(int)}.
+     */
+    public static void open(Context context, int subId) {
+        if (!SubscriptionManager.isValidSubscriptionId(subId)) {
+            return;
+        }
+        synchronized (sLock) {
+            Session session = sSessions.get(subId);
+            if (session == null) {
+                session = new Session(context.getApplicationContext(), subId);
+                sSessions.put(subId, session);
+                session.register();
+            }
+            session.mOpenCount++;
+            if (sSnapshots.get(subId) == null) {
+                scheduleBuildLocked(session);
+            }
+        }
+    }
+
+    /** Stops sharing the snapshot of {@code subId} once the last page closed it. */
+    public static void close(int subId) {
+        synchronized (sLock) {
+            final Session session = sSessions.get(subId);
+            if (session != null && --session.mOpenCount > 0) {
+                return;
+            }
+            if (session != null) {
+                session.unregister();
+            }
+            sSessions.remove(subId);
+            sSnapshots.remove(subId);
+        }
+    }
+
+    /**
+     * Drops the snapshot of {@code subId}, e.g. after a setting it contains was changed, and
+     * rebuilds it in the background while the subscription is open.
+     */
+    public static void invalidate(int subId) {
+        synchronized (sLock) {
+            sSnapshots.remove(subId);
+            final Session session = sSessions.get(subId);
+            if (session != null) {
+                scheduleBuildLocked(session);
+            }
+        }
+    }
+
+    /**
+     * Returns the snapshot of {@code subId}, or {@code null} when the caller should query
+     * telephony directly. Waits for a snapshot being built, except on the main thread.
+     */
+    @Nullable
+    public static TelephonySnapshot peek(int subId) {
+        final Future<TelephonySnapshot> future;
+        synchronized (sLock) {
+            future = sSnapshots.get(subId);
+        }
+        if (future == null) {
+            return null;
+        }
+        if (!future.isDone() && Looper.myLooper() == Looper.getMainLooper()) {
+            return null;
+        }
+        try {
+            return future.get(BUILD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | InterruptedException | TimeoutException exception) {
+            Log.w(TAG, "Snapshot of sub " + subId + " unavailable", exception);
+            return null;
+        }
+    }
+
+    @VisibleForTesting
+    static void put(TelephonySnapshot snapshot) {
+        final FutureTask<TelephonySnapshot> future = new FutureTask<>(() -> snapshot);
+        future.run();
+        synchronized (sLock) {
+            sSnapshots.put(snapshot.getSubId(), future);
+        }
+    }
+
+    @VisibleForTesting
+    static void clear() {
+        synchronized (sLock) {
+            for (int i = 0; i < sSessions.size(); i++) {
+                sSessions.valueAt(i).unregister();
+            }
+            sSessions.clear();
+            sSnapshots.clear();
+        }
+    }
+
+    @VisibleForTesting
+    @Nullable
+    static SessionCallback getCallback(int subId) {
+        synchronized (sLock) {
+            final Session session = sSessions.get(subId);
+            return session != null ? session.mCallback : null;
+        }
+    }
+
+    @GuardedBy("sLock")
+    private static void scheduleBuildLocked(Session session) {
+        final FutureTask<TelephonySnapshot> future =
+                new FutureTask<>(() -> build(session.mContext, session.mSubId));
+        sSnapshots.put(session.mSubId, future);
+        sExecutor.execute(future);
+    }
+
+    /** Returns the built snapshot of {@code subId}, or {@code null} if it is still pending. */
+    @Nullable
+    private static TelephonySnapshot getBuiltSnapshot(int subId) {
+        final Future<TelephonySnapshot> future;
+        synchronized (sLock) {
+            future = sSnapshots.get(subId);
+        }
+        if (future == null || !future.isDone()) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException | InterruptedException exception) {
+            return null;
+        }
+    }
+
+    @VisibleForTesting
+    static TelephonySnapshot build(Context context, int subId) {
+        final long startTime = SystemClock.elapsedRealtime();
+        final TelephonyManager telephonyManager = context.getSystemService(TelephonyManager.class)
+                .createForSubscriptionId(subId);
+        final TelephonySnapshot snapshot = new TelephonySnapshot(subId,
+                CarrierConfigCache.getInstance(context).getConfigForSubId(subId),
+                telephonyManager.getSupportedRadioAccessFamily(),
+                telephonyManager.getAllowedNetworkTypesForReason(
+                        TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER),
+                telephonyManager.isNetworkRoaming());
+        Log.d(TAG, "Built snapshot of sub " + subId + " in "
+                + (SystemClock.elapsedRealtime() - startTime) + "ms");
+        return snapshot;
+    }
+
+    private static final class Session {
+        private final Context mContext;
+        private final int mSubId;
+        private final SessionCallback mCallback;
+        private int mOpenCount;
+
+        Session(Context context, int subId) {
+            mContext = context;
+            mSubId = subId;
+            mCallback = new SessionCallback(subId);
+        }
+
+        void register() {
+            mContext.getSystemService(TelephonyManager.class).createForSubscriptionId(mSubId)
+                    .registerTelephonyCallback(sExecutor, mCallback);
+        }
+
+        void unregister() {
+            mContext.getSystemService(TelephonyManager.class).createForSubscriptionId(mSubId)
+                    .unregisterTelephonyCallback(mCallback);
+        }
+    }
+
+    /** Rebuilds the snapshot of a subscription when telephony reports a change of its state. */
+    @VisibleForTesting
+    static final class SessionCallback extends TelephonyCallback implements
+            TelephonyCallback.ServiceStateListener, TelephonyCallback.AllowedNetworkTypesListener {
+        private final int mSubId;
+        @Nullable
+        private ServiceState mLastServiceState;
+
+        SessionCallback(int subId) {
+            mSubId = subId;
+        }
+
+        @Override
+        public void onServiceStateChanged(ServiceState serviceState) {
+            // The first callback reports the state at registration, which the build reads anyway.
+            // Roaming is the only part of the service state the snapshot holds.
+            final ServiceState lastServiceState = mLastServiceState;
+            mLastServiceState = serviceState;
+            if (lastServiceState != null
+                    && lastServiceState.getRoaming() != serviceState.getRoaming()) {
+                invalidate(mSubId);
+            }
+        }
+
+        @Override
+        public void onAllowedNetworkTypesChanged(int reason, long allowedNetworkTypes) {
+            if (reason != TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER) {
+                return;
+            }
+            final TelephonySnapshot snapshot = getBuiltSnapshot(mSubId);
+            if (snapshot != null && snapshot.getAllowedNetworkTypesForUser()
+                    != allowedNetworkTypes) {
+                invalidate(mSubId);
+            }
+        }
+    }
+}
@@ -82,6 +82,10 @@ public abstract class TelephonyTogglePreferenceController extends TogglePreferen
         if (!SubscriptionManager.isValidSubscriptionId(subId)) {
             return null;
         }
+        final TelephonySnapshot snapshot = TelephonySnapshot.peek(subId);
+        if (snapshot != null) {
+            return snapshot.getCarrierConfig();
+        }
         return CarrierConfigCache.getInstance(mContext).getConfigForSubId(subId);
     }
 
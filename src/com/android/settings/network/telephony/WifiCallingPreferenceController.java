@@ -130,17 +130,20 @@ public class WifiCallingPreferenceController extends TelephonyBasePreferenceCont
         int resId = com.android.internal.R.string.wifi_calling_off_summary;
         if (queryImsState(subId).isEnabledByUser()) {
             boolean useWfcHomeModeForRoaming = false;
-            if (mCarrierConfigManager != null) {
-                final PersistableBundle carrierConfig =
-                        mCarrierConfigManager.getConfigForSubId(subId);
+            final TelephonySnapshot snapshot = TelephonySnapshot.peek(subId);
+            if (snapshot != null || mCarrierConfigManager != null) {
+                final PersistableBundle carrierConfig = snapshot != null
+                        ? snapshot.getCarrierConfig()
+                        : mCarrierConfigManager.getConfigForSubId(subId);
                 if (carrierConfig != null) {
                     useWfcHomeModeForRoaming = carrierConfig.getBoolean(
                             CarrierConfigManager
                                     .KEY_USE_WFC_HOME_NETWORK_MODE_IN_ROAMING_NETWORK_BOOL);
                 }
             }
-            final boolean isRoaming = getTelephonyManager(mContext, subId)
-                    .isNetworkRoaming();
+            final boolean isRoaming = snapshot != null
+                    ? snapshot.isNetworkRoaming()
+                    : getTelephonyManager(mContext, subId).isNetworkRoaming();
             final int wfcMode = (isRoaming && !useWfcHomeModeForRoaming)
                     ? mImsMmTelManager.getVoWiFiRoamingModeSetting() :
                     mImsMmTelManager.getVoWiFiModeSetting();
@@ -91,8 +91,9 @@ public class NotificationBackend {
         row.showBadge = canShowBadge(row.pkg, row.uid);
         row.bubblePreference = getBubblePreference(row.pkg, row.uid);
         row.userId = UserHandle.getUserId(row.uid);
-        row.blockedChannelCount = getBlockedChannelCount(row.pkg, row.uid);
-        row.channelCount = getChannelCount(row.pkg, row.uid);
+        final ChannelSummary channelSummary = getChannelSummary(row.pkg, row.uid);
+        row.blockedChannelCount = channelSummary.blockedChannelCount;
+        row.channelCount = channelSummary.channelCount;
         recordAggregatedUsageEvents(context, row);
         return row;
     }
@@ -399,6 +400,19 @@ public class NotificationBackend {
         }
     }
 
+    /**
+     * Returns the channel counts of a package. The blocked channels are only counted when the
+     * package has channels.
+     */
+    public ChannelSummary getChannelSummary(String pkg, int uid) {
+        final ChannelSummary summary = new ChannelSummary();
+        summary.channelCount = getChannelCount(pkg, uid);
+        if (summary.channelCount > 0) {
+            summary.blockedChannelCount = getBlockedChannelCount(pkg, uid);
+        }
+        return summary;
+    }
+
     public boolean shouldHideSilentStatusBarIcons(Context context) {
         try {
             return sINM.shouldHideSilentStatusIcons(context.getPackageName());
@@ -652,6 +666,14 @@ public class NotificationBackend {
         public int sentCount = 0;
     }
 
+    /**
+     * ChannelSummary contains the notification channel counts of an app.
+     */
+    public static class ChannelSummary {
+        public int channelCount = 0;
+        public int blockedChannelCount = 0;
+    }
+
     static class Row {
         public String section;
     }
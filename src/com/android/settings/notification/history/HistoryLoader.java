@@ -24,6 +24,9 @@ import android.content.pm.PackageManager;
 import android.os.UserHandle;
 import android.util.Slog;
 
+import androidx.annotation.MainThread;
+import androidx.annotation.VisibleForTesting;
+
 import com.android.settings.notification.NotificationBackend;
 import com.android.settingslib.utils.ThreadUtils;
 
@@ -32,12 +35,18 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class HistoryLoader {
     private static final String TAG = "HistoryLoader";
+    @VisibleForTesting
+    static final int PAGE_SIZE = 10;
+
     private final Context mContext;
     private final NotificationBackend mBackend;
     private final PackageManager mPm;
+    // Bumped by every load() and cancel(), so that the pages of an older load are dropped.
+    private final AtomicInteger mGeneration = new AtomicInteger();
 
     public HistoryLoader(Context context, NotificationBackend backend, PackageManager pm) {
         mContext = context;
@@ -45,55 +54,113 @@ public class HistoryLoader {
         mPm = pm;
     }
 
+    /**
+     * Loads the notification history in the background and hands it to {@code listener} on the
+     * main thread a page at a time. Any load still running is cancelled.
+     */
+    @MainThread
     public void load(OnHistoryLoaderListener listener) {
+        final int generation = mGeneration.incrementAndGet();
         ThreadUtils.postOnBackgroundThread(() -> {
             try {
-                Map<String, NotificationHistoryPackage> historicalNotifications = new HashMap<>();
-                NotificationHistory history =
+                List<NotificationHistoryPackage> packages = groupByPackage(
                         mBackend.getNotificationHistory(mContext.getPackageName(),
-                                mContext.getAttributionTag());
-                while (history.hasNextNotification()) {
-                    HistoricalNotification hn = history.getNextNotification();
-
-                    String key = hn.getPackage() + "|" + hn.getUid();
-                    NotificationHistoryPackage hnsForPackage = historicalNotifications.getOrDefault(
-                            key,
-                            new NotificationHistoryPackage(hn.getPackage(), hn.getUid()));
-                    hnsForPackage.notifications.add(hn);
-                    historicalNotifications.put(key, hnsForPackage);
-                }
-                List<NotificationHistoryPackage> packages =
-                        new ArrayList<>(historicalNotifications.values());
-                Collections.sort(packages,
-                        (o1, o2) -> -1 * Long.compare(o1.getMostRecent(), o2.getMostRecent()));
-                for (NotificationHistoryPackage nhp : packages) {
-                    ApplicationInfo info;
-                    try {
-                        info = mPm.getApplicationInfoAsUser(
-                                nhp.pkgName,
-                                PackageManager.MATCH_UNINSTALLED_PACKAGES
-                                        | PackageManager.MATCH_DISABLED_COMPONENTS
-                                        | PackageManager.MATCH_DIRECT_BOOT_UNAWARE
-                                        | PackageManager.MATCH_DIRECT_BOOT_AWARE,
-                                UserHandle.getUserId(nhp.uid));
-                        if (info != null) {
-                            nhp.label = String.valueOf(mPm.getApplicationLabel(info));
-                            nhp.icon = mPm.getUserBadgedIcon(mPm.getApplicationIcon(info),
-                                    UserHandle.of(UserHandle.getUserId(nhp.uid)));
-                        }
-                    } catch (PackageManager.NameNotFoundException e) {
-                        // app is gone, just show package name and generic icon
-                        nhp.icon = mPm.getDefaultActivityIcon();
+                                mContext.getAttributionTag()));
+                // Resolve app info and hand the packages over a page at a time, so the most
+                // recent apps show up without waiting for every other app to be resolved.
+                int start = 0;
+                do {
+                    if (isCancelled(generation)) {
+                        return;
                     }
-                }
-                ThreadUtils.postOnMainThread(() -> listener.onHistoryLoaded(packages));
+                    final List<NotificationHistoryPackage> page = new ArrayList<>(
+                            packages.subList(start, Math.min(start + PAGE_SIZE, packages.size())));
+                    for (NotificationHistoryPackage nhp : page) {
+                        loadAppInfo(nhp);
+                    }
+                    final boolean firstPage = start == 0;
+                    ThreadUtils.postOnMainThread(() -> {
+                        if (isCancelled(generation)) {
+                            return;
+                        }
+                        if (firstPage) {
+                            listener.onHistoryLoaded(page);
+                        } else {
+                            listener.onHistoryPageLoaded(page);
+                        }
+                    });
+                    start += PAGE_SIZE;
+                } while (start < packages.size());
             } catch (Exception e) {
                 Slog.e(TAG, "Error loading history", e);
             }
         });
     }
 
+    /**
+     * Cancels the running load, so that none of its remaining pages reach the listener.
+     */
+    @MainThread
+    public void cancel() {
+        mGeneration.incrementAndGet();
+    }
+
+    private boolean isCancelled(int generation) {
+        return generation != mGeneration.get();
+    }
+
+    /**
+     * Groups the notifications in {@code history} by package and uid, most recently active
+     * package first.
+     */
+    @VisibleForTesting
+    static List<NotificationHistoryPackage> groupByPackage(NotificationHistory history) {
+        Map<String, NotificationHistoryPackage> historicalNotifications = new HashMap<>();
+        while (history.hasNextNotification()) {
+            HistoricalNotification hn = history.getNextNotification();
+
+            String key = hn.getPackage() + "|" + hn.getUid();
+            NotificationHistoryPackage hnsForPackage = historicalNotifications.get(key);
+            if (hnsForPackage == null) {
+                hnsForPackage = new NotificationHistoryPackage(hn.getPackage(), hn.getUid());
+                historicalNotifications.put(key, hnsForPackage);
+            }
+            hnsForPackage.notifications.add(hn);
+        }
+        List<NotificationHistoryPackage> packages =
+                new ArrayList<>(historicalNotifications.values());
+        Collections.sort(packages,
+                (o1, o2) -> -1 * Long.compare(o1.getMostRecent(), o2.getMostRecent()));
+        return packages;
+    }
+
+    private void loadAppInfo(NotificationHistoryPackage nhp) {
+        ApplicationInfo info;
+        try {
+            info = mPm.getApplicationInfoAsUser(
+                    nhp.pkgName,
+                    PackageManager.MATCH_UNINSTALLED_PACKAGES
+                            | PackageManager.MATCH_DISABLED_COMPONENTS
+                            | PackageManager.MATCH_DIRECT_BOOT_UNAWARE
+                            | PackageManager.MATCH_DIRECT_BOOT_AWARE,
+                    UserHandle.getUserId(nhp.uid));
+            if (info != null) {
+                nhp.label = String.valueOf(mPm.getApplicationLabel(info));
+                nhp.icon = mPm.getUserBadgedIcon(mPm.getApplicationIcon(info),
+                        UserHandle.of(UserHandle.getUserId(nhp.uid)));
+            }
+        } catch (PackageManager.NameNotFoundException e) {
+            // app is gone, just show package name and generic icon
+            nhp.icon = mPm.getDefaultActivityIcon();
+        }
+    }
+
     interface OnHistoryLoaderListener {
+        /** Called with the first, most recent, page of packages. */
         void onHistoryLoaded(List<NotificationHistoryPackage> notificationsByPackage);
+
+        /** Called with each following page of packages, in order. */
+        default void onHistoryPageLoaded(List<NotificationHistoryPackage> notificationsByPackage) {
+        }
     }
 }
@@ -68,6 +68,7 @@ import com.android.settingslib.widget.OnMainSwitchChangeListener;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -90,6 +91,7 @@ public class NotificationHistoryActivity extends CollapsingToolbarBaseActivity {
     private MainSwitchBar mSwitchBar;
 
     private HistoryLoader mHistoryLoader;
+    private int mLoadedPackageCount;
     private INotificationManager mNm;
     private UserManager mUm;
     private PackageManager mPm;
@@ -156,14 +158,28 @@ public class NotificationHistoryActivity extends CollapsingToolbarBaseActivity {
         }
     }
 
-    private HistoryLoader.OnHistoryLoaderListener mOnHistoryLoaderListener = notifications -> {
-        findViewById(R.id.today_list).setVisibility(
-                notifications.isEmpty() ? View.GONE : View.VISIBLE);
-        mCountdownLatch.countDown();
-        View recyclerView = mTodayView.findViewById(R.id.apps);
-        recyclerView.setClipToOutline(true);
-        mTodayView.setOutlineProvider(mOutlineProvider);
-        mSnoozeView.setOutlineProvider(mOutlineProvider);
+    private HistoryLoader.OnHistoryLoaderListener mOnHistoryLoaderListener =
+            new HistoryLoader.OnHistoryLoaderListener() {
+        @Override
+        public void onHistoryLoaded(List<NotificationHistoryPackage> notifications) {
+            findViewById(R.id.today_list).setVisibility(
+                    notifications.isEmpty() ? View.GONE : View.VISIBLE);
+            mCountdownLatch.countDown();
+            View recyclerView = mTodayView.findViewById(R.id.apps);
+            recyclerView.setClipToOutline(true);
+            mTodayView.setOutlineProvider(mOutlineProvider);
+            mSnoozeView.setOutlineProvider(mOutlineProvider);
+            mLoadedPackageCount = 0;
+            addPackageViews(notifications);
+        }
+
+        @Override
+        public void onHistoryPageLoaded(List<NotificationHistoryPackage> notifications) {
+            addPackageViews(notifications);
+        }
+    };
+
+    private void addPackageViews(List<NotificationHistoryPackage> notifications) {
         // for each package, new header and recycler view
         for (int i = 0, notificationsSize = notifications.size(); i < notificationsSize; i++) {
             NotificationHistoryPackage nhp = notifications.get(i);
@@ -184,7 +200,7 @@ public class NotificationHistoryActivity extends CollapsingToolbarBaseActivity {
             header.setStateDescription(container.getVisibility() == View.VISIBLE
                     ? getString(R.string.condition_expand_hide)
                     : getString(R.string.condition_expand_show));
-            int finalI = i;
+            int finalI = mLoadedPackageCount + i;
             header.setOnClickListener(v -> {
                 container.setVisibility(container.getVisibility() == View.VISIBLE
                         ? View.GONE : View.VISIBLE);
@@ -225,7 +241,8 @@ public class NotificationHistoryActivity extends CollapsingToolbarBaseActivity {
 
             mTodayView.addView(viewForPackage);
         }
-    };
+        mLoadedPackageCount += notifications.size();
+    }
 
     private void configureNotificationList(View recyclerView) {
         recyclerView.setClipToOutline(true);
@@ -266,6 +283,7 @@ public class NotificationHistoryActivity extends CollapsingToolbarBaseActivity {
         // wait for history loading and recent/snooze loading
         mCountdownLatch = new CountDownLatch(2);
 
+        cancelHistoryLoading();
         mTodayView.removeAllViews();
         mHistoryLoader = new HistoryLoader(this, new NotificationBackend(), mPm);
         mHistoryLoader.load(mOnHistoryLoaderListener);
@@ -303,6 +321,7 @@ public class NotificationHistoryActivity extends CollapsingToolbarBaseActivity {
 
     @Override
     public void onPause() {
+        cancelHistoryLoading();
         try {
             mListener.unregisterAsSystemService();
         } catch (RemoteException e) {
@@ -314,12 +333,19 @@ public class NotificationHistoryActivity extends CollapsingToolbarBaseActivity {
 
     @Override
     public void onDestroy() {
+        cancelHistoryLoading();
         if (mCountdownFuture != null) {
             mCountdownFuture.cancel(true);
         }
         super.onDestroy();
     }
 
+    private void cancelHistoryLoading() {
+        if (mHistoryLoader != null) {
+            mHistoryLoader.cancel();
+        }
+    }
+
     private @ColorInt int obtainThemeColor(@AttrRes int attrRes) {
         Resources.Theme theme = new ContextThemeWrapper(this,
                 android.R.style.Theme_DeviceDefault_DayNight).getTheme();
@@ -350,6 +376,7 @@ public class NotificationHistoryActivity extends CollapsingToolbarBaseActivity {
         } else {
             mHistoryOn.setVisibility(View.GONE);
             mHistoryOff.setVisibility(View.VISIBLE);
+            cancelHistoryLoading();
             mTodayView.removeAllViews();
         }
         mHistoryEmpty.setVisibility(View.GONE);
@@ -382,6 +409,7 @@ public class NotificationHistoryActivity extends CollapsingToolbarBaseActivity {
                     mHistoryOff.setVisibility(View.VISIBLE);
                     mHistoryEmpty.setVisibility(View.GONE);
                 }
+                cancelHistoryLoading();
                 mTodayView.removeAllViews();
             };
 
@@ -131,10 +131,23 @@ public class NotificationHistoryAdapter extends
 
     public void onRebuildComplete(List<HistoricalNotification> notifications) {
         mValues = notifications;
-        mValues.sort((o1, o2) -> Long.compare(o2.getPostedTimeMs(), o1.getPostedTimeMs()));
+        // Lists grouped by HistoryLoader are already newest first, only sort when they aren't.
+        if (!isSortedByPostedTime(mValues)) {
+            mValues.sort((o1, o2) -> Long.compare(o2.getPostedTimeMs(), o1.getPostedTimeMs()));
+        }
         notifyDataSetChanged();
     }
 
+    private static boolean isSortedByPostedTime(List<HistoricalNotification> notifications) {
+        for (int i = 1, size = notifications.size(); i < size; i++) {
+            if (notifications.get(i - 1).getPostedTimeMs()
+                    < notifications.get(i).getPostedTimeMs()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void onItemSwipeDeleted(int position) {
         if (position > (mValues.size() - 1)) {
@@ -29,6 +29,8 @@ import android.os.SystemClock;
 import android.util.ArrayMap;
 import android.util.Log;
 
+import androidx.annotation.VisibleForTesting;
+
 import java.io.Closeable;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
@@ -36,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The Slice background worker is used to make Settings Slices be able to work with data that is
@@ -54,7 +57,8 @@ public abstract class SliceBackgroundWorker<E> implements Closeable {
 
     private static final String TAG = "SliceBackgroundWorker";
 
-    private static final long SLICE_UPDATE_THROTTLE_INTERVAL = 300L;
+    @VisibleForTesting
+    static final long SLICE_UPDATE_THROTTLE_INTERVAL = 300L;
 
     private static final Map<Uri, SliceBackgroundWorker> LIVE_WORKERS = new ArrayMap<>();
 
@@ -63,6 +67,12 @@ public abstract class SliceBackgroundWorker<E> implements Closeable {
 
     private List<E> mCachedResults;
 
+    // Counters of how often the slice was asked to rebuild, for diagnosing update storms.
+    private final AtomicInteger mResultUpdateCount = new AtomicInteger();
+    private final AtomicInteger mUnchangedResultCount = new AtomicInteger();
+    private final AtomicInteger mCoalescedNotifyCount = new AtomicInteger();
+    private final AtomicInteger mDeliveredNotifyCount = new AtomicInteger();
+
     protected SliceBackgroundWorker(Context context, Uri uri) {
         mContext = context;
         mUri = uri;
@@ -149,6 +159,7 @@ public abstract class SliceBackgroundWorker<E> implements Closeable {
      * Update the results when data changes
      */
     protected final void updateResults(List<E> results) {
+        mResultUpdateCount.incrementAndGet();
         boolean needNotify = false;
 
         if (results == null) {
@@ -162,6 +173,8 @@ public abstract class SliceBackgroundWorker<E> implements Closeable {
         if (needNotify) {
             mCachedResults = results;
             notifySliceChange();
+        } else {
+            mUnchangedResultCount.incrementAndGet();
         }
     }
 
@@ -173,16 +186,36 @@ public abstract class SliceBackgroundWorker<E> implements Closeable {
      * Notify that data was updated and attempt to sync changes to the Slice.
      */
     protected final void notifySliceChange() {
-        NotifySliceChangeHandler.getInstance().updateSlice(this);
+        if (!NotifySliceChangeHandler.getInstance().updateSlice(this)) {
+            mCoalescedNotifyCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return a summary of the result updates received and slice updates sent since the worker
+     * was created
+     */
+    @VisibleForTesting
+    String getUpdateStats() {
+        return "results=" + mResultUpdateCount.get()
+                + " unchanged=" + mUnchangedResultCount.get()
+                + " coalesced=" + mCoalescedNotifyCount.get()
+                + " notified=" + mDeliveredNotifyCount.get();
     }
 
     void pin() {
         onSlicePinned();
     }
 
+    @VisibleForTesting
+    static Looper getNotifyLooper() {
+        return NotifySliceChangeHandler.getInstance().getLooper();
+    }
+
     void unpin() {
         onSliceUnpinned();
         NotifySliceChangeHandler.getInstance().cancelSliceUpdate(this);
+        Log.d(TAG, "unpin " + mUri + ": " + getUpdateStats());
     }
 
     private static class NotifySliceChangeHandler extends Handler {
@@ -218,12 +251,18 @@ public abstract class SliceBackgroundWorker<E> implements Closeable {
             final Uri uri = worker.getUri();
             final Context context = worker.getContext();
             mLastUpdateTimeLookup.put(uri, SystemClock.uptimeMillis());
+            worker.mDeliveredNotifyCount.incrementAndGet();
             context.getContentResolver().notifyChange(uri, null);
         }
 
-        private void updateSlice(SliceBackgroundWorker worker) {
+        /**
+         * Schedules a slice update for the worker.
+         *
+         * @return false if an update was already pending and this request was folded into it
+         */
+        private boolean updateSlice(SliceBackgroundWorker worker) {
             if (hasMessages(MSG_UPDATE_SLICE, worker)) {
-                return;
+                return false;
             }
 
             final Message message = obtainMessage(MSG_UPDATE_SLICE, worker);
@@ -238,6 +277,7 @@ public abstract class SliceBackgroundWorker<E> implements Closeable {
             } else {
                 sendMessageAtTime(message, lastUpdateTime + SLICE_UPDATE_THROTTLE_INTERVAL);
             }
+            return true;
         }
 
         private void cancelSliceUpdate(SliceBackgroundWorker worker) {
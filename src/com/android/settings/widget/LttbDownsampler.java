@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.widget;
+
+/**
+ * Largest-triangle-three-buckets downsampling of a polyline.
+ *
+ * <p>The first and last points are always kept. The points in between are split into buckets and
+ * from each bucket the point forming the largest triangle with the previously kept point and the
+ * average of the next bucket is kept, which preserves the peaks and valleys of the line.
+ */
+final class LttbDownsampler {
+
+    private LttbDownsampler() {
+    }
+
+    /**
+     * Selects at most {@code threshold} of the {@code count} points starting at {@code start}.
+     *
+     * @param xs the x coordinates, in increasing order
+     * @param ys the y coordinates
+     * @param out receives the indexes of the selected points, in increasing order
+     * @param outOffset the position in {@code out} of the first selected index
+     * @return the number of selected points
+     */
+    static int downsample(int[] xs, int[] ys, int start, int count, int threshold, int[] out,
+            int outOffset) {
+        if (threshold >= count || threshold < 3) {
+            for (int i = 0; i < count; i++) {
+                out[outOffset + i] = start + i;
+            }
+            return count;
+        }
+
+        int selected = 0;
+        int a = start;
+        out[outOffset + selected++] = a;
+        // Splits the points between the first and the last one into threshold - 2 buckets.
+        final int bucketCount = threshold - 2;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            final int bucketStart = start + 1 + bucketOffset(bucket, count - 2, bucketCount);
+            final int bucketEnd = start + 1 + bucketOffset(bucket + 1, count - 2, bucketCount);
+
+            // Average of the next bucket, or the last point for the last bucket.
+            final int nextStart = bucketEnd;
+            final int nextEnd = Math.min(
+                    start + 1 + bucketOffset(bucket + 2, count - 2, bucketCount), start + count);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += xs[i];
+                avgY += ys[i];
+            }
+            final int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            double maxArea = -1;
+            int maxIndex = bucketStart;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                // Twice the triangle area; the factor does not change the maximum.
+                final double area = Math.abs((xs[a] - avgX) * (ys[i] - ys[a])
+                        - (xs[a] - xs[i]) * (avgY - ys[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            out[outOffset + selected++] = maxIndex;
+            a = maxIndex;
+        }
+        out[outOffset + selected++] = start + count - 1;
+        return selected;
+    }
+
+    private static int bucketOffset(int bucket, int pointCount, int bucketCount) {
+        return (int) ((long) bucket * pointCount / bucketCount);
+    }
+}
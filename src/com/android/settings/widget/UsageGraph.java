@@ -43,6 +43,8 @@ import com.android.settings.fuelgauge.BatteryUtils;
 public class UsageGraph extends View {
 
     private static final int PATH_DELIM = -1;
+    // Segments are downsampled to the width of the graph, but never below this many points.
+    private static final int MIN_DOWNSAMPLED_POINTS = 16;
     public static final String LOG_TAG = "UsageGraph";
 
     private final Paint mLinePaint;
@@ -53,7 +55,15 @@ public class UsageGraph extends View {
     private final Drawable mTintedDivider;
     private final int mDividerSize;
 
-    private final Path mPath = new Path();
+    // Drawing paths, rebuilt only after the local paths change.
+    private final CachedPath mLinePath = new CachedPath();
+    private final CachedPath mFillPath = new CachedPath();
+    private final CachedPath mProjectedLinePath = new CachedPath();
+
+    // Scratch buffers of calculateLocalPaths(), grown as needed.
+    private int[] mPointXs = new int[0];
+    private int[] mPointYs = new int[0];
+    private int[] mKeptIndexes = new int[0];
 
     // Paths in coordinates they are passed in.
     private final SparseIntArray mPaths = new SparseIntArray();
@@ -111,6 +121,7 @@ public class UsageGraph extends View {
         mLocalPaths.clear();
         mProjectedPaths.clear();
         mLocalProjectedPaths.clear();
+        invalidateDrawingPaths();
     }
 
     void setMax(int maxX, int maxY) {
@@ -143,10 +154,10 @@ public class UsageGraph extends View {
             SparseIntArray points, SparseIntArray paths, SparseIntArray localPaths) {
         final long startTime = System.currentTimeMillis();
         for (int i = 0, size = points.size(); i < size; i++) {
-            paths.put(points.keyAt(i), points.valueAt(i));
+            paths.append(points.keyAt(i), points.valueAt(i));
         }
         // Add a delimiting value immediately after the last point.
-        paths.put(points.keyAt(points.size() - 1) + 1, PATH_DELIM);
+        paths.append(points.keyAt(points.size() - 1) + 1, PATH_DELIM);
         calculateLocalPaths(paths, localPaths);
         postInvalidate();
         BatteryUtils.logRuntime(LOG_TAG, "addPathAndUpdate", startTime);
@@ -180,13 +191,16 @@ public class UsageGraph extends View {
             return;
         }
         localPaths.clear();
+        invalidateDrawingPaths();
+        final int keptCount = downsample(paths, Math.max(getWidth(), MIN_DOWNSAMPLED_POINTS));
         // Store the local coordinates of the most recent point.
         int lx = 0;
         int ly = PATH_DELIM;
         boolean skippedLastPoint = false;
-        for (int i = 0; i < paths.size(); i++) {
-            int x = paths.keyAt(i);
-            int y = paths.valueAt(i);
+        for (int k = 0; k < keptCount; k++) {
+            final int i = mKeptIndexes[k];
+            int x = mPointXs[i];
+            int y = mPointYs[i];
             if (y == PATH_DELIM) {
                 if (i == 1) {
                     localPaths.put(getX(x+1) - 1, getY(0));
@@ -217,6 +231,40 @@ public class UsageGraph extends View {
         BatteryUtils.logRuntime(LOG_TAG, "calculateLocalPaths", startTime);
     }
 
+    /**
+     * Copies {@code paths} into {@link #mPointXs} and {@link #mPointYs}, and stores in
+     * {@link #mKeptIndexes} the indexes of the points to draw: every delimiter, and at most
+     * {@code maxPoints} points of each segment selected by {@link LttbDownsampler}.
+     *
+     * @return the number of kept indexes
+     */
+    private int downsample(SparseIntArray paths, int maxPoints) {
+        final int size = paths.size();
+        if (mPointXs.length < size) {
+            mPointXs = new int[size];
+            mPointYs = new int[size];
+            mKeptIndexes = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            mPointXs[i] = paths.keyAt(i);
+            mPointYs[i] = paths.valueAt(i);
+        }
+        int keptCount = 0;
+        int segmentStart = 0;
+        for (int i = 0; i <= size; i++) {
+            if (i < size && mPointYs[i] != PATH_DELIM) {
+                continue;
+            }
+            keptCount += LttbDownsampler.downsample(mPointXs, mPointYs, segmentStart,
+                    i - segmentStart, maxPoints, mKeptIndexes, keptCount);
+            if (i < size) {
+                mKeptIndexes[keptCount++] = i;
+            }
+            segmentStart = i + 1;
+        }
+        return keptCount;
+    }
+
     private boolean hasDiff(int x1, int x2) {
         return Math.abs(x2 - x1) >= mCornerRadius;
     }
@@ -261,31 +309,42 @@ public class UsageGraph extends View {
             // Flip the canvas along the y-axis of the center of itself before drawing paths.
             canvas.scale(-1, 1, canvas.getWidth() * 0.5f, 0);
         }
-        drawLinePath(canvas, mLocalProjectedPaths, mDottedPaint);
+        drawLinePath(canvas, mLocalProjectedPaths, mProjectedLinePath, mDottedPaint);
         drawFilledPath(canvas, mLocalPaths, mFillPaint);
-        drawLinePath(canvas, mLocalPaths, mLinePaint);
+        drawLinePath(canvas, mLocalPaths, mLinePath, mLinePaint);
         canvas.restore();
         BatteryUtils.logRuntime(LOG_TAG, "onDraw", startTime);
     }
 
-    private void drawLinePath(Canvas canvas, SparseIntArray localPaths, Paint paint) {
+    private void invalidateDrawingPaths() {
+        mLinePath.mValid = false;
+        mFillPath.mValid = false;
+        mProjectedLinePath.mValid = false;
+    }
+
+    private void drawLinePath(Canvas canvas, SparseIntArray localPaths, CachedPath cachedPath,
+            Paint paint) {
         if (localPaths.size() == 0) {
             return;
         }
-        mPath.reset();
-        mPath.moveTo(localPaths.keyAt(0), localPaths.valueAt(0));
-        for (int i = 1; i < localPaths.size(); i++) {
-            int x = localPaths.keyAt(i);
-            int y = localPaths.valueAt(i);
-            if (y == PATH_DELIM) {
-                if (++i < localPaths.size()) {
-                    mPath.moveTo(localPaths.keyAt(i), localPaths.valueAt(i));
+        final Path path = cachedPath.mPath;
+        if (!cachedPath.mValid) {
+            path.reset();
+            path.moveTo(localPaths.keyAt(0), localPaths.valueAt(0));
+            for (int i = 1; i < localPaths.size(); i++) {
+                int x = localPaths.keyAt(i);
+                int y = localPaths.valueAt(i);
+                if (y == PATH_DELIM) {
+                    if (++i < localPaths.size()) {
+                        path.moveTo(localPaths.keyAt(i), localPaths.valueAt(i));
+                    }
+                } else {
+                    path.lineTo(x, y);
                 }
-            } else {
-                mPath.lineTo(x, y);
             }
+            cachedPath.mValid = true;
         }
-        canvas.drawPath(mPath, paint);
+        canvas.drawPath(path, paint);
     }
 
     @VisibleForTesting
@@ -293,25 +352,29 @@ public class UsageGraph extends View {
         if (localPaths.size() == 0) {
             return;
         }
-        mPath.reset();
-        float lastStartX = localPaths.keyAt(0);
-        mPath.moveTo(localPaths.keyAt(0), localPaths.valueAt(0));
-        for (int i = 1; i < localPaths.size(); i++) {
-            int x = localPaths.keyAt(i);
-            int y = localPaths.valueAt(i);
-            if (y == PATH_DELIM) {
-                mPath.lineTo(localPaths.keyAt(i - 1), getHeight());
-                mPath.lineTo(lastStartX, getHeight());
-                mPath.close();
-                if (++i < localPaths.size()) {
-                    lastStartX = localPaths.keyAt(i);
-                    mPath.moveTo(localPaths.keyAt(i), localPaths.valueAt(i));
+        final Path path = mFillPath.mPath;
+        if (!mFillPath.mValid) {
+            path.reset();
+            float lastStartX = localPaths.keyAt(0);
+            path.moveTo(localPaths.keyAt(0), localPaths.valueAt(0));
+            for (int i = 1; i < localPaths.size(); i++) {
+                int x = localPaths.keyAt(i);
+                int y = localPaths.valueAt(i);
+                if (y == PATH_DELIM) {
+                    path.lineTo(localPaths.keyAt(i - 1), getHeight());
+                    path.lineTo(lastStartX, getHeight());
+                    path.close();
+                    if (++i < localPaths.size()) {
+                        lastStartX = localPaths.keyAt(i);
+                        path.moveTo(localPaths.keyAt(i), localPaths.valueAt(i));
+                    }
+                } else {
+                    path.lineTo(x, y);
                 }
-            } else {
-                mPath.lineTo(x, y);
             }
+            mFillPath.mValid = true;
         }
-        canvas.drawPath(mPath, paint);
+        canvas.drawPath(path, paint);
     }
 
     private void drawDivider(int y, Canvas canvas, int tintColor) {
@@ -323,4 +386,10 @@ public class UsageGraph extends View {
         d.setBounds(0, y, canvas.getWidth(), y + mDividerSize);
         d.draw(canvas);
     }
+
+    /** A drawing path built from local paths, valid until they change. */
+    private static final class CachedPath {
+        final Path mPath = new Path();
+        boolean mValid;
+    }
 }
@@ -25,7 +25,6 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
-import android.os.Process;
 import android.os.SimpleClock;
 import android.os.SystemClock;
 import android.view.LayoutInflater;
@@ -61,11 +60,6 @@ public class ConfigureWifiEntryFragment extends InstrumentedFragment implements
     private static final int SUBMIT_BUTTON_ID = android.R.id.button1;
     private static final int CANCEL_BUTTON_ID = android.R.id.button2;
 
-    // Max age of tracked WifiEntries
-    private static final long MAX_SCAN_AGE_MILLIS = 15_000;
-    // Interval between initiating SavedNetworkTracker scans
-    private static final long SCAN_INTERVAL_MILLIS = 10_000;
-
     private WifiConfigController2 mUiController;
     private Button mSubmitBtn;
     private Button mCancelBtn;
@@ -73,6 +67,7 @@ public class ConfigureWifiEntryFragment extends InstrumentedFragment implements
     @VisibleForTesting
     NetworkDetailsTracker mNetworkDetailsTracker;
     private HandlerThread mWorkerThread;
+    private Handler mWorkerHandler;
 
     @Override
     public void onAttach(Context context) {
@@ -84,9 +79,7 @@ public class ConfigureWifiEntryFragment extends InstrumentedFragment implements
 
     @Override
     public void onDestroy() {
-        if (mWorkerThread != null) {
-            mWorkerThread.quit();
-        }
+        WifiTrackerPool.releaseWorkerThread(mWorkerThread, mWorkerHandler);
 
         super.onDestroy();
     }
@@ -221,10 +214,8 @@ public class ConfigureWifiEntryFragment extends InstrumentedFragment implements
         }
 
         final Context context = getContext();
-        mWorkerThread = new HandlerThread(TAG
-                + "{" + Integer.toHexString(System.identityHashCode(this)) + "}",
-                Process.THREAD_PRIORITY_BACKGROUND);
-        mWorkerThread.start();
+        mWorkerThread = WifiTrackerPool.acquireWorkerThread();
+        mWorkerHandler = WifiTrackerPool.createWorkerHandler(mWorkerThread);
         final Clock elapsedRealtimeClock = new SimpleClock(ZoneOffset.UTC) {
             @Override
             public long millis() {
@@ -238,10 +229,10 @@ public class ConfigureWifiEntryFragment extends InstrumentedFragment implements
                         getSettingsLifecycle(),
                         context,
                         new Handler(Looper.getMainLooper()),
-                        mWorkerThread.getThreadHandler(),
+                        mWorkerHandler,
                         elapsedRealtimeClock,
-                        MAX_SCAN_AGE_MILLIS,
-                        SCAN_INTERVAL_MILLIS,
+                        WifiTrackerPool.getMaxScanAgeMillis(),
+                        WifiTrackerPool.getScanIntervalMillis(),
                         getArguments().getString(
                                 WifiNetworkDetailsFragment.KEY_CHOSEN_WIFIENTRY_KEY));
     }
@@ -31,7 +31,6 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
-import android.os.Process;
 import android.os.SimpleClock;
 import android.os.SystemClock;
 import android.os.UserManager;
@@ -94,11 +93,6 @@ public class WifiDialogActivity extends ObservableActivity implements WifiDialog
     @VisibleForTesting
     static final int REQUEST_CODE_WIFI_DPP_ENROLLEE_QR_CODE_SCANNER = 0;
 
-    // Max age of tracked WifiEntries.
-    private static final long MAX_SCAN_AGE_MILLIS = 15_000;
-    // Interval between initiating NetworkDetailsTracker scans.
-    private static final long SCAN_INTERVAL_MILLIS = 10_000;
-
     @VisibleForTesting
     WifiDialog mDialog;
     private AccessPoint mAccessPoint;
@@ -112,6 +106,7 @@ public class WifiDialogActivity extends ObservableActivity implements WifiDialog
     private Intent mIntent;
     private NetworkDetailsTracker mNetworkDetailsTracker;
     private HandlerThread mWorkerThread;
+    private Handler mWorkerHandler;
     private WifiManager mWifiManager;
     private LockScreenMonitor mLockScreenMonitor;
 
@@ -131,10 +126,8 @@ public class WifiDialogActivity extends ObservableActivity implements WifiDialog
         mIsWifiTrackerLib = !TextUtils.isEmpty(mIntent.getStringExtra(KEY_CHOSEN_WIFIENTRY_KEY));
 
         if (mIsWifiTrackerLib) {
-            mWorkerThread = new HandlerThread(
-                    TAG + "{" + Integer.toHexString(System.identityHashCode(this)) + "}",
-                    Process.THREAD_PRIORITY_BACKGROUND);
-            mWorkerThread.start();
+            mWorkerThread = WifiTrackerPool.acquireWorkerThread();
+            mWorkerHandler = WifiTrackerPool.createWorkerHandler(mWorkerThread);
             final Clock elapsedRealtimeClock = new SimpleClock(ZoneOffset.UTC) {
                 @Override
                 public long millis() {
@@ -147,10 +140,10 @@ public class WifiDialogActivity extends ObservableActivity implements WifiDialog
                             getLifecycle(),
                             this,
                             new Handler(Looper.getMainLooper()),
-                            mWorkerThread.getThreadHandler(),
+                            mWorkerHandler,
                             elapsedRealtimeClock,
-                            MAX_SCAN_AGE_MILLIS,
-                            SCAN_INTERVAL_MILLIS,
+                            WifiTrackerPool.getMaxScanAgeMillis(),
+                            WifiTrackerPool.getScanIntervalMillis(),
                             mIntent.getStringExtra(KEY_CHOSEN_WIFIENTRY_KEY));
         } else {
             final Bundle accessPointState = mIntent.getBundleExtra(KEY_ACCESS_POINT_STATE);
@@ -224,7 +217,7 @@ public class WifiDialogActivity extends ObservableActivity implements WifiDialog
             if (mDialog2 != null && mDialog2.isShowing()) {
                 mDialog2 = null;
             }
-            mWorkerThread.quit();
+            WifiTrackerPool.releaseWorkerThread(mWorkerThread, mWorkerHandler);
         } else {
             if (mDialog != null && mDialog.isShowing()) {
                 mDialog = null;
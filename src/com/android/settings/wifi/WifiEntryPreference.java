@@ -23,6 +23,9 @@ import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.StateListDrawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.view.View;
 import android.widget.ImageButton;
@@ -75,6 +78,18 @@ public class WifiEntryPreference extends RestrictedPreference implements
     private CharSequence mContentDescription;
     private OnButtonClickListener mOnButtonClickListener;
 
+    /** Minimum interval between two refreshes that only change the signal level icon. */
+    @VisibleForTesting
+    static final long LEVEL_ONLY_REFRESH_INTERVAL_MS = 1000;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mRefreshRunnable = this::refreshNow;
+    private long mLastRefreshTime;
+    // The inputs of the friction icon, the help button and the icon tint of the last refresh.
+    private int mSecurity;
+    private boolean mShowHelpButton;
+    private int mIconColorAttr;
+
     public WifiEntryPreference(@NonNull Context context, @NonNull WifiEntry wifiEntry) {
         this(context, wifiEntry, new WifiUtils.InternetIconInjector(context));
     }
@@ -119,8 +134,7 @@ public class WifiEntryPreference extends RestrictedPreference implements
         final ImageButton imageButton = (ImageButton) view.findViewById(R.id.icon_button);
         final ImageView frictionImageView = (ImageView) view.findViewById(
                 R.id.friction_icon);
-        if (mWifiEntry.getHelpUriString() != null
-                && mWifiEntry.getConnectedState() == WifiEntry.CONNECTED_STATE_DISCONNECTED) {
+        if (shouldShowHelpButton()) {
             final Drawable drawablehelp = getDrawable(R.drawable.ic_help);
             drawablehelp.setTintList(
                     Utils.getColorAttr(getContext(), android.R.attr.colorControlNormal));
@@ -143,10 +157,20 @@ public class WifiEntryPreference extends RestrictedPreference implements
         }
     }
 
+    @Override
+    public void onDetached() {
+        super.onDetached();
+        mHandler.removeCallbacks(mRefreshRunnable);
+    }
+
     /**
      * Updates the title and summary; may indirectly call notifyChanged().
      */
     public void refresh() {
+        refresh(mWifiEntry.getSummary(false /* concise */));
+    }
+
+    private void refresh(CharSequence summary) {
         setTitle(mWifiEntry.getTitle());
         if (mWifiEntry instanceof HotspotNetworkEntry) {
             updateHotspotIcon(((HotspotNetworkEntry) mWifiEntry).getDeviceType());
@@ -161,7 +185,10 @@ public class WifiEntryPreference extends RestrictedPreference implements
             }
         }
 
-        setSummary(mWifiEntry.getSummary(false /* concise */));
+        setSummary(summary);
+        mSecurity = mWifiEntry.getSecurity();
+        mShowHelpButton = shouldShowHelpButton();
+        mIconColorAttr = getIconColorAttr();
         mContentDescription = buildContentDescription();
     }
 
@@ -170,8 +197,55 @@ public class WifiEntryPreference extends RestrictedPreference implements
      * the WifiEntry getter methods.
      */
     public void onUpdated() {
-        // TODO(b/70983952): Fill this method in
-        refresh();
+        final CharSequence summary = mWifiEntry.getSummary(false /* concise */);
+        if (!isLevelOnlyUpdate(summary)) {
+            refreshNow(summary);
+            return;
+        }
+        // Signal level changes arrive with every scan; coalesce them so that a crowded list does
+        // not re-bind its rows several times per second.
+        if (mHandler.hasCallbacks(mRefreshRunnable)) {
+            return;
+        }
+        final long delay =
+                mLastRefreshTime + LEVEL_ONLY_REFRESH_INTERVAL_MS - SystemClock.elapsedRealtime();
+        if (delay <= 0) {
+            refreshNow(summary);
+        } else {
+            mHandler.postDelayed(mRefreshRunnable, delay);
+        }
+    }
+
+    private void refreshNow() {
+        refreshNow(mWifiEntry.getSummary(false /* concise */));
+    }
+
+    private void refreshNow(CharSequence summary) {
+        mHandler.removeCallbacks(mRefreshRunnable);
+        mLastRefreshTime = SystemClock.elapsedRealtime();
+        refresh(summary);
+    }
+
+    /**
+     * Returns true if nothing but the signal level has changed since the last refresh, comparing
+     * every other input of the row: the title, the summary, the X-level icon, the security, the
+     * help button and the icon tint.
+     */
+    private boolean isLevelOnlyUpdate(CharSequence summary) {
+        if (mWifiEntry instanceof HotspotNetworkEntry) {
+            return false;
+        }
+        return TextUtils.equals(getTitle(), mWifiEntry.getTitle())
+                && TextUtils.equals(getSummary(), summary)
+                && mShowX == mWifiEntry.shouldShowXLevelIcon()
+                && mSecurity == mWifiEntry.getSecurity()
+                && mShowHelpButton == shouldShowHelpButton()
+                && mIconColorAttr == getIconColorAttr();
+    }
+
+    private boolean shouldShowHelpButton() {
+        return mWifiEntry.getHelpUriString() != null
+                && mWifiEntry.getConnectedState() == WifiEntry.CONNECTED_STATE_DISCONNECTED;
     }
 
     /**
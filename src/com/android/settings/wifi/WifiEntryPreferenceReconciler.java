@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.wifi;
+
+import android.util.ArrayMap;
+import android.util.Log;
+
+import androidx.preference.Preference;
+import androidx.preference.PreferenceGroup;
+
+import com.android.wifitrackerlib.WifiEntry;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings the {@link LongPressWifiEntryPreference}s of a {@link PreferenceGroup} in line with a
+ * list of {@link WifiEntry}s, keyed by {@link WifiEntry#getKey()}.
+ *
+ * <p>Only the minimal set of operations is applied: preferences of entries that disappeared or
+ * whose {@link WifiEntry} object was replaced are removed, new entries get a new preference, and
+ * the order of a kept preference is only touched when its position actually changed. Other
+ * preferences in the group are left alone.
+ */
+public class WifiEntryPreferenceReconciler {
+
+    private static final String TAG = "WifiEntryPrefReconciler";
+    private static final boolean DEBUG = Log.isLoggable(TAG, Log.DEBUG);
+
+    /** Creates the preference shown for a newly listed {@link WifiEntry}. */
+    public interface PreferenceFactory {
+        LongPressWifiEntryPreference create(WifiEntry wifiEntry);
+    }
+
+    /** Counts of the operations applied by {@link #reconcile}. */
+    public static class Result {
+        public int inserted;
+        public int moved;
+        public int removed;
+        public int kept;
+        /** The order following the last Wi-Fi entry, for the preferences placed after them. */
+        public int nextOrder;
+    }
+
+    private WifiEntryPreferenceReconciler() {
+    }
+
+    /**
+     * Reconciles the Wi-Fi entry preferences of {@code group} with {@code wifiEntries}.
+     *
+     * @param firstOrder the order given to the first entry
+     */
+    public static Result reconcile(PreferenceGroup group, List<WifiEntry> wifiEntries,
+            int firstOrder, PreferenceFactory factory) {
+        final Result result = new Result();
+
+        final Map<String, LongPressWifiEntryPreference> existing = new ArrayMap<>();
+        for (int i = 0; i < group.getPreferenceCount(); i++) {
+            final Preference pref = group.getPreference(i);
+            if (pref instanceof LongPressWifiEntryPreference && pref.getKey() != null) {
+                existing.put(pref.getKey(), (LongPressWifiEntryPreference) pref);
+            }
+        }
+
+        final Map<String, WifiEntry> wanted = new ArrayMap<>(wifiEntries.size());
+        for (WifiEntry wifiEntry : wifiEntries) {
+            wanted.put(wifiEntry.getKey(), wifiEntry);
+        }
+
+        // Removals first, so that re-added keys do not collide with stale preferences.
+        for (Map.Entry<String, LongPressWifiEntryPreference> entry : existing.entrySet()) {
+            final WifiEntry wifiEntry = wanted.get(entry.getKey());
+            if (wifiEntry == null || entry.getValue().getWifiEntry() != wifiEntry) {
+                group.removePreference(entry.getValue());
+                result.removed++;
+            }
+        }
+
+        int order = firstOrder;
+        for (WifiEntry wifiEntry : wifiEntries) {
+            final String key = wifiEntry.getKey();
+            LongPressWifiEntryPreference pref = existing.get(key);
+            if (pref != null && pref.getWifiEntry() == wifiEntry) {
+                if (pref.getOrder() != order) {
+                    pref.setOrder(order);
+                    result.moved++;
+                } else {
+                    result.kept++;
+                }
+            } else {
+                pref = factory.create(wifiEntry);
+                pref.setKey(key);
+                pref.setOrder(order);
+                pref.refresh();
+                group.addPreference(pref);
+                result.inserted++;
+            }
+            order++;
+        }
+        result.nextOrder = order;
+
+        if (DEBUG) {
+            Log.d(TAG, "reconcile: inserted=" + result.inserted + " moved=" + result.moved
+                    + " removed=" + result.removed + " kept=" + result.kept);
+        }
+        return result;
+    }
+}
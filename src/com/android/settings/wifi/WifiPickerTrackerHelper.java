@@ -22,7 +22,6 @@ import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
 import android.os.PersistableBundle;
-import android.os.Process;
 import android.os.SimpleClock;
 import android.os.SystemClock;
 import android.telephony.CarrierConfigManager;
@@ -48,10 +47,6 @@ public class WifiPickerTrackerHelper implements LifecycleObserver {
 
     private static final String TAG = "WifiPickerTrackerHelper";
 
-    // Max age of tracked WifiEntries
-    private static final long MAX_SCAN_AGE_MILLIS = 15_000;
-    // Interval between initiating WifiPickerTracker scans
-    private static final long SCAN_INTERVAL_MILLIS = 10_000;
     // Clock used for evaluating the age of scans
     private static final Clock ELAPSED_REALTIME_CLOCK = new SimpleClock(ZoneOffset.UTC) {
         @Override
@@ -63,6 +58,7 @@ public class WifiPickerTrackerHelper implements LifecycleObserver {
     protected WifiPickerTracker mWifiPickerTracker;
     // Worker thread used for WifiPickerTracker work
     protected HandlerThread mWorkerThread;
+    protected Handler mWorkerHandler;
 
     protected final WifiManager mWifiManager;
     protected final CarrierConfigCache mCarrierConfigCache;
@@ -73,19 +69,17 @@ public class WifiPickerTrackerHelper implements LifecycleObserver {
             throw new IllegalArgumentException("lifecycle must be non-null.");
         }
         lifecycle.addObserver(this);
-        mWorkerThread = new HandlerThread(TAG
-                + "{" + Integer.toHexString(System.identityHashCode(this)) + "}",
-                Process.THREAD_PRIORITY_BACKGROUND);
-        mWorkerThread.start();
+        mWorkerThread = WifiTrackerPool.acquireWorkerThread();
+        mWorkerHandler = WifiTrackerPool.createWorkerHandler(mWorkerThread);
 
         mWifiPickerTracker = FeatureFactory.getFactory(context)
                 .getWifiTrackerLibProvider()
                 .createWifiPickerTracker(lifecycle, context,
                 new Handler(Looper.getMainLooper()),
-                mWorkerThread.getThreadHandler(),
+                mWorkerHandler,
                 ELAPSED_REALTIME_CLOCK,
-                MAX_SCAN_AGE_MILLIS,
-                SCAN_INTERVAL_MILLIS,
+                WifiTrackerPool.getMaxScanAgeMillis(),
+                WifiTrackerPool.getScanIntervalMillis(),
                 listener);
 
         mWifiManager = context.getSystemService(WifiManager.class);
@@ -95,7 +89,7 @@ public class WifiPickerTrackerHelper implements LifecycleObserver {
     /** @OnLifecycleEvent(ON_DESTROY) */
     @OnLifecycleEvent(Lifecycle.Event.ON_DESTROY)
     public void onDestroy() {
-        mWorkerThread.quit();
+        WifiTrackerPool.releaseWorkerThread(mWorkerThread, mWorkerHandler);
     }
 
     /** Return the WifiPickerTracker class */
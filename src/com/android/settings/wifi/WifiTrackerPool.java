@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.wifi;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.provider.DeviceConfig;
+import android.util.Log;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Process-wide resources shared by the WifiTrackerLib trackers of the Settings screens.
+ *
+ * <p>The trackers run on one reference-counted worker thread instead of a thread per screen.
+ * The thread is kept for {@link #LINGER_MILLIS} after the last release, so moving between the
+ * Internet page, the Wi-Fi details and the panels reuses a running thread. Each tracker posts
+ * through its own {@link Handler} on that thread, whose messages are dropped on release. The scan
+ * intervals handed to the trackers are read from {@link DeviceConfig} here as well.
+ */
+public class WifiTrackerPool {
+    private static final String TAG = "WifiTrackerPool";
+
+    /** Default max age of tracked WifiEntries. */
+    public static final long DEFAULT_MAX_SCAN_AGE_MILLIS = 15_000;
+    /** Default interval between initiating tracker scans. */
+    public static final long DEFAULT_SCAN_INTERVAL_MILLIS = 10_000;
+
+    @VisibleForTesting
+    static final long LINGER_MILLIS = 10_000;
+    @VisibleForTesting
+    static final String DEVICE_CONFIG_NAMESPACE = "wifi";
+    @VisibleForTesting
+    static final String KEY_MAX_SCAN_AGE_MILLIS = "settings_tracker_max_scan_age_millis";
+    @VisibleForTesting
+    static final String KEY_SCAN_INTERVAL_MILLIS = "settings_tracker_scan_interval_millis";
+
+    private static final Object sLock = new Object();
+    @GuardedBy("sLock")
+    private static HandlerThread sWorkerThread;
+    @GuardedBy("sLock")
+    private static int sRefCount;
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static final Runnable sQuitRunnable = WifiTrackerPool::quitIfUnused;
+
+    private WifiTrackerPool() {
+    }
+
+    /**
+     * Returns the shared worker thread, starting it if needed. Every call must be balanced with
+     * {@link #releaseWorkerThread(HandlerThread, Handler)}.
+     */
+    public static HandlerThread acquireWorkerThread() {
+        synchronized (sLock) {
+            sMainHandler.removeCallbacks(sQuitRunnable);
+            if (sWorkerThread == null) {
+                sWorkerThread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+                sWorkerThread.start();
+            }
+            sRefCount++;
+            return sWorkerThread;
+        }
+    }
+
+    /** Returns a handler on {@code workerThread} for the messages of a single tracker. */
+    public static Handler createWorkerHandler(HandlerThread workerThread) {
+        return new Handler(workerThread.getLooper());
+    }
+
+    /**
+     * Releases a worker thread returned by {@link #acquireWorkerThread()}, dropping the pending
+     * messages of {@code workerHandler} so a released tracker does not run on the shared thread.
+     * A thread that does not come from the pool is owned by the caller alone and is quit right
+     * away.
+     */
+    public static void releaseWorkerThread(@Nullable HandlerThread workerThread,
+            @Nullable Handler workerHandler) {
+        if (workerHandler != null) {
+            workerHandler.removeCallbacksAndMessages(null);
+        }
+        if (workerThread == null) {
+            return;
+        }
+        synchronized (sLock) {
+            if (workerThread != sWorkerThread) {
+                workerThread.quit();
+                return;
+            }
+            if (sRefCount <= 0) {
+                Log.w(TAG, "releaseWorkerThread: not acquired");
+                return;
+            }
+            sRefCount--;
+            if (sRefCount == 0) {
+                sMainHandler.postDelayed(sQuitRunnable, LINGER_MILLIS);
+            }
+        }
+    }
+
+    /** Returns the max age of the scan results kept by the trackers. */
+    public static long getMaxScanAgeMillis() {
+        return getPositiveLong(KEY_MAX_SCAN_AGE_MILLIS, DEFAULT_MAX_SCAN_AGE_MILLIS);
+    }
+
+    /** Returns the interval between the scans started by the trackers. */
+    public static long getScanIntervalMillis() {
+        return getPositiveLong(KEY_SCAN_INTERVAL_MILLIS, DEFAULT_SCAN_INTERVAL_MILLIS);
+    }
+
+    private static long getPositiveLong(String key, long defaultValue) {
+        final long value = DeviceConfig.getLong(DEVICE_CONFIG_NAMESPACE, key, defaultValue);
+        return value > 0 ? value : defaultValue;
+    }
+
+    @VisibleForTesting
+    static int getRefCount() {
+        synchronized (sLock) {
+            return sRefCount;
+        }
+    }
+
+    @VisibleForTesting
+    static boolean isWorkerThreadRunning() {
+        synchronized (sLock) {
+            return sWorkerThread != null;
+        }
+    }
+
+    private static void quitIfUnused() {
+        synchronized (sLock) {
+            if (sRefCount == 0 && sWorkerThread != null) {
+                sWorkerThread.quitSafely();
+                sWorkerThread = null;
+            }
+        }
+    }
+}
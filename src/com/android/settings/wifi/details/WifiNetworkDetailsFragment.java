@@ -31,7 +31,6 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
-import android.os.Process;
 import android.os.SimpleClock;
 import android.os.SystemClock;
 import android.os.UserHandle;
@@ -52,6 +51,7 @@ import com.android.settings.network.telephony.MobileNetworkUtils;
 import com.android.settings.overlay.FeatureFactory;
 import com.android.settings.wifi.WifiConfigUiBase2;
 import com.android.settings.wifi.WifiDialog2;
+import com.android.settings.wifi.WifiTrackerPool;
 import com.android.settings.wifi.WifiUtils;
 import com.android.settings.wifi.details2.AddDevicePreferenceController2;
 import com.android.settings.wifi.details2.WifiAutoConnectPreferenceController2;
@@ -93,16 +93,12 @@ public class WifiNetworkDetailsFragment extends RestrictedDashboardFragment impl
     public static final String KEY_HOTSPOT_DEVICE_BATTERY = "hotspot_device_details_battery";
     public static final String KEY_HOTSPOT_CONNECTION_CATEGORY = "hotspot_connection_category";
 
-    // Max age of tracked WifiEntries
-    private static final long MAX_SCAN_AGE_MILLIS = 15_000;
-    // Interval between initiating SavedNetworkTracker scans
-    private static final long SCAN_INTERVAL_MILLIS = 10_000;
-
     @VisibleForTesting
     boolean mIsUiRestricted;
     @VisibleForTesting
     NetworkDetailsTracker mNetworkDetailsTracker;
     private HandlerThread mWorkerThread;
+    private Handler mWorkerHandler;
     @VisibleForTesting
     WifiDetailPreferenceController2 mWifiDetailPreferenceController2;
     private List<WifiDialog2.WifiDialog2Listener> mWifiDialogListeners = new ArrayList<>();
@@ -143,7 +139,7 @@ public class WifiNetworkDetailsFragment extends RestrictedDashboardFragment impl
 
     @Override
     public void onDestroy() {
-        mWorkerThread.quit();
+        WifiTrackerPool.releaseWorkerThread(mWorkerThread, mWorkerHandler);
 
         super.onDestroy();
     }
@@ -293,10 +289,8 @@ public class WifiNetworkDetailsFragment extends RestrictedDashboardFragment impl
         }
 
         final Context context = getContext();
-        mWorkerThread = new HandlerThread(TAG
-                + "{" + Integer.toHexString(System.identityHashCode(this)) + "}",
-                Process.THREAD_PRIORITY_BACKGROUND);
-        mWorkerThread.start();
+        mWorkerThread = WifiTrackerPool.acquireWorkerThread();
+        mWorkerHandler = WifiTrackerPool.createWorkerHandler(mWorkerThread);
         final Clock elapsedRealtimeClock = new SimpleClock(ZoneOffset.UTC) {
             @Override
             public long millis() {
@@ -310,10 +304,10 @@ public class WifiNetworkDetailsFragment extends RestrictedDashboardFragment impl
                         getSettingsLifecycle(),
                         context,
                         new Handler(Looper.getMainLooper()),
-                        mWorkerThread.getThreadHandler(),
+                        mWorkerHandler,
                         elapsedRealtimeClock,
-                        MAX_SCAN_AGE_MILLIS,
-                        SCAN_INTERVAL_MILLIS,
+                        WifiTrackerPool.getMaxScanAgeMillis(),
+                        WifiTrackerPool.getScanIntervalMillis(),
                         getArguments().getString(KEY_CHOSEN_WIFIENTRY_KEY));
     }
 
@@ -29,6 +29,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 import androidx.lifecycle.Lifecycle;
 
+import com.android.settings.wifi.WifiTrackerPool;
 import com.android.wifitrackerlib.SavedNetworkTracker;
 
 import java.util.List;
@@ -106,8 +107,8 @@ public class SavedWifiHelper extends WifiTrackerBase {
                 new Handler(Looper.getMainLooper()),
                 getWorkerThreadHandler(),
                 ELAPSED_REALTIME_CLOCK,
-                MAX_SCAN_AGE_MILLIS,
-                SCAN_INTERVAL_MILLIS,
+                WifiTrackerPool.getMaxScanAgeMillis(),
+                WifiTrackerPool.getScanIntervalMillis(),
                 null /* SavedNetworkTrackerCallback */);
     }
 
@@ -18,7 +18,6 @@ package com.android.settings.wifi.helper;
 
 import android.os.Handler;
 import android.os.HandlerThread;
-import android.os.Process;
 import android.os.SimpleClock;
 import android.os.SystemClock;
 
@@ -28,6 +27,8 @@ import androidx.lifecycle.DefaultLifecycleObserver;
 import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.LifecycleOwner;
 
+import com.android.settings.wifi.WifiTrackerPool;
+
 import java.time.Clock;
 import java.time.ZoneOffset;
 
@@ -37,10 +38,6 @@ import java.time.ZoneOffset;
 public class WifiTrackerBase implements DefaultLifecycleObserver {
     private static final String TAG = "WifiTrackerBase";
 
-    // Max age of tracked WifiEntries
-    protected static final long MAX_SCAN_AGE_MILLIS = 15_000;
-    // Interval between initiating Wi-Fi Tracker scans
-    protected static final long SCAN_INTERVAL_MILLIS = 10_000;
     // Clock used for evaluating the age of scans
     protected static final Clock ELAPSED_REALTIME_CLOCK = new SimpleClock(ZoneOffset.UTC) {
         @Override
@@ -51,6 +48,7 @@ public class WifiTrackerBase implements DefaultLifecycleObserver {
 
     @VisibleForTesting
     protected HandlerThread mWorkerThread;
+    private Handler mWorkerHandler;
 
     public WifiTrackerBase(@NonNull Lifecycle lifecycle) {
         this(lifecycle, null /* handlerThread */);
@@ -59,11 +57,12 @@ public class WifiTrackerBase implements DefaultLifecycleObserver {
     @VisibleForTesting
     protected WifiTrackerBase(@NonNull Lifecycle lifecycle, HandlerThread handlerThread) {
         lifecycle.addObserver(this);
-        mWorkerThread = (handlerThread != null) ? handlerThread :
-                new HandlerThread(getTag()
-                        + "{" + Integer.toHexString(System.identityHashCode(this)) + "}",
-                        Process.THREAD_PRIORITY_BACKGROUND);
-        mWorkerThread.start();
+        if (handlerThread != null) {
+            mWorkerThread = handlerThread;
+            mWorkerThread.start();
+        } else {
+            mWorkerThread = WifiTrackerPool.acquireWorkerThread();
+        }
     }
 
     protected String getTag() {
@@ -72,11 +71,14 @@ public class WifiTrackerBase implements DefaultLifecycleObserver {
 
     @Override
     public void onDestroy(@NonNull LifecycleOwner owner) {
-        mWorkerThread.quit();
+        WifiTrackerPool.releaseWorkerThread(mWorkerThread, mWorkerHandler);
     }
 
-    /** Returns the worker thread handler. */
+    /** Returns the worker thread handler, whose messages are dropped on destroy. */
     public Handler getWorkerThreadHandler() {
-        return mWorkerThread.getThreadHandler();
+        if (mWorkerHandler == null) {
+            mWorkerHandler = WifiTrackerPool.createWorkerHandler(mWorkerThread);
+        }
+        return mWorkerHandler;
     }
 }
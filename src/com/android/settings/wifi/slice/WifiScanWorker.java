@@ -21,6 +21,8 @@ import static com.android.settings.wifi.slice.WifiSlice.DEFAULT_EXPANDED_ROW_COU
 import android.content.Context;
 import android.net.Uri;
 import android.net.wifi.WifiManager;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 
 import androidx.annotation.VisibleForTesting;
@@ -51,6 +53,9 @@ public class WifiScanWorker extends SliceBackgroundWorker<WifiSliceItem> impleme
     protected WifiPickerTracker mWifiPickerTracker;
     protected WifiPickerTrackerHelper mWifiPickerTrackerHelper;
 
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mUpdateResultsRunnable = this::updateResults;
+
     public WifiScanWorker(Context context, Uri uri) {
         super(context, uri);
 
@@ -78,6 +83,7 @@ public class WifiScanWorker extends SliceBackgroundWorker<WifiSliceItem> impleme
 
     @Override
     public void close() {
+        mHandler.removeCallbacks(mUpdateResultsRunnable);
         mLifecycleRegistry.markState(Lifecycle.State.DESTROYED);
     }
 
@@ -97,7 +103,7 @@ public class WifiScanWorker extends SliceBackgroundWorker<WifiSliceItem> impleme
      */
     @Override
     public void onWifiEntriesChanged() {
-        updateResults();
+        scheduleUpdateResults();
     }
 
     /**
@@ -106,7 +112,17 @@ public class WifiScanWorker extends SliceBackgroundWorker<WifiSliceItem> impleme
      */
     @Override
     public void onUpdated() {
-        updateResults();
+        scheduleUpdateResults();
+    }
+
+    /**
+     * A scan can make every listed entry call {@link #onUpdated()} at once, so rebuilding the
+     * results is deferred and the callbacks of one looper turn share a single rebuild.
+     */
+    private void scheduleUpdateResults() {
+        if (!mHandler.hasCallbacks(mUpdateResultsRunnable)) {
+            mHandler.post(mUpdateResultsRunnable);
+        }
     }
 
     protected int getApRowCount() {
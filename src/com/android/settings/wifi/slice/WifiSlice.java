@@ -39,6 +39,7 @@ import android.os.UserManager;
 import android.text.TextUtils;
 import android.util.EventLog;
 import android.util.Log;
+import android.util.LruCache;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
@@ -77,6 +78,12 @@ public class WifiSlice implements CustomSliceable {
     static final int DEFAULT_EXPANDED_ROW_COUNT = 3;
     private static final String TAG = "WifiSlice";
 
+    // Rendered signal level icons by resource, tint and density. Rendering them is the costly
+    // part of a row, and scans rebuild the slice far more often than the icons change.
+    private static final int LEVEL_ICON_CACHE_SIZE = 32;
+    private static final LruCache<String, IconCompat> sLevelIconCache =
+            new LruCache<>(LEVEL_ICON_CACHE_SIZE);
+
     protected final Context mContext;
     protected final WifiManager mWifiManager;
     protected final WifiRestriction mWifiRestriction;
@@ -265,9 +272,17 @@ public class WifiSlice implements CustomSliceable {
                     android.R.attr.colorControlNormal));
         }
 
-        Drawable drawable = mContext.getDrawable(getWifiIconResId(wifiSliceItem));
-        drawable.setTint(tint);
-        return Utils.createIconWithDrawable(drawable);
+        final int resId = getWifiIconResId(wifiSliceItem);
+        final String cacheKey = resId + "_" + tint + "_"
+                + mContext.getResources().getConfiguration().densityDpi;
+        IconCompat icon = sLevelIconCache.get(cacheKey);
+        if (icon == null) {
+            Drawable drawable = mContext.getDrawable(resId);
+            drawable.setTint(tint);
+            icon = Utils.createIconWithDrawable(drawable);
+            sLevelIconCache.put(cacheKey, icon);
+        }
+        return icon;
     }
 
     @VisibleForTesting
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class TrustedCredentialsCacheTest {
+
+    private static final String ALIAS = "system:1234abcd.0";
+
+    private SharedPreferences mPrefs;
+
+    @Before
+    public void setUp() {
+        mPrefs = RuntimeEnvironment.application.getSharedPreferences(
+                TrustedCredentialsCache.PREF_NAME, Context.MODE_PRIVATE);
+        mPrefs.edit().clear().commit();
+    }
+
+    @Test
+    public void getSubject_notCached_returnsNull() {
+        final TrustedCredentialsCache cache = new TrustedCredentialsCache(mPrefs, "stamp");
+
+        assertThat(cache.getSubject(ALIAS)).isNull();
+    }
+
+    @Test
+    public void save_sameStamp_restoresSubject() {
+        final TrustedCredentialsCache cache = new TrustedCredentialsCache(mPrefs, "stamp");
+        cache.putSubject(ALIAS, "Example Org", "Example Root CA");
+        cache.save();
+
+        final TrustedCredentialsCache restored = new TrustedCredentialsCache(mPrefs, "stamp");
+
+        assertThat(restored.getSubject(ALIAS))
+                .asList().containsExactly("Example Org", "Example Root CA").inOrder();
+    }
+
+    @Test
+    public void save_emptySecondary_restoresSubject() {
+        final TrustedCredentialsCache cache = new TrustedCredentialsCache(mPrefs, "stamp");
+        cache.putSubject(ALIAS, "Example Root CA", "");
+        cache.save();
+
+        final TrustedCredentialsCache restored = new TrustedCredentialsCache(mPrefs, "stamp");
+
+        assertThat(restored.getSubject(ALIAS)).asList().containsExactly("Example Root CA", "");
+    }
+
+    @Test
+    public void save_subjectWithSeparators_storedAsTwoKeys() {
+        final TrustedCredentialsCache cache = new TrustedCredentialsCache(mPrefs, "stamp");
+        cache.putSubject(ALIAS, "Org, Inc.\u0000", "Root CA / G2");
+        cache.save();
+
+        final TrustedCredentialsCache restored = new TrustedCredentialsCache(mPrefs, "stamp");
+
+        assertThat(mPrefs.getString(TrustedCredentialsCache.KEY_PREFIX_PRIMARY + ALIAS, null))
+                .isEqualTo("Org, Inc.\u0000");
+        assertThat(mPrefs.getString(TrustedCredentialsCache.KEY_PREFIX_SECONDARY + ALIAS, null))
+                .isEqualTo("Root CA / G2");
+        assertThat(restored.getSubject(ALIAS))
+                .asList().containsExactly("Org, Inc.\u0000", "Root CA / G2").inOrder();
+    }
+
+    @Test
+    public void missingSecondary_notRestored() {
+        mPrefs.edit()
+                .putString(TrustedCredentialsCache.KEY_STAMP, "stamp")
+                .putString(TrustedCredentialsCache.KEY_PREFIX_PRIMARY + ALIAS, "Example Org")
+                .commit();
+
+        final TrustedCredentialsCache restored = new TrustedCredentialsCache(mPrefs, "stamp");
+
+        assertThat(restored.getSubject(ALIAS)).isNull();
+    }
+
+    @Test
+    public void stampChanged_dropsCachedSubjects() {
+        final TrustedCredentialsCache cache = new TrustedCredentialsCache(mPrefs, "stamp");
+        cache.putSubject(ALIAS, "Example Org", "Example Root CA");
+        cache.save();
+
+        final TrustedCredentialsCache restored = new TrustedCredentialsCache(mPrefs, "new_stamp");
+
+        assertThat(restored.getSubject(ALIAS)).isNull();
+        assertThat(mPrefs.getString(TrustedCredentialsCache.KEY_STAMP, null))
+                .isEqualTo("new_stamp");
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.junit.Assert.assertThrows;
+
+import android.os.RemoteException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class TrustedCredentialsFragmentTest {
+
+    private static final List<String> ALIASES = Arrays.asList("system:a", "system:b", "system:c");
+
+    private ExecutorService mExecutor;
+
+    @Before
+    public void setUp() {
+        mExecutor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void loadInParallel_returnsValuesInAliasOrder() throws Exception {
+        final CountDownLatch laterAliasLoaded = new CountDownLatch(1);
+
+        final List<String> values = TrustedCredentialsFragment.loadInParallel(mExecutor, ALIASES,
+                alias -> {
+                    if (alias.equals("system:a")) {
+                        // Let a later alias finish first.
+                        try {
+                            laterAliasLoaded.await(1, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    } else {
+                        laterAliasLoaded.countDown();
+                    }
+                    return alias.toUpperCase();
+                }, () -> false);
+
+        assertThat(values).containsExactly("SYSTEM:A", "SYSTEM:B", "SYSTEM:C").inOrder();
+    }
+
+    @Test
+    public void loadInParallel_reusedExecutor_staysUsable() throws Exception {
+        TrustedCredentialsFragment.loadInParallel(mExecutor, ALIASES, alias -> alias, () -> false);
+
+        final List<String> values = TrustedCredentialsFragment.loadInParallel(mExecutor, ALIASES,
+                alias -> alias, () -> false);
+
+        assertThat(mExecutor.isShutdown()).isFalse();
+        assertThat(values).containsExactlyElementsIn(ALIASES).inOrder();
+    }
+
+    @Test
+    public void loadInParallel_remoteException_rethrown() {
+        final RemoteException error = new RemoteException("keychain died");
+
+        final RemoteException thrown = assertThrows(RemoteException.class,
+                () -> TrustedCredentialsFragment.loadInParallel(mExecutor, ALIASES, alias -> {
+                    throw error;
+                }, () -> false));
+
+        assertThat(thrown).isSameInstanceAs(error);
+    }
+
+    @Test
+    public void loadInParallel_cancelled_throwsInterruptedException() {
+        assertThrows(InterruptedException.class,
+                () -> TrustedCredentialsFragment.loadInParallel(mExecutor, ALIASES,
+                        alias -> alias, () -> true));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.android.internal.app.procstats.ProcessStats;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class ProcStatsCacheTest {
+
+    private static final long DURATION = 3 * 60 * 60 * 1000;
+
+    private ProcStatsCache mCache;
+    private AtomicInteger mLoadCount;
+    private ProcStatsCache.Loader mLoader;
+
+    @Before
+    public void setUp() {
+        mCache = new ProcStatsCache();
+        mLoadCount = new AtomicInteger();
+        mLoader = duration -> {
+            mLoadCount.incrementAndGet();
+            return new ProcessStats(false);
+        };
+    }
+
+    @Test
+    public void get_sameDuration_loadsOnce() {
+        final ProcessStats first = mCache.get(DURATION, mLoader);
+        final ProcessStats second = mCache.get(DURATION, mLoader);
+
+        assertThat(second).isSameInstanceAs(first);
+        assertThat(mLoadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_differentDurations_loadsEach() {
+        mCache.get(DURATION, mLoader);
+        mCache.get(DURATION * 2, mLoader);
+
+        assertThat(mLoadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_staleEntry_reloads() {
+        mCache.get(DURATION, mLoader);
+
+        ShadowLooper.idleMainLooper(ProcStatsCache.MAX_AGE_MS + 1, TimeUnit.MILLISECONDS);
+        mCache.get(DURATION, mLoader);
+
+        assertThat(mLoadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_readError_notCached() {
+        final ProcStatsCache.Loader failingLoader = duration -> {
+            mLoadCount.incrementAndGet();
+            final ProcessStats stats = new ProcessStats(false);
+            stats.mReadError = "error";
+            return stats;
+        };
+
+        mCache.get(DURATION, failingLoader);
+        mCache.get(DURATION, failingLoader);
+
+        assertThat(mLoadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void reload_cachedEntry_loadsAgainAndCaches() {
+        final ProcessStats first = mCache.get(DURATION, mLoader);
+
+        final ProcessStats reloaded = mCache.reload(DURATION, mLoader);
+
+        assertThat(reloaded).isNotSameInstanceAs(first);
+        assertThat(mCache.get(DURATION, mLoader)).isSameInstanceAs(reloaded);
+        assertThat(mLoadCount.get()).isEqualTo(2);
+    }
+}
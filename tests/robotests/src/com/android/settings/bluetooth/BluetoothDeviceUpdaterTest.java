@@ -20,6 +20,8 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +32,7 @@ import android.content.Intent;
 import android.graphics.drawable.Drawable;
 import android.util.Pair;
 
+import androidx.annotation.Nullable;
 import androidx.preference.Preference;
 
 import com.android.settings.SettingsActivity;
@@ -49,9 +52,11 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadow.api.Shadow;
+import org.robolectric.shadows.ShadowLooper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(shadows = {ShadowBluetoothAdapter.class})
@@ -262,6 +267,116 @@ public class BluetoothDeviceUpdaterTest {
         assertThat(mPreference.getTitle()).isEqualTo(TEST_NAME);
     }
 
+    @Test
+    public void updateConnectedDevices_deviceNotConnectedAndNotShown_doNothing() {
+        mShadowBluetoothAdapter.setEnabled(true);
+        when(mBluetoothDevice.getBondState()).thenReturn(BluetoothDevice.BOND_BONDED);
+        when(mBluetoothDevice.isConnected()).thenReturn(false);
+
+        mBluetoothDeviceUpdater.updateConnectedDevices();
+
+        verify(mDevicePreferenceCallback, never()).onDeviceAdded(any(Preference.class));
+    }
+
+    @Test
+    public void updateConnectedDevices_deviceConnected_addPreference() {
+        mShadowBluetoothAdapter.setEnabled(true);
+        when(mBluetoothDevice.getBondState()).thenReturn(BluetoothDevice.BOND_BONDED);
+        when(mBluetoothDevice.isConnected()).thenReturn(true);
+
+        mBluetoothDeviceUpdater.updateConnectedDevices();
+
+        verify(mDevicePreferenceCallback).onDeviceAdded(any(Preference.class));
+    }
+
+    @Test
+    public void onServiceConnected_calledTwice_updateOnce() {
+        mShadowBluetoothAdapter.setEnabled(true);
+
+        mBluetoothDeviceUpdater.onServiceConnected();
+        mBluetoothDeviceUpdater.onServiceConnected();
+        ShadowLooper.idleMainLooper();
+
+        verify(mCachedDeviceManager, times(1)).getCachedDevicesCopy();
+    }
+
+    @Test
+    public void addMatchedDevices_deviceStillCached_addPreference() {
+        mShadowBluetoothAdapter.setEnabled(true);
+        when(mCachedBluetoothDevice.getBondState()).thenReturn(BluetoothDevice.BOND_BONDED);
+        final CachedListBluetoothDeviceUpdater updater = new CachedListBluetoothDeviceUpdater(
+                mContext, mDevicePreferenceCallback, mLocalManager, /* metricsCategory= */ 0);
+        updater.setPrefContext(mContext);
+
+        final List<CachedBluetoothDevice> matchedDevices = updater.loadMatchedDevices();
+        updater.addMatchedDevices(matchedDevices);
+
+        assertThat(matchedDevices).containsExactly(mCachedBluetoothDevice);
+        verify(mDevicePreferenceCallback).onDeviceAdded(any(Preference.class));
+    }
+
+    @Test
+    public void addMatchedDevices_deviceRemovedAfterLoad_doNothing() {
+        mShadowBluetoothAdapter.setEnabled(true);
+        when(mCachedBluetoothDevice.getBondState()).thenReturn(BluetoothDevice.BOND_BONDED);
+        final CachedListBluetoothDeviceUpdater updater = new CachedListBluetoothDeviceUpdater(
+                mContext, mDevicePreferenceCallback, mLocalManager, /* metricsCategory= */ 0);
+        updater.setPrefContext(mContext);
+
+        final List<CachedBluetoothDevice> matchedDevices = updater.loadMatchedDevices();
+        mCachedDevices.remove(mCachedBluetoothDevice);
+        updater.addMatchedDevices(matchedDevices);
+
+        assertThat(matchedDevices).containsExactly(mCachedBluetoothDevice);
+        verify(mDevicePreferenceCallback, never()).onDeviceAdded(any(Preference.class));
+        assertThat(updater.mPreferenceMap).isEmpty();
+    }
+
+    @Test
+    public void addMatchedDevices_deviceUnbondedAfterLoad_doNothing() {
+        mShadowBluetoothAdapter.setEnabled(true);
+        when(mCachedBluetoothDevice.getBondState()).thenReturn(BluetoothDevice.BOND_BONDED);
+        final CachedListBluetoothDeviceUpdater updater = new CachedListBluetoothDeviceUpdater(
+                mContext, mDevicePreferenceCallback, mLocalManager, /* metricsCategory= */ 0);
+        updater.setPrefContext(mContext);
+
+        final List<CachedBluetoothDevice> matchedDevices = updater.loadMatchedDevices();
+        when(mCachedBluetoothDevice.getBondState()).thenReturn(BluetoothDevice.BOND_NONE);
+        updater.addMatchedDevices(matchedDevices);
+
+        verify(mDevicePreferenceCallback, never()).onDeviceAdded(any(Preference.class));
+        assertThat(updater.mPreferenceMap).isEmpty();
+    }
+
+    @Test
+    public void addMatchedDevices_filterNotCheckedAgain() {
+        mShadowBluetoothAdapter.setEnabled(true);
+        when(mCachedBluetoothDevice.getBondState()).thenReturn(BluetoothDevice.BOND_BONDED);
+        final TestBluetoothDeviceUpdater updater = spy(new TestBluetoothDeviceUpdater(
+                mContext, mDevicePreferenceCallback, mLocalManager, /* metricsCategory= */ 0));
+        updater.setPrefContext(mContext);
+
+        updater.addMatchedDevices(updater.loadMatchedDevices());
+
+        verify(updater, times(1)).isFilterMatched(mCachedBluetoothDevice);
+        verify(mDevicePreferenceCallback).onDeviceAdded(any(Preference.class));
+    }
+
+    @Test
+    public void loadMatchedDevices_filterUsesCopiedCachedDevices() {
+        mShadowBluetoothAdapter.setEnabled(true);
+        mCachedDevices.add(mSubCachedBluetoothDevice);
+        final CachedListBluetoothDeviceUpdater updater = new CachedListBluetoothDeviceUpdater(
+                mContext, mDevicePreferenceCallback, mLocalManager, /* metricsCategory= */ 0);
+
+        final List<CachedBluetoothDevice> matchedDevices = updater.loadMatchedDevices();
+
+        assertThat(matchedDevices)
+                .containsExactly(mCachedBluetoothDevice, mSubCachedBluetoothDevice);
+        // Once for the copy passed to the filter and once for the devices to load.
+        verify(mCachedDeviceManager, times(2)).getCachedDevicesCopy();
+    }
+
     public static class TestBluetoothDeviceUpdater extends BluetoothDeviceUpdater {
         public TestBluetoothDeviceUpdater(Context context,
                 DevicePreferenceCallback devicePreferenceCallback,
@@ -279,4 +394,29 @@ public class BluetoothDeviceUpdaterTest {
             return "test_bt";
         }
     }
+
+    /** Matches the devices which are still in the cached device list. */
+    private static class CachedListBluetoothDeviceUpdater extends BluetoothDeviceUpdater {
+        CachedListBluetoothDeviceUpdater(Context context,
+                DevicePreferenceCallback devicePreferenceCallback,
+                LocalBluetoothManager localManager, int metricsCategory) {
+            super(context, devicePreferenceCallback, localManager, metricsCategory);
+        }
+
+        @Override
+        public boolean isFilterMatched(CachedBluetoothDevice cachedBluetoothDevice) {
+            return isFilterMatched(cachedBluetoothDevice, /* cachedDevices= */ null);
+        }
+
+        @Override
+        protected boolean isFilterMatched(CachedBluetoothDevice cachedBluetoothDevice,
+                @Nullable Set<CachedBluetoothDevice> cachedDevices) {
+            return isDeviceInCachedDevicesList(cachedBluetoothDevice, cachedDevices);
+        }
+
+        @Override
+        protected String getPreferenceKey() {
+            return "test_cached_bt";
+        }
+    }
 }
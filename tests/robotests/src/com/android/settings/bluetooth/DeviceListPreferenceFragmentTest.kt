@@ -25,7 +25,10 @@ import android.bluetooth.le.ScanFilter
 import android.content.Context
 import android.content.res.Resources
 import androidx.preference.Preference
+import androidx.preference.PreferenceCategory
+import androidx.preference.PreferenceManager
 import com.android.settings.R
+import com.android.settings.bluetooth.DeviceListPreferenceFragment.Companion.MAX_DEVICE_COUNT
 import com.android.settings.testutils.shadow.ShadowBluetoothAdapter
 import com.android.settingslib.bluetooth.BluetoothDeviceFilter
 import com.android.settingslib.bluetooth.CachedBluetoothDevice
@@ -243,6 +246,140 @@ class DeviceListPreferenceFragmentTest {
         verify(fragment, never()).onDeviceAdded(cachedDevice)
     }
 
+    @Test
+    fun flushPendingPreferences_queuedDevices_addedInOneBatch() {
+        val group = setUpDeviceListGroup()
+        val (device1, preference1) = newDevicePreference(named = true, rssi = -50)
+        val (device2, preference2) = newDevicePreference(named = true, rssi = -60)
+
+        fragment.enqueuePreference(device1, preference1)
+        fragment.enqueuePreference(device2, preference2)
+        fragment.enqueuePreference(device1, preference1)
+
+        assertThat(group.preferenceCount).isEqualTo(0)
+
+        fragment.flushPendingPreferences()
+
+        assertThat(group.preferenceCount).isEqualTo(2)
+        assertThat(preference1.parent).isEqualTo(group)
+        assertThat(preference2.parent).isEqualTo(group)
+    }
+
+    @Test
+    fun enqueuePreference_alreadyListed_notAddedAgain() {
+        val group = setUpDeviceListGroup()
+        val (device, preference) = newDevicePreference(named = true, rssi = -50)
+        fragment.enqueuePreference(device, preference)
+        fragment.flushPendingPreferences()
+
+        fragment.enqueuePreference(device, preference)
+        fragment.flushPendingPreferences()
+
+        assertThat(group.preferenceCount).isEqualTo(1)
+    }
+
+    @Test
+    fun onDeviceDeleted_queuedDevice_notAdded() {
+        val group = setUpDeviceListGroup()
+        val (device, preference) = newDevicePreference(named = true, rssi = -50)
+        fragment.enqueuePreference(device, preference)
+
+        fragment.onDeviceDeleted(device)
+        fragment.flushPendingPreferences()
+
+        assertThat(group.preferenceCount).isEqualTo(0)
+    }
+
+    @Test
+    fun flushPendingPreferences_listFull_evictsLowestRankedListedDevice() {
+        val group = setUpDeviceListGroup()
+        fillDeviceList(named = true, rssi = -60, count = MAX_DEVICE_COUNT - 1)
+        val (weakestDevice, weakestPreference) = newDevicePreference(named = false, rssi = -90)
+        fragment.enqueuePreference(weakestDevice, weakestPreference)
+        fragment.flushPendingPreferences()
+        val (newDevice, newPreference) = newDevicePreference(named = true, rssi = -40)
+
+        fragment.enqueuePreference(newDevice, newPreference)
+        fragment.flushPendingPreferences()
+
+        assertThat(group.preferenceCount).isEqualTo(MAX_DEVICE_COUNT)
+        assertThat(newPreference.parent).isEqualTo(group)
+        assertThat(weakestPreference.parent).isNull()
+        assertThat(fragment.devicePreferenceMap).doesNotContainKey(weakestDevice)
+    }
+
+    @Test
+    fun flushPendingPreferences_listFullOfHigherRanked_dropsNewDevice() {
+        val group = setUpDeviceListGroup()
+        fillDeviceList(named = true, rssi = -60)
+        val (newDevice, newPreference) = newDevicePreference(named = false, rssi = -40)
+
+        fragment.enqueuePreference(newDevice, newPreference)
+        fragment.flushPendingPreferences()
+
+        assertThat(group.preferenceCount).isEqualTo(MAX_DEVICE_COUNT)
+        assertThat(newPreference.parent).isNull()
+        assertThat(fragment.devicePreferenceMap).doesNotContainKey(newDevice)
+    }
+
+    @Test
+    fun flushPendingPreferences_batchOverCap_keepsHighestRanked() {
+        val group = setUpDeviceListGroup()
+        fillDeviceList(named = false, rssi = -70, count = MAX_DEVICE_COUNT - 1)
+        val (closeDevice, closePreference) = newDevicePreference(named = false, rssi = -30)
+        val (namedDevice, namedPreference) = newDevicePreference(named = true, rssi = -80)
+        val (farDevice, farPreference) = newDevicePreference(named = false, rssi = -95)
+
+        fragment.enqueuePreference(farDevice, farPreference)
+        fragment.enqueuePreference(closeDevice, closePreference)
+        fragment.enqueuePreference(namedDevice, namedPreference)
+        fragment.flushPendingPreferences()
+
+        assertThat(group.preferenceCount).isEqualTo(MAX_DEVICE_COUNT)
+        assertThat(namedPreference.parent).isEqualTo(group)
+        assertThat(closePreference.parent).isEqualTo(group)
+        assertThat(farPreference.parent).isNull()
+    }
+
+    private fun setUpDeviceListGroup(): PreferenceCategory {
+        val context = RuntimeEnvironment.application
+        val screen = PreferenceManager(context).createPreferenceScreen(context)
+        val group = PreferenceCategory(context)
+        screen.addPreference(group)
+        fragment.mDeviceListGroup = group
+        return group
+    }
+
+    private fun fillDeviceList(
+        named: Boolean,
+        rssi: Int,
+        count: Int = MAX_DEVICE_COUNT,
+    ) {
+        repeat(count) {
+            val (device, preference) = newDevicePreference(named, rssi)
+            fragment.enqueuePreference(device, preference)
+        }
+        fragment.flushPendingPreferences()
+    }
+
+    private fun newDevicePreference(
+        named: Boolean,
+        rssi: Int,
+    ): Pair<CachedBluetoothDevice, BluetoothDevicePreference> {
+        val device = mock(CachedBluetoothDevice::class.java)
+        whenever(device.hasHumanReadableName()).thenReturn(named)
+        whenever(device.rssi).thenReturn(rssi.toShort())
+        val preference = BluetoothDevicePreference(
+            RuntimeEnvironment.application,
+            device,
+            /* showDeviceWithoutNames= */ false,
+            BluetoothDevicePreference.SortType.TYPE_FIFO,
+            /* hideSummary= */ true,
+        )
+        fragment.devicePreferenceMap[device] = preference
+        return device to preference
+    }
+
     /**
      * Fragment to test since `DeviceListPreferenceFragment` is abstract
      */
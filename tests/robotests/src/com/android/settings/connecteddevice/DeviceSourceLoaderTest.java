@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.connecteddevice;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+@RunWith(RobolectricTestRunner.class)
+public class DeviceSourceLoaderTest {
+
+    private static final long WAIT_TIMEOUT_MS = 5000;
+
+    private DeviceSourceLoader mLoader;
+    private List<String> mApplied;
+
+    @Before
+    public void setUp() {
+        mLoader = new DeviceSourceLoader();
+        mApplied = new ArrayList<>();
+    }
+
+    @Test
+    public void awaitFirstRender_sourcesLoaded_appliesInSubmitOrder() {
+        mLoader.submit("first", () -> "first", mApplied::add);
+        mLoader.submit("second", () -> "second", mApplied::add);
+
+        mLoader.awaitFirstRender();
+
+        assertThat(mApplied).containsExactly("first", "second").inOrder();
+        assertThat(mLoader.getLoadTimesMillis().keySet()).containsExactly("first", "second");
+    }
+
+    @Test
+    public void awaitFirstRender_sourceMissesDeadline_appliesOnceLoaded() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        mLoader.submit("fast", () -> "fast", mApplied::add);
+        mLoader.submit("slow", () -> {
+            latch.await();
+            return "slow";
+        }, mApplied::add);
+
+        mLoader.awaitFirstRender();
+        assertThat(mApplied).containsExactly("fast");
+
+        latch.countDown();
+        idleMainLooperUntilApplied(2);
+
+        assertThat(mApplied).containsExactly("fast", "slow").inOrder();
+    }
+
+    @Test
+    public void awaitFirstRender_sourceFails_appliesOthers() {
+        mLoader.submit("failing", () -> {
+            throw new IllegalStateException();
+        }, mApplied::add);
+        mLoader.submit("working", () -> "working", mApplied::add);
+
+        mLoader.awaitFirstRender();
+
+        assertThat(mApplied).containsExactly("working");
+    }
+
+    @Test
+    public void cancel_sourceLoadedAfterDeadline_notApplied() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        mLoader.submit("slow", () -> {
+            latch.await();
+            return "slow";
+        }, mApplied::add);
+        mLoader.awaitFirstRender();
+
+        mLoader.cancel();
+        latch.countDown();
+        ShadowLooper.idleMainLooper();
+
+        assertThat(mApplied).isEmpty();
+    }
+
+    private void idleMainLooperUntilApplied(int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+        while (mApplied.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            ShadowLooper.idleMainLooper();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -37,6 +38,7 @@ import android.os.UserHandle;
 import com.android.settings.R;
 import com.android.settings.connecteddevice.DevicePreferenceCallback;
 import com.android.settings.dashboard.DashboardFragment;
+import com.android.settingslib.RestrictedLockUtils.EnforcedAdmin;
 import com.android.settingslib.testutils.DrawableTestHelper;
 
 import org.junit.Before;
@@ -112,4 +114,46 @@ public class ConnectedUsbDeviceUpdaterTest {
 
         verify(mDevicePreferenceCallback).onDeviceRemoved(mDeviceUpdater.mUsbPreference);
     }
+
+    @Test
+    public void initUsbPreferenceAwaitingAdmin_usbConnected_preferenceNotAdded() {
+        mDeviceUpdater.initUsbPreferenceAwaitingAdmin(mContext);
+        mDeviceUpdater.mUsbConnectionListener.onUsbConnectionChanged(true /* connected */,
+                UsbManager.FUNCTION_NONE, POWER_ROLE_SINK, DATA_ROLE_DEVICE,
+                /* isUsbConfigured= */ true);
+
+        verify(mDevicePreferenceCallback, never()).onDeviceAdded(mDeviceUpdater.mUsbPreference);
+    }
+
+    @Test
+    public void setUsbDataSignalingAdmin_usbConnected_preferenceAddedDisabledByAdmin() {
+        mDeviceUpdater.initUsbPreferenceAwaitingAdmin(mContext);
+        mDeviceUpdater.mUsbConnectionListener.onUsbConnectionChanged(true /* connected */,
+                UsbManager.FUNCTION_NONE, POWER_ROLE_SINK, DATA_ROLE_DEVICE,
+                /* isUsbConfigured= */ true);
+
+        mDeviceUpdater.setUsbDataSignalingAdmin(EnforcedAdmin.MULTIPLE_ENFORCED_ADMIN);
+
+        assertThat(mDeviceUpdater.mUsbPreference.isDisabledByAdmin()).isTrue();
+        verify(mDevicePreferenceCallback).onDeviceAdded(mDeviceUpdater.mUsbPreference);
+    }
+
+    @Test
+    public void setUsbDataSignalingAdmin_usbDisconnected_preferenceNotAdded() {
+        mDeviceUpdater.initUsbPreferenceAwaitingAdmin(mContext);
+        mDeviceUpdater.mUsbConnectionListener.onUsbConnectionChanged(false /* connected */,
+                UsbManager.FUNCTION_NONE, POWER_ROLE_NONE, DATA_ROLE_NONE,
+                /* isUsbConfigured= */ true);
+
+        mDeviceUpdater.setUsbDataSignalingAdmin(/* usbDataSignalingAdmin= */ null);
+
+        verify(mDevicePreferenceCallback, never()).onDeviceAdded(mDeviceUpdater.mUsbPreference);
+    }
+
+    @Test
+    public void setUsbDataSignalingAdmin_beforeInit_doNothing() {
+        mDeviceUpdater.setUsbDataSignalingAdmin(EnforcedAdmin.MULTIPLE_ENFORCED_ADMIN);
+
+        assertThat(mDeviceUpdater.mUsbPreference).isNull();
+    }
 }
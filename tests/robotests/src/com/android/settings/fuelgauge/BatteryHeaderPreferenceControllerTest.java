@@ -18,6 +18,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -339,6 +340,107 @@ public class BatteryHeaderPreferenceControllerTest {
                 mContext.getString(R.string.settings_license_activity_loading));
     }
 
+    @Test
+    public void updateHeaderByLiveStats_showLatestSample() {
+        final BatteryLiveStatsSampler.SampleBuffer buffer =
+                new BatteryLiveStatsSampler.SampleBuffer(/*capacity=*/ 2);
+        buffer.add(/*timestamp=*/ 1L, /*currentUa=*/ -100_000, /*voltageMv=*/ 3900, /*level=*/ 70);
+        buffer.add(/*timestamp=*/ 2L, /*currentUa=*/ -350_000, /*voltageMv=*/ 3850, BATTERY_LEVEL);
+
+        mController.updateHeaderByLiveStats(buffer);
+
+        verify(mBatteryUsageProgressBarPref).setUsageSummary(formatBatteryPercentageText());
+        verify(mBatteryUsageProgressBarPref).setPercent(BATTERY_LEVEL, BATTERY_MAX_LEVEL);
+        verify(mBatteryUsageProgressBarPref).setTotalSummary(
+                mContext.getString(R.string.battery_live_stats_summary, -350, 3850));
+    }
+
+    @Test
+    public void quickUpdateHeaderPreference_showChargeCounter() {
+        mBatteryIntent.putExtra(BatteryManager.EXTRA_CHARGE_COUNTER, 3_000_000);
+
+        mController.quickUpdateHeaderPreference();
+
+        verify(mBatteryUsageProgressBarPref).setTotalSummary(
+                mContext.getString(R.string.battery_charge_counter_summary, 3_000));
+    }
+
+    @Test
+    public void quickUpdateHeaderPreference_showingLiveStats_keepLiveStats() {
+        mBatteryIntent.putExtra(BatteryManager.EXTRA_CHARGE_COUNTER, 3_000_000);
+        mController.updateHeaderByLiveStats(createLiveStatsBuffer(/*currentUa=*/ -350_000));
+
+        mController.quickUpdateHeaderPreference();
+
+        verify(mBatteryUsageProgressBarPref, never()).setTotalSummary(
+                mContext.getString(R.string.battery_charge_counter_summary, 3_000));
+    }
+
+    @Test
+    public void quickUpdateHeaderPreference_currentNotSupported_showChargeCounter() {
+        mBatteryIntent.putExtra(BatteryManager.EXTRA_CHARGE_COUNTER, 3_000_000);
+        mController.updateHeaderByLiveStats(createLiveStatsBuffer(Integer.MIN_VALUE));
+
+        mController.quickUpdateHeaderPreference();
+
+        verify(mBatteryUsageProgressBarPref).setTotalSummary(
+                mContext.getString(R.string.battery_charge_counter_summary, 3_000));
+    }
+
+    @Test
+    public void quickUpdateHeaderPreference_afterStop_showChargeCounter() {
+        mBatteryIntent.putExtra(BatteryManager.EXTRA_CHARGE_COUNTER, 3_000_000);
+        mController.updateHeaderByLiveStats(createLiveStatsBuffer(/*currentUa=*/ -350_000));
+        mController.onStop();
+
+        mController.quickUpdateHeaderPreference();
+
+        verify(mBatteryUsageProgressBarPref).setTotalSummary(
+                mContext.getString(R.string.battery_charge_counter_summary, 3_000));
+    }
+
+    @Test
+    public void onStop_showingLiveStats_restoreChargeCounter() {
+        mBatteryIntent.putExtra(BatteryManager.EXTRA_CHARGE_COUNTER, 3_000_000);
+        mController.updateHeaderByLiveStats(createLiveStatsBuffer(/*currentUa=*/ -350_000));
+
+        mController.onStop();
+
+        verify(mBatteryUsageProgressBarPref).setTotalSummary(
+                mContext.getString(R.string.battery_charge_counter_summary, 3_000));
+    }
+
+    @Test
+    public void onStop_showingLiveStatsWithoutChargeCounter_clearTotalSummary() {
+        mController.updateHeaderByLiveStats(createLiveStatsBuffer(/*currentUa=*/ -350_000));
+
+        mController.onStop();
+
+        verify(mBatteryUsageProgressBarPref).setTotalSummary(null);
+    }
+
+    @Test
+    public void onStop_notShowingLiveStats_keepTotalSummary() {
+        mController.onStop();
+
+        verify(mBatteryUsageProgressBarPref, never()).setTotalSummary(any());
+    }
+
+    @Test
+    public void updateHeaderByLiveStats_emptyBuffer_doNothing() {
+        mController.updateHeaderByLiveStats(
+                new BatteryLiveStatsSampler.SampleBuffer(/*capacity=*/ 2));
+
+        verifyNoInteractions(mBatteryUsageProgressBarPref);
+    }
+
+    private static BatteryLiveStatsSampler.SampleBuffer createLiveStatsBuffer(int currentUa) {
+        final BatteryLiveStatsSampler.SampleBuffer buffer =
+                new BatteryLiveStatsSampler.SampleBuffer(/*capacity=*/ 1);
+        buffer.add(/*timestamp=*/ 1L, currentUa, /*voltageMv=*/ 3850, BATTERY_LEVEL);
+        return buffer;
+    }
+
     private CharSequence formatBatteryPercentageText() {
         return TextUtils.expandTemplate(mContext.getText(R.string.battery_header_title_alternate),
                 NumberFormat.getIntegerInstance().format(BATTERY_LEVEL));
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.android.settings.fuelgauge;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.os.BatteryStats.HistoryItem;
+import android.os.BatteryUsageStats;
+
+import com.android.internal.os.BatteryStatsHistoryIterator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class BatteryHistoryDecoderTest {
+
+    @Mock
+    private BatteryUsageStats mBatteryUsageStats;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        BatteryHistoryDecoder.clearCache();
+    }
+
+    @After
+    public void tearDown() {
+        BatteryHistoryDecoder.clearCache();
+    }
+
+    @Test
+    public void dispatch_multipleParsers_iteratesHistoryOnce() {
+        mockHistory(update(1000, 99), update(1500, 98), update(2000, 97));
+        final RecordingParser first = new RecordingParser();
+        final RecordingParser second = new RecordingParser();
+
+        BatteryHistoryDecoder.decode(mBatteryUsageStats).dispatch(first, second);
+
+        verify(mBatteryUsageStats, times(1)).iterateBatteryStatsHistory();
+        assertThat(first.mEvents).containsExactly("start 0-2000", "point 1000:99",
+                "point 1500:98", "point 2000:97", "done").inOrder();
+        assertThat(second.mEvents).isEqualTo(first.mEvents);
+    }
+
+    @Test
+    public void dispatch_resetAndTrailingRecords_matchesHistory() {
+        final HistoryItem reset = record(HistoryItem.CMD_RESET, 1200);
+        reset.currentTime = 5000;
+        mockHistory(update(1000, 99), reset, update(1500, 98),
+                record(HistoryItem.CMD_START, 1600));
+        final RecordingParser parser = new RecordingParser();
+
+        BatteryHistoryDecoder.decode(mBatteryUsageStats).dispatch(parser);
+
+        assertThat(parser.mEvents).containsExactly("start 4800-5300", "point 0:99", "gap",
+                "point 500:98", "done").inOrder();
+    }
+
+    @Test
+    public void decode_sameTimeRange_reusesDecodedHistory() {
+        when(mBatteryUsageStats.getStatsStartTimestamp()).thenReturn(100L);
+        when(mBatteryUsageStats.getStatsEndTimestamp()).thenReturn(2000L);
+        mockHistory(update(1000, 99), update(2000, 97));
+
+        final BatteryHistoryDecoder decoder = BatteryHistoryDecoder.decode(mBatteryUsageStats);
+
+        assertThat(BatteryHistoryDecoder.decode(mBatteryUsageStats)).isSameInstanceAs(decoder);
+        verify(mBatteryUsageStats, times(1)).iterateBatteryStatsHistory();
+    }
+
+    @Test
+    public void decode_newTimeRange_decodesAgain() {
+        when(mBatteryUsageStats.getStatsEndTimestamp()).thenReturn(2000L);
+        mockHistory(update(1000, 99), update(2000, 97));
+        BatteryHistoryDecoder.decode(mBatteryUsageStats);
+
+        when(mBatteryUsageStats.getStatsEndTimestamp()).thenReturn(3000L);
+        BatteryHistoryDecoder.decode(mBatteryUsageStats);
+
+        verify(mBatteryUsageStats, times(2)).iterateBatteryStatsHistory();
+    }
+
+    private void mockHistory(HistoryItem... records) {
+        doAnswer(invocation -> {
+            final BatteryStatsHistoryIterator iterator = mock(BatteryStatsHistoryIterator.class);
+            // The iterator ends with null.
+            final HistoryItem[] rest = new HistoryItem[records.length];
+            System.arraycopy(records, 1, rest, 0, records.length - 1);
+            when(iterator.next()).thenReturn(records[0], rest);
+            return iterator;
+        }).when(mBatteryUsageStats).iterateBatteryStatsHistory();
+    }
+
+    private static HistoryItem update(long time, int batteryLevel) {
+        final HistoryItem record = record(HistoryItem.CMD_UPDATE, time);
+        record.batteryLevel = (byte) batteryLevel;
+        return record;
+    }
+
+    private static HistoryItem record(byte cmd, long time) {
+        final HistoryItem record = new HistoryItem();
+        record.cmd = cmd;
+        record.time = time;
+        return record;
+    }
+
+    private static class RecordingParser implements BatteryInfo.BatteryDataParser {
+        final List<String> mEvents = new ArrayList<>();
+
+        @Override
+        public void onParsingStarted(long startTime, long endTime) {
+            mEvents.add("start " + startTime + "-" + endTime);
+        }
+
+        @Override
+        public void onDataPoint(long time, HistoryItem record) {
+            mEvents.add("point " + time + ":" + record.batteryLevel);
+        }
+
+        @Override
+        public void onDataGap() {
+            mEvents.add("gap");
+        }
+
+        @Override
+        public void onParsingDone() {
+            mEvents.add("done");
+        }
+    }
+}
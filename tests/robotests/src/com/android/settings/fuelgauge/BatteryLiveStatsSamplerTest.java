@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.junit.Assert.assertThrows;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.BatteryManager;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Tests for {@link BatteryLiveStatsSampler}. */
+@RunWith(RobolectricTestRunner.class)
+public final class BatteryLiveStatsSamplerTest {
+    private static final int CAPACITY = 3;
+
+    private Context mContext;
+    private List<Integer> mSampledSizes;
+    private BatteryLiveStatsSampler mSampler;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mSampledSizes = new ArrayList<>();
+        mSampler = new BatteryLiveStatsSampler(mContext, /*intervalMs=*/ 1000L, CAPACITY,
+                buffer -> mSampledSizes.add(buffer.size()));
+    }
+
+    @Test
+    public void sampleBuffer_notFull_returnsSamplesInOrder() {
+        final BatteryLiveStatsSampler.SampleBuffer buffer =
+                new BatteryLiveStatsSampler.SampleBuffer(CAPACITY);
+
+        buffer.add(/*timestamp=*/ 1L, /*currentUa=*/ -100, /*voltageMv=*/ 3800, /*level=*/ 50);
+        buffer.add(/*timestamp=*/ 2L, /*currentUa=*/ -200, /*voltageMv=*/ 3790, /*level=*/ 49);
+
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.capacity()).isEqualTo(CAPACITY);
+        assertThat(buffer.getTimestamp(0)).isEqualTo(1L);
+        assertThat(buffer.getCurrentUa(1)).isEqualTo(-200);
+        assertThat(buffer.getVoltageMv(1)).isEqualTo(3790);
+        assertThat(buffer.getLevel(1)).isEqualTo(49);
+    }
+
+    @Test
+    public void sampleBuffer_full_overwritesOldestSample() {
+        final BatteryLiveStatsSampler.SampleBuffer buffer =
+                new BatteryLiveStatsSampler.SampleBuffer(CAPACITY);
+
+        for (int i = 1; i <= CAPACITY + 2; i++) {
+            buffer.add(/*timestamp=*/ i, /*currentUa=*/ -i, /*voltageMv=*/ 0, /*level=*/ 0);
+        }
+
+        assertThat(buffer.size()).isEqualTo(CAPACITY);
+        assertThat(buffer.getTimestamp(0)).isEqualTo(3L);
+        assertThat(buffer.getTimestamp(CAPACITY - 1)).isEqualTo(5L);
+        assertThat(buffer.getCurrentUa(0)).isEqualTo(-3);
+        assertThat(buffer.getCurrentUa(CAPACITY - 1)).isEqualTo(-5);
+    }
+
+    @Test
+    public void sampleBuffer_invalidIndex_throwsException() {
+        final BatteryLiveStatsSampler.SampleBuffer buffer =
+                new BatteryLiveStatsSampler.SampleBuffer(CAPACITY);
+        buffer.add(/*timestamp=*/ 1L, /*currentUa=*/ 0, /*voltageMv=*/ 0, /*level=*/ 0);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getLevel(1));
+    }
+
+    @Test
+    public void sample_addsLatestBatteryStatesAndNotifies() {
+        shadowOf(mContext.getSystemService(BatteryManager.class))
+                .setIntProperty(BatteryManager.BATTERY_PROPERTY_CURRENT_NOW, -250_000);
+        mSampler.updateBatteryIntent(new Intent(Intent.ACTION_BATTERY_CHANGED)
+                .putExtra(BatteryManager.EXTRA_LEVEL, 42)
+                .putExtra(BatteryManager.EXTRA_SCALE, 100)
+                .putExtra(BatteryManager.EXTRA_VOLTAGE, 3850));
+        mSampler.start();
+
+        mSampler.sample(/*elapsedRealtime=*/ 10L);
+        mSampler.sample(/*elapsedRealtime=*/ 20L);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        // The sampler thread may also take a sample, so look up the sample by its timestamp.
+        final BatteryLiveStatsSampler.SampleBuffer buffer = mSampler.getBuffer();
+        int index = buffer.size() - 1;
+        while (index > 0 && buffer.getTimestamp(index) != 20L) {
+            index--;
+        }
+        assertThat(buffer.getTimestamp(index)).isEqualTo(20L);
+        assertThat(buffer.getCurrentUa(index)).isEqualTo(-250_000);
+        assertThat(buffer.getVoltageMv(index)).isEqualTo(3850);
+        assertThat(buffer.getLevel(index)).isEqualTo(42);
+        assertThat(mSampledSizes).isNotEmpty();
+        mSampler.stop();
+    }
+
+    @Test
+    public void stop_doesNotNotifyPendingSamples() {
+        mSampler.start();
+        mSampler.sample(/*elapsedRealtime=*/ 10L);
+
+        mSampler.stop();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertThat(mSampledSizes).isEmpty();
+    }
+}
@@ -140,4 +140,9 @@ public class PowerUsageFeatureProviderImplTest {
     public void testGetResumeChargeIntentWithDockDefender_returnNull() {
         assertThat(mPowerFeatureProvider.getResumeChargeIntent(true)).isNull();
     }
+
+    @Test
+    public void testGetLiveBatteryStatsSampleIntervalMs_return0() {
+        assertThat(mPowerFeatureProvider.getLiveBatteryStatsSampleIntervalMs()).isEqualTo(0L);
+    }
 }
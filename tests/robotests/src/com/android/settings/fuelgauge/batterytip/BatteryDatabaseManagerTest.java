@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batterytip;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+
+import com.android.settings.testutils.DatabaseTestUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class BatteryDatabaseManagerTest {
+    private static final int ANOMALY_TYPE = 1;
+    private static final long TIMESTAMP = 1000L;
+
+    private Context mContext;
+    private BatteryDatabaseManager mDatabaseManager;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mDatabaseManager = BatteryDatabaseManager.getInstance(mContext);
+    }
+
+    @After
+    public void cleanUp() {
+        DatabaseTestUtils.clearDb(mContext);
+    }
+
+    @Test
+    public void updateAnomalies_moreAppsThanOneStatement_updatesAll() {
+        final int appCount = BatteryDatabaseManager.MAX_ARGS_PER_STATEMENT * 2 + 1;
+        final List<AppInfo> appInfos = new ArrayList<>();
+        for (int uid = 0; uid < appCount; uid++) {
+            final String packageName = "com.android.package" + uid;
+            mDatabaseManager.insertAnomaly(uid, packageName, ANOMALY_TYPE,
+                    AnomalyDatabaseHelper.State.NEW, TIMESTAMP);
+            appInfos.add(new AppInfo.Builder().setUid(uid).setPackageName(packageName).build());
+        }
+
+        mDatabaseManager.updateAnomalies(appInfos, AnomalyDatabaseHelper.State.HANDLED);
+
+        assertThat(mDatabaseManager.queryAllAnomalies(0, AnomalyDatabaseHelper.State.NEW))
+                .isEmpty();
+        assertThat(mDatabaseManager.queryAllAnomalies(0, AnomalyDatabaseHelper.State.HANDLED))
+                .hasSize(appCount);
+    }
+
+    @Test
+    public void compact_keepsRemainingAnomalies() {
+        for (int uid = 0; uid < 100; uid++) {
+            mDatabaseManager.insertAnomaly(uid, "com.android.package" + uid, ANOMALY_TYPE,
+                    AnomalyDatabaseHelper.State.NEW, TIMESTAMP + uid);
+        }
+        mDatabaseManager.deleteAllAnomaliesBeforeTimeStamp(TIMESTAMP + 90);
+
+        mDatabaseManager.compact();
+
+        assertThat(mDatabaseManager.queryAllAnomalies(0, AnomalyDatabaseHelper.State.NEW))
+                .hasSize(10);
+    }
+
+    @Test
+    public void getReadableDatabase_hasAnomalyIndexes() {
+        final long indexCount = DatabaseUtils.longForQuery(
+                AnomalyDatabaseHelper.getInstance(mContext).getReadableDatabase(),
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name IN "
+                        + "('anomaly_state_time_index', 'anomaly_package_index')", null);
+
+        assertThat(indexCount).isEqualTo(2);
+    }
+}
@@ -20,6 +20,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 
 import android.content.Context;
@@ -29,6 +30,7 @@ import android.os.PowerManager;
 
 import com.android.settings.fuelgauge.BatteryInfo;
 import com.android.settings.fuelgauge.BatteryUtils;
+import com.android.settings.fuelgauge.batterytip.detectors.BatteryTipDetector;
 import com.android.settings.fuelgauge.batterytip.tips.AppLabelPredicate;
 import com.android.settings.fuelgauge.batterytip.tips.AppRestrictionPredicate;
 import com.android.settings.fuelgauge.batterytip.tips.BatteryTip;
@@ -44,6 +46,7 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.util.ReflectionHelpers;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RunWith(RobolectricTestRunner.class)
@@ -96,4 +99,29 @@ public class BatteryTipLoaderTest {
             assertThat(batteryTips.get(i).getType()).isEqualTo(TIP_ORDER[i]);
         }
     }
+
+    @Test
+    public void detect_multipleDetectors_returnsTipsInDetectorOrder() {
+        final List<BatteryTipDetector> detectors = new ArrayList<>();
+        final List<BatteryTip> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final BatteryTip tip = mock(BatteryTip.class);
+            expected.add(tip);
+            detectors.add(() -> tip);
+        }
+
+        assertThat(BatteryTipLoader.detect(detectors)).containsExactlyElementsIn(expected)
+                .inOrder();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void detect_detectorThrows_rethrows() {
+        final List<BatteryTipDetector> detectors = new ArrayList<>();
+        detectors.add(() -> {
+            throw new IllegalStateException();
+        });
+        detectors.add(() -> mock(BatteryTip.class));
+
+        BatteryTipLoader.detect(detectors);
+    }
 }
@@ -23,6 +23,8 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
@@ -161,4 +163,21 @@ public class HighUsageDetectorTest {
         assertThat(appInfos).containsExactly(mLowAppInfo, mHighAppInfo);
         assertThat(appInfos.get(0)).isEqualTo(mHighAppInfo);
     }
+
+    @Test
+    public void testDetect_sameBatteryUsageStats_walksConsumersOnce() {
+        doReturn(true).when(mDataParser).isDeviceHeavilyUsed();
+        mHighUsageDetector.detect();
+
+        final HighUsageDetector detector = spy(new HighUsageDetector(mContext, mPolicy,
+                mBatteryUsageStats, mBatteryUtils.getBatteryInfo(TAG)));
+        detector.mBatteryUtils = mBatteryUtils;
+        detector.mDataParser = mDataParser;
+        doNothing().when(detector).parseBatteryData();
+        final HighUsageTip highUsageTip = (HighUsageTip) detector.detect();
+
+        verify(mBatteryUsageStats, times(1)).getUidBatteryConsumers();
+        assertThat(highUsageTip.getHighUsageAppList()).containsExactly(mHighAppInfo, mLowAppInfo)
+                .inOrder();
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batteryusage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public final class AppLabelCacheTest {
+    private static final String PACKAGE_NAME = "com.android.settings.test";
+    private static final String LABEL = "Test App";
+
+    private Context mContext;
+    private ApplicationInfo mAppInfo;
+
+    @Mock
+    private PackageManager mPackageManager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mContext = spy(RuntimeEnvironment.application);
+        doReturn(mContext).when(mContext).getApplicationContext();
+        doReturn(mPackageManager).when(mContext).getPackageManager();
+        mAppInfo = new ApplicationInfo();
+        mAppInfo.packageName = PACKAGE_NAME;
+        mAppInfo.longVersionCode = 1L;
+        doReturn(LABEL).when(mPackageManager).getApplicationLabel(mAppInfo);
+        AppLabelCache.clear(mContext);
+    }
+
+    @Test
+    public void getLabel_loadTwice_loadFromPackageOnce() {
+        assertThat(AppLabelCache.getLabel(mContext, mAppInfo)).isEqualTo(LABEL);
+        assertThat(AppLabelCache.getLabel(mContext, mAppInfo)).isEqualTo(LABEL);
+
+        verify(mPackageManager, times(1)).getApplicationLabel(mAppInfo);
+    }
+
+    @Test
+    public void getLabel_packageUpdated_loadFromPackageAgain() {
+        AppLabelCache.getLabel(mContext, mAppInfo);
+
+        mAppInfo.longVersionCode = 2L;
+        doReturn("Updated App").when(mPackageManager).getApplicationLabel(mAppInfo);
+
+        assertThat(AppLabelCache.getLabel(mContext, mAppInfo)).isEqualTo("Updated App");
+        verify(mPackageManager, times(2)).getApplicationLabel(mAppInfo);
+    }
+
+    @Test
+    public void removePackage_loadFromPackageAgain() {
+        AppLabelCache.getLabel(mContext, mAppInfo);
+
+        AppLabelCache.removePackage(mContext, PACKAGE_NAME);
+
+        assertThat(AppLabelCache.getLabel(mContext, mAppInfo)).isEqualTo(LABEL);
+        verify(mPackageManager, times(2)).getApplicationLabel(mAppInfo);
+    }
+}
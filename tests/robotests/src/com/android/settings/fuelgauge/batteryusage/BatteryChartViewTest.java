@@ -20,8 +20,11 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.spy;
 
 import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
 import android.os.LocaleList;
 import android.view.View;
+import android.widget.TextView;
 
 import com.android.settings.fuelgauge.PowerUsageFeatureProvider;
 import com.android.settings.testutils.FakeFeatureFactory;
@@ -39,6 +42,8 @@ import java.util.Locale;
 
 @RunWith(RobolectricTestRunner.class)
 public final class BatteryChartViewTest {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 500;
 
     private Context mContext;
     private BatteryChartView mBatteryChartView;
@@ -90,4 +95,78 @@ public final class BatteryChartViewTest {
         mBatteryChartView.onClick(mMockView);
         assertThat(selectedIndex[0]).isEqualTo(BatteryChartViewModel.SELECTED_INDEX_ALL);
     }
+
+    @Test
+    public void draw_selectionChanged_keepsGeometry() {
+        final BatteryChartView chartView = createChartView();
+        final BatteryChartViewModel viewModel = createViewModel();
+        chartView.setViewModel(viewModel);
+        layoutAndDraw(chartView);
+        final float slotLeft = chartView.mTrapezoidSlots[1].mLeft;
+
+        viewModel.setSelectedIndex(1);
+        chartView.setViewModel(viewModel);
+
+        assertThat(chartView.mGeometryValid).isTrue();
+        assertThat(chartView.mTrapezoidSlots[1].mLeft).isEqualTo(slotLeft);
+        assertThat(chartView.mTrapezoidPaths[1].isEmpty()).isFalse();
+    }
+
+    @Test
+    public void draw_newViewModel_recomputesGeometry() {
+        final BatteryChartView chartView = createChartView();
+        chartView.setViewModel(createViewModel());
+        layoutAndDraw(chartView);
+
+        chartView.setViewModel(createViewModel());
+        assertThat(chartView.mGeometryValid).isFalse();
+
+        layoutAndDraw(chartView);
+        assertThat(chartView.mGeometryValid).isTrue();
+    }
+
+    @Test
+    public void draw_sizeChanged_recomputesGeometry() {
+        final BatteryChartView chartView = createChartView();
+        chartView.setViewModel(createViewModel());
+        layoutAndDraw(chartView);
+        final float slotRight = chartView.mTrapezoidSlots[2].mRight;
+
+        chartView.layout(0, 0, WIDTH / 2, HEIGHT);
+        assertThat(chartView.mGeometryValid).isFalse();
+
+        chartView.draw(new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888)));
+        assertThat(chartView.mTrapezoidSlots[2].mRight).isLessThan(slotRight);
+    }
+
+    private BatteryChartView createChartView() {
+        final BatteryChartView chartView = new BatteryChartView(mContext, /* attrs= */ null);
+        chartView.setCompanionTextView(new TextView(mContext));
+        return chartView;
+    }
+
+    private static void layoutAndDraw(BatteryChartView chartView) {
+        chartView.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        chartView.layout(0, 0, WIDTH, HEIGHT);
+        chartView.draw(new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888)));
+    }
+
+    private static BatteryChartViewModel createViewModel() {
+        return new BatteryChartViewModel(
+                List.of(90, 80, 70, 60), List.of(0L, 0L, 0L, 0L),
+                BatteryChartViewModel.AxisLabelPosition.BETWEEN_TRAPEZOIDS,
+                new BatteryChartViewModel.LabelTextGenerator() {
+                    @Override
+                    public String generateText(List<Long> timestamps, int index) {
+                        return String.valueOf(index);
+                    }
+
+                    @Override
+                    public String generateFullText(List<Long> timestamps, int index) {
+                        return String.valueOf(index);
+                    }
+                });
+    }
 }
@@ -193,7 +193,7 @@ public class BatteryDiffDataTest {
         values.put(BatteryHistEntry.KEY_USER_ID, userId);
         values.put(BatteryHistEntry.KEY_CONSUMER_TYPE, consumerType);
         values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION,
-                ConvertUtils.convertBatteryInformationToString(batteryInformation));
+                ConvertUtils.encodeLegacyProtoString(batteryInformation.toByteArray()));
         return new BatteryHistEntry(values);
     }
 }
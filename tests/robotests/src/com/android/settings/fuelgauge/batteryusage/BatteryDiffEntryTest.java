@@ -192,7 +192,7 @@ public final class BatteryDiffEntryTest {
                         .setDrainType(BatteryConsumer.POWER_COMPONENT_AMBIENT_DISPLAY)
                         .build();
         values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION,
-                ConvertUtils.convertBatteryInformationToString(batteryInformation));
+                ConvertUtils.encodeLegacyProtoString(batteryInformation.toByteArray()));
         final BatteryHistEntry batteryHistEntry = new BatteryHistEntry(values);
 
         final BatteryDiffEntry entry = createBatteryDiffEntry(10, batteryHistEntry);
@@ -292,7 +292,7 @@ public final class BatteryDiffEntryTest {
                         .setAppLabel(expectedAppLabel)
                         .build();
         values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION,
-                ConvertUtils.convertBatteryInformationToString(batteryInformation));
+                ConvertUtils.encodeLegacyProtoString(batteryInformation.toByteArray()));
         final BatteryHistEntry batteryHistEntry = new BatteryHistEntry(values);
 
         final BatteryDiffEntry entry = createBatteryDiffEntry(10, batteryHistEntry);
@@ -360,6 +360,21 @@ public final class BatteryDiffEntryTest {
         assertThat(BatteryDiffEntry.sValidForRestriction).isEmpty();
     }
 
+    @Test
+    public void testResourceCache_exceedMaxSize_evictLeastRecentlyUsed() {
+        for (int index = 0; index <= BatteryDiffEntry.MAX_RESOURCE_CACHE_SIZE; index++) {
+            BatteryDiffEntry.sResourceCache.put(
+                    "key" + index, new BatteryEntry.NameAndIcon("label", null, /*iconId=*/ 0));
+            // Keeps the first entry recently used.
+            BatteryDiffEntry.sResourceCache.get("key0");
+        }
+
+        assertThat(BatteryDiffEntry.sResourceCache)
+                .hasSize(BatteryDiffEntry.MAX_RESOURCE_CACHE_SIZE);
+        assertThat(BatteryDiffEntry.sResourceCache).containsKey("key0");
+        assertThat(BatteryDiffEntry.sResourceCache).doesNotContainKey("key1");
+    }
+
     @Test
     public void testClearCache_switchLocale_clearCacheIconAndLabel() throws Exception {
         final int userId = UserHandle.getUserId(1001);
@@ -143,7 +143,7 @@ public final class BatteryHistEntryTest {
                         .setDrainType(1)
                         .build();
         values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION,
-                ConvertUtils.convertBatteryInformationToString(batteryInformation));
+                ConvertUtils.encodeLegacyProtoString(batteryInformation.toByteArray()));
         final BatteryHistEntry batteryHistEntry = new BatteryHistEntry(values);
 
         assertThat(batteryHistEntry.getKey()).isEqualTo("S|1");
@@ -400,7 +400,7 @@ public final class BatteryHistEntryTest {
                 "com.google.android.settings.battery",
                 Long.valueOf(timestamp),
                 Integer.valueOf(ConvertUtils.CONSUMER_TYPE_SYSTEM_BATTERY),
-                ConvertUtils.convertBatteryInformationToString(batteryInformation)});
+                ConvertUtils.encodeLegacyProtoString(batteryInformation.toByteArray())});
         cursor.moveToFirst();
         return new BatteryHistEntry(cursor);
     }
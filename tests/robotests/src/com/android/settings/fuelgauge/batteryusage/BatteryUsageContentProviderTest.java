@@ -58,6 +58,7 @@ public final class BatteryUsageContentProviderTest {
     private static final String PACKAGE_NAME3 = "com.android.settings3";
     private static final long USER_ID1 = 1;
     private static final long USER_ID2 = 2;
+    private static final byte[] BATTERY_USAGE_SLOT_BYTES = new byte[] {1, 2, 3};
 
     private Context mContext;
     private BatteryUsageContentProvider mProvider;
@@ -167,6 +168,24 @@ public final class BatteryUsageContentProviderTest {
         cursor.close();
     }
 
+    @Test
+    public void query_batteryState_returnsBatteryInformationAsLegacyString() throws Exception {
+        final Duration currentTime = Duration.ofHours(52);
+        final Cursor cursor = insertBatteryState(currentTime, /*queryTimestamp=*/ "0");
+        // getAllAfter() lists the states in descending timestamp order.
+        final List<BatteryState> states =
+                BatteryStateDatabase.getInstance(mContext).batteryStateDao().getAllAfter(0);
+        final byte[] expectedBatteryInformation = states.get(states.size() - 1).batteryInformation;
+
+        cursor.moveToFirst();
+        final int batteryInformationIndex =
+                cursor.getColumnIndex(BatteryHistEntry.KEY_BATTERY_INFORMATION);
+        assertThat(cursor.getType(batteryInformationIndex)).isEqualTo(Cursor.FIELD_TYPE_STRING);
+        assertThat(ConvertUtils.decodeLegacyProtoString(cursor.getString(batteryInformationIndex)))
+                .isEqualTo(expectedBatteryInformation);
+        cursor.close();
+    }
+
     @Test
     public void query_batteryStateTimestamp_returnsExpectedResult() throws Exception {
         mProvider.onCreate();
@@ -287,8 +306,7 @@ public final class BatteryUsageContentProviderTest {
                         .setBackgroundUsageTimeInMs(2000)
                         .setDrainType(1)
                         .build();
-        final String expectedBatteryInformationString =
-                ConvertUtils.convertBatteryInformationToString(batteryInformation);
+        final byte[] expectedBatteryInformation = batteryInformation.toByteArray();
         ContentValues values = new ContentValues();
         values.put(BatteryHistEntry.KEY_UID, Long.valueOf(101L));
         values.put(BatteryHistEntry.KEY_USER_ID, Long.valueOf(1001L));
@@ -296,7 +314,7 @@ public final class BatteryUsageContentProviderTest {
         values.put(BatteryHistEntry.KEY_TIMESTAMP, Long.valueOf(2100021L));
         values.put(BatteryHistEntry.KEY_CONSUMER_TYPE, Integer.valueOf(2));
         values.put(BatteryHistEntry.KEY_IS_FULL_CHARGE_CYCLE_START, true);
-        values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION, expectedBatteryInformationString);
+        values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION, expectedBatteryInformation);
 
         final Uri uri = mProvider.insert(VALID_BATTERY_STATE_CONTENT_URI, values);
 
@@ -311,11 +329,11 @@ public final class BatteryUsageContentProviderTest {
         assertThat(states.get(0).timestamp).isEqualTo(2100021L);
         assertThat(states.get(0).consumerType).isEqualTo(2);
         assertThat(states.get(0).isFullChargeCycleStart).isTrue();
-        assertThat(states.get(0).batteryInformation).isEqualTo(expectedBatteryInformationString);
+        assertThat(states.get(0).batteryInformation).isEqualTo(expectedBatteryInformation);
     }
 
     @Test
-    public void insert_partialFieldsContentValues_returnsExpectedResult() {
+    public void insert_partialFieldsContentValuesWithLegacyString_returnsExpectedResult() {
         mProvider.onCreate();
         final DeviceBatteryState deviceBatteryState =
                 DeviceBatteryState
@@ -330,7 +348,7 @@ public final class BatteryUsageContentProviderTest {
                         .setDeviceBatteryState(deviceBatteryState)
                         .build();
         final String expectedBatteryInformationString =
-                ConvertUtils.convertBatteryInformationToString(batteryInformation);
+                ConvertUtils.encodeLegacyProtoString(batteryInformation.toByteArray());
         final ContentValues values = new ContentValues();
         values.put(BatteryHistEntry.KEY_PACKAGE_NAME, new String("fake_data"));
         values.put(BatteryHistEntry.KEY_TIMESTAMP, Long.valueOf(2100022L));
@@ -345,7 +363,7 @@ public final class BatteryUsageContentProviderTest {
         assertThat(states).hasSize(1);
         assertThat(states.get(0).packageName).isEqualTo("fake_data");
         assertThat(states.get(0).timestamp).isEqualTo(2100022L);
-        assertThat(states.get(0).batteryInformation).isEqualTo(expectedBatteryInformationString);
+        assertThat(states.get(0).batteryInformation).isEqualTo(batteryInformation.toByteArray());
     }
 
     @Test
@@ -419,7 +437,7 @@ public final class BatteryUsageContentProviderTest {
         mProvider.onCreate();
         ContentValues values = new ContentValues();
         values.put(BatteryUsageSlotEntity.KEY_TIMESTAMP, 10001L);
-        values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT, "TEST_STRING");
+        values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT, BATTERY_USAGE_SLOT_BYTES);
 
         final Uri uri = mProvider.insert(DatabaseUtils.BATTERY_USAGE_SLOT_URI, values);
         // Verifies the BatteryUsageSlotEntity content.
@@ -428,20 +446,118 @@ public final class BatteryUsageContentProviderTest {
                 BatteryStateDatabase.getInstance(mContext).batteryUsageSlotDao().getAll();
         assertThat(entities).hasSize(1);
         assertThat(entities.get(0).timestamp).isEqualTo(10001L);
-        assertThat(entities.get(0).batteryUsageSlot).isEqualTo("TEST_STRING");
+        assertThat(entities.get(0).batteryUsageSlot).isEqualTo(BATTERY_USAGE_SLOT_BYTES);
 
         final Cursor cursor1 = getCursorOfBatteryUsageSlots(10001L);
         assertThat(cursor1.getCount()).isEqualTo(1);
         cursor1.moveToFirst();
         assertThat(cursor1.getLong(cursor1.getColumnIndex(BatteryUsageSlotEntity.KEY_TIMESTAMP)))
                 .isEqualTo(10001L);
-        assertThat(cursor1.getString(cursor1.getColumnIndex(
-                BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT))).isEqualTo("TEST_STRING");
+        // The legacy uri keeps returning the Base64 string.
+        final int slotIndex = cursor1.getColumnIndex(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT);
+        assertThat(cursor1.getType(slotIndex)).isEqualTo(Cursor.FIELD_TYPE_STRING);
+        assertThat(cursor1.getString(slotIndex))
+                .isEqualTo(ConvertUtils.encodeLegacyProtoString(BATTERY_USAGE_SLOT_BYTES));
 
         final Cursor cursor2 = getCursorOfBatteryUsageSlots(10002L);
         assertThat(cursor2.getCount()).isEqualTo(0);
     }
 
+    @Test
+    public void query_batteryStatePage_returnsRowsInPages() {
+        insertBatteryStatesForPaging();
+
+        final Cursor cursor1 = getCursorOfBatteryStatesPage(
+                /*afterId=*/ 0L, /*limit=*/ 2, /*uids=*/ null, /*projection=*/ null);
+        assertThat(cursor1.getCount()).isEqualTo(2);
+        cursor1.moveToLast();
+        final long lastId = cursor1.getLong(cursor1.getColumnIndex(DatabaseUtils.COLUMN_ID));
+        cursor1.close();
+
+        final Cursor cursor2 = getCursorOfBatteryStatesPage(
+                lastId, /*limit=*/ 2, /*uids=*/ null, /*projection=*/ null);
+        assertThat(cursor2.getCount()).isEqualTo(1);
+        cursor2.moveToFirst();
+        assertThat(cursor2.getString(cursor2.getColumnIndex("packageName")))
+                .isEqualTo(PACKAGE_NAME3);
+        cursor2.close();
+    }
+
+    @Test
+    public void query_batteryStatePage_withTimeRange_returnsRowsInRange() {
+        insertBatteryStatesForPaging();
+
+        final Uri uri = getBatteryStatesPageUriBuilder(/*afterId=*/ 0L, /*limit=*/ 10)
+                .appendQueryParameter(DatabaseUtils.QUERY_KEY_TIMESTAMP, Long.toString(TIMESTAMP2))
+                .appendQueryParameter(
+                        DatabaseUtils.QUERY_KEY_END_TIMESTAMP, Long.toString(TIMESTAMP3))
+                .build();
+        final Cursor cursor = query(uri);
+
+        assertThat(cursor.getCount()).isEqualTo(1);
+        cursor.moveToFirst();
+        assertThat(cursor.getString(cursor.getColumnIndex("packageName")))
+                .isEqualTo(PACKAGE_NAME2);
+        cursor.close();
+    }
+
+    @Test
+    public void query_batteryStatePage_withUidsAndProjection_returnsExpectedResult() {
+        insertBatteryStatesForPaging();
+
+        final Cursor cursor1 = getCursorOfBatteryStatesPage(/*afterId=*/ 0L, /*limit=*/ 10,
+                /*uids=*/ "1001", /*projection=*/ new String[] {"packageName"});
+        assertThat(cursor1.getCount()).isEqualTo(3);
+        assertThat(cursor1.getColumnNames())
+                .asList().containsExactly(DatabaseUtils.COLUMN_ID, "packageName");
+        cursor1.close();
+
+        final Cursor cursor2 = getCursorOfBatteryStatesPage(/*afterId=*/ 0L, /*limit=*/ 10,
+                /*uids=*/ "1002,1003", /*projection=*/ null);
+        assertThat(cursor2.getCount()).isEqualTo(0);
+        cursor2.close();
+    }
+
+    @Test
+    public void query_batteryStatePage_unknownColumn_throwsIllegalArgumentException() {
+        mProvider.onCreate();
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> getCursorOfBatteryStatesPage(/*afterId=*/ 0L, /*limit=*/ 10,
+                        /*uids=*/ null, /*projection=*/ new String[] {"unknownColumn"}));
+    }
+
+    @Test
+    public void query_batteryUsageSlotPage_returnsRowsInPages() {
+        mProvider.onCreate();
+        for (long timestamp = 10001L; timestamp <= 10003L; timestamp++) {
+            final ContentValues values = new ContentValues();
+            values.put(BatteryUsageSlotEntity.KEY_TIMESTAMP, timestamp);
+            values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT, BATTERY_USAGE_SLOT_BYTES);
+            mProvider.insert(DatabaseUtils.BATTERY_USAGE_SLOT_URI, values);
+        }
+
+        final Uri uri =
+                new Uri.Builder()
+                        .scheme(ContentResolver.SCHEME_CONTENT)
+                        .authority(DatabaseUtils.AUTHORITY)
+                        .appendPath(DatabaseUtils.BATTERY_USAGE_SLOT_PAGE_PATH)
+                        .appendQueryParameter(DatabaseUtils.QUERY_KEY_TIMESTAMP, "10002")
+                        .appendQueryParameter(DatabaseUtils.QUERY_KEY_LIMIT, "1")
+                        .build();
+        final Cursor cursor = query(uri);
+
+        assertThat(cursor.getCount()).isEqualTo(1);
+        cursor.moveToFirst();
+        assertThat(cursor.getLong(cursor.getColumnIndex(BatteryUsageSlotEntity.KEY_TIMESTAMP)))
+                .isEqualTo(10002L);
+        assertThat(cursor.getBlob(
+                cursor.getColumnIndex(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT)))
+                .isEqualTo(BATTERY_USAGE_SLOT_BYTES);
+        cursor.close();
+    }
+
     @Test
     public void delete_throwsUnsupportedOperationException() {
         assertThrows(
@@ -491,6 +607,33 @@ public final class BatteryUsageContentProviderTest {
         return cursor;
     }
 
+    private void insertBatteryStatesForPaging() {
+        mProvider.onCreate();
+        BatteryTestUtils.insertDataToBatteryStateTable(mContext, TIMESTAMP1, PACKAGE_NAME1);
+        BatteryTestUtils.insertDataToBatteryStateTable(mContext, TIMESTAMP2, PACKAGE_NAME2);
+        BatteryTestUtils.insertDataToBatteryStateTable(mContext, TIMESTAMP3, PACKAGE_NAME3);
+    }
+
+    private Uri.Builder getBatteryStatesPageUriBuilder(long afterId, int limit) {
+        return new Uri.Builder()
+                .scheme(ContentResolver.SCHEME_CONTENT)
+                .authority(DatabaseUtils.AUTHORITY)
+                .appendPath(DatabaseUtils.BATTERY_STATE_PAGE_PATH)
+                .appendQueryParameter(DatabaseUtils.QUERY_KEY_AFTER_ID, Long.toString(afterId))
+                .appendQueryParameter(DatabaseUtils.QUERY_KEY_LIMIT, Integer.toString(limit));
+    }
+
+    private Cursor getCursorOfBatteryStatesPage(
+            long afterId, int limit, String uids, String[] projection) {
+        final Uri.Builder uriBuilder = getBatteryStatesPageUriBuilder(afterId, limit)
+                .appendQueryParameter(DatabaseUtils.QUERY_KEY_TIMESTAMP, "0");
+        if (uids != null) {
+            uriBuilder.appendQueryParameter(DatabaseUtils.QUERY_KEY_UID, uids);
+        }
+        return mProvider.query(uriBuilder.build(), projection, /*s=*/ null, /*strings1=*/ null,
+                /*s1=*/ null);
+    }
+
     private Cursor getCursorOfLastFullChargeTimestamp() {
         final Uri lastFullChargeTimestampContentUri =
                 new Uri.Builder()
@@ -36,6 +36,7 @@ import android.os.BatteryManager;
 import android.os.BatteryUsageStats;
 import android.os.LocaleList;
 import android.os.UserHandle;
+import android.util.Base64;
 
 import com.android.settings.fuelgauge.batteryusage.db.AppUsageEventEntity;
 import com.android.settings.fuelgauge.batteryusage.db.BatteryEventEntity;
@@ -233,6 +234,40 @@ public final class ConvertUtilsTest {
         assertThat(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT).isNotEmpty();
     }
 
+    @Test
+    public void convertToBatteryUsageSlot_blobCursor_returnsExpectedResult() {
+        final BatteryUsageSlot batteryUsageSlot =
+                BatteryUsageSlot.newBuilder().setStartTimestamp(10001L).build();
+        final MatrixCursor cursor =
+                new MatrixCursor(new String[] {BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT});
+        cursor.addRow(new Object[] {batteryUsageSlot.toByteArray()});
+        cursor.moveToFirst();
+
+        assertThat(ConvertUtils.convertToBatteryUsageSlot(cursor)).isEqualTo(batteryUsageSlot);
+    }
+
+    @Test
+    public void convertToBatteryUsageSlot_legacyBase64Cursor_returnsExpectedResult() {
+        final BatteryUsageSlot batteryUsageSlot =
+                BatteryUsageSlot.newBuilder().setStartTimestamp(10001L).build();
+        final MatrixCursor cursor =
+                new MatrixCursor(new String[] {BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT});
+        cursor.addRow(new Object[] {
+                Base64.encodeToString(batteryUsageSlot.toByteArray(), Base64.DEFAULT)});
+        cursor.moveToFirst();
+
+        assertThat(ConvertUtils.convertToBatteryUsageSlot(cursor)).isEqualTo(batteryUsageSlot);
+    }
+
+    @Test
+    public void getProtoBytes_invalidLegacyString_returnsNull() {
+        final ContentValues values = new ContentValues();
+        values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION, "!invalid!");
+
+        assertThat(ConvertUtils.getProtoBytes(values, BatteryHistEntry.KEY_BATTERY_INFORMATION))
+                .isNull();
+    }
+
     @Test
     public void convertToBatteryHistEntry_returnsExpectedResult() {
         final int expectedType = 3;
@@ -402,7 +402,7 @@ public final class DataProcessManagerTest {
                         .setDeviceBatteryState(deviceBatteryState)
                         .build();
         values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION,
-                ConvertUtils.convertBatteryInformationToString(batteryInformation));
+                ConvertUtils.encodeLegacyProtoString(batteryInformation.toByteArray()));
         return values;
     }
 
@@ -1770,7 +1770,7 @@ public final class DataProcessorTest {
                         .setDeviceBatteryState(deviceBatteryState)
                         .build();
         values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION,
-                ConvertUtils.convertBatteryInformationToString(batteryInformation));
+                ConvertUtils.encodeLegacyProtoString(batteryInformation.toByteArray()));
         return values;
     }
 
@@ -1802,7 +1802,7 @@ public final class DataProcessorTest {
         values.put(BatteryHistEntry.KEY_USER_ID, userId);
         values.put(BatteryHistEntry.KEY_CONSUMER_TYPE, consumerType);
         values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION,
-                ConvertUtils.convertBatteryInformationToString(batteryInformation));
+                ConvertUtils.encodeLegacyProtoString(batteryInformation.toByteArray()));
         return new BatteryHistEntry(values);
     }
 
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batteryusage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.BatteryManager;
+import android.os.PowerManager;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowPowerManager;
+
+/** Tests of {@link PeriodicJobPolicy}. */
+@RunWith(RobolectricTestRunner.class)
+public final class PeriodicJobPolicyTest {
+    private static final long CURRENT_TIME = 1_700_000_000_000L;
+
+    private Context mContext;
+    private ShadowPowerManager mShadowPowerManager;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mShadowPowerManager = shadowOf(mContext.getSystemService(PowerManager.class));
+        mShadowPowerManager.setIsInteractive(true);
+        mShadowPowerManager.setIdleMode(false);
+    }
+
+    @Test
+    public void getSkipSnapshotReason_nullBatteryIntent_returnsNull() {
+        assertThat(PeriodicJobPolicy.getSkipSnapshotReason(mContext, null)).isNull();
+    }
+
+    @Test
+    public void getSkipSnapshotReason_deviceIdleAndUnchanged_skipsUpToMaxCount() {
+        mShadowPowerManager.setIdleMode(true);
+        final Intent batteryIntent = createBatteryIntent(/*level=*/ 50, /*plugged=*/ false);
+        // Takes the first snapshot to record the battery state.
+        assertThat(PeriodicJobPolicy.getSkipSnapshotReason(mContext, batteryIntent)).isNull();
+
+        for (int i = 0; i < PeriodicJobPolicy.MAX_CONSECUTIVE_SKIPPED_SNAPSHOTS; i++) {
+            assertThat(PeriodicJobPolicy.getSkipSnapshotReason(mContext, batteryIntent))
+                    .isNotNull();
+        }
+        assertThat(PeriodicJobPolicy.getSkipSnapshotReason(mContext, batteryIntent)).isNull();
+    }
+
+    @Test
+    public void getSkipSnapshotReason_deviceIdleAndLevelChanged_returnsNull() {
+        mShadowPowerManager.setIdleMode(true);
+        PeriodicJobPolicy.getSkipSnapshotReason(
+                mContext, createBatteryIntent(/*level=*/ 50, /*plugged=*/ false));
+
+        assertThat(PeriodicJobPolicy.getSkipSnapshotReason(
+                mContext, createBatteryIntent(/*level=*/ 49, /*plugged=*/ false))).isNull();
+    }
+
+    @Test
+    public void getSkipSnapshotReason_fullyChargedAndScreenOff_returnsReason() {
+        mShadowPowerManager.setIsInteractive(false);
+        final Intent batteryIntent = createBatteryIntent(/*level=*/ 100, /*plugged=*/ true);
+        PeriodicJobPolicy.getSkipSnapshotReason(mContext, batteryIntent);
+
+        assertThat(PeriodicJobPolicy.getSkipSnapshotReason(mContext, batteryIntent)).isNotNull();
+    }
+
+    @Test
+    public void getSkipSnapshotReason_activeAndUnchanged_returnsNull() {
+        final Intent batteryIntent = createBatteryIntent(/*level=*/ 100, /*plugged=*/ true);
+        PeriodicJobPolicy.getSkipSnapshotReason(mContext, batteryIntent);
+
+        assertThat(PeriodicJobPolicy.getSkipSnapshotReason(mContext, batteryIntent)).isNull();
+    }
+
+    @Test
+    public void shouldClearExpiredData_clearsOncePerInterval() {
+        final long interval = PeriodicJobPolicy.CLEAR_EXPIRED_DATA_INTERVAL.toMillis();
+
+        assertThat(PeriodicJobPolicy.shouldClearExpiredData(mContext, CURRENT_TIME)).isTrue();
+        assertThat(PeriodicJobPolicy.shouldClearExpiredData(mContext, CURRENT_TIME + interval - 1))
+                .isFalse();
+        assertThat(PeriodicJobPolicy.shouldClearExpiredData(mContext, CURRENT_TIME + interval))
+                .isTrue();
+    }
+
+    @Test
+    public void shouldClearExpiredData_clockSetBackwards_returnsTrue() {
+        PeriodicJobPolicy.shouldClearExpiredData(mContext, CURRENT_TIME);
+
+        assertThat(PeriodicJobPolicy.shouldClearExpiredData(mContext, CURRENT_TIME - 1)).isTrue();
+    }
+
+    private static Intent createBatteryIntent(int level, boolean plugged) {
+        return new Intent(Intent.ACTION_BATTERY_CHANGED)
+                .putExtra(BatteryManager.EXTRA_LEVEL, level)
+                .putExtra(BatteryManager.EXTRA_SCALE, 100)
+                .putExtra(BatteryManager.EXTRA_PLUGGED,
+                        plugged ? BatteryManager.BATTERY_PLUGGED_AC : 0);
+    }
+}
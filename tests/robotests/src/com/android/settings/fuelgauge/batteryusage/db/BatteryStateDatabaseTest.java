@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batteryusage.db;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Base64;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link BatteryStateDatabase}. */
+@RunWith(RobolectricTestRunner.class)
+public final class BatteryStateDatabaseTest {
+    private static final byte[] PROTO_BYTES = new byte[] {8, 1, 16, 2};
+
+    private SupportSQLiteOpenHelper mOpenHelper;
+    private SupportSQLiteDatabase mDatabase;
+
+    @Before
+    public void setUp() {
+        final Context context = ApplicationProvider.getApplicationContext();
+        mOpenHelper = new FrameworkSQLiteOpenHelperFactory().create(
+                SupportSQLiteOpenHelper.Configuration.builder(context)
+                        .name(null)
+                        .callback(new SupportSQLiteOpenHelper.Callback(/*version=*/ 1) {
+                            @Override
+                            public void onCreate(SupportSQLiteDatabase db) {
+                                createVersion1Tables(db);
+                            }
+
+                            @Override
+                            public void onUpgrade(
+                                    SupportSQLiteDatabase db, int oldVersion, int newVersion) {}
+                        })
+                        .build());
+        mDatabase = mOpenHelper.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        mOpenHelper.close();
+    }
+
+    @Test
+    public void migration1To2_batteryState_decodesBase64ToBlob() {
+        final String encoded = Base64.encodeToString(PROTO_BYTES, Base64.DEFAULT);
+        mDatabase.execSQL("INSERT INTO BatteryState (mId, uid, userId, packageName, timestamp, "
+                + "consumerType, isFullChargeCycleStart, batteryInformation) VALUES "
+                + "(7, 1001, 0, 'com.android.settings', 10001, 1, 1, '" + encoded + "')");
+        mDatabase.execSQL("INSERT INTO BatteryState (mId, uid, userId, timestamp, consumerType, "
+                + "isFullChargeCycleStart) VALUES (8, 1002, 0, 10002, 1, 0)");
+
+        BatteryStateDatabase.MIGRATION_1_2.migrate(mDatabase);
+
+        try (Cursor cursor = mDatabase.query(
+                "SELECT mId, packageName, batteryInformation FROM BatteryState ORDER BY mId")) {
+            assertThat(cursor.getCount()).isEqualTo(2);
+            cursor.moveToFirst();
+            assertThat(cursor.getLong(0)).isEqualTo(7L);
+            assertThat(cursor.getString(1)).isEqualTo("com.android.settings");
+            assertThat(cursor.getType(2)).isEqualTo(Cursor.FIELD_TYPE_BLOB);
+            assertThat(cursor.getBlob(2)).isEqualTo(PROTO_BYTES);
+            cursor.moveToNext();
+            assertThat(cursor.getLong(0)).isEqualTo(8L);
+            assertThat(cursor.isNull(2)).isTrue();
+        }
+    }
+
+    @Test
+    public void migration1To2_batteryUsageSlot_decodesBase64ToBlob() {
+        final String encoded = Base64.encodeToString(PROTO_BYTES, Base64.DEFAULT);
+        mDatabase.execSQL("INSERT INTO BatteryUsageSlotEntity (mId, timestamp, batteryUsageSlot) "
+                + "VALUES (3, 10001, '" + encoded + "')");
+
+        BatteryStateDatabase.MIGRATION_1_2.migrate(mDatabase);
+
+        try (Cursor cursor = mDatabase.query(
+                "SELECT mId, timestamp, batteryUsageSlot FROM BatteryUsageSlotEntity")) {
+            assertThat(cursor.getCount()).isEqualTo(1);
+            cursor.moveToFirst();
+            assertThat(cursor.getLong(0)).isEqualTo(3L);
+            assertThat(cursor.getLong(1)).isEqualTo(10001L);
+            assertThat(cursor.getBlob(2)).isEqualTo(PROTO_BYTES);
+        }
+    }
+
+    private static void createVersion1Tables(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS `BatteryState` (`mId` INTEGER PRIMARY KEY "
+                + "AUTOINCREMENT NOT NULL, `uid` INTEGER NOT NULL, `userId` INTEGER NOT NULL, "
+                + "`packageName` TEXT, `timestamp` INTEGER NOT NULL, `consumerType` INTEGER NOT "
+                + "NULL, `isFullChargeCycleStart` INTEGER NOT NULL, `batteryInformation` TEXT, "
+                + "`batteryInformationDebug` TEXT)");
+        db.execSQL("CREATE TABLE IF NOT EXISTS `BatteryUsageSlotEntity` (`mId` INTEGER PRIMARY "
+                + "KEY AUTOINCREMENT NOT NULL, `timestamp` INTEGER NOT NULL, "
+                + "`batteryUsageSlot` TEXT)");
+    }
+}
@@ -18,6 +18,7 @@ package com.android.settings.fuelgauge.batteryusage.db;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import android.content.ContentValues;
 import android.os.BatteryManager;
 
 import com.android.settings.fuelgauge.batteryusage.BatteryInformation;
@@ -78,8 +79,20 @@ public final class BatteryStateTest {
         assertThat(state.timestamp).isEqualTo(100001L);
         assertThat(state.consumerType).isEqualTo(2);
         assertThat(state.isFullChargeCycleStart).isTrue();
-        assertThat(state.batteryInformation).isEqualTo(
-                ConvertUtils.convertBatteryInformationToString(mBatteryInformation));
+        assertThat(state.batteryInformation).isEqualTo(mBatteryInformation.toByteArray());
+    }
+
+    @Test
+    public void create_legacyBase64ContentValues_decodesBatteryInformation() {
+        final ContentValues values = new ContentValues();
+        values.put("packageName", "com.android.settings");
+        values.put("batteryInformation",
+                ConvertUtils.encodeLegacyProtoString(mBatteryInformation.toByteArray()));
+
+        final BatteryState state = BatteryState.create(values);
+
+        assertThat(state.packageName).isEqualTo("com.android.settings");
+        assertThat(state.batteryInformation).isEqualTo(mBatteryInformation.toByteArray());
     }
 
     private static BatteryState create(BatteryInformation batteryInformation) {
@@ -90,8 +103,7 @@ public final class BatteryStateTest {
                 .setTimestamp(100001L)
                 .setConsumerType(2)
                 .setIsFullChargeCycleStart(true)
-                .setBatteryInformation(
-                        ConvertUtils.convertBatteryInformationToString(batteryInformation))
+                .setBatteryInformation(batteryInformation.toByteArray())
                 .build();
     }
 }
@@ -18,6 +18,9 @@ package com.android.settings.fuelgauge.batteryusage.db;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import android.content.ContentValues;
+import android.util.Base64;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
@@ -29,16 +32,41 @@ public final class BatteryUsageSlotEntityTest {
     @Test
     public void testBuilder_returnsExpectedResult() {
         final long timestamp = 10001L;
-        final String batteryUsageSlotString = "batteryUsageSlotString";
+        final byte[] batteryUsageSlot = new byte[] {1, 2, 3};
 
         BatteryUsageSlotEntity entity = BatteryUsageSlotEntity
                 .newBuilder()
                 .setTimestamp(timestamp)
-                .setBatteryUsageSlot(batteryUsageSlotString)
+                .setBatteryUsageSlot(batteryUsageSlot)
                 .build();
 
         // Verifies the app relative information.
         assertThat(entity.timestamp).isEqualTo(timestamp);
-        assertThat(entity.batteryUsageSlot).isEqualTo(batteryUsageSlotString);
+        assertThat(entity.batteryUsageSlot).isEqualTo(batteryUsageSlot);
+    }
+
+    @Test
+    public void create_bytesContentValues_returnsExpectedResult() {
+        final byte[] batteryUsageSlot = new byte[] {1, 2, 3};
+        final ContentValues values = new ContentValues();
+        values.put(BatteryUsageSlotEntity.KEY_TIMESTAMP, 10001L);
+        values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT, batteryUsageSlot);
+
+        final BatteryUsageSlotEntity entity = BatteryUsageSlotEntity.create(values);
+
+        assertThat(entity.timestamp).isEqualTo(10001L);
+        assertThat(entity.batteryUsageSlot).isEqualTo(batteryUsageSlot);
+    }
+
+    @Test
+    public void create_legacyBase64ContentValues_decodesToBytes() {
+        final byte[] batteryUsageSlot = new byte[] {1, 2, 3};
+        final ContentValues values = new ContentValues();
+        values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT,
+                Base64.encodeToString(batteryUsageSlot, Base64.DEFAULT));
+
+        final BatteryUsageSlotEntity entity = BatteryUsageSlotEntity.create(values);
+
+        assertThat(entity.batteryUsageSlot).isEqualTo(batteryUsageSlot);
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.network;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class MobileNetworkRepositoryTest {
+
+    private static final long COALESCE_WINDOW_MS = MobileNetworkRepository.COALESCE_WINDOW_MS;
+
+    private final List<Boolean> mSubscriptionsChanged = new ArrayList<>();
+    private final List<Set<Integer>> mSubIds = new ArrayList<>();
+    private MobileNetworkRepository.PendingChanges mPendingChanges;
+
+    @Before
+    public void setUp() {
+        mPendingChanges = new MobileNetworkRepository.PendingChanges(
+                new Handler(Looper.getMainLooper()), (subscriptionsChanged, subIds) -> {
+                    mSubscriptionsChanged.add(subscriptionsChanged);
+                    mSubIds.add(subIds);
+                });
+    }
+
+    @Test
+    public void pendingChanges_withinWindow_handedOverOnce() {
+        mPendingChanges.addSubscriptionsChanged();
+        mPendingChanges.addMobileNetworkInfo(1);
+        mPendingChanges.addMobileNetworkInfo(2);
+        mPendingChanges.addMobileNetworkInfo(1);
+        mPendingChanges.addSubscriptionsChanged();
+
+        ShadowLooper.idleMainLooper(COALESCE_WINDOW_MS, TimeUnit.MILLISECONDS);
+
+        assertThat(mSubscriptionsChanged).containsExactly(true);
+        assertThat(mSubIds).hasSize(1);
+        assertThat(mSubIds.get(0)).containsExactly(1, 2);
+    }
+
+    @Test
+    public void pendingChanges_beforeWindowEnds_notHandedOver() {
+        mPendingChanges.addMobileNetworkInfo(1);
+
+        ShadowLooper.idleMainLooper(COALESCE_WINDOW_MS - 1, TimeUnit.MILLISECONDS);
+
+        assertThat(mSubIds).isEmpty();
+    }
+
+    @Test
+    public void pendingChanges_afterWindow_startsNewBatch() {
+        mPendingChanges.addMobileNetworkInfo(1);
+        ShadowLooper.idleMainLooper(COALESCE_WINDOW_MS, TimeUnit.MILLISECONDS);
+
+        mPendingChanges.addMobileNetworkInfo(2);
+        ShadowLooper.idleMainLooper(COALESCE_WINDOW_MS, TimeUnit.MILLISECONDS);
+
+        assertThat(mSubscriptionsChanged).containsExactly(false, false);
+        assertThat(mSubIds).hasSize(2);
+        assertThat(mSubIds.get(0)).containsExactly(1);
+        assertThat(mSubIds.get(1)).containsExactly(2);
+    }
+}
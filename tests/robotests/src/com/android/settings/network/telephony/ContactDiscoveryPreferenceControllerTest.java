@@ -95,7 +95,9 @@ public class ContactDiscoveryPreferenceControllerTest {
         doReturn(mImsRcsManager).when(mImsManager).getImsRcsManager(anyInt());
         doReturn(mRcsUceAdapter).when(mImsRcsManager).getUceAdapter();
         CarrierConfigCache.setTestInstance(mContext, mCarrierConfigCache);
-        doReturn(mCarrierConfig).when(mCarrierConfigCache).getConfigForSubId(eq(TEST_SUB_ID));
+        doReturn(mCarrierConfig).when(mCarrierConfigCache).getConfigForSubId(eq(TEST_SUB_ID),
+                eq(CarrierConfigManager.KEY_USE_RCS_PRESENCE_BOOL),
+                eq(CarrierConfigManager.Ims.KEY_RCS_BULK_CAPABILITY_EXCHANGE_BOOL));
         // Start all tests with presence being disabled.
         setRcsPresenceConfig(false);
         doReturn(mContentResolver).when(mContext).getContentResolver();
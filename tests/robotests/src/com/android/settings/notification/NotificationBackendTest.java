@@ -23,6 +23,8 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.app.INotificationManager;
@@ -40,6 +42,7 @@ import android.os.Build;
 import android.os.Parcel;
 
 import com.android.settings.notification.NotificationBackend.AppRow;
+import com.android.settings.notification.NotificationBackend.ChannelSummary;
 import com.android.settingslib.bluetooth.CachedBluetoothDevice;
 import com.android.settingslib.bluetooth.CachedBluetoothDeviceManager;
 import com.android.settingslib.bluetooth.LocalBluetoothManager;
@@ -268,6 +271,28 @@ public class NotificationBackendTest {
                 mCdm, mBm, mCn.getPackageName(), 0).toString()).isEqualTo("Device 1, Device 2");
     }
 
+    @Test
+    public void getChannelSummary_hasChannels_countsBlockedChannels() throws Exception {
+        when(mInm.getNumNotificationChannelsForPackage("pkg", 123, false)).thenReturn(2);
+        when(mInm.getBlockedChannelCount("pkg", 123)).thenReturn(1);
+
+        final ChannelSummary summary = mNotificationBackend.getChannelSummary("pkg", 123);
+
+        assertThat(summary.channelCount).isEqualTo(2);
+        assertThat(summary.blockedChannelCount).isEqualTo(1);
+    }
+
+    @Test
+    public void getChannelSummary_noChannels_doesNotCountBlockedChannels() throws Exception {
+        when(mInm.getNumNotificationChannelsForPackage("pkg", 123, false)).thenReturn(0);
+
+        final ChannelSummary summary = mNotificationBackend.getChannelSummary("pkg", 123);
+
+        assertThat(summary.channelCount).isEqualTo(0);
+        assertThat(summary.blockedChannelCount).isEqualTo(0);
+        verify(mInm, never()).getBlockedChannelCount("pkg", 123);
+    }
+
     private ImmutableList<AssociationInfo> mockAssociations(String... macAddresses) {
         final AssociationInfo[] associations = new AssociationInfo[macAddresses.length];
         for (int index = 0; index < macAddresses.length; index++) {
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.notification.history;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import android.app.NotificationHistory;
+import android.app.NotificationHistory.HistoricalNotification;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.os.Parcel;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.android.settings.notification.NotificationBackend;
+import com.android.settings.testutils.shadow.ShadowThreadUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = ShadowThreadUtils.class)
+public class HistoryLoaderTest {
+
+    @Mock
+    private NotificationBackend mBackend;
+    @Mock
+    private PackageManager mPm;
+
+    private HistoryLoader mLoader;
+    private List<List<NotificationHistoryPackage>> mLoadedPages;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        final Context context = ApplicationProvider.getApplicationContext();
+        mLoader = new HistoryLoader(context, mBackend, mPm);
+        mLoadedPages = new ArrayList<>();
+        final NotificationHistory history = new NotificationHistory();
+        for (int i = 0; i < HistoryLoader.PAGE_SIZE * 2 + 1; i++) {
+            history.addNotificationToWrite(createNotification("pkg" + i, 1000 + i, i));
+        }
+        when(mBackend.getNotificationHistory(any(), any())).thenAnswer(
+                invocation -> parcel(history));
+    }
+
+    @Test
+    public void load_deliversEveryPageInOrder() {
+        mLoader.load(new RecordingListener());
+
+        assertThat(mLoadedPages).hasSize(3);
+        assertThat(mLoadedPages.get(0)).hasSize(HistoryLoader.PAGE_SIZE);
+        assertThat(mLoadedPages.get(0).get(0).pkgName).isEqualTo("pkg20");
+        assertThat(mLoadedPages.get(2)).hasSize(1);
+    }
+
+    @Test
+    public void load_cancelledAfterFirstPage_dropsRemainingPages() {
+        mLoader.load(new RecordingListener() {
+            @Override
+            public void onHistoryLoaded(List<NotificationHistoryPackage> notifications) {
+                super.onHistoryLoaded(notifications);
+                mLoader.cancel();
+            }
+        });
+
+        assertThat(mLoadedPages).hasSize(1);
+    }
+
+    @Test
+    public void load_reloadedAfterFirstPage_dropsPagesOfOldLoad() {
+        final List<List<NotificationHistoryPackage>> newPages = new ArrayList<>();
+        mLoader.load(new RecordingListener() {
+            @Override
+            public void onHistoryLoaded(List<NotificationHistoryPackage> notifications) {
+                super.onHistoryLoaded(notifications);
+                mLoader.load(new HistoryLoader.OnHistoryLoaderListener() {
+                    @Override
+                    public void onHistoryLoaded(List<NotificationHistoryPackage> packages) {
+                        newPages.add(packages);
+                    }
+
+                    @Override
+                    public void onHistoryPageLoaded(List<NotificationHistoryPackage> packages) {
+                        newPages.add(packages);
+                    }
+                });
+            }
+        });
+
+        assertThat(mLoadedPages).hasSize(1);
+        assertThat(newPages).hasSize(3);
+    }
+
+    @Test
+    public void groupByPackage_groupsByPackageAndUid() {
+        final NotificationHistory history = new NotificationHistory();
+        history.addNotificationToWrite(createNotification("pkg1", 1001, 100));
+        history.addNotificationToWrite(createNotification("pkg1", 1001, 200));
+        history.addNotificationToWrite(createNotification("pkg1", 1101001, 150));
+        history.addNotificationToWrite(createNotification("pkg2", 1002, 300));
+
+        final List<NotificationHistoryPackage> packages =
+                HistoryLoader.groupByPackage(parcel(history));
+
+        assertThat(packages).hasSize(3);
+        assertThat(packages.get(0).pkgName).isEqualTo("pkg2");
+        assertThat(packages.get(1).pkgName).isEqualTo("pkg1");
+        assertThat(packages.get(1).uid).isEqualTo(1001);
+        assertThat(packages.get(1).notifications).hasSize(2);
+        assertThat(packages.get(2).uid).isEqualTo(1101001);
+    }
+
+    @Test
+    public void groupByPackage_notificationsNewestFirst() {
+        final NotificationHistory history = new NotificationHistory();
+        history.addNotificationToWrite(createNotification("pkg1", 1001, 100));
+        history.addNotificationToWrite(createNotification("pkg1", 1001, 300));
+        history.addNotificationToWrite(createNotification("pkg1", 1001, 200));
+
+        final List<NotificationHistoryPackage> packages =
+                HistoryLoader.groupByPackage(parcel(history));
+
+        assertThat(packages.get(0).getMostRecent()).isEqualTo(300);
+        assertThat(packages.get(0).notifications.last().getPostedTimeMs()).isEqualTo(100);
+    }
+
+    @Test
+    public void groupByPackage_emptyHistory_returnsEmptyList() {
+        assertThat(HistoryLoader.groupByPackage(parcel(new NotificationHistory()))).isEmpty();
+    }
+
+    private class RecordingListener implements HistoryLoader.OnHistoryLoaderListener {
+        @Override
+        public void onHistoryLoaded(List<NotificationHistoryPackage> notifications) {
+            mLoadedPages.add(notifications);
+        }
+
+        @Override
+        public void onHistoryPageLoaded(List<NotificationHistoryPackage> notifications) {
+            mLoadedPages.add(notifications);
+        }
+    }
+
+    /** Notifications can only be iterated once the history went through a parcel. */
+    private static NotificationHistory parcel(NotificationHistory history) {
+        history.poolStringsFromNotifications();
+        final Parcel parcel = Parcel.obtain();
+        history.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        final NotificationHistory result = NotificationHistory.CREATOR.createFromParcel(parcel);
+        return result;
+    }
+
+    private static HistoricalNotification createNotification(String pkg, int uid, long time) {
+        return new HistoricalNotification.Builder()
+                .setPackage(pkg)
+                .setUid(uid)
+                .setUserId(uid / 100000)
+                .setChannelId("channel")
+                .setChannelName("Channel")
+                .setTitle("title" + time)
+                .setText("text")
+                .setPostedTimeMs(time)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.slices;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class SliceBackgroundWorkerTest {
+
+    private static final Uri URI = Uri.parse("content://com.android.settings.slices/test");
+    private static final long THROTTLE_INTERVAL =
+            SliceBackgroundWorker.SLICE_UPDATE_THROTTLE_INTERVAL;
+
+    private ContentResolver mResolver;
+    private TestWorker mWorker;
+
+    @Before
+    public void setUp() {
+        final Context context = spy(RuntimeEnvironment.application);
+        mResolver = mock(ContentResolver.class);
+        doReturn(mResolver).when(context).getContentResolver();
+        mWorker = new TestWorker(context, URI);
+    }
+
+    @After
+    public void tearDown() {
+        mWorker.unpin();
+    }
+
+    @Test
+    public void notifySliceChange_burst_notifiesOnce() {
+        mWorker.notifySliceChange();
+        mWorker.notifySliceChange();
+        mWorker.notifySliceChange();
+
+        advanceBy(THROTTLE_INTERVAL);
+
+        verify(mResolver).notifyChange(URI, null);
+        assertThat(mWorker.getUpdateStats())
+                .isEqualTo("results=0 unchanged=0 coalesced=2 notified=1");
+    }
+
+    @Test
+    public void notifySliceChange_withinThrottleInterval_notNotifiedYet() {
+        mWorker.notifySliceChange();
+
+        advanceBy(THROTTLE_INTERVAL - 1);
+
+        verify(mResolver, never()).notifyChange(URI, null);
+    }
+
+    @Test
+    public void notifySliceChange_afterThrottleInterval_notifiesAgain() {
+        mWorker.notifySliceChange();
+        advanceBy(THROTTLE_INTERVAL);
+
+        mWorker.notifySliceChange();
+        advanceBy(THROTTLE_INTERVAL);
+
+        verify(mResolver, times(2)).notifyChange(URI, null);
+    }
+
+    @Test
+    public void updateResults_sameResults_notifiesOnce() {
+        mWorker.updateResults(Arrays.asList("a", "b"));
+        advanceBy(THROTTLE_INTERVAL);
+
+        mWorker.updateResults(Arrays.asList("a", "b"));
+        advanceBy(THROTTLE_INTERVAL);
+
+        verify(mResolver).notifyChange(URI, null);
+        assertThat(mWorker.getUpdateStats())
+                .isEqualTo("results=2 unchanged=1 coalesced=0 notified=1");
+    }
+
+    @Test
+    public void unpin_pendingUpdate_notNotified() {
+        mWorker.notifySliceChange();
+
+        mWorker.unpin();
+        advanceBy(THROTTLE_INTERVAL);
+
+        verify(mResolver, never()).notifyChange(URI, null);
+    }
+
+    private static void advanceBy(long millis) {
+        ShadowLooper.idleMainLooper(millis, TimeUnit.MILLISECONDS);
+        shadowOf(SliceBackgroundWorker.getNotifyLooper()).idle();
+    }
+
+    private static class TestWorker extends SliceBackgroundWorker<String> {
+
+        TestWorker(Context context, Uri uri) {
+            super(context, uri);
+        }
+
+        @Override
+        protected void onSlicePinned() {
+        }
+
+        @Override
+        protected void onSliceUnpinned() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.widget;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+
+@RunWith(RobolectricTestRunner.class)
+public class LttbDownsamplerTest {
+
+    @Test
+    public void downsample_belowThreshold_keepsAllPoints() {
+        final int[] xs = {0, 1, 2, 3};
+        final int[] ys = {5, 6, 7, 8};
+        final int[] out = new int[4];
+
+        final int count = LttbDownsampler.downsample(xs, ys, 0, 4, 10, out, 0);
+
+        assertThat(count).isEqualTo(4);
+        assertThat(out).asList().containsExactly(0, 1, 2, 3).inOrder();
+    }
+
+    @Test
+    public void downsample_aboveThreshold_keepsEndsAndThreshold() {
+        final int size = 1000;
+        final int[] xs = new int[size];
+        final int[] ys = new int[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = i;
+            ys[i] = i % 7;
+        }
+        final int[] out = new int[size];
+
+        final int count = LttbDownsampler.downsample(xs, ys, 0, size, 100, out, 0);
+
+        assertThat(count).isEqualTo(100);
+        assertThat(out[0]).isEqualTo(0);
+        assertThat(out[count - 1]).isEqualTo(size - 1);
+        assertThat(Arrays.copyOf(out, count)).asList().isInStrictOrder();
+    }
+
+    @Test
+    public void downsample_keepsPeak() {
+        final int[] xs = new int[50];
+        final int[] ys = new int[50];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i;
+        }
+        ys[23] = 100;
+        final int[] out = new int[50];
+
+        final int count = LttbDownsampler.downsample(xs, ys, 0, 50, 5, out, 0);
+
+        assertThat(Arrays.copyOf(out, count)).asList().contains(23);
+    }
+
+    @Test
+    public void downsample_withOffsets_writesIndexesOfInput() {
+        final int[] xs = {-1, 0, 1, 2, 3, 4, 5, 6};
+        final int[] ys = {-1, 0, 9, 0, 0, 0, 0, 0};
+        final int[] out = new int[10];
+        out[0] = 42;
+
+        final int count = LttbDownsampler.downsample(xs, ys, 1, 7, 3, out, 1);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(out).asList().containsAtLeast(42, 1, 2, 7).inOrder();
+    }
+}
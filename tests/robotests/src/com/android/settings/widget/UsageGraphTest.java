@@ -180,6 +180,25 @@ public class UsageGraphTest {
         assertThat(localPaths.valueAt(5)).isEqualTo(-1);
     }
 
+    @Test
+    public void calculateLocalPaths_denseSegment_keepsSpike() {
+        // 20 points per pixel column; only the spike at 10002 reaches 100%.
+        mGraph.setMax(20000, 100);
+        SparseIntArray paths = new SparseIntArray();
+        for (int x = 0; x < 20000; x++) {
+            paths.append(x, x == 10002 ? 100 : 50);
+        }
+        paths.append(20000, -1);
+
+        SparseIntArray localPaths = new SparseIntArray();
+        mGraph.calculateLocalPaths(paths, localPaths);
+
+        assertThat(localPaths.size()).isAtMost(1001);
+        assertThat(localPaths.indexOfKey(500)).isAtLeast(0);
+        assertThat(localPaths.get(500)).isEqualTo(0);
+        assertThat(localPaths.valueAt(localPaths.size() - 1)).isEqualTo(-1);
+    }
+
     @Test
     public void drawFilledPath_emptyPath_shouldNotCrash() {
         final Canvas canvas = new Canvas();
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.wifi;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+
+import androidx.fragment.app.Fragment;
+import androidx.preference.Preference;
+import androidx.preference.PreferenceCategory;
+import androidx.preference.PreferenceManager;
+import androidx.preference.PreferenceScreen;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.android.wifitrackerlib.WifiEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = ShadowRestrictedPreference.class)
+public class WifiEntryPreferenceReconcilerTest {
+
+    private Context mContext;
+    private PreferenceCategory mCategory;
+    private Fragment mFragment;
+    private int mCreateCount;
+
+    private final WifiEntryPreferenceReconciler.PreferenceFactory mFactory = wifiEntry -> {
+        mCreateCount++;
+        return new LongPressWifiEntryPreference(mContext, wifiEntry, mFragment);
+    };
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mFragment = mock(Fragment.class);
+        final PreferenceScreen screen =
+                new PreferenceManager(mContext).createPreferenceScreen(mContext);
+        mCategory = new PreferenceCategory(mContext);
+        screen.addPreference(mCategory);
+    }
+
+    @Test
+    public void reconcile_newEntries_insertsInOrder() {
+        final WifiEntry first = mockWifiEntry("first");
+        final WifiEntry second = mockWifiEntry("second");
+
+        final WifiEntryPreferenceReconciler.Result result = WifiEntryPreferenceReconciler
+                .reconcile(mCategory, Arrays.asList(first, second), 0, mFactory);
+
+        assertThat(result.inserted).isEqualTo(2);
+        assertThat(result.nextOrder).isEqualTo(2);
+        assertThat(mCategory.<Preference>findPreference("first").getOrder()).isEqualTo(0);
+        assertThat(mCategory.<Preference>findPreference("second").getOrder()).isEqualTo(1);
+    }
+
+    @Test
+    public void reconcile_sameEntries_reusesPreferences() {
+        final WifiEntry first = mockWifiEntry("first");
+        final WifiEntry second = mockWifiEntry("second");
+        WifiEntryPreferenceReconciler.reconcile(mCategory, Arrays.asList(first, second), 0,
+                mFactory);
+        final Preference firstPref = mCategory.findPreference("first");
+
+        final WifiEntryPreferenceReconciler.Result result = WifiEntryPreferenceReconciler
+                .reconcile(mCategory, Arrays.asList(second, first), 0, mFactory);
+
+        assertThat(mCreateCount).isEqualTo(2);
+        assertThat(result.inserted).isEqualTo(0);
+        assertThat(result.moved).isEqualTo(2);
+        assertThat(mCategory.<Preference>findPreference("first")).isSameInstanceAs(firstPref);
+        assertThat(firstPref.getOrder()).isEqualTo(1);
+    }
+
+    @Test
+    public void reconcile_replacedEntry_recreatesPreference() {
+        WifiEntryPreferenceReconciler.reconcile(mCategory,
+                Collections.singletonList(mockWifiEntry("first")), 0, mFactory);
+        final WifiEntry replacement = mockWifiEntry("first");
+
+        final WifiEntryPreferenceReconciler.Result result = WifiEntryPreferenceReconciler
+                .reconcile(mCategory, Collections.singletonList(replacement), 0, mFactory);
+
+        assertThat(result.removed).isEqualTo(1);
+        assertThat(result.inserted).isEqualTo(1);
+        assertThat(mCategory.getPreferenceCount()).isEqualTo(1);
+        assertThat(mCategory.<LongPressWifiEntryPreference>findPreference("first")
+                .getWifiEntry()).isSameInstanceAs(replacement);
+    }
+
+    @Test
+    public void reconcile_missingEntry_removesOnlyWifiEntryPreferences() {
+        final Preference other = new Preference(mContext);
+        other.setKey("other");
+        mCategory.addPreference(other);
+        WifiEntryPreferenceReconciler.reconcile(mCategory,
+                Collections.singletonList(mockWifiEntry("first")), 0, mFactory);
+
+        final WifiEntryPreferenceReconciler.Result result = WifiEntryPreferenceReconciler
+                .reconcile(mCategory, Collections.emptyList(), 0, mFactory);
+
+        assertThat(result.removed).isEqualTo(1);
+        assertThat(mCategory.<Preference>findPreference("first")).isNull();
+        assertThat(mCategory.<Preference>findPreference("other")).isSameInstanceAs(other);
+    }
+
+    private static WifiEntry mockWifiEntry(String key) {
+        final WifiEntry wifiEntry = mock(WifiEntry.class);
+        when(wifiEntry.getKey()).thenReturn(key);
+        when(wifiEntry.getTitle()).thenReturn(key);
+        return wifiEntry;
+    }
+}
@@ -19,6 +19,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -45,9 +46,11 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(RobolectricTestRunner.class)
 public class WifiEntryPreferenceTest {
@@ -212,6 +215,87 @@ public class WifiEntryPreferenceTest {
                 mMockShowXDrawable2, mMockShowXDrawable3, mMockShowXDrawable4, null);
     }
 
+    @Test
+    public void levelOnlyChanged_onUpdated_shouldRateLimitIconUpdate() {
+        when(mMockWifiEntry.getLevel()).thenReturn(0);
+        when(mMockWifiEntry.getTitle()).thenReturn("updated title");
+        mPref.onUpdated();
+        assertThat(mPref.getIcon()).isEqualTo(mMockDrawable0);
+
+        when(mMockWifiEntry.getLevel()).thenReturn(1);
+        mPref.onUpdated();
+        when(mMockWifiEntry.getLevel()).thenReturn(2);
+        mPref.onUpdated();
+
+        assertThat(mPref.getIcon()).isEqualTo(mMockDrawable0);
+
+        ShadowLooper.idleMainLooper(WifiEntryPreference.LEVEL_ONLY_REFRESH_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+
+        assertThat(mPref.getIcon()).isEqualTo(mMockDrawable2);
+    }
+
+    @Test
+    public void showXLevelIconChanged_onUpdated_shouldRefreshImmediately() {
+        when(mMockWifiEntry.getLevel()).thenReturn(0);
+        when(mMockWifiEntry.getTitle()).thenReturn("updated title");
+        mPref.onUpdated();
+
+        when(mMockWifiEntry.getLevel()).thenReturn(1);
+        when(mMockWifiEntry.shouldShowXLevelIcon()).thenReturn(true);
+        mPref.onUpdated();
+
+        assertThat(mPref.getIcon()).isEqualTo(mMockShowXDrawable1);
+    }
+
+    @Test
+    public void securityChanged_onUpdated_shouldRefreshImmediately() {
+        when(mMockWifiEntry.getLevel()).thenReturn(0);
+        when(mMockWifiEntry.getTitle()).thenReturn("updated title");
+        when(mMockWifiEntry.getSecurity()).thenReturn(WifiEntry.SECURITY_NONE);
+        mPref.onUpdated();
+
+        when(mMockWifiEntry.getLevel()).thenReturn(1);
+        when(mMockWifiEntry.getSecurity()).thenReturn(WifiEntry.SECURITY_PSK);
+        mPref.onUpdated();
+
+        assertThat(mPref.getIcon()).isEqualTo(mMockDrawable1);
+    }
+
+    @Test
+    public void helpButtonChanged_onUpdated_shouldRefreshImmediately() {
+        when(mMockWifiEntry.getLevel()).thenReturn(0);
+        when(mMockWifiEntry.getTitle()).thenReturn("updated title");
+        mPref.onUpdated();
+
+        when(mMockWifiEntry.getLevel()).thenReturn(1);
+        when(mMockWifiEntry.getHelpUriString()).thenReturn(FAKE_URI_STRING);
+        mPref.onUpdated();
+
+        assertThat(mPref.getIcon()).isEqualTo(mMockDrawable1);
+    }
+
+    @Test
+    public void onUpdated_shouldGetSummaryOnce() {
+        when(mMockWifiEntry.getTitle()).thenReturn("updated title");
+        clearInvocations(mMockWifiEntry);
+
+        mPref.onUpdated();
+
+        verify(mMockWifiEntry).getSummary(false /* concise */);
+    }
+
+    @Test
+    public void titleChanged_onUpdated_shouldRefreshImmediately() {
+        when(mMockWifiEntry.getTitle()).thenReturn("updated title");
+        mPref.onUpdated();
+
+        when(mMockWifiEntry.getTitle()).thenReturn("another title");
+        mPref.onUpdated();
+
+        assertThat(mPref.getTitle().toString()).isEqualTo("another title");
+    }
+
     @Test
     public void notNull_whenGetHelpUriString_shouldSetImageButtonVisible() {
         when(mMockWifiEntry.getHelpUriString()).thenReturn(FAKE_URI_STRING);
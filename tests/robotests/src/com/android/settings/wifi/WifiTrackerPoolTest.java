@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.wifi;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.provider.DeviceConfig;
+
+import com.android.settings.testutils.shadow.ShadowDeviceConfig;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = ShadowDeviceConfig.class)
+public class WifiTrackerPoolTest {
+
+    private static final long DELAY_MILLIS = 1_000;
+
+    @After
+    public void tearDown() {
+        ShadowLooper.idleMainLooper(WifiTrackerPool.LINGER_MILLIS, TimeUnit.MILLISECONDS);
+        ShadowDeviceConfig.reset();
+    }
+
+    @Test
+    public void acquireWorkerThread_twice_sharesThread() {
+        final HandlerThread first = WifiTrackerPool.acquireWorkerThread();
+        final HandlerThread second = WifiTrackerPool.acquireWorkerThread();
+
+        assertThat(second).isSameInstanceAs(first);
+        assertThat(first.isAlive()).isTrue();
+        assertThat(WifiTrackerPool.getRefCount()).isEqualTo(2);
+        WifiTrackerPool.releaseWorkerThread(first, null /* workerHandler */);
+        WifiTrackerPool.releaseWorkerThread(second, null /* workerHandler */);
+    }
+
+    @Test
+    public void releaseWorkerThread_lastReference_quitsAfterLinger() {
+        final HandlerThread thread = WifiTrackerPool.acquireWorkerThread();
+
+        WifiTrackerPool.releaseWorkerThread(thread, null /* workerHandler */);
+        assertThat(WifiTrackerPool.isWorkerThreadRunning()).isTrue();
+
+        ShadowLooper.idleMainLooper(WifiTrackerPool.LINGER_MILLIS, TimeUnit.MILLISECONDS);
+        assertThat(WifiTrackerPool.isWorkerThreadRunning()).isFalse();
+    }
+
+    @Test
+    public void acquireWorkerThread_duringLinger_reusesThread() {
+        final HandlerThread thread = WifiTrackerPool.acquireWorkerThread();
+        WifiTrackerPool.releaseWorkerThread(thread, null /* workerHandler */);
+
+        final HandlerThread reacquired = WifiTrackerPool.acquireWorkerThread();
+        ShadowLooper.idleMainLooper(WifiTrackerPool.LINGER_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertThat(reacquired).isSameInstanceAs(thread);
+        assertThat(WifiTrackerPool.isWorkerThreadRunning()).isTrue();
+        WifiTrackerPool.releaseWorkerThread(reacquired, null /* workerHandler */);
+    }
+
+    @Test
+    public void releaseWorkerThread_notFromPool_quitsThread() {
+        final HandlerThread thread = mock(HandlerThread.class);
+
+        WifiTrackerPool.releaseWorkerThread(thread, null /* workerHandler */);
+
+        verify(thread).quit();
+    }
+
+    @Test
+    public void releaseWorkerThread_dropsPendingMessagesOfReleasedHandlerOnly() {
+        final HandlerThread thread = WifiTrackerPool.acquireWorkerThread();
+        final HandlerThread other = WifiTrackerPool.acquireWorkerThread();
+        final Handler handler = WifiTrackerPool.createWorkerHandler(thread);
+        final Handler otherHandler = WifiTrackerPool.createWorkerHandler(other);
+        final boolean[] ran = new boolean[2];
+        handler.postDelayed(() -> ran[0] = true, DELAY_MILLIS);
+        otherHandler.postDelayed(() -> ran[1] = true, DELAY_MILLIS);
+
+        WifiTrackerPool.releaseWorkerThread(thread, handler);
+        shadowOf(other.getLooper()).idleFor(Duration.ofMillis(DELAY_MILLIS));
+
+        assertThat(ran[0]).isFalse();
+        assertThat(ran[1]).isTrue();
+        WifiTrackerPool.releaseWorkerThread(other, otherHandler);
+    }
+
+    @Test
+    public void getScanIntervals_notConfigured_returnsDefaults() {
+        assertThat(WifiTrackerPool.getMaxScanAgeMillis())
+                .isEqualTo(WifiTrackerPool.DEFAULT_MAX_SCAN_AGE_MILLIS);
+        assertThat(WifiTrackerPool.getScanIntervalMillis())
+                .isEqualTo(WifiTrackerPool.DEFAULT_SCAN_INTERVAL_MILLIS);
+    }
+
+    @Test
+    public void getScanIntervals_configured_returnsDeviceConfigValues() {
+        setDeviceConfig(WifiTrackerPool.KEY_MAX_SCAN_AGE_MILLIS, "30000");
+        setDeviceConfig(WifiTrackerPool.KEY_SCAN_INTERVAL_MILLIS, "20000");
+
+        assertThat(WifiTrackerPool.getMaxScanAgeMillis()).isEqualTo(30_000);
+        assertThat(WifiTrackerPool.getScanIntervalMillis()).isEqualTo(20_000);
+    }
+
+    @Test
+    public void getScanIntervals_notPositive_returnsDefaults() {
+        setDeviceConfig(WifiTrackerPool.KEY_MAX_SCAN_AGE_MILLIS, "0");
+        setDeviceConfig(WifiTrackerPool.KEY_SCAN_INTERVAL_MILLIS, "-1");
+
+        assertThat(WifiTrackerPool.getMaxScanAgeMillis())
+                .isEqualTo(WifiTrackerPool.DEFAULT_MAX_SCAN_AGE_MILLIS);
+        assertThat(WifiTrackerPool.getScanIntervalMillis())
+                .isEqualTo(WifiTrackerPool.DEFAULT_SCAN_INTERVAL_MILLIS);
+    }
+
+    private static void setDeviceConfig(String key, String value) {
+        DeviceConfig.setProperty(WifiTrackerPool.DEVICE_CONFIG_NAMESPACE, key, value,
+                false /* makeDefault */);
+    }
+}
@@ -23,9 +23,12 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.net.wifi.WifiManager;
+
 import androidx.lifecycle.Lifecycle;
 
 import com.android.settings.wifi.WifiPickerTrackerHelper;
@@ -39,6 +42,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
 
 import java.util.Arrays;
 
@@ -93,6 +97,43 @@ public class WifiScanWorkerTest {
                 .isEqualTo(Lifecycle.State.DESTROYED);
     }
 
+    @Test
+    public void onUpdated_burst_shouldUpdateResultsOnce() {
+        when(mWifiPickerTracker.getWifiState()).thenReturn(WifiManager.WIFI_STATE_DISABLED);
+
+        mWifiScanWorker.onUpdated();
+        mWifiScanWorker.onWifiEntriesChanged();
+        mWifiScanWorker.onUpdated();
+
+        verify(mWifiPickerTracker, never()).getWifiState();
+
+        ShadowLooper.idleMainLooper();
+
+        verify(mWifiPickerTracker, times(1)).getWifiState();
+    }
+
+    @Test
+    public void onUpdated_afterPendingUpdateRan_shouldUpdateResultsAgain() {
+        when(mWifiPickerTracker.getWifiState()).thenReturn(WifiManager.WIFI_STATE_DISABLED);
+
+        mWifiScanWorker.onUpdated();
+        ShadowLooper.idleMainLooper();
+        mWifiScanWorker.onUpdated();
+        ShadowLooper.idleMainLooper();
+
+        verify(mWifiPickerTracker, times(2)).getWifiState();
+    }
+
+    @Test
+    public void close_pendingUpdate_shouldNotUpdateResults() {
+        mWifiScanWorker.onUpdated();
+
+        mWifiScanWorker.close();
+        ShadowLooper.idleMainLooper();
+
+        verify(mWifiPickerTracker, never()).getWifiState();
+    }
+
     @Test
     public void getWifiEntry_connectedWifiKey_shouldGetConnectedWifi() {
         final String key = "key";
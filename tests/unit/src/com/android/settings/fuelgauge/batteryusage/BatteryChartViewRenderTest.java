@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batteryusage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the frame time of {@link BatteryChartView} while the selection moves across the
+ * trapezoids, for the 24-slot hourly chart and the 7-day daily chart. Results are reported as
+ * instrumentation status, in microseconds.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BatteryChartViewRenderTest {
+    private static final String TAG = "BatteryChartViewRenderTest";
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 600;
+    private static final int WARM_UP_FRAMES = 20;
+    private static final int MEASURED_FRAMES = 500;
+
+    private Instrumentation mInstrumentation;
+    private Context mContext;
+    private Bundle mBundle;
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mContext = mInstrumentation.getTargetContext();
+        mBundle = new Bundle();
+    }
+
+    @After
+    public void tearDown() {
+        mInstrumentation.sendStatus(0, mBundle);
+    }
+
+    @Test
+    public void draw_hourlyChart_reportsFrameTime() {
+        measureFrameTime("hourly_24_slots", /* slotCount= */ 24,
+                BatteryChartViewModel.AxisLabelPosition.BETWEEN_TRAPEZOIDS);
+    }
+
+    @Test
+    public void draw_dailyChart_reportsFrameTime() {
+        measureFrameTime("daily_7_days", /* slotCount= */ 7,
+                BatteryChartViewModel.AxisLabelPosition.CENTER_OF_TRAPEZOIDS);
+    }
+
+    private void measureFrameTime(String name, int slotCount,
+            BatteryChartViewModel.AxisLabelPosition axisLabelPosition) {
+        final long[] frameTimes = new long[MEASURED_FRAMES];
+        mInstrumentation.runOnMainSync(() -> {
+            final BatteryChartViewModel viewModel = createViewModel(slotCount, axisLabelPosition);
+            final BatteryChartView chartView = new BatteryChartView(mContext, /* attrs= */ null);
+            chartView.setCompanionTextView(new TextView(mContext));
+            chartView.setViewModel(viewModel);
+            chartView.measure(
+                    View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            chartView.layout(0, 0, WIDTH, HEIGHT);
+            final Canvas canvas =
+                    new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+
+            for (int frame = 0; frame < WARM_UP_FRAMES + MEASURED_FRAMES; frame++) {
+                final long startTime = System.nanoTime();
+                viewModel.setSelectedIndex(frame % slotCount);
+                chartView.setViewModel(viewModel);
+                chartView.draw(canvas);
+                final long frameTime = System.nanoTime() - startTime;
+                if (frame >= WARM_UP_FRAMES) {
+                    frameTimes[frame - WARM_UP_FRAMES] = frameTime;
+                }
+            }
+        });
+
+        Arrays.sort(frameTimes);
+        long total = 0;
+        for (long frameTime : frameTimes) {
+            total += frameTime;
+        }
+        final long avgMicros = total / frameTimes.length / 1000;
+        final long p50Micros = frameTimes[frameTimes.length / 2] / 1000;
+        final long p90Micros = frameTimes[frameTimes.length * 9 / 10] / 1000;
+        Log.i(TAG, String.format("%s: avg=%dus p50=%dus p90=%dus",
+                name, avgMicros, p50Micros, p90Micros));
+        mBundle.putString(String.format("%s_%s_avg_us", TAG, name), String.valueOf(avgMicros));
+        mBundle.putString(String.format("%s_%s_p50_us", TAG, name), String.valueOf(p50Micros));
+        mBundle.putString(String.format("%s_%s_p90_us", TAG, name), String.valueOf(p90Micros));
+        assertThat(total).isGreaterThan(0L);
+    }
+
+    private static BatteryChartViewModel createViewModel(int slotCount,
+            BatteryChartViewModel.AxisLabelPosition axisLabelPosition) {
+        final List<Integer> levels = new ArrayList<>();
+        final List<Long> timestamps = new ArrayList<>();
+        for (int index = 0; index <= slotCount; index++) {
+            levels.add(100 - index * 60 / slotCount);
+            timestamps.add(index * 3_600_000L);
+        }
+        return new BatteryChartViewModel(levels, timestamps, axisLabelPosition,
+                new BatteryChartViewModel.LabelTextGenerator() {
+                    @Override
+                    public String generateText(List<Long> timestamps, int index) {
+                        return String.valueOf(index);
+                    }
+
+                    @Override
+                    public String generateFullText(List<Long> timestamps, int index) {
+                        return String.valueOf(index);
+                    }
+                });
+    }
+}
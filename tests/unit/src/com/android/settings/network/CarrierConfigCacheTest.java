@@ -18,6 +18,7 @@ package com.android.settings.network;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -44,6 +45,10 @@ public class CarrierConfigCacheTest {
 
     static final int ONCE_SUB_ID = 11;
     static final int TWICE_SUB_ID = 12;
+    static final int PARTIAL_SUB_ID = 13;
+    static final int INVALIDATE_SUB_ID = 14;
+    static final int ABSENT_KEY_SUB_ID = 15;
+    static final String KEY = CarrierConfigManager.KEY_WORLD_MODE_ENABLED_BOOL;
 
     @Rule
     public final MockitoRule mMockitoRule = MockitoJUnit.rule();
@@ -98,4 +103,43 @@ public class CarrierConfigCacheTest {
 
         verify(mCarrierConfigManager, times(1)).getConfigForSubId(TWICE_SUB_ID);
     }
+
+    @Test
+    public void getConfigForSubIdWithKeys_getTwice_onlyGetKeysOnceFromManager() {
+        final PersistableBundle partialConfig = new PersistableBundle();
+        partialConfig.putBoolean(KEY, true);
+        when(mCarrierConfigManager.getConfigForSubId(PARTIAL_SUB_ID, KEY))
+                .thenReturn(partialConfig);
+
+        mCarrierConfigCache.getConfigForSubId(PARTIAL_SUB_ID, KEY);
+        PersistableBundle config = mCarrierConfigCache.getConfigForSubId(PARTIAL_SUB_ID, KEY);
+
+        assertThat(config.getBoolean(KEY)).isTrue();
+        verify(mCarrierConfigManager, times(1)).getConfigForSubId(PARTIAL_SUB_ID, KEY);
+        verify(mCarrierConfigManager, never()).getConfigForSubId(PARTIAL_SUB_ID);
+    }
+
+    @Test
+    public void getConfigForSubIdWithKeys_keyAbsent_onlyGetKeysOnceFromManager() {
+        when(mCarrierConfigManager.getConfigForSubId(ABSENT_KEY_SUB_ID, KEY))
+                .thenReturn(new PersistableBundle());
+
+        mCarrierConfigCache.getConfigForSubId(ABSENT_KEY_SUB_ID, KEY);
+        PersistableBundle config = mCarrierConfigCache.getConfigForSubId(ABSENT_KEY_SUB_ID, KEY);
+
+        assertThat(config.containsKey(KEY)).isFalse();
+        verify(mCarrierConfigManager, times(1)).getConfigForSubId(ABSENT_KEY_SUB_ID, KEY);
+    }
+
+    @Test
+    public void invalidate_getAgain_getFromManagerAgain() {
+        when(mCarrierConfigManager.getConfigForSubId(INVALIDATE_SUB_ID))
+                .thenReturn(mCarrierConfig);
+        mCarrierConfigCache.getConfigForSubId(INVALIDATE_SUB_ID);
+
+        CarrierConfigCache.invalidate(INVALIDATE_SUB_ID);
+        mCarrierConfigCache.getConfigForSubId(INVALIDATE_SUB_ID);
+
+        verify(mCarrierConfigManager, times(2)).getConfigForSubId(INVALIDATE_SUB_ID);
+    }
 }
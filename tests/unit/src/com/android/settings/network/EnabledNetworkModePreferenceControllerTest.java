@@ -31,6 +31,7 @@ import static com.android.settings.network.telephony.TelephonyConstants.RadioAcc
 import static com.android.settings.network.telephony.TelephonyConstants.RadioAccessFamily.WCDMA;
 
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -478,6 +479,72 @@ public class EnabledNetworkModePreferenceControllerTest {
         assertEquals(3, entryValues.length);
     }
 
+    @UiThreadTest
+    @Test
+    public void updateState_allInputCombinations_sameAsFreshController() {
+        final int[] networkModes = {
+                TelephonyManagerConstants.NETWORK_MODE_WCDMA_PREF,
+                TelephonyManagerConstants.NETWORK_MODE_GSM_ONLY,
+                TelephonyManagerConstants.NETWORK_MODE_LTE_GSM_WCDMA,
+                TelephonyManagerConstants.NETWORK_MODE_LTE_CDMA_EVDO_GSM_WCDMA,
+                TelephonyManagerConstants.NETWORK_MODE_TDSCDMA_GSM_WCDMA,
+                TelephonyManagerConstants.NETWORK_MODE_LTE_TDSCDMA_GSM_WCDMA,
+                TelephonyManagerConstants.NETWORK_MODE_NR_LTE_GSM_WCDMA,
+                TelephonyManagerConstants.NETWORK_MODE_NR_LTE_CDMA_EVDO_GSM_WCDMA};
+        final int[] phoneTypes = {
+                TelephonyManager.PHONE_TYPE_GSM, TelephonyManager.PHONE_TYPE_NONE};
+        doReturn(true).when(mTelephonyManager).isLteCdmaEvdoGsmWcdmaEnabled();
+        mockAccessFamily(TelephonyManager.NETWORK_MODE_NR_LTE_CDMA_EVDO_GSM_WCDMA);
+
+        // Visit every combination twice, so that the second pass is served from the tables.
+        for (int pass = 0; pass < 2; pass++) {
+            for (int phoneType : phoneTypes) {
+                for (int flags = 0; flags < (1 << 7); flags++) {
+                    for (int networkMode : networkModes) {
+                        mockPhoneType(phoneType);
+                        mPersistableBundle.putBoolean(
+                                CarrierConfigManager.KEY_PREFER_2G_BOOL, (flags & 1) != 0);
+                        mPersistableBundle.putBoolean(
+                                CarrierConfigManager.KEY_LTE_ENABLED_BOOL, (flags & 2) != 0);
+                        mPersistableBundle.putBoolean(
+                                CarrierConfigManager.KEY_SHOW_4G_FOR_LTE_DATA_ICON_BOOL,
+                                (flags & 4) != 0);
+                        mPersistableBundle.putBoolean(
+                                CarrierConfigManager.KEY_WORLD_MODE_ENABLED_BOOL, (flags & 8) != 0);
+                        mPersistableBundle.putBoolean(
+                                CarrierConfigManager.KEY_SUPPORT_TDSCDMA_BOOL, (flags & 16) != 0);
+                        mPersistableBundle.putBoolean(
+                                CarrierConfigManager.KEY_SHOW_CDMA_CHOICES_BOOL, (flags & 32) != 0);
+                        mockAllowedNetworkTypes((flags & 64) != 0
+                                ? ALLOWED_ALL_NETWORK_TYPE : DISABLED_5G_NETWORK_TYPE);
+                        when(mTelephonyManager.getAllowedNetworkTypesForReason(
+                                TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER)).thenReturn(
+                                getRafFromNetworkType(networkMode));
+
+                        mController.onAllowedNetworkTypesChanged();
+                        mController.updateState(mPreference);
+                        final EnabledNetworkModePreferenceController freshController =
+                                new EnabledNetworkModePreferenceController(mContext, KEY);
+                        freshController.init(SUB_ID);
+                        final ListPreference freshPreference = new ListPreference(mContext);
+                        freshController.updateState(freshPreference);
+
+                        final String combination = "phoneType=" + phoneType + " flags=" + flags
+                                + " networkMode=" + networkMode;
+                        assertWithMessage(combination).that(mPreference.getEntries())
+                                .isEqualTo(freshPreference.getEntries());
+                        assertWithMessage(combination).that(mPreference.getEntryValues())
+                                .isEqualTo(freshPreference.getEntryValues());
+                        assertWithMessage(combination).that(mPreference.getValue())
+                                .isEqualTo(freshPreference.getValue());
+                        assertWithMessage(combination).that(mPreference.getSummary())
+                                .isEqualTo(freshPreference.getSummary());
+                    }
+                }
+            }
+        }
+    }
+
     private void mockEnabledNetworkMode(int networkMode) {
         if (networkMode == TelephonyManagerConstants.NETWORK_MODE_TDSCDMA_GSM_WCDMA) {
             mockPhoneType(TelephonyManager.PHONE_TYPE_GSM);
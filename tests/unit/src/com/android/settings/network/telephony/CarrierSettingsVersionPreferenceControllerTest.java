@@ -55,15 +55,16 @@ public class CarrierSettingsVersionPreferenceControllerTest {
 
     @Test
     public void getSummary_nullConfig_noCrash() {
-        doReturn(null).when(mCarrierConfigCache).getConfigForSubId(mSubscriptionId);
+        doReturn(null).when(mCarrierConfigCache).getConfigForSubId(mSubscriptionId,
+                CarrierConfigManager.KEY_CARRIER_CONFIG_VERSION_STRING);
 
         assertThat(mController.getSummary()).isNull();
     }
 
     @Test
     public void getSummary_nullVersionString_noCrash() {
-        doReturn(new PersistableBundle()).when(mCarrierConfigCache)
-                .getConfigForSubId(mSubscriptionId);
+        doReturn(new PersistableBundle()).when(mCarrierConfigCache).getConfigForSubId(
+                mSubscriptionId, CarrierConfigManager.KEY_CARRIER_CONFIG_VERSION_STRING);
         assertThat(mController.getSummary()).isNull();
     }
 
@@ -72,7 +73,8 @@ public class CarrierSettingsVersionPreferenceControllerTest {
         final PersistableBundle bundle = new PersistableBundle();
         bundle.putString(CarrierConfigManager.KEY_CARRIER_CONFIG_VERSION_STRING,
                 "test_version_123");
-        doReturn(bundle).when(mCarrierConfigCache).getConfigForSubId(mSubscriptionId);
+        doReturn(bundle).when(mCarrierConfigCache).getConfigForSubId(mSubscriptionId,
+                CarrierConfigManager.KEY_CARRIER_CONFIG_VERSION_STRING);
 
         assertThat(mController.getSummary()).isEqualTo("test_version_123");
     }
@@ -319,4 +319,41 @@ public class NetworkSelectSettingsTest {
 
         mNetworkSelectSettings.onPreferenceTreeClick(new Preference(mContext));
     }
+
+    @Test
+    public void mergeScanResults_knownNetwork_keepsPositionAndTakesNewResult() {
+        mNetworkSelectSettings.onCreateInitialization();
+        final CellInfo lteA = createLteCellInfo(false, 123, "123", "232", "CarrierA");
+        final CellInfo gsmB = createGsmCellInfo(false, 123, "123", "232", "CarrierB");
+        final CellInfo newLteA = createLteCellInfo(true, 1234, "123", "232", "CarrierA");
+        final CellInfo lteC = createLteCellInfo(false, 125, "123", "234", "CarrierC");
+
+        mNetworkSelectSettings.mergeScanResults(Arrays.asList(lteA, gsmB));
+        List<CellInfo> merged = mNetworkSelectSettings.mergeScanResults(
+                Arrays.asList(lteC, newLteA));
+
+        assertThat(merged).containsExactly(newLteA, gsmB, lteC).inOrder();
+    }
+
+    @Test
+    public void mergeScanResults_unregisteredResultOfRegisteredNetwork_keepsRegisteredCell() {
+        mNetworkSelectSettings.onCreateInitialization();
+        final CellInfo registeredLteA = createLteCellInfo(true, 123, "123", "232", "CarrierA");
+        final CellInfo lteA = createLteCellInfo(false, 1234, "123", "232", "CarrierA");
+
+        mNetworkSelectSettings.mergeScanResults(Arrays.asList(registeredLteA));
+        List<CellInfo> merged = mNetworkSelectSettings.mergeScanResults(Arrays.asList(lteA));
+
+        assertThat(merged).containsExactly(registeredLteA);
+    }
+
+    @Test
+    public void getLastScanResults_afterPut_returnsResults() {
+        final List<CellInfo> results = Arrays.asList(
+                createLteCellInfo(true, 123, "123", "232", "CarrierA"));
+
+        NetworkSelectSettings.putLastScanResults(SUB_ID, results);
+
+        assertThat(NetworkSelectSettings.getLastScanResults(SUB_ID)).isEqualTo(results);
+    }
 }
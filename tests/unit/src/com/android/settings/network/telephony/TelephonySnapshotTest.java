@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.network.telephony;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.os.PersistableBundle;
+import android.telephony.ServiceState;
+import android.telephony.TelephonyManager;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class TelephonySnapshotTest {
+    private static final int SUB_ID = 1;
+    private static final long ALLOWED_NETWORK_TYPES = TelephonyManager.NETWORK_TYPE_BITMASK_NR;
+
+    private Context mContext;
+    private PersistableBundle mCarrierConfig;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mCarrierConfig = new PersistableBundle();
+        TelephonySnapshot.clear();
+    }
+
+    @After
+    public void tearDown() {
+        TelephonySnapshot.clear();
+    }
+
+    @Test
+    public void peek_noSnapshot_returnNull() {
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isNull();
+    }
+
+    @Test
+    public void peek_snapshotAvailable_returnSnapshot() {
+        final TelephonySnapshot snapshot = createSnapshot();
+        TelephonySnapshot.put(snapshot);
+
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isSameInstanceAs(snapshot);
+        assertThat(TelephonySnapshot.peek(SUB_ID + 1)).isNull();
+    }
+
+    @Test
+    public void invalidate_dropSnapshot() {
+        TelephonySnapshot.put(createSnapshot());
+
+        TelephonySnapshot.invalidate(SUB_ID);
+
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isNull();
+    }
+
+    @Test
+    public void close_keepSnapshotUntilLastClose() {
+        TelephonySnapshot.open(mContext, SUB_ID);
+        TelephonySnapshot.open(mContext, SUB_ID);
+        TelephonySnapshot.put(createSnapshot());
+
+        TelephonySnapshot.close(SUB_ID);
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isNotNull();
+
+        TelephonySnapshot.close(SUB_ID);
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isNull();
+    }
+
+    @Test
+    public void onAllowedNetworkTypesChanged_sameUserTypes_keepSnapshot() {
+        TelephonySnapshot.open(mContext, SUB_ID);
+        final TelephonySnapshot snapshot = createSnapshot();
+        TelephonySnapshot.put(snapshot);
+
+        TelephonySnapshot.getCallback(SUB_ID).onAllowedNetworkTypesChanged(
+                TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER, ALLOWED_NETWORK_TYPES);
+
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isSameInstanceAs(snapshot);
+    }
+
+    @Test
+    public void onAllowedNetworkTypesChanged_newUserTypes_dropSnapshot() {
+        TelephonySnapshot.open(mContext, SUB_ID);
+        final TelephonySnapshot snapshot = createSnapshot();
+        TelephonySnapshot.put(snapshot);
+
+        TelephonySnapshot.getCallback(SUB_ID).onAllowedNetworkTypesChanged(
+                TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_USER,
+                TelephonyManager.NETWORK_TYPE_BITMASK_LTE);
+
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isNotSameInstanceAs(snapshot);
+    }
+
+    @Test
+    public void onAllowedNetworkTypesChanged_carrierReason_keepSnapshot() {
+        TelephonySnapshot.open(mContext, SUB_ID);
+        final TelephonySnapshot snapshot = createSnapshot();
+        TelephonySnapshot.put(snapshot);
+
+        TelephonySnapshot.getCallback(SUB_ID).onAllowedNetworkTypesChanged(
+                TelephonyManager.ALLOWED_NETWORK_TYPES_REASON_CARRIER,
+                TelephonyManager.NETWORK_TYPE_BITMASK_LTE);
+
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isSameInstanceAs(snapshot);
+    }
+
+    @Test
+    public void onServiceStateChanged_firstState_keepSnapshot() {
+        TelephonySnapshot.open(mContext, SUB_ID);
+        final TelephonySnapshot snapshot = createSnapshot();
+        TelephonySnapshot.put(snapshot);
+
+        TelephonySnapshot.getCallback(SUB_ID).onServiceStateChanged(
+                createServiceState(/* roaming= */ false));
+
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isSameInstanceAs(snapshot);
+    }
+
+    @Test
+    public void onServiceStateChanged_roamingChanged_dropSnapshot() {
+        TelephonySnapshot.open(mContext, SUB_ID);
+        final TelephonySnapshot.SessionCallback callback = TelephonySnapshot.getCallback(SUB_ID);
+        callback.onServiceStateChanged(createServiceState(/* roaming= */ false));
+        final TelephonySnapshot snapshot = createSnapshot();
+        TelephonySnapshot.put(snapshot);
+
+        callback.onServiceStateChanged(createServiceState(/* roaming= */ true));
+
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isNotSameInstanceAs(snapshot);
+    }
+
+    @Test
+    public void onServiceStateChanged_sameRoaming_keepSnapshot() {
+        TelephonySnapshot.open(mContext, SUB_ID);
+        final TelephonySnapshot.SessionCallback callback = TelephonySnapshot.getCallback(SUB_ID);
+        callback.onServiceStateChanged(createServiceState(/* roaming= */ false));
+        final TelephonySnapshot snapshot = createSnapshot();
+        TelephonySnapshot.put(snapshot);
+
+        final ServiceState outOfService = createServiceState(/* roaming= */ false);
+        outOfService.setState(ServiceState.STATE_OUT_OF_SERVICE);
+        callback.onServiceStateChanged(outOfService);
+
+        assertThat(TelephonySnapshot.peek(SUB_ID)).isSameInstanceAs(snapshot);
+    }
+
+    @Test
+    public void close_lastClose_dropCallback() {
+        TelephonySnapshot.open(mContext, SUB_ID);
+
+        TelephonySnapshot.close(SUB_ID);
+
+        assertThat(TelephonySnapshot.getCallback(SUB_ID)).isNull();
+    }
+
+    @Test
+    public void getCarrierConfigForSubId_snapshotAvailable_returnSnapshotConfig() {
+        TelephonySnapshot.put(createSnapshot());
+        final TelephonyBasePreferenceController controller =
+                new TelephonyBasePreferenceController(mContext, "prefKey") {
+                    @Override
+                    public int getAvailabilityStatus(int subId) {
+                        return AVAILABLE;
+                    }
+                };
+
+        assertThat(controller.getCarrierConfigForSubId(SUB_ID)).isSameInstanceAs(mCarrierConfig);
+    }
+
+    private TelephonySnapshot createSnapshot() {
+        return new TelephonySnapshot(SUB_ID, mCarrierConfig, 0L, ALLOWED_NETWORK_TYPES, false);
+    }
+
+    private static ServiceState createServiceState(boolean roaming) {
+        final ServiceState serviceState = new ServiceState();
+        serviceState.setState(ServiceState.STATE_IN_SERVICE);
+        serviceState.setRoaming(roaming);
+        return serviceState;
+    }
+}